@@ -1,6 +1,8 @@
 package com.abnote.planilhas.calculos;
 
 import org.apache.poi.ss.usermodel.*;
+import com.abnote.planilhas.estilos.util.CellIteratorUtil;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
 import com.abnote.planilhas.utils.PosicaoConverter;
 
 public class Conversores {
@@ -12,25 +14,24 @@ public class Conversores {
 	 * @param posicaoInicial A posição inicial da coluna (ex: "J3").
 	 */
 	public static void converterEmNumero(Sheet sheet, String posicaoInicial) {
+		converterEmNumero(sheet, posicaoInicial, new MetadadosPlanilha());
+	}
+
+	/**
+	 * Converte os valores de uma coluna para números, se possível, mantendo os
+	 * metadados da aba (contagens e somas por coluna) atualizados.
+	 *
+	 * @param sheet          A folha da planilha a ser processada.
+	 * @param posicaoInicial A posição inicial da coluna (ex: "J3").
+	 * @param metadados      Metadados da aba.
+	 */
+	public static void converterEmNumero(Sheet sheet, String posicaoInicial, MetadadosPlanilha metadados) {
 		int[] posicao = PosicaoConverter.converterPosicao(posicaoInicial);
 		int coluna = posicao[0];
 		int linhaInicial = posicao[1];
 
-		for (int i = linhaInicial; i <= sheet.getLastRowNum(); i++) {
-			Row row = sheet.getRow(i);
-			if (row == null) {
-				continue;
-			}
-			Cell cell = row.getCell(coluna);
-			if (cell != null && cell.getCellType() == CellType.STRING) {
-			    try {
-			        double valorNumerico = Double.parseDouble(cell.getStringCellValue());
-			        cell.setCellValue(valorNumerico);
-			    } catch (NumberFormatException e) {
-			        System.out.println("Célula em " + (i + 1) + " não é numérica e foi ignorada.");
-			    }
-			}
-		}
+		CellIteratorUtil.forEachCell(sheet, linhaInicial, coluna, Integer.MAX_VALUE, coluna,
+				cell -> converterTextoEmNumero(cell, metadados));
 	}
 
 	/**
@@ -41,6 +42,20 @@ public class Conversores {
 	 * @param workbook       O workbook da planilha para criar estilos.
 	 */
 	public static void converterEmContabil(Sheet sheet, String posicaoInicial, Workbook workbook) {
+		converterEmContabil(sheet, posicaoInicial, workbook, new MetadadosPlanilha());
+	}
+
+	/**
+	 * Converte os valores de uma coluna para o formato contábil, mantendo os
+	 * metadados da aba (contagens e somas por coluna) atualizados.
+	 *
+	 * @param sheet          A folha da planilha a ser processada.
+	 * @param posicaoInicial A posição inicial da coluna (ex: "J3").
+	 * @param workbook       O workbook da planilha para criar estilos.
+	 * @param metadados      Metadados da aba.
+	 */
+	public static void converterEmContabil(Sheet sheet, String posicaoInicial, Workbook workbook,
+			MetadadosPlanilha metadados) {
 		int[] posicao = PosicaoConverter.converterPosicao(posicaoInicial);
 		int coluna = posicao[0];
 		int linhaInicial = posicao[1];
@@ -50,25 +65,26 @@ public class Conversores {
 		DataFormat formato = workbook.createDataFormat();
 		estiloContabil.setDataFormat(formato.getFormat("#,##0.00"));
 
-		for (int i = linhaInicial; i <= sheet.getLastRowNum(); i++) {
-			Row row = sheet.getRow(i);
-			if (row == null) {
-				continue;
-			}
-			Cell cell = row.getCell(coluna);
-			if (cell != null) {
-				if (cell.getCellType() == CellType.STRING) {
-				    try {
-				        double valorNumerico = Double.parseDouble(cell.getStringCellValue());
-				        cell.setCellValue(valorNumerico);
-				    } catch (NumberFormatException e) {
-				        System.out.println("Célula em " + (i + 1) + " não é numérica e foi ignorada.");
-				    }
-				}
-				if (cell.getCellType() == CellType.NUMERIC) {
-				    cell.setCellStyle(estiloContabil);
-				}
+		CellIteratorUtil.forEachCell(sheet, linhaInicial, coluna, Integer.MAX_VALUE, coluna, cell -> {
+			converterTextoEmNumero(cell, metadados);
+			if (cell.getCellType() == CellType.NUMERIC) {
+			    cell.setCellStyle(estiloContabil);
 			}
+		});
+	}
+
+	// Converte o texto da célula em número, se possível
+	private static void converterTextoEmNumero(Cell cell, MetadadosPlanilha metadados) {
+		if (cell.getCellType() != CellType.STRING) {
+			return;
+		}
+		try {
+		    double valorNumerico = Double.parseDouble(cell.getStringCellValue());
+		    metadados.descontarCelula(cell);
+		    cell.setCellValue(valorNumerico);
+		    metadados.registrarCelula(cell);
+		} catch (NumberFormatException e) {
+		    System.out.println("Célula em " + (cell.getRowIndex() + 1) + " não é numérica e foi ignorada.");
 		}
 	}
 }
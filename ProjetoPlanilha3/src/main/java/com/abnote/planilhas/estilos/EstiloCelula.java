@@ -1,24 +1,47 @@
 package com.abnote.planilhas.estilos;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import org.apache.poi.ss.usermodel.Row;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Color;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 
-import com.abnote.planilhas.estilos.estilos.AlinhamentoStyle;
 import com.abnote.planilhas.estilos.estilos.BackGroundColor;
-import com.abnote.planilhas.estilos.estilos.BoldStyle;
 import com.abnote.planilhas.estilos.estilos.BorderStyleHelper;
 import com.abnote.planilhas.estilos.estilos.CenterStyle;
 import com.abnote.planilhas.estilos.estilos.CorEnum;
+import com.abnote.planilhas.estilos.estilos.FontAttributes;
 import com.abnote.planilhas.estilos.estilos.FonteEnum;
 import com.abnote.planilhas.estilos.estilos.Fontes;
+import com.abnote.planilhas.estilos.util.AtributosEstilo;
+import com.abnote.planilhas.estilos.util.AtributosFonte;
+import com.abnote.planilhas.estilos.util.CellIteratorUtil;
+import com.abnote.planilhas.estilos.util.LarguraDeColunas;
+import com.abnote.planilhas.estilos.util.MapaLongInt;
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
 
 /**
  * Classe responsável por aplicar diversos estilos em células, linhas ou
  * intervalos de uma planilha.
+ *
+ * <p>
+ * Cada chamada é aplicada imediatamente. Estilos obtidos da planilha (ex.:
+ * {@code planilha.aplicarEstilos()}) acumulam fontes, cores, negrito,
+ * alinhamentos, centralização e bordas finas e os aplicam de uma só vez (ver
+ * {@link #adiarAplicacao(Consumer)}): o alvo é percorrido uma única vez e cada
+ * estilo de origem resolve para um único estilo final, sem estilos
+ * intermediários. A aplicação acontece em {@link #aplicar()}, ao chamar uma
+ * operação que não pode ser adiada e no início da próxima operação da
+ * planilha.
+ * </p>
  */
 public class EstiloCelula {
 	private final Workbook workbook;
@@ -34,15 +57,18 @@ public class EstiloCelula {
 
 	private final boolean isRange;
 
-	private final Map<String, org.apache.poi.ss.usermodel.CellStyle> styleCache = new HashMap<>();
+	private final RegistroDeEstilos registro;
+	// Metadados da aba quando o estilo vem da planilha; null se criado diretamente
+	private MetadadosPlanilha metadados;
 
 	// Instâncias das classes auxiliares
-	private final BoldStyle boldStyle;
 	private final BorderStyleHelper borderStyleHelper;
 	private final CenterStyle centerStyle;
-	private final Fontes fontes;
-	private final BackGroundColor backGroundColor;
-	private final AlinhamentoStyle alinhamentoStyle;
+
+	// Alterações adiadas até aplicar()
+	private final List<Alteracao> alteracoes = new ArrayList<>();
+	// Avisado a cada alteração adiada; null aplica cada chamada imediatamente
+	private Consumer<? super EstiloCelula> aoAdiar;
 
 	/**
 	 * Construtor para aplicar estilos na planilha inteira.
@@ -51,7 +77,9 @@ public class EstiloCelula {
 	 * @param sheet    A Sheet onde os estilos serão aplicados.
 	 */
 	public EstiloCelula(Workbook workbook, Sheet sheet) {
-		this(workbook, sheet, -1, -1, 0, 0, sheet.getLastRowNum(), getMaxColumnIndex(sheet));
+		// Limites máximos: o percurso se restringe às linhas e células existentes
+		this(workbook, sheet, -1, -1, 0, 0, workbook.getSpreadsheetVersion().getLastRowIndex(),
+				workbook.getSpreadsheetVersion().getLastColumnIndex());
 	}
 
 	/**
@@ -101,111 +129,141 @@ public class EstiloCelula {
 
 		this.isRange = (endRowIndex != -1 && endColumnIndex != -1);
 
-		// Inicialização das classes auxiliares com o cache de estilos
-		this.boldStyle = new BoldStyle(workbook, sheet, styleCache);
-		this.borderStyleHelper = new BorderStyleHelper(workbook, sheet, styleCache);
-		this.centerStyle = new CenterStyle(workbook, sheet, styleCache);
-		this.fontes = new Fontes(workbook, sheet, styleCache);
-		this.backGroundColor = new BackGroundColor(workbook, sheet, styleCache);
-		this.alinhamentoStyle = new AlinhamentoStyle(workbook, sheet, styleCache);
+		// Inicialização das classes auxiliares com o registro de estilos do workbook
+		this.registro = RegistroDeEstilos.doWorkbook(workbook);
+		this.borderStyleHelper = new BorderStyleHelper(workbook, sheet, registro);
+		this.centerStyle = new CenterStyle(workbook, sheet, registro);
+	}
+
+	/**
+	 * Vincula o estilo aos metadados da aba acompanhada pela planilha, para que
+	 * as alterações sejam recusadas enquanto ela é salva em segundo plano e o
+	 * redimensionamento de colunas use as larguras já medidas nas escritas.
+	 *
+	 * @param metadados Metadados da aba.
+	 * @return Esta instância, para encadeamento.
+	 */
+	public EstiloCelula vincular(MetadadosPlanilha metadados) {
+		this.metadados = metadados;
+		return this;
+	}
+
+	/**
+	 * Passa a acumular as alterações até {@link #aplicar()}, em vez de aplicar
+	 * cada chamada imediatamente. {@code aoAdiar} é avisado a cada alteração
+	 * acumulada, para que o dono do estilo (ex.: a planilha) a aplique antes da
+	 * próxima operação.
+	 *
+	 * @param aoAdiar Recebe esta instância sempre que uma alteração é acumulada.
+	 * @return Esta instância, para encadeamento.
+	 */
+	public EstiloCelula adiarAplicacao(Consumer<? super EstiloCelula> aoAdiar) {
+		if (aoAdiar == null) {
+			throw new IllegalArgumentException("O aviso de alterações adiadas não pode ser nulo");
+		}
+		this.aoAdiar = aoAdiar;
+		return this;
 	}
 
 	// Métodos para aplicar estilos
 
 	public EstiloCelula aplicarItalico() {
-		fontes.aplicarItalico(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex, endColumnIndex,
-				isRange);
+		adiarFonte(fonte -> fonte.setItalico(true));
 		return this;
 	}
 
 	public EstiloCelula aplicarSublinhado() {
-		fontes.aplicarSublinhado(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex, endColumnIndex,
-				isRange);
+		adiarFonte(fonte -> fonte.setSublinhado(Font.U_SINGLE));
 		return this;
 	}
 
 	public EstiloCelula aplicarTachado() {
-		fontes.aplicarTachado(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex, endColumnIndex,
-				isRange);
+		adiarFonte(fonte -> fonte.setTachado(true));
 		return this;
 	}
 
 	public EstiloCelula alinharAEsquerda() {
-		alinhamentoStyle.alinharAEsquerda(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarEstilo(atributos -> atributos.setAlinhamento(HorizontalAlignment.LEFT).setQuebrarTexto(false));
 		return this;
 	}
 
 	public EstiloCelula alinharADireita() {
-		alinhamentoStyle.alinharADireita(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarEstilo(atributos -> atributos.setAlinhamento(HorizontalAlignment.RIGHT).setQuebrarTexto(false));
 		return this;
 	}
 
 	public EstiloCelula quebrarTexto() {
-		alinhamentoStyle.quebrarTexto(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarEstilo(atributos -> atributos.setQuebrarTexto(true));
 		return this;
 	}
 
-	private static int getMaxColumnIndex(Sheet sheet) {
-		int maxColIndex = -1;
-		for (int rowIdx = 0; rowIdx <= sheet.getLastRowNum(); rowIdx++) {
-			Row row = sheet.getRow(rowIdx);
-			if (row != null && row.getLastCellNum() > maxColIndex) {
-				maxColIndex = row.getLastCellNum();
-			}
-		}
-		return maxColIndex - 1; // Ajuste para índice 0-based
-	}
-
 	public EstiloCelula aplicarNegrito() {
-		boldStyle.aplicarNegrito(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex, endColumnIndex,
-				isRange);
+		adiarFonte(fonte -> fonte.setNegrito(true));
 		return this;
 	}
 
 	public EstiloCelula aplicarTodasAsBordas() {
-		borderStyleHelper.aplicarTodasAsBordas(startRowIndex, startColumnIndex, endRowIndex, endColumnIndex, isRange);
+		if (isRange) {
+			// Células vazias não recebem bordas
+			adiar(new Alteracao(null, BorderStyleHelper::aplicarBordasFinas, true));
+		} else {
+			// Sem intervalo, as bordas valem para a planilha inteira
+			aplicar();
+			borderStyleHelper.aplicarTodasAsBordas(startRowIndex, startColumnIndex, endRowIndex, endColumnIndex,
+					isRange);
+		}
 		return this;
 	}
 
 	public EstiloCelula aplicarBordasNaCelula(String posicao) {
+		aplicar();
 		borderStyleHelper.aplicarBordasNaCelula(posicao);
 		return this;
 	}
 
 	public EstiloCelula aplicarBordasEntre(String posicaoInicial, String posicaoFinal) {
+		aplicar();
 		borderStyleHelper.aplicarBordasEntre(posicaoInicial, posicaoFinal);
 		return this;
 	}
 
 	public EstiloCelula aplicarBordasEspessas(String posicaoInicial, String posicaoFinal) {
+		aplicar();
 		borderStyleHelper.aplicarBordasEspessas(posicaoInicial, posicaoFinal);
 		return this;
 	}
 
 	public EstiloCelula aplicarBordasEspessasComInternas(String posicaoInicial, String posicaoFinal) {
+		aplicar();
 		borderStyleHelper.aplicarBordasEspessasComInternas(posicaoInicial, posicaoFinal);
 		return this;
 	}
 
 	public EstiloCelula centralizarTudo() {
-		centerStyle.centralizarTudo(startRowIndex, startColumnIndex, endRowIndex, endColumnIndex, isRange);
+		if (isRange) {
+			adiarEstilo(CenterStyle::centralizar);
+		} else {
+			// Sem intervalo, a centralização vale para a planilha inteira
+			aplicar();
+			centerStyle.centralizarTudo(startRowIndex, startColumnIndex, endRowIndex, endColumnIndex, isRange);
+		}
 		return this;
 	}
 
 	public EstiloCelula centralizarERedimensionarTudo() {
-		centerStyle.centralizarERedimensionarTudo();
+		aplicar();
+		centerStyle.centralizarERedimensionarTudo(larguras());
 		return this;
 	}
 
 	public EstiloCelula redimensionarColuna() {
-		centerStyle.redimensionarColuna();
+		aplicar();
+		centerStyle.redimensionarColuna(larguras());
 		return this;
 	}
 
 	public EstiloCelula removerLinhasDeGrade() {
+		verificarAlteracaoPermitida();
 		sheet.setDisplayGridlines(false);
 		return this;
 	}
@@ -213,59 +271,171 @@ public class EstiloCelula {
 	// Métodos para aplicar estilos de fonte
 
 	public EstiloCelula fonte(String fontName) {
-		fontes.aplicarFonte(fontName, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarFonte(new FontAttributes().setFontName(fontName));
 		return this;
 	}
 
 	public EstiloCelula fonte(FonteEnum fonteEnum) {
-		fontes.aplicarFonte(fonteEnum, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarFonte(new FontAttributes().setFontName(fonteEnum.getFontName()));
 		return this;
 	}
 
 	public EstiloCelula fonteTamanho(int fontSize) {
-		fontes.aplicarTamanhoFonte(fontSize, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarFonte(new FontAttributes().setFontSize((short) fontSize));
 		return this;
 	}
 
 	public EstiloCelula corFonte(CorEnum corEnum) {
-		fontes.aplicarCorFonte(corEnum, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarFonte(new FontAttributes()
+				.setColorRGB(new java.awt.Color(corEnum.getRed(), corEnum.getGreen(), corEnum.getBlue())));
 		return this;
 	}
 
 	public EstiloCelula corFonte(int red, int green, int blue) {
-		fontes.aplicarCorFonte(red, green, blue, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarFonte(new FontAttributes().setColorRGB(new java.awt.Color(red, green, blue)));
 		return this;
 	}
 
 	public EstiloCelula corFonte(String hexColor) {
-		fontes.aplicarCorFonte(hexColor, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarFonte(new FontAttributes().setColorRGB(hexToColor(hexColor)));
 		return this;
 	}
 
 	public EstiloCelula corDeFundo(CorEnum corEnum) {
-		backGroundColor.aplicarCorDeFundo(corEnum, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		adiarCorDeFundo(corEnum.getRed(), corEnum.getGreen(), corEnum.getBlue());
 		return this;
 	}
 
 	public EstiloCelula corDeFundo(int red, int green, int blue) {
-		backGroundColor.aplicarCorDeFundo(red, green, blue, rowIndex, columnIndex, startRowIndex, startColumnIndex,
-				endRowIndex, endColumnIndex, isRange);
+		adiarCorDeFundo(red, green, blue);
 		return this;
 	}
 
 	public EstiloCelula corDeFundo(String hexColor) {
-		backGroundColor.aplicarCorDeFundo(hexColor, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange);
+		java.awt.Color cor = hexToColor(hexColor);
+		adiarCorDeFundo(cor.getRed(), cor.getGreen(), cor.getBlue());
+		return this;
+	}
+
+	/**
+	 * Aplica as alterações acumuladas: percorre o alvo uma vez e resolve cada
+	 * estilo de origem para um único estilo final.
+	 *
+	 * @return Esta instância, para encadeamento.
+	 */
+	public EstiloCelula aplicar() {
+		verificarAlteracaoPermitida();
+		if (alteracoes.isEmpty()) {
+			return this;
+		}
+		List<Alteracao> pendentes = new ArrayList<>(alteracoes);
+		alteracoes.clear();
+		boolean distingueVazias = pendentes.stream().anyMatch(alteracao -> alteracao.ignoraVazias);
+		// Estilo de origem (e se a célula está vazia) -> posição do estilo final,
+		// guardado apenas durante esta aplicação
+		MapaLongInt resolvidos = new MapaLongInt();
+		List<CellStyle> finais = new ArrayList<>();
+		CellIteratorUtil.forEachCell(sheet, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
+				endColumnIndex, isRange, (Cell cell) -> {
+					CellStyle origem = cell.getCellStyle();
+					boolean vazia = distingueVazias && cell.getCellType() == CellType.BLANK;
+					long chave = MapaLongInt.chave(Short.toUnsignedInt(origem.getIndex()), vazia ? 1 : 0);
+					int posicao = resolvidos.obter(chave);
+					if (posicao == MapaLongInt.AUSENTE) {
+						posicao = finais.size();
+						finais.add(resolver(origem, pendentes, vazia));
+						resolvidos.colocar(chave, posicao);
+					}
+					cell.setCellStyle(finais.get(posicao));
+				});
 		return this;
 	}
 
+	private CellStyle resolver(CellStyle origem, List<Alteracao> pendentes, boolean vazia) {
+		return registro.derivar(origem, atributos -> {
+			AtributosFonte fonte = null;
+			for (Alteracao alteracao : pendentes) {
+				if (vazia && alteracao.ignoraVazias) {
+					continue;
+				}
+				if (alteracao.fonte != null) {
+					if (fonte == null) {
+						fonte = AtributosFonte.de(workbook.getFontAt(atributos.getFonte()));
+					}
+					alteracao.fonte.accept(fonte);
+				} else {
+					alteracao.estilo.accept(atributos);
+				}
+			}
+			if (fonte != null) {
+				atributos.setFonte(registro.getFontes().obter(fonte).getIndex());
+			}
+		});
+	}
+
+	private void adiarFonte(FontAttributes attributes) {
+		adiarFonte(fonte -> Fontes.aplicarAtributos(fonte, attributes));
+	}
+
+	private void adiarFonte(Consumer<AtributosFonte> alteracao) {
+		adiar(new Alteracao(alteracao, null, false));
+	}
+
+	private void adiarEstilo(Consumer<AtributosEstilo> alteracao) {
+		adiar(new Alteracao(null, alteracao, false));
+	}
+
+	private void adiarCorDeFundo(int red, int green, int blue) {
+		Color cor = BackGroundColor.criarCor(workbook.getCellStyleAt(0), red, green, blue);
+		if (cor != null) {
+			adiarEstilo(atributos -> atributos.setCorDeFundoSolida(cor));
+		}
+	}
+
+	private void adiar(Alteracao alteracao) {
+		verificarAlteracaoPermitida();
+		alteracoes.add(alteracao);
+		if (aoAdiar == null) {
+			aplicar();
+		} else {
+			aoAdiar.accept(this);
+		}
+	}
+
+	// Larguras acompanhadas pelos metadados da aba; null mede as células existentes
+	private LarguraDeColunas larguras() {
+		return metadados == null ? null : metadados.getLarguras();
+	}
+
+	private void verificarAlteracaoPermitida() {
+		if (metadados != null) {
+			metadados.verificarAlteracaoPermitida();
+		}
+	}
+
+	private static java.awt.Color hexToColor(String hexColor) {
+		if (hexColor == null || !hexColor.matches("^#([A-Fa-f0-9]{6})$")) {
+			throw new IllegalArgumentException("Código hexadecimal de cor inválido: " + hexColor);
+		}
+		return java.awt.Color.decode(hexColor);
+	}
+
+	/**
+	 * Alteração adiada: de fonte ou de estilo, opcionalmente ignorando células
+	 * vazias.
+	 */
+	private static final class Alteracao {
+		private final Consumer<AtributosFonte> fonte;
+		private final Consumer<AtributosEstilo> estilo;
+		private final boolean ignoraVazias;
+
+		private Alteracao(Consumer<AtributosFonte> fonte, Consumer<AtributosEstilo> estilo, boolean ignoraVazias) {
+			this.fonte = fonte;
+			this.estilo = estilo;
+			this.ignoraVazias = ignoraVazias;
+		}
+	}
+
 	// Getters para uso interno (se necessário)
 	private Workbook getWorkbook() {
 		return workbook;
@@ -303,7 +473,7 @@ public class EstiloCelula {
 		return isRange;
 	}
 
-	private Map<String, org.apache.poi.ss.usermodel.CellStyle> getStyleCache() {
-		return styleCache;
+	private RegistroDeEstilos getRegistro() {
+		return registro;
 	}
 }
@@ -1,6 +1,7 @@
 package com.abnote.planilhas.estilos.estilos;
 
-import java.util.Map;
+
+import java.util.function.Consumer;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -8,24 +9,34 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 
+import com.abnote.planilhas.estilos.util.AtributosEstilo;
 import com.abnote.planilhas.estilos.util.CellIteratorUtil;
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
 
 public class AlinhamentoStyle {
 	private final Workbook workbook;
 	private final Sheet sheet;
-	private final Map<String, CellStyle> styleCache;
+	private final RegistroDeEstilos registro;
 
-	public AlinhamentoStyle(Workbook workbook, Sheet sheet, Map<String, CellStyle> styleCache) {
+	public AlinhamentoStyle(Workbook workbook, Sheet sheet, RegistroDeEstilos registro) {
 		this.workbook = workbook;
 		this.sheet = sheet;
-		this.styleCache = styleCache;
+		this.registro = registro;
 	}
 
 	// Método genérico para aplicar alinhamento e quebra de texto
 	private void aplicarAlinhamento(HorizontalAlignment alignment, boolean quebraTexto, int rowIndex, int columnIndex,
 			int startRowIndex, int startColumnIndex, int endRowIndex, int endColumnIndex, boolean isRange) {
+		int operacao = registro.operacao("alinhamento_" + alignment + "_" + quebraTexto);
+		Consumer<AtributosEstilo> alteracao = atributos -> {
+			if (alignment != null) {
+				atributos.setAlinhamento(alignment);
+			}
+			atributos.setQuebrarTexto(quebraTexto);
+		};
 		CellIteratorUtil.forEachCell(sheet, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
-				endColumnIndex, isRange, (Cell cell) -> applyAlignmentToCell(cell, alignment, quebraTexto));
+				endColumnIndex, isRange,
+				(Cell cell) -> cell.setCellStyle(registro.derivar(cell.getCellStyle(), operacao, alteracao)));
 	}
 
 	public void alinharAEsquerda(int rowIndex, int columnIndex, int startRowIndex, int startColumnIndex,
@@ -45,22 +56,4 @@ public class AlinhamentoStyle {
 		aplicarAlinhamento(null, true, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
 				endColumnIndex, isRange);
 	}
-
-	// Método para aplicar alinhamento e quebra de texto a uma célula
-	private void applyAlignmentToCell(Cell cell, HorizontalAlignment alignment, boolean quebraTexto) {
-		CellStyle currentStyle = cell.getCellStyle();
-		String key = "alignment_" + currentStyle.hashCode() + "_" + (alignment != null ? alignment.name() : "null")
-				+ "_" + quebraTexto;
-		CellStyle newStyle = styleCache.get(key);
-		if (newStyle == null) {
-			newStyle = workbook.createCellStyle();
-			newStyle.cloneStyleFrom(currentStyle);
-			if (alignment != null) {
-				newStyle.setAlignment(alignment);
-			}
-			newStyle.setWrapText(quebraTexto);
-			styleCache.put(key, newStyle);
-		}
-		cell.setCellStyle(newStyle);
-	}
 }
@@ -1,29 +1,31 @@
 package com.abnote.planilhas.estilos.estilos;
 
 import java.awt.Color;
-import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.poi.hssf.usermodel.HSSFCellStyle;
+import org.apache.poi.hssf.util.HSSFColor;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
 
+import com.abnote.planilhas.estilos.util.AtributosEstilo;
+import com.abnote.planilhas.estilos.util.CellIteratorUtil;
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
+
 public class BackGroundColor {
 
 	private final Workbook workbook;
 	private final Sheet sheet;
-	private final Map<String, CellStyle> styleCache;
+	private final RegistroDeEstilos registro;
 
-	public BackGroundColor(Workbook workbook, Sheet sheet, Map<String, CellStyle> styleCache) {
+	public BackGroundColor(Workbook workbook, Sheet sheet, RegistroDeEstilos registro) {
 		this.workbook = workbook;
 		this.sheet = sheet;
-		this.styleCache = styleCache;
+		this.registro = registro;
 	}
 
 	public void aplicarCorDeFundo(CorEnum corEnum, int rowIndex, int columnIndex, int startRowIndex,
@@ -48,60 +50,30 @@ public class BackGroundColor {
 
 	public void aplicarCorDeFundo(int red, int green, int blue, int rowIndex, int columnIndex, int startRowIndex,
 			int startColumnIndex, int endRowIndex, int endColumnIndex, boolean isRange) {
-		if (isRange) {
-			for (int rowIdx = startRowIndex; rowIdx <= endRowIndex; rowIdx++) {
-				Row row = sheet.getRow(rowIdx);
-				if (row == null)
-					continue;
-				for (int colIdx = startColumnIndex; colIdx <= endColumnIndex; colIdx++) {
-					Cell cell = row.getCell(colIdx);
-					if (cell == null)
-						continue;
-					applyBackgroundColorToCell(cell, red, green, blue);
-				}
-			}
-		} else if (rowIndex != -1) {
-			if (columnIndex == -1) {
-				Row row = sheet.getRow(rowIndex);
-				if (row != null) {
-					for (Cell cell : row) {
-						if (cell != null) {
-							applyBackgroundColorToCell(cell, red, green, blue);
-						}
-					}
-				}
-			} else {
-				Row row = sheet.getRow(rowIndex);
-				if (row != null) {
-					Cell cell = row.getCell(columnIndex);
-					if (cell != null) {
-						applyBackgroundColorToCell(cell, red, green, blue);
-					}
-				}
-			}
+		// Cor e operação são resolvidas uma vez por chamada, não por célula
+		org.apache.poi.ss.usermodel.Color cor = criarCor(workbook.getCellStyleAt(0), red, green, blue);
+		if (cor == null) {
+			return;
 		}
+		int operacao = registro.operacao("corDeFundo_" + red + "_" + green + "_" + blue);
+		Consumer<AtributosEstilo> alteracao = atributos -> atributos.setCorDeFundoSolida(cor);
+		CellIteratorUtil.forEachCell(sheet, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
+				endColumnIndex, isRange,
+				(Cell cell) -> cell.setCellStyle(registro.derivar(cell.getCellStyle(), operacao, alteracao)));
 	}
 
-	private void applyBackgroundColorToCell(Cell cell, int red, int green, int blue) {
-	    CellStyle currentStyle = cell.getCellStyle();
-	    CellStyle newStyle = workbook.createCellStyle();
-	    newStyle.cloneStyleFrom(currentStyle);
-
-	    if (newStyle instanceof XSSFCellStyle) {
-	        XSSFCellStyle xssfCellStyle = (XSSFCellStyle) newStyle;
+	/**
+	 * Cria a cor de preenchimento adequada ao tipo do estilo, ou {@code null} se
+	 * o tipo não for suportado.
+	 */
+	public static org.apache.poi.ss.usermodel.Color criarCor(CellStyle estilo, int red, int green, int blue) {
+	    if (estilo instanceof XSSFCellStyle) {
 	        byte[] rgb = new byte[]{(byte) red, (byte) green, (byte) blue};
-	        XSSFColor xssfColor = new XSSFColor(rgb, null);
-	        xssfCellStyle.setFillForegroundColor(xssfColor);
-	        xssfCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-	    } else if (newStyle instanceof HSSFCellStyle) {
-	        short colorIndex = getNearestColorIndex(red, green, blue);
-	        newStyle.setFillForegroundColor(colorIndex);
-	        newStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+	        return new XSSFColor(rgb, null);
+	    } else if (estilo instanceof HSSFCellStyle) {
+	        return HSSFColor.HSSFColorPredefined.AUTOMATIC.getColor();
 	    }
-	    cell.setCellStyle(newStyle);
+	    return null;
 	}
 
-	private short getNearestColorIndex(int red, int green, int blue) {
-		return IndexedColors.AUTOMATIC.getIndex();
-	}
 }
@@ -1,6 +1,8 @@
 package com.abnote.planilhas.estilos.estilos;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -10,31 +12,65 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 
+import com.abnote.planilhas.estilos.util.AtributosEstilo;
+import com.abnote.planilhas.estilos.util.CellIteratorUtil;
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
 import com.abnote.planilhas.utils.PosicaoConverter;
 
 
-
 /**
  * Classe responsável por aplicar estilos de borda em células, intervalos ou
  * posições específicas de uma planilha.
+ *
+ * <p>
+ * Nas bordas espessas, cada célula do intervalo é classificada pela sua
+ * posição no perímetro: um dos quatro cantos, um dos quatro lados ou o
+ * interior. Células da mesma classe e com o mesmo estilo de origem recebem o
+ * mesmo estilo, de modo que um bloco gera no máximo nove variações por estilo
+ * de origem, qualquer que seja o seu tamanho.
+ * </p>
  */
 public class BorderStyleHelper {
-	private final Workbook workbook;
+	// Lados do perímetro em que a célula está; a combinação é a classe da célula
+	private static final int SUPERIOR = 1;
+	private static final int INFERIOR = 2;
+	private static final int ESQUERDA = 4;
+	private static final int DIREITA = 8;
+	private static final int TOTAL_CLASSES = 16;
+
+	private static final List<Consumer<AtributosEstilo>> ALTERACOES_ESPESSAS = new ArrayList<>(TOTAL_CLASSES);
+	private static final List<Consumer<AtributosEstilo>> ALTERACOES_ESPESSAS_COM_INTERNAS = new ArrayList<>(
+			TOTAL_CLASSES);
+
+	static {
+		for (int classe = 0; classe < TOTAL_CLASSES; classe++) {
+			int lados = classe;
+			ALTERACOES_ESPESSAS.add(atributos -> aplicarBordasEspessasExternas(atributos, lados));
+			ALTERACOES_ESPESSAS_COM_INTERNAS.add(atributos -> {
+				// Bordas finas em todas as direções, espessas nas externas
+				atributos.setBordas(BorderStyle.THIN);
+				aplicarBordasEspessasExternas(atributos, lados);
+			});
+		}
+	}
+
 	private final Sheet sheet;
-	private final Map<String, CellStyle> styleCache;
+	private final RegistroDeEstilos registro;
+	private final int operacaoBordasFinas;
 
 	/**
 	 * Construtor para inicializar o BorderStyleHelper com um Workbook, Sheet e
-	 * cache de estilos.
+	 * registro de estilos.
 	 *
-	 * @param workbook   O Workbook que contém a planilha.
+	 * @param workbook   O Workbook que contém a planilha (mantido por
+	 *                   compatibilidade; os estilos vêm do registro).
 	 * @param sheet      A Sheet onde os estilos serão aplicados.
-	 * @param styleCache Cache para armazenar estilos já criados.
+	 * @param registro   Registro de estilos do workbook.
 	 */
-	public BorderStyleHelper(Workbook workbook, Sheet sheet, Map<String, CellStyle> styleCache) {
-		this.workbook = workbook;
+	public BorderStyleHelper(Workbook workbook, Sheet sheet, RegistroDeEstilos registro) {
 		this.sheet = sheet;
-		this.styleCache = styleCache;
+		this.registro = registro;
+		this.operacaoBordasFinas = registro.operacao("bordasFinas");
 	}
 
 	/**
@@ -61,33 +97,17 @@ public class BorderStyleHelper {
 	// células
 	private void aplicarTodasAsBordasEmIntervalo(int indiceInicioLinha, int indiceInicioColuna, int indiceFimLinha,
 			int indiceFimColuna) {
-		for (int rowIdx = indiceInicioLinha; rowIdx <= indiceFimLinha; rowIdx++) {
-			Row row = sheet.getRow(rowIdx);
-			if (row == null)
-				continue;
-
-			for (int colIdx = indiceInicioColuna; colIdx <= indiceFimColuna; colIdx++) {
-				Cell cell = row.getCell(colIdx);
-				if (cell == null || cell.getCellType() == CellType.BLANK) {
-					continue; // Pular células vazias
-				}
-				aplicarBordasNaCelula(cell);
-			}
-		}
+		CellIteratorUtil.forEachCell(sheet, indiceInicioLinha, indiceInicioColuna, indiceFimLinha, indiceFimColuna,
+				cell -> {
+					if (cell.getCellType() != CellType.BLANK) { // Pular células vazias
+						aplicarBordasNaCelula(cell);
+					}
+				});
 	}
 
 	// Método privado para aplicar todas as bordas em toda a planilha
 	private void aplicarTodasAsBordasNaPlanilha() {
-		for (Row row : sheet) {
-			if (row == null)
-				continue;
-			for (Cell cell : row) {
-				if (cell == null || cell.getCellType() == CellType.BLANK) {
-					continue; // Pular células vazias
-				}
-				aplicarBordasNaCelula(cell);
-			}
-		}
+		aplicarTodasAsBordasEmIntervalo(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
 	}
 
 	// Método privado para aplicar bordas finas em uma célula específica
@@ -99,14 +119,20 @@ public class BorderStyleHelper {
 			return; // Ignorar células com bordas espessas
 		}
 
-		String chaveCache = "borders_" + estiloAtual.hashCode();
-		CellStyle estiloComBordas = styleCache.get(chaveCache);
-		if (estiloComBordas == null) {
-			estiloComBordas = criarEstiloComBordas(estiloAtual);
-			styleCache.put(chaveCache, estiloComBordas);
-		}
+		cell.setCellStyle(registro.derivar(estiloAtual, operacaoBordasFinas, BorderStyleHelper::aplicarBordasFinas));
+	}
 
-		cell.setCellStyle(estiloComBordas);
+	/**
+	 * Versão de {@link #aplicarTodasAsBordas} sobre atributos, usada na
+	 * aplicação em lote do {@code EstiloCelula}: aplica bordas finas, com a
+	 * mesma verificação de bordas espessas.
+	 */
+	public static void aplicarBordasFinas(AtributosEstilo atributos) {
+		if (atributos.getBordaSuperior() == BorderStyle.NONE && atributos.getBordaInferior() == BorderStyle.NONE
+				&& atributos.getBordaEsquerda() == BorderStyle.NONE && atributos.getBordaDireita() == BorderStyle.NONE) {
+			return;
+		}
+		atributos.setBordas(BorderStyle.THIN);
 	}
 
 	// Método privado para verificar se o estilo atual possui bordas espessas
@@ -115,17 +141,6 @@ public class BorderStyleHelper {
 				estilo.getBorderLeft() == BorderStyle.NONE && estilo.getBorderRight() == BorderStyle.NONE;
 	}
 
-	// Método privado para criar um novo estilo com bordas finas
-	private CellStyle criarEstiloComBordas(CellStyle estiloOriginal) {
-		CellStyle novoEstilo = workbook.createCellStyle();
-		novoEstilo.cloneStyleFrom(estiloOriginal);
-		novoEstilo.setBorderTop(BorderStyle.THIN);
-		novoEstilo.setBorderBottom(BorderStyle.THIN);
-		novoEstilo.setBorderLeft(BorderStyle.THIN);
-		novoEstilo.setBorderRight(BorderStyle.THIN);
-		return novoEstilo;
-	}
-
 	/**
 	 * Aplica bordas finas em uma célula específica baseada na posição (e.g., "A1").
 	 *
@@ -179,32 +194,7 @@ public class BorderStyleHelper {
 	 * @param posicaoFinal   A posição final (ex: "C3").
 	 */
 	public void aplicarBordasEspessas(String posicaoInicial, String posicaoFinal) {
-		int[] indicesInicio = PosicaoConverter.converterPosicao(posicaoInicial);
-		int[] indicesFim = PosicaoConverter.converterPosicao(posicaoFinal);
-
-		for (int rowIdx = indicesInicio[1]; rowIdx <= indicesFim[1]; rowIdx++) {
-			Row row = sheet.getRow(rowIdx);
-			if (row == null) {
-				row = sheet.createRow(rowIdx);
-			}
-			for (int colIdx = indicesInicio[0]; colIdx <= indicesFim[0]; colIdx++) {
-				Cell cell = row.getCell(colIdx);
-				if (cell == null) {
-					cell = row.createCell(colIdx);
-				}
-
-				CellStyle estiloAtual = cell.getCellStyle();
-				String chaveCache = "thickBorders_" + estiloAtual.hashCode() + "_r" + rowIdx + "_c" + colIdx;
-				CellStyle estiloComBordasEspessas = styleCache.get(chaveCache);
-				if (estiloComBordasEspessas == null) {
-					estiloComBordasEspessas = criarEstiloComBordasEspessas(estiloAtual, rowIdx, colIdx, indicesInicio,
-							indicesFim);
-					styleCache.put(chaveCache, estiloComBordasEspessas);
-				}
-
-				cell.setCellStyle(estiloComBordasEspessas);
-			}
-		}
+		aplicarPorClasseDePerimetro(posicaoInicial, posicaoFinal, "bordasEspessas_", ALTERACOES_ESPESSAS);
 	}
 
 	/**
@@ -215,6 +205,17 @@ public class BorderStyleHelper {
 	 * @param posicaoFinal   A posição final (ex: "C3").
 	 */
 	public void aplicarBordasEspessasComInternas(String posicaoInicial, String posicaoFinal) {
+		aplicarPorClasseDePerimetro(posicaoInicial, posicaoFinal, "bordasEspessasComInternas_",
+				ALTERACOES_ESPESSAS_COM_INTERNAS);
+	}
+
+	// Percorre o intervalo aplicando a cada célula a alteração da sua classe de perímetro
+	private void aplicarPorClasseDePerimetro(String posicaoInicial, String posicaoFinal, String prefixoOperacao,
+			List<Consumer<AtributosEstilo>> alteracoes) {
+		int[] operacoes = new int[TOTAL_CLASSES];
+		for (int classe = 0; classe < TOTAL_CLASSES; classe++) {
+			operacoes[classe] = registro.operacao(prefixoOperacao + classe);
+		}
 		int[] indicesInicio = PosicaoConverter.converterPosicao(posicaoInicial);
 		int[] indicesFim = PosicaoConverter.converterPosicao(posicaoFinal);
 
@@ -223,80 +224,32 @@ public class BorderStyleHelper {
 			if (row == null) {
 				row = sheet.createRow(rowIdx);
 			}
+			int ladosDaLinha = (rowIdx == indicesInicio[1] ? SUPERIOR : 0) | (rowIdx == indicesFim[1] ? INFERIOR : 0);
 			for (int colIdx = indicesInicio[0]; colIdx <= indicesFim[0]; colIdx++) {
 				Cell cell = row.getCell(colIdx);
 				if (cell == null) {
 					cell = row.createCell(colIdx);
 				}
-
-				CellStyle estiloAtual = cell.getCellStyle();
-				StringBuilder chaveCacheBuilder = new StringBuilder("thickInternalBorders_");
-				chaveCacheBuilder.append(estiloAtual.hashCode()).append("_r").append(rowIdx).append("_c")
-						.append(colIdx);
-				String chaveCache = chaveCacheBuilder.toString();
-
-				CellStyle novoEstilo = styleCache.get(chaveCache);
-				if (novoEstilo == null) {
-					novoEstilo = criarEstiloComBordasEspessasComInternas(estiloAtual, rowIdx, colIdx, indicesInicio,
-							indicesFim);
-					styleCache.put(chaveCache, novoEstilo);
-				}
-
-				cell.setCellStyle(novoEstilo);
+				int classe = ladosDaLinha | (colIdx == indicesInicio[0] ? ESQUERDA : 0)
+						| (colIdx == indicesFim[0] ? DIREITA : 0);
+				cell.setCellStyle(registro.derivar(cell.getCellStyle(), operacoes[classe], alteracoes.get(classe)));
 			}
 		}
 	}
 
-	// Método privado para criar um estilo com bordas espessas nas bordas externas
-	private CellStyle criarEstiloComBordasEspessas(CellStyle estiloOriginal, int rowIdx, int colIdx,
-			int[] indicesInicio, int[] indicesFim) {
-		CellStyle novoEstilo = workbook.createCellStyle();
-		novoEstilo.cloneStyleFrom(estiloOriginal);
-
-		// Aplicar bordas espessas nas bordas externas
-		if (rowIdx == indicesInicio[1]) { // Primeira linha do intervalo
-			novoEstilo.setBorderTop(BorderStyle.THICK);
-		}
-		if (rowIdx == indicesFim[1]) { // Última linha do intervalo
-			novoEstilo.setBorderBottom(BorderStyle.THICK);
-		}
-		if (colIdx == indicesInicio[0]) { // Primeira coluna do intervalo
-			novoEstilo.setBorderLeft(BorderStyle.THICK);
-		}
-		if (colIdx == indicesFim[0]) { // Última coluna do intervalo
-			novoEstilo.setBorderRight(BorderStyle.THICK);
-		}
-
-		return novoEstilo;
-	}
-
-	// Método privado para criar um estilo com bordas espessas nas bordas externas e
-	// finas nas internas
-	private CellStyle criarEstiloComBordasEspessasComInternas(CellStyle estiloOriginal, int rowIdx, int colIdx,
-			int[] indicesInicio, int[] indicesFim) {
-		CellStyle novoEstilo = workbook.createCellStyle();
-		novoEstilo.cloneStyleFrom(estiloOriginal);
-
-		// Aplicar bordas finas em todas as direções
-		novoEstilo.setBorderTop(BorderStyle.THIN);
-		novoEstilo.setBorderBottom(BorderStyle.THIN);
-		novoEstilo.setBorderLeft(BorderStyle.THIN);
-		novoEstilo.setBorderRight(BorderStyle.THIN);
-
-		// Aplicar bordas espessas nas bordas externas
-		if (rowIdx == indicesInicio[1]) { // Primeira linha do intervalo
-			novoEstilo.setBorderTop(BorderStyle.THICK);
+	// Método privado para marcar bordas espessas nos lados externos da classe
+	private static void aplicarBordasEspessasExternas(AtributosEstilo atributos, int lados) {
+		if ((lados & SUPERIOR) != 0) { // Primeira linha do intervalo
+			atributos.setBordaSuperior(BorderStyle.THICK);
 		}
-		if (rowIdx == indicesFim[1]) { // Última linha do intervalo
-			novoEstilo.setBorderBottom(BorderStyle.THICK);
+		if ((lados & INFERIOR) != 0) { // Última linha do intervalo
+			atributos.setBordaInferior(BorderStyle.THICK);
 		}
-		if (colIdx == indicesInicio[0]) { // Primeira coluna do intervalo
-			novoEstilo.setBorderLeft(BorderStyle.THICK);
+		if ((lados & ESQUERDA) != 0) { // Primeira coluna do intervalo
+			atributos.setBordaEsquerda(BorderStyle.THICK);
 		}
-		if (colIdx == indicesFim[0]) { // Última coluna do intervalo
-			novoEstilo.setBorderRight(BorderStyle.THICK);
+		if ((lados & DIREITA) != 0) { // Última coluna do intervalo
+			atributos.setBordaDireita(BorderStyle.THICK);
 		}
-
-		return novoEstilo;
 	}
 }
@@ -1,26 +1,29 @@
 package com.abnote.planilhas.estilos.estilos;
 
-import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
 
+import com.abnote.planilhas.estilos.util.AtributosEstilo;
+import com.abnote.planilhas.estilos.util.CellIteratorUtil;
+import com.abnote.planilhas.estilos.util.LarguraDeColunas;
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
+
 public class CenterStyle {
 	private final Workbook workbook;
 	private final Sheet sheet;
-	private final Map<String, CellStyle> styleCache;
+	private final RegistroDeEstilos registro;
+	private final int operacaoCentralizar;
 
-	public CenterStyle(Workbook workbook, Sheet sheet, Map<String, CellStyle> styleCache) {
+	public CenterStyle(Workbook workbook, Sheet sheet, RegistroDeEstilos registro) {
 		this.workbook = workbook;
 		this.sheet = sheet;
-		this.styleCache = styleCache;
+		this.registro = registro;
+		this.operacaoCentralizar = registro.operacao("centralizar");
 	}
 
 	/**
@@ -42,39 +45,27 @@ public class CenterStyle {
 	}
 
 	public void centralizarERedimensionarTudo() {
+		centralizarERedimensionarTudo(null);
+	}
+
+	/**
+	 * Centraliza toda a planilha e ajusta a largura das colunas.
+	 *
+	 * @param larguras Motor de larguras da aba, ou null (ver
+	 *                 {@link #redimensionarColuna(LarguraDeColunas)}).
+	 */
+	public void centralizarERedimensionarTudo(LarguraDeColunas larguras) {
 		centralizarPlanilha();
-		redimensionarColuna();
+		redimensionarColuna(larguras);
 	}
 
 	private void centralizarIntervalo(int startRow, int startColumn, int endRow, int endColumn) {
-		for (int rowIdx = startRow; rowIdx <= endRow; rowIdx++) {
-			Row row = sheet.getRow(rowIdx);
-			if (row == null)
-				continue;
-
-			for (int colIdx = startColumn; colIdx <= endColumn; colIdx++) {
-				Cell cell = row.getCell(colIdx);
-				if (cell == null)
-					continue;
-
-				aplicarCentralizacao(cell);
-			}
-		}
+		CellIteratorUtil.forEachCell(sheet, startRow, startColumn, endRow, endColumn, this::aplicarCentralizacao);
 	}
 
 	// Método privado para centralizar todas as células da planilha
 	private void centralizarPlanilha() {
-		for (Row row : sheet) {
-			if (row == null)
-				continue;
-
-			for (Cell cell : row) {
-				if (cell == null)
-					continue;
-
-				aplicarCentralizacao(cell);
-			}
-		}
+		CellIteratorUtil.forEachCell(sheet, 0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE, this::aplicarCentralizacao);
 	}
 
 	// Método privado para aplicar a centralização a uma célula específica
@@ -93,69 +84,34 @@ public class CenterStyle {
 
 	// Método privado para criar um novo estilo com centralização
 	private CellStyle criarEstiloCentralizado(CellStyle originalStyle) {
-		// Verificar se já existe um estilo centralizado no cache
-		String styleKey = "centralizado_" + originalStyle.hashCode();
-		CellStyle novoEstilo = styleCache.get(styleKey);
-
-		if (novoEstilo == null) {
-			novoEstilo = workbook.createCellStyle();
-			novoEstilo.cloneStyleFrom(originalStyle);
-			novoEstilo.setAlignment(HorizontalAlignment.CENTER);
-			novoEstilo.setVerticalAlignment(VerticalAlignment.CENTER);
-			styleCache.put(styleKey, novoEstilo);
-		}
-
-		return novoEstilo;
+		return registro.derivar(originalStyle, operacaoCentralizar, CenterStyle::centralizar);
 	}
 
-	public void redimensionarColuna() {
-		// Avalia todas as fórmulas na planilha para que o autoSizeColumn funcione
-		// corretamente
-		FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
-
-		for (Row row : sheet) {
-			if (row == null)
-				continue;
-			for (Cell cell : row) {
-				if (cell == null)
-					continue;
-				if (cell.getCellType() == CellType.FORMULA) {
-					evaluator.evaluateFormulaCell(cell);
-				}
-			}
+	/**
+	 * Centraliza horizontal e verticalmente, apenas se o alinhamento horizontal
+	 * ainda for o geral.
+	 */
+	public static void centralizar(AtributosEstilo atributos) {
+		HorizontalAlignment alinhamento = atributos.getAlinhamento();
+		if (alinhamento == HorizontalAlignment.GENERAL || alinhamento == null) {
+			atributos.setAlinhamento(HorizontalAlignment.CENTER).setAlinhamentoVertical(VerticalAlignment.CENTER);
 		}
+	}
 
-		int maxColumns = obterMaximoNumeroDeColunas();
-		for (int i = 0; i < maxColumns; i++) {
-			sheet.autoSizeColumn(i);
-		}
+	public void redimensionarColuna() {
+		redimensionarColuna(null);
 	}
 
-	// Método privado para determinar o número máximo de colunas na planilha
-//    private int obterMaximoNumeroDeColunas() {
-//        int maxColumns = 0;
-//        for (Row row : sheet) {
-//            if (row == null)
-//                continue;
-//
-//            int lastCellNum = row.getLastCellNum();
-//            if (lastCellNum > maxColumns) {
-//                maxColumns = lastCellNum;
-//            }
-//        }
-//        return maxColumns;
-//    }
-	private int obterMaximoNumeroDeColunas() {
-		int maxColumns = 0;
-		for (Row row : sheet) {
-			if (row == null)
-				continue;
-
-			int lastCellNum = row.getLastCellNum();
-			if (lastCellNum > maxColumns) {
-				maxColumns = lastCellNum;
-			}
-		}
-		return maxColumns;
+	/**
+	 * Ajusta a largura das colunas ao conteúdo com o {@link LarguraDeColunas}
+	 * da aba, sem o layout de texto do {@code autoSizeColumn}.
+	 *
+	 * @param larguras Motor alimentado pelas escritas na aba (ex.: o dos
+	 *                 metadados da planilha); se null, as células existentes são
+	 *                 medidas uma única vez.
+	 */
+	public void redimensionarColuna(LarguraDeColunas larguras) {
+		LarguraDeColunas motor = larguras != null ? larguras : LarguraDeColunas.medir(sheet);
+		motor.aplicar(sheet);
 	}
 }
@@ -85,4 +85,13 @@ public class FontAttributes {
 		this.strikeout = strikeout;
 		return this;
 	}
+
+	/**
+	 * Chave textual com todos os atributos definidos, usada para memorizar a
+	 * fonte derivada no registro de estilos.
+	 */
+	public String gerarChave() {
+		return "fonte_" + fontName + "_" + fontSize + "_" + bold + "_" + italic + "_" + underline + "_" + strikeout
+				+ "_" + colorIndex + "_" + (colorRGB != null ? colorRGB.getRGB() : null);
+	}
 }
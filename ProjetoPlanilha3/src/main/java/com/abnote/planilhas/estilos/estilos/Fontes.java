@@ -1,11 +1,14 @@
 package com.abnote.planilhas.estilos.estilos;
 
 import java.awt.Color;
-import java.util.Map;
-import org.apache.poi.hssf.usermodel.HSSFFont;
+import java.util.function.Consumer;
+
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.*;
+import com.abnote.planilhas.estilos.util.AtributosFonte;
+import com.abnote.planilhas.estilos.util.CellIteratorUtil;
 import com.abnote.planilhas.estilos.util.UtilEstiloFonte;
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
 
 /**
  * Classe responsável por aplicar atributos de fonte em células, linhas ou
@@ -14,18 +17,20 @@ import com.abnote.planilhas.estilos.util.UtilEstiloFonte;
 public class Fontes {
 	private final Workbook workbook;
 	private final Sheet sheet;
-	private final Map<String, CellStyle> styleCache;
+	private final RegistroDeEstilos registro;
 
-	public Fontes(Workbook workbook, Sheet sheet, Map<String, CellStyle> styleCache) {
+	public Fontes(Workbook workbook, Sheet sheet, RegistroDeEstilos registro) {
 		this.workbook = workbook;
 		this.sheet = sheet;
-		this.styleCache = styleCache;
+		this.registro = registro;
 	}
 
 	public void aplicarAtributosFonte(FontAttributes attributes, int rowIndex, int columnIndex, int startRowIndex,
 			int startColumnIndex, int endRowIndex, int endColumnIndex, boolean isRange) {
-		iterateCells(rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex, endColumnIndex, isRange,
-				(Cell cell) -> applyFontAttributesToCell(cell, attributes));
+		int operacao = registro.operacao(attributes.gerarChave());
+		Consumer<AtributosFonte> alteracao = fonte -> aplicarAtributos(fonte, attributes);
+		CellIteratorUtil.forEachCell(sheet, rowIndex, columnIndex, startRowIndex, startColumnIndex, endRowIndex,
+				endColumnIndex, isRange, cell -> UtilEstiloFonte.aplicarNovaFonte(cell, registro, operacao, alteracao));
 	}
 
 	public void aplicarItalico(int rowIndex, int columnIndex, int startRowIndex, int startColumnIndex, int endRowIndex,
@@ -49,57 +54,6 @@ public class Fontes {
 				endColumnIndex, isRange);
 	}
 
-	private void iterateCells(int rowIndex, int columnIndex, int startRowIndex, int startColumnIndex, int endRowIndex,
-			int endColumnIndex, boolean isRange, CellAction action) {
-		if (isRange) {
-			for (int rowIdx = startRowIndex; rowIdx <= endRowIndex; rowIdx++) {
-				Row row = sheet.getRow(rowIdx);
-				if (row == null)
-					continue;
-				for (int colIdx = startColumnIndex; colIdx <= endColumnIndex; colIdx++) {
-					Cell cell = row.getCell(colIdx);
-					if (cell != null) {
-						action.apply(cell);
-					}
-				}
-			}
-		} else if (rowIndex != -1) {
-			if (columnIndex == -1) {
-				Row row = sheet.getRow(rowIndex);
-				if (row != null) {
-					for (Cell cell : row) {
-						if (cell != null) {
-							action.apply(cell);
-						}
-					}
-				}
-			} else {
-				Row row = sheet.getRow(rowIndex);
-				if (row != null) {
-					Cell cell = row.getCell(columnIndex);
-					if (cell != null) {
-						action.apply(cell);
-					}
-				}
-			}
-		}
-	}
-
-	@FunctionalInterface
-	private interface CellAction {
-		void apply(Cell cell);
-	}
-
-	private void applyFontAttributesToCell(Cell cell, FontAttributes attributes) {
-		CellStyle currentStyle = cell.getCellStyle();
-		String keyPrefix = "font_" + currentStyle.hashCode() + "_" + attributes.hashCode();
-		UtilEstiloFonte.aplicarNovaFonte(cell, workbook, styleCache, keyPrefix, (Font currentFont) -> {
-			Font newFont = workbook.createFont();
-			copyFontAttributes(newFont, currentFont, attributes);
-			return newFont;
-		});
-	}
-
 	private boolean fontMatchesAttributes(Font font, Font baseFont, FontAttributes attributes) {
 		if (attributes.getFontName() != null && !font.getFontName().equals(attributes.getFontName())) {
 			return false;
@@ -150,36 +104,37 @@ public class Fontes {
 		return true;
 	}
 
-	private void copyFontAttributes(Font newFont, Font currentFont, FontAttributes attributes) {
-	    newFont.setFontName(attributes.getFontName() != null ? attributes.getFontName() : currentFont.getFontName());
-	    newFont.setFontHeightInPoints(
-	            attributes.getFontSize() != null ? attributes.getFontSize() : currentFont.getFontHeightInPoints());
-	    newFont.setBold(attributes.isBold() != null ? attributes.isBold() : currentFont.getBold());
-	    newFont.setItalic(attributes.isItalic() != null ? attributes.isItalic() : currentFont.getItalic());
-	    newFont.setUnderline(
-	            attributes.getUnderline() != null ? attributes.getUnderline() : currentFont.getUnderline());
-	    newFont.setStrikeout(attributes.isStrikeout() != null ? attributes.isStrikeout() : currentFont.getStrikeout());
-	    newFont.setCharSet(currentFont.getCharSet());
-	    newFont.setTypeOffset(currentFont.getTypeOffset());
-	    if (attributes.getColorRGB() != null) {
-	        if (newFont instanceof XSSFFont) {
-	            XSSFFont xssfFont = (XSSFFont) newFont;
-	            // POI 5.x: Converter Color para byte[] 
-	            Color cor = attributes.getColorRGB();
-	            byte[] rgb = new byte[]{(byte) cor.getRed(), (byte) cor.getGreen(), (byte) cor.getBlue()};
-	            XSSFColor xssfColor = new XSSFColor(rgb, null);
-	            xssfFont.setColor(xssfColor);
-	        } else if (newFont instanceof HSSFFont) {
-	            short colorIndex = getNearestColorIndex(attributes.getColorRGB());
-	            newFont.setColor(colorIndex);
-	        }
-	    } else {
-	        newFont.setColor(currentFont.getColor());
-	        if (currentFont instanceof XSSFFont && newFont instanceof XSSFFont) {
-	            XSSFColor color = ((XSSFFont) currentFont).getXSSFColor();
-	            ((XSSFFont) newFont).setColor(color);
-	        }
-	    }
+	/**
+	 * Aplica sobre os atributos de uma fonte os atributos definidos em
+	 * {@code attributes}; os não definidos são mantidos.
+	 */
+	public static void aplicarAtributos(AtributosFonte fonte, FontAttributes attributes) {
+		if (attributes.getFontName() != null) {
+			fonte.setNome(attributes.getFontName());
+		}
+		if (attributes.getFontSize() != null) {
+			fonte.setTamanho(attributes.getFontSize());
+		}
+		if (attributes.isBold() != null) {
+			fonte.setNegrito(attributes.isBold());
+		}
+		if (attributes.isItalic() != null) {
+			fonte.setItalico(attributes.isItalic());
+		}
+		if (attributes.getUnderline() != null) {
+			fonte.setSublinhado(attributes.getUnderline());
+		}
+		if (attributes.isStrikeout() != null) {
+			fonte.setTachado(attributes.isStrikeout());
+		}
+		if (attributes.getColorRGB() != null) {
+			Color cor = attributes.getColorRGB();
+			if (fonte.isXssf()) {
+				fonte.setCorRgb(cor.getRed(), cor.getGreen(), cor.getBlue());
+			} else {
+				fonte.setCorIndice(getNearestColorIndex(cor));
+			}
+		}
 	}
 
 	private boolean fontsHaveSameColor(Font font1, Font font2) {
@@ -207,7 +162,7 @@ public class Fontes {
 		return false;
 	}
 
-	private short getNearestColorIndex(Color color) {
+	private static short getNearestColorIndex(Color color) {
 		return IndexedColors.BLACK.getIndex();
 	}
 
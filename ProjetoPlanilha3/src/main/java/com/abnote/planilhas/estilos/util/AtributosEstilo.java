@@ -0,0 +1,319 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.util.Objects;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Color;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+/**
+ * Conjunto completo de atributos de um {@link CellStyle}: formato, fonte,
+ * alinhamento, bordas (estilo e cor), preenchimento e proteção.
+ *
+ * <p>
+ * Dois estilos com os mesmos atributos são visualmente idênticos; por isso o
+ * {@link RegistroDeEstilos} usa esta classe como chave de internação. As cores
+ * entram na comparação por uma representação textual, sem manter referência
+ * aos objetos do workbook.
+ * </p>
+ */
+public final class AtributosEstilo {
+
+	private short formato;
+	private int fonte;
+	private boolean oculto;
+	private boolean bloqueado;
+	private boolean prefixoAspas;
+	private boolean quebrarTexto;
+	private boolean reduzirParaCaber;
+	private HorizontalAlignment alinhamento;
+	private VerticalAlignment alinhamentoVertical;
+	private short rotacao;
+	private short recuo;
+	private BorderStyle bordaSuperior;
+	private BorderStyle bordaInferior;
+	private BorderStyle bordaEsquerda;
+	private BorderStyle bordaDireita;
+	private String corBordaSuperior;
+	private String corBordaInferior;
+	private String corBordaEsquerda;
+	private String corBordaDireita;
+	private FillPatternType preenchimento;
+	private String chaveCorFrente;
+	private String chaveCorFundo;
+
+	// Cores a aplicar no estilo criado; não participam de equals/hashCode
+	private Color corFrente;
+	private Color corFundo;
+
+	private AtributosEstilo() {
+	}
+
+	/**
+	 * Lê todos os atributos de um estilo existente.
+	 *
+	 * @param estilo Estilo de origem.
+	 * @return Nova instância, que pode ser alterada sem afetar o estilo.
+	 */
+	public static AtributosEstilo de(CellStyle estilo) {
+		AtributosEstilo atributos = new AtributosEstilo();
+		atributos.formato = estilo.getDataFormat();
+		atributos.fonte = estilo.getFontIndex();
+		atributos.oculto = estilo.getHidden();
+		atributos.bloqueado = estilo.getLocked();
+		atributos.prefixoAspas = estilo.getQuotePrefixed();
+		atributos.quebrarTexto = estilo.getWrapText();
+		atributos.reduzirParaCaber = estilo.getShrinkToFit();
+		atributos.alinhamento = estilo.getAlignment();
+		atributos.alinhamentoVertical = estilo.getVerticalAlignment();
+		atributos.rotacao = estilo.getRotation();
+		atributos.recuo = estilo.getIndention();
+		atributos.bordaSuperior = estilo.getBorderTop();
+		atributos.bordaInferior = estilo.getBorderBottom();
+		atributos.bordaEsquerda = estilo.getBorderLeft();
+		atributos.bordaDireita = estilo.getBorderRight();
+		if (estilo instanceof XSSFCellStyle) {
+			XSSFCellStyle xssf = (XSSFCellStyle) estilo;
+			atributos.corBordaSuperior = chaveCor(xssf.getTopBorderXSSFColor());
+			atributos.corBordaInferior = chaveCor(xssf.getBottomBorderXSSFColor());
+			atributos.corBordaEsquerda = chaveCor(xssf.getLeftBorderXSSFColor());
+			atributos.corBordaDireita = chaveCor(xssf.getRightBorderXSSFColor());
+		} else {
+			atributos.corBordaSuperior = String.valueOf(estilo.getTopBorderColor());
+			atributos.corBordaInferior = String.valueOf(estilo.getBottomBorderColor());
+			atributos.corBordaEsquerda = String.valueOf(estilo.getLeftBorderColor());
+			atributos.corBordaDireita = String.valueOf(estilo.getRightBorderColor());
+		}
+		atributos.preenchimento = estilo.getFillPattern();
+		atributos.corFrente = estilo.getFillForegroundColorColor();
+		atributos.chaveCorFrente = chaveCor(atributos.corFrente);
+		atributos.corFundo = estilo.getFillBackgroundColorColor();
+		atributos.chaveCorFundo = chaveCor(atributos.corFundo);
+		return atributos;
+	}
+
+	// Alterações usadas pelas classes de estilo
+
+	public AtributosEstilo setFonte(int fonte) {
+		this.fonte = fonte;
+		return this;
+	}
+
+	public int getFonte() {
+		return fonte;
+	}
+
+	public AtributosEstilo setAlinhamento(HorizontalAlignment alinhamento) {
+		this.alinhamento = alinhamento;
+		return this;
+	}
+
+	public HorizontalAlignment getAlinhamento() {
+		return alinhamento;
+	}
+
+	public AtributosEstilo setAlinhamentoVertical(VerticalAlignment alinhamentoVertical) {
+		this.alinhamentoVertical = alinhamentoVertical;
+		return this;
+	}
+
+	public AtributosEstilo setQuebrarTexto(boolean quebrarTexto) {
+		this.quebrarTexto = quebrarTexto;
+		return this;
+	}
+
+	public AtributosEstilo setBordaSuperior(BorderStyle borda) {
+		this.bordaSuperior = borda;
+		return this;
+	}
+
+	public AtributosEstilo setBordaInferior(BorderStyle borda) {
+		this.bordaInferior = borda;
+		return this;
+	}
+
+	public AtributosEstilo setBordaEsquerda(BorderStyle borda) {
+		this.bordaEsquerda = borda;
+		return this;
+	}
+
+	public AtributosEstilo setBordaDireita(BorderStyle borda) {
+		this.bordaDireita = borda;
+		return this;
+	}
+
+	/**
+	 * Define as quatro bordas de uma vez.
+	 */
+	public AtributosEstilo setBordas(BorderStyle borda) {
+		return setBordaSuperior(borda).setBordaInferior(borda).setBordaEsquerda(borda).setBordaDireita(borda);
+	}
+
+	public BorderStyle getBordaSuperior() {
+		return bordaSuperior;
+	}
+
+	public BorderStyle getBordaInferior() {
+		return bordaInferior;
+	}
+
+	public BorderStyle getBordaEsquerda() {
+		return bordaEsquerda;
+	}
+
+	public BorderStyle getBordaDireita() {
+		return bordaDireita;
+	}
+
+	/**
+	 * Define um preenchimento sólido com a cor informada.
+	 */
+	public AtributosEstilo setCorDeFundoSolida(Color cor) {
+		this.preenchimento = FillPatternType.SOLID_FOREGROUND;
+		this.corFrente = cor;
+		this.chaveCorFrente = chaveCor(cor);
+		return this;
+	}
+
+	/**
+	 * Grava no estilo recém-clonado de {@code origem} os atributos que diferem
+	 * dela.
+	 */
+	void aplicarEm(CellStyle estilo, AtributosEstilo origem, Workbook workbook) {
+		if (formato != origem.formato) {
+			estilo.setDataFormat(formato);
+		}
+		if (fonte != origem.fonte) {
+			estilo.setFont(workbook.getFontAt(fonte));
+		}
+		if (oculto != origem.oculto) {
+			estilo.setHidden(oculto);
+		}
+		if (bloqueado != origem.bloqueado) {
+			estilo.setLocked(bloqueado);
+		}
+		if (prefixoAspas != origem.prefixoAspas) {
+			estilo.setQuotePrefixed(prefixoAspas);
+		}
+		if (quebrarTexto != origem.quebrarTexto) {
+			estilo.setWrapText(quebrarTexto);
+		}
+		if (reduzirParaCaber != origem.reduzirParaCaber) {
+			estilo.setShrinkToFit(reduzirParaCaber);
+		}
+		if (alinhamento != origem.alinhamento) {
+			estilo.setAlignment(alinhamento);
+		}
+		if (alinhamentoVertical != origem.alinhamentoVertical) {
+			estilo.setVerticalAlignment(alinhamentoVertical);
+		}
+		if (rotacao != origem.rotacao) {
+			estilo.setRotation(rotacao);
+		}
+		if (recuo != origem.recuo) {
+			estilo.setIndention(recuo);
+		}
+		if (bordaSuperior != origem.bordaSuperior) {
+			estilo.setBorderTop(bordaSuperior);
+		}
+		if (bordaInferior != origem.bordaInferior) {
+			estilo.setBorderBottom(bordaInferior);
+		}
+		if (bordaEsquerda != origem.bordaEsquerda) {
+			estilo.setBorderLeft(bordaEsquerda);
+		}
+		if (bordaDireita != origem.bordaDireita) {
+			estilo.setBorderRight(bordaDireita);
+		}
+		if (!Objects.equals(chaveCorFrente, origem.chaveCorFrente)) {
+			estilo.setFillForegroundColor(corFrente);
+		}
+		if (!Objects.equals(chaveCorFundo, origem.chaveCorFundo)) {
+			estilo.setFillBackgroundColor(corFundo);
+		}
+		if (preenchimento != origem.preenchimento) {
+			estilo.setFillPattern(preenchimento);
+		}
+	}
+
+	/**
+	 * Cópia usada como chave do registro, sem as referências às cores.
+	 */
+	AtributosEstilo copiarComoChave() {
+		AtributosEstilo copia = new AtributosEstilo();
+		copia.formato = formato;
+		copia.fonte = fonte;
+		copia.oculto = oculto;
+		copia.bloqueado = bloqueado;
+		copia.prefixoAspas = prefixoAspas;
+		copia.quebrarTexto = quebrarTexto;
+		copia.reduzirParaCaber = reduzirParaCaber;
+		copia.alinhamento = alinhamento;
+		copia.alinhamentoVertical = alinhamentoVertical;
+		copia.rotacao = rotacao;
+		copia.recuo = recuo;
+		copia.bordaSuperior = bordaSuperior;
+		copia.bordaInferior = bordaInferior;
+		copia.bordaEsquerda = bordaEsquerda;
+		copia.bordaDireita = bordaDireita;
+		copia.corBordaSuperior = corBordaSuperior;
+		copia.corBordaInferior = corBordaInferior;
+		copia.corBordaEsquerda = corBordaEsquerda;
+		copia.corBordaDireita = corBordaDireita;
+		copia.preenchimento = preenchimento;
+		copia.chaveCorFrente = chaveCorFrente;
+		copia.chaveCorFundo = chaveCorFundo;
+		return copia;
+	}
+
+	// Representação estável de uma cor: o XML do CTColor no XSSF, o índice nos demais
+	private static String chaveCor(Color cor) {
+		if (cor == null) {
+			return null;
+		}
+		if (cor instanceof XSSFColor) {
+			return ((XSSFColor) cor).getCTColor().toString();
+		}
+		if (cor instanceof org.apache.poi.hssf.util.HSSFColor) {
+			return String.valueOf(((org.apache.poi.hssf.util.HSSFColor) cor).getIndex());
+		}
+		return cor.toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AtributosEstilo)) {
+			return false;
+		}
+		AtributosEstilo outro = (AtributosEstilo) obj;
+		return formato == outro.formato && fonte == outro.fonte && oculto == outro.oculto
+				&& bloqueado == outro.bloqueado && prefixoAspas == outro.prefixoAspas
+				&& quebrarTexto == outro.quebrarTexto && reduzirParaCaber == outro.reduzirParaCaber
+				&& alinhamento == outro.alinhamento && alinhamentoVertical == outro.alinhamentoVertical
+				&& rotacao == outro.rotacao && recuo == outro.recuo && bordaSuperior == outro.bordaSuperior
+				&& bordaInferior == outro.bordaInferior && bordaEsquerda == outro.bordaEsquerda
+				&& bordaDireita == outro.bordaDireita && Objects.equals(corBordaSuperior, outro.corBordaSuperior)
+				&& Objects.equals(corBordaInferior, outro.corBordaInferior)
+				&& Objects.equals(corBordaEsquerda, outro.corBordaEsquerda)
+				&& Objects.equals(corBordaDireita, outro.corBordaDireita) && preenchimento == outro.preenchimento
+				&& Objects.equals(chaveCorFrente, outro.chaveCorFrente)
+				&& Objects.equals(chaveCorFundo, outro.chaveCorFundo);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(formato, fonte, oculto, bloqueado, prefixoAspas, quebrarTexto, reduzirParaCaber,
+				alinhamento, alinhamentoVertical, rotacao, recuo, bordaSuperior, bordaInferior, bordaEsquerda,
+				bordaDireita, corBordaSuperior, corBordaInferior, corBordaEsquerda, corBordaDireita, preenchimento,
+				chaveCorFrente, chaveCorFundo);
+	}
+}
@@ -0,0 +1,185 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.util.Objects;
+
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTColor;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTFont;
+
+/**
+ * Atributos que definem uma fonte: nome, tamanho, negrito, itálico,
+ * sublinhado, tachado, posição (sobrescrito/subscrito), cor e charset.
+ *
+ * <p>
+ * Usada como chave pelo {@link RegistroDeFontes}. Assim como em
+ * {@link AtributosEstilo}, a cor entra na comparação por uma representação
+ * textual.
+ * </p>
+ */
+public final class AtributosFonte {
+
+	private String nome;
+	private short altura;
+	private boolean negrito;
+	private boolean italico;
+	private byte sublinhado;
+	private boolean tachado;
+	private short posicao;
+	private int charset;
+	private short corIndice;
+	private String chaveCor;
+	private boolean xssf;
+
+	// Cor a aplicar na fonte criada; não participa de equals/hashCode
+	private XSSFColor cor;
+
+	private AtributosFonte() {
+	}
+
+	/**
+	 * Lê os atributos de uma fonte existente.
+	 *
+	 * @param fonte Fonte de origem.
+	 * @return Nova instância, que pode ser alterada sem afetar a fonte.
+	 */
+	public static AtributosFonte de(Font fonte) {
+		AtributosFonte atributos = new AtributosFonte();
+		atributos.nome = fonte.getFontName();
+		atributos.altura = fonte.getFontHeight();
+		atributos.negrito = fonte.getBold();
+		atributos.italico = fonte.getItalic();
+		atributos.sublinhado = fonte.getUnderline();
+		atributos.tachado = fonte.getStrikeout();
+		atributos.posicao = fonte.getTypeOffset();
+		atributos.charset = fonte.getCharSet();
+		atributos.corIndice = fonte.getColor();
+		if (fonte instanceof XSSFFont) {
+			atributos.xssf = true;
+			atributos.cor = ((XSSFFont) fonte).getXSSFColor();
+		}
+		atributos.chaveCor = atributos.cor != null ? atributos.cor.getCTColor().toString()
+				: String.valueOf(atributos.corIndice);
+		return atributos;
+	}
+
+	public AtributosFonte setNome(String nome) {
+		this.nome = nome;
+		return this;
+	}
+
+	public AtributosFonte setTamanho(short pontos) {
+		this.altura = (short) (pontos * Font.TWIPS_PER_POINT);
+		return this;
+	}
+
+	public AtributosFonte setNegrito(boolean negrito) {
+		this.negrito = negrito;
+		return this;
+	}
+
+	public AtributosFonte setItalico(boolean italico) {
+		this.italico = italico;
+		return this;
+	}
+
+	public AtributosFonte setSublinhado(byte sublinhado) {
+		this.sublinhado = sublinhado;
+		return this;
+	}
+
+	public AtributosFonte setTachado(boolean tachado) {
+		this.tachado = tachado;
+		return this;
+	}
+
+	/**
+	 * Define a cor RGB. Só tem efeito em workbooks XSSF; nos demais, use
+	 * {@link #setCorIndice(short)}.
+	 */
+	public AtributosFonte setCorRgb(int vermelho, int verde, int azul) {
+		this.cor = new XSSFColor(new byte[] { (byte) vermelho, (byte) verde, (byte) azul }, null);
+		this.chaveCor = cor.getCTColor().toString();
+		return this;
+	}
+
+	public AtributosFonte setCorIndice(short corIndice) {
+		this.cor = null;
+		this.corIndice = corIndice;
+		this.chaveCor = String.valueOf(corIndice);
+		return this;
+	}
+
+	/**
+	 * Indica se a fonte de origem é de um workbook XSSF (aceita cores RGB).
+	 */
+	public boolean isXssf() {
+		return xssf;
+	}
+
+	/**
+	 * Cria no workbook uma fonte com estes atributos.
+	 */
+	Font criarEm(Workbook workbook) {
+		Font fonte = workbook.createFont();
+		fonte.setFontName(nome);
+		fonte.setFontHeight(altura);
+		fonte.setBold(negrito);
+		fonte.setItalic(italico);
+		fonte.setUnderline(sublinhado);
+		fonte.setStrikeout(tachado);
+		fonte.setTypeOffset(posicao);
+		fonte.setCharSet(charset);
+		if (cor != null && fonte instanceof XSSFFont) {
+			// Copia a cor como está (indexada, tema ou RGB); setColor(XSSFColor)
+			// converteria tudo para RGB e a fonte não seria reconhecida depois
+			CTFont ctFont = ((XSSFFont) fonte).getCTFont();
+			CTColor ctColor = ctFont.sizeOfColorArray() == 0 ? ctFont.addNewColor() : ctFont.getColorArray(0);
+			ctColor.set(cor.getCTColor());
+		} else {
+			fonte.setColor(corIndice);
+		}
+		return fonte;
+	}
+
+	/**
+	 * Cópia usada como chave do registro, sem a referência à cor.
+	 */
+	AtributosFonte copiarComoChave() {
+		AtributosFonte copia = new AtributosFonte();
+		copia.nome = nome;
+		copia.altura = altura;
+		copia.negrito = negrito;
+		copia.italico = italico;
+		copia.sublinhado = sublinhado;
+		copia.tachado = tachado;
+		copia.posicao = posicao;
+		copia.charset = charset;
+		copia.corIndice = corIndice;
+		copia.chaveCor = chaveCor;
+		copia.xssf = xssf;
+		return copia;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AtributosFonte)) {
+			return false;
+		}
+		AtributosFonte outra = (AtributosFonte) obj;
+		return altura == outra.altura && negrito == outra.negrito && italico == outra.italico
+				&& sublinhado == outra.sublinhado && tachado == outra.tachado && posicao == outra.posicao
+				&& charset == outra.charset && Objects.equals(nome, outra.nome)
+				&& Objects.equals(chaveCor, outra.chaveCor);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(nome, altura, negrito, italico, sublinhado, tachado, posicao, charset, chaveCor);
+	}
+}
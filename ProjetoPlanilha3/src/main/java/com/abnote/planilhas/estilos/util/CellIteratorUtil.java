@@ -7,6 +7,13 @@ import java.util.function.Consumer;
 
 /**
  * Utilitário para iterar sobre células em uma planilha.
+ *
+ * <p>
+ * Intervalos são percorridos de forma esparsa: os limites são recortados às
+ * linhas e células existentes, e apenas linhas e células que existem são
+ * visitadas. Assim o custo acompanha a quantidade de células preenchidas, e não
+ * a área do intervalo (ex.: {@code A1:XFD1048576}).
+ * </p>
  */
 public class CellIteratorUtil {
 
@@ -33,17 +40,7 @@ public class CellIteratorUtil {
                                    boolean isRange,
                                    Consumer<Cell> action) {
         if (isRange) {
-            for (int r = startRowIndex; r <= endRowIndex; r++) {
-                Row row = sheet.getRow(r);
-                if (row == null)
-                    continue;
-                for (int c = startColumnIndex; c <= endColumnIndex; c++) {
-                    Cell cell = row.getCell(c);
-                    if (cell != null) {
-                        action.accept(cell);
-                    }
-                }
-            }
+            forEachCell(sheet, startRowIndex, startColumnIndex, endRowIndex, endColumnIndex, action);
         } else if (rowIndex != -1) {
             if (columnIndex == -1) { // Aplica à linha inteira
                 Row row = sheet.getRow(rowIndex);
@@ -63,4 +60,85 @@ public class CellIteratorUtil {
             }
         }
     }
+
+    /**
+     * Visita, em ordem de linha e coluna, as células existentes no intervalo.
+     *
+     * <p>
+     * Quando o intervalo (já recortado) tem mais posições do que a planilha ou
+     * a linha tem elementos, percorre os elementos existentes em vez dos
+     * índices; caso contrário, consulta cada índice diretamente.
+     * </p>
+     *
+     * @param sheet            A planilha.
+     * @param startRowIndex    Índice inicial da linha (0-based).
+     * @param startColumnIndex Índice inicial da coluna (0-based).
+     * @param endRowIndex      Índice final da linha (0-based, inclusivo).
+     * @param endColumnIndex   Índice final da coluna (0-based, inclusivo).
+     * @param action           A ação a ser executada para cada célula.
+     */
+    public static void forEachCell(Sheet sheet, int startRowIndex, int startColumnIndex, int endRowIndex,
+                                   int endColumnIndex, Consumer<Cell> action) {
+        int linhasExistentes = sheet.getPhysicalNumberOfRows();
+        if (linhasExistentes == 0) {
+            return;
+        }
+        int primeiraLinha = Math.max(Math.max(startRowIndex, 0), sheet.getFirstRowNum());
+        int ultimaLinha = Math.min(endRowIndex, sheet.getLastRowNum());
+        if (primeiraLinha > ultimaLinha) {
+            return;
+        }
+
+        if ((long) ultimaLinha - primeiraLinha < linhasExistentes) {
+            for (int r = primeiraLinha; r <= ultimaLinha; r++) {
+                Row row = sheet.getRow(r);
+                if (row != null) {
+                    forEachCell(row, startColumnIndex, endColumnIndex, action);
+                }
+            }
+            return;
+        }
+        // As linhas são iteradas em ordem crescente de índice
+        for (Row row : sheet) {
+            int r = row.getRowNum();
+            if (r > ultimaLinha) {
+                break;
+            }
+            if (r >= primeiraLinha) {
+                forEachCell(row, startColumnIndex, endColumnIndex, action);
+            }
+        }
+    }
+
+    private static void forEachCell(Row row, int startColumnIndex, int endColumnIndex, Consumer<Cell> action) {
+        int celulasExistentes = row.getPhysicalNumberOfCells();
+        if (celulasExistentes == 0) {
+            return;
+        }
+        int primeiraColuna = Math.max(Math.max(startColumnIndex, 0), row.getFirstCellNum());
+        int ultimaColuna = Math.min(endColumnIndex, row.getLastCellNum() - 1);
+        if (primeiraColuna > ultimaColuna) {
+            return;
+        }
+
+        if ((long) ultimaColuna - primeiraColuna < celulasExistentes) {
+            for (int c = primeiraColuna; c <= ultimaColuna; c++) {
+                Cell cell = row.getCell(c);
+                if (cell != null) {
+                    action.accept(cell);
+                }
+            }
+            return;
+        }
+        // As células são iteradas em ordem crescente de coluna
+        for (Cell cell : row) {
+            int c = cell.getColumnIndex();
+            if (c > ultimaColuna) {
+                break;
+            }
+            if (c >= primeiraColuna) {
+                action.accept(cell);
+            }
+        }
+    }
 }
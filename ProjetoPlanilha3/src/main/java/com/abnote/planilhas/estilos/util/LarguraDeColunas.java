@@ -0,0 +1,221 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Motor de largura de colunas que substitui {@code Sheet.autoSizeColumn}.
+ *
+ * <p>
+ * A cada célula registrada, o texto exibido é medido com a
+ * {@link TabelaDeGlifos} da fonte padrão, e cada coluna guarda a maior largura
+ * e a linha onde ela ocorre. Ao {@link #aplicar(Sheet) aplicar}, só essa célula
+ * é medida de novo com a sua fonte real, de modo que o redimensionamento custa
+ * O(colunas). Opcionalmente, após as primeiras linhas de cada coluna, apenas
+ * uma a cada {@link #setAmostragem(int) n} células é medida.
+ * </p>
+ *
+ * <p>
+ * Fórmulas não são avaliadas: contam pelo valor em cache, se houver. Não é
+ * thread-safe.
+ * </p>
+ */
+public final class LarguraDeColunas {
+
+	/** Células de cada coluna sempre medidas antes de a amostragem começar. */
+	static final int MEDIDAS_INTEGRAIS = 100;
+	private static final float MARGEM = 0.75f;
+	private static final int LARGURA_MAXIMA = 255 * 256;
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private float[] larguraPorColuna = new float[CAPACIDADE_INICIAL];
+	private int[] linhaDaMaiorPorColuna = novoArray(CAPACIDADE_INICIAL);
+	private int[] medidasPorColuna = new int[CAPACIDADE_INICIAL];
+	// Colunas cuja maior célula foi alterada ou removida
+	private boolean[] desatualizadaPorColuna = new boolean[CAPACIDADE_INICIAL];
+	private int ultimaColuna = -1;
+	private int amostragem = 1;
+	private DataFormatter formatador;
+
+	/**
+	 * Mede todas as células existentes da aba em um motor novo, para abas cujas
+	 * escritas não foram acompanhadas.
+	 */
+	public static LarguraDeColunas medir(Sheet sheet) {
+		LarguraDeColunas larguras = new LarguraDeColunas();
+		CellIteratorUtil.forEachCell(sheet, 0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE, larguras::registrar);
+		return larguras;
+	}
+
+	/**
+	 * Define a amostragem: após as primeiras células de cada coluna, mede apenas
+	 * uma a cada {@code intervalo}. Use 1 para medir todas.
+	 *
+	 * @param intervalo Intervalo de amostragem, maior que zero.
+	 */
+	public void setAmostragem(int intervalo) {
+		if (intervalo < 1) {
+			throw new IllegalArgumentException("O intervalo de amostragem deve ser maior que zero: " + intervalo);
+		}
+		this.amostragem = intervalo;
+	}
+
+	public int getAmostragem() {
+		return amostragem;
+	}
+
+	/**
+	 * Mede a célula recém escrita.
+	 *
+	 * @param celula A célula já com o valor definido.
+	 */
+	public void registrar(Cell celula) {
+		if (celula == null || celula.getCellType() == CellType.BLANK) {
+			return;
+		}
+		int coluna = celula.getColumnIndex();
+		garantirCapacidade(coluna);
+		int medidas = medidasPorColuna[coluna]++;
+		if (amostragem > 1 && medidas >= MEDIDAS_INTEGRAIS && medidas % amostragem != 0) {
+			return;
+		}
+		float largura = TabelaDeGlifos.CALIBRI.largura(textoExibido(celula));
+		if (largura > larguraPorColuna[coluna]) {
+			larguraPorColuna[coluna] = largura;
+			linhaDaMaiorPorColuna[coluna] = celula.getRowIndex();
+		}
+		ultimaColuna = Math.max(ultimaColuna, coluna);
+	}
+
+	/**
+	 * Avisa que a célula será sobrescrita ou removida. Se ela era a maior da
+	 * coluna, a coluna é medida de novo ao aplicar.
+	 *
+	 * @param celula A célula com o valor anterior.
+	 */
+	public void descontar(Cell celula) {
+		if (celula == null) {
+			return;
+		}
+		int coluna = celula.getColumnIndex();
+		if (coluna < linhaDaMaiorPorColuna.length && linhaDaMaiorPorColuna[coluna] == celula.getRowIndex()) {
+			desatualizadaPorColuna[coluna] = true;
+		}
+	}
+
+	/**
+	 * Retorna a maior largura medida na coluna, na fonte padrão e em unidades de
+	 * caractere, ou 0 se a coluna não tem células.
+	 */
+	public float getLargura(int coluna) {
+		return coluna < larguraPorColuna.length ? larguraPorColuna[coluna] : 0f;
+	}
+
+	/**
+	 * Define a largura de cada coluna com células, a partir da maior célula de
+	 * cada uma medida com a sua fonte.
+	 *
+	 * @param sheet A aba cujas colunas serão redimensionadas.
+	 */
+	public void aplicar(Sheet sheet) {
+		for (int coluna = 0; coluna <= ultimaColuna; coluna++) {
+			if (desatualizadaPorColuna[coluna]) {
+				medirColunaNovamente(sheet, coluna);
+			}
+			if (larguraPorColuna[coluna] <= 0f) {
+				continue;
+			}
+			float largura = larguraPorColuna[coluna];
+			Cell maior = obterCelula(sheet, linhaDaMaiorPorColuna[coluna], coluna);
+			if (maior != null && maior.getCellType() != CellType.BLANK) {
+				Font fonte = sheet.getWorkbook().getFontAt(maior.getCellStyle().getFontIndex());
+				largura = TabelaDeGlifos.daFonte(fonte.getFontName()).largura(textoExibido(maior),
+						fonte.getFontHeightInPoints(), fonte.getBold());
+			}
+			sheet.setColumnWidth(coluna, Math.min(LARGURA_MAXIMA, Math.round((largura + MARGEM) * 256)));
+		}
+	}
+
+	// Linhas já gravadas em disco (streaming) não são medidas de novo
+	private void medirColunaNovamente(Sheet sheet, int coluna) {
+		desatualizadaPorColuna[coluna] = false;
+		if (sheet.getRow(linhaDaMaiorPorColuna[coluna]) == null) {
+			return;
+		}
+		larguraPorColuna[coluna] = 0f;
+		linhaDaMaiorPorColuna[coluna] = -1;
+		medidasPorColuna[coluna] = 0;
+		CellIteratorUtil.forEachCell(sheet, 0, coluna, Integer.MAX_VALUE, coluna, this::registrar);
+	}
+
+	private static Cell obterCelula(Sheet sheet, int linha, int coluna) {
+		if (linha < 0) {
+			return null;
+		}
+		Row row = sheet.getRow(linha);
+		return row == null ? null : row.getCell(coluna);
+	}
+
+	private String textoExibido(Cell celula) {
+		CellType tipo = celula.getCellType();
+		if (tipo == CellType.FORMULA) {
+			tipo = celula.getCachedFormulaResultType();
+		}
+		switch (tipo) {
+		case STRING:
+			return celula.getRichStringCellValue().getString();
+		case BOOLEAN:
+			return celula.getBooleanCellValue() ? "TRUE" : "FALSE";
+		case NUMERIC:
+			return textoNumerico(celula);
+		case ERROR:
+			byte codigo = celula.getErrorCellValue();
+			return FormulaError.isValidCode(codigo) ? FormulaError.forInt(codigo).getString() : "#N/A";
+		default:
+			return "";
+		}
+	}
+
+	// No formato geral o número é medido sem o DataFormatter, que é mais caro
+	private String textoNumerico(Cell celula) {
+		double valor = celula.getNumericCellValue();
+		short formato = celula.getCellStyle().getDataFormat();
+		if (formato == 0) {
+			if (valor == Math.rint(valor) && Math.abs(valor) < 1e11) {
+				return Long.toString((long) valor);
+			}
+			String texto = Double.toString(valor);
+			return texto.length() > 11 ? texto.substring(0, 11) : texto;
+		}
+		if (formatador == null) {
+			formatador = new DataFormatter();
+		}
+		return formatador.formatRawCellContents(valor, formato, celula.getCellStyle().getDataFormatString());
+	}
+
+	private void garantirCapacidade(int coluna) {
+		if (coluna < larguraPorColuna.length) {
+			return;
+		}
+		int novaCapacidade = Math.max(coluna + 1, larguraPorColuna.length * 2);
+		larguraPorColuna = Arrays.copyOf(larguraPorColuna, novaCapacidade);
+		int tamanhoAnterior = linhaDaMaiorPorColuna.length;
+		linhaDaMaiorPorColuna = Arrays.copyOf(linhaDaMaiorPorColuna, novaCapacidade);
+		Arrays.fill(linhaDaMaiorPorColuna, tamanhoAnterior, novaCapacidade, -1);
+		medidasPorColuna = Arrays.copyOf(medidasPorColuna, novaCapacidade);
+		desatualizadaPorColuna = Arrays.copyOf(desatualizadaPorColuna, novaCapacidade);
+	}
+
+	private static int[] novoArray(int capacidade) {
+		int[] array = new int[capacidade];
+		Arrays.fill(array, -1);
+		return array;
+	}
+}
@@ -0,0 +1,113 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de chaves {@code long} não negativas para valores {@code int}, com
+ * endereçamento aberto e sem objetos por entrada. Usado pelos caches de
+ * estilo, cuja chave é composta pelo índice do estilo de origem e por um
+ * identificador de operação (ver {@link #chave(int, int)}).
+ */
+public final class MapaLongInt {
+
+	/** Valor retornado por {@link #obter(long)} quando a chave não existe. */
+	public static final int AUSENTE = -1;
+
+	private static final long VAZIA = -1L;
+
+	private long[] chaves;
+	private int[] valores;
+	private int tamanho;
+
+	public MapaLongInt() {
+		this(16);
+	}
+
+	public MapaLongInt(int capacidadeInicial) {
+		int capacidade = Integer.highestOneBit(Math.max(4, capacidadeInicial) * 2 - 1);
+		chaves = new long[capacidade];
+		valores = new int[capacidade];
+		Arrays.fill(chaves, VAZIA);
+	}
+
+	/**
+	 * Compõe a chave a partir do índice do estilo de origem e do identificador
+	 * da operação. Chaves distintas nunca colidem, pois cada parte ocupa 32 bits.
+	 */
+	public static long chave(int indiceEstilo, int operacao) {
+		return ((long) indiceEstilo << 32) | (operacao & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @return O valor associado, ou {@link #AUSENTE}.
+	 */
+	public int obter(long chave) {
+		int mascara = chaves.length - 1;
+		for (int i = posicao(chave, mascara);; i = (i + 1) & mascara) {
+			long atual = chaves[i];
+			if (atual == chave) {
+				return valores[i];
+			}
+			if (atual == VAZIA) {
+				return AUSENTE;
+			}
+		}
+	}
+
+	/**
+	 * Associa o valor à chave, substituindo o anterior.
+	 *
+	 * @param chave Chave não negativa.
+	 * @param valor Valor diferente de {@link #AUSENTE}.
+	 */
+	public void colocar(long chave, int valor) {
+		if (chave < 0) {
+			throw new IllegalArgumentException("A chave não pode ser negativa: " + chave);
+		}
+		if ((tamanho + 1) * 4 > chaves.length * 3) {
+			redimensionar();
+		}
+		int mascara = chaves.length - 1;
+		for (int i = posicao(chave, mascara);; i = (i + 1) & mascara) {
+			long atual = chaves[i];
+			if (atual == VAZIA) {
+				chaves[i] = chave;
+				valores[i] = valor;
+				tamanho++;
+				return;
+			}
+			if (atual == chave) {
+				valores[i] = valor;
+				return;
+			}
+		}
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public void limpar() {
+		Arrays.fill(chaves, VAZIA);
+		tamanho = 0;
+	}
+
+	private void redimensionar() {
+		long[] chavesAntigas = chaves;
+		int[] valoresAntigos = valores;
+		chaves = new long[chavesAntigas.length * 2];
+		valores = new int[chavesAntigas.length * 2];
+		Arrays.fill(chaves, VAZIA);
+		tamanho = 0;
+		for (int i = 0; i < chavesAntigas.length; i++) {
+			if (chavesAntigas[i] != VAZIA) {
+				colocar(chavesAntigas[i], valoresAntigos[i]);
+			}
+		}
+	}
+
+	private static int posicao(long chave, int mascara) {
+		long misturado = chave * 0x9E3779B97F4A7C15L;
+		return (int) (misturado ^ (misturado >>> 32)) & mascara;
+	}
+}
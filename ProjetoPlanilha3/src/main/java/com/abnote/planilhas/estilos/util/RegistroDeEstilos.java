@@ -0,0 +1,196 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Registro de estilos de célula de um workbook, compartilhado por todas as
+ * classes de estilo e por todas as abas.
+ *
+ * <p>
+ * Cada estilo derivado é internado pelo seu conjunto completo de atributos
+ * ({@link AtributosEstilo}): formatações idênticas resolvem sempre para o
+ * mesmo índice de estilo, entre chamadas e entre abas, o que mantém o
+ * workbook longe do limite de 64.000 estilos do Excel. Estilos criados fora
+ * do registro também são reaproveitados, pois são indexados antes de qualquer
+ * criação.
+ * </p>
+ *
+ * <p>
+ * O registro guarda apenas índices e referencia o workbook de forma fraca;
+ * não é thread-safe, assim como o próprio POI. O índice de estilo do POI é um
+ * {@code short} e é lido sem sinal, pois passa de 32.767 em workbooks grandes.
+ * </p>
+ */
+public final class RegistroDeEstilos {
+
+	private static final Map<Workbook, RegistroDeEstilos> REGISTROS = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	private final WeakReference<Workbook> workbook;
+	private final RegistroDeFontes fontes;
+	private final Map<AtributosEstilo, Integer> indicePorAtributos = new HashMap<>();
+	private final Map<Object, Integer> operacoes = new HashMap<>();
+	private final MapaLongInt derivados = new MapaLongInt();
+	private int estilosIndexados;
+
+	private RegistroDeEstilos(Workbook workbook) {
+		this.workbook = new WeakReference<>(workbook);
+		this.fontes = new RegistroDeFontes(workbook);
+	}
+
+	/**
+	 * Retorna o registro do workbook, criando-o no primeiro uso.
+	 *
+	 * @param workbook Workbook dono dos estilos.
+	 */
+	public static RegistroDeEstilos doWorkbook(Workbook workbook) {
+		if (workbook == null) {
+			throw new IllegalArgumentException("Workbook não pode ser nulo");
+		}
+		return REGISTROS.computeIfAbsent(workbook, RegistroDeEstilos::new);
+	}
+
+	/**
+	 * Deriva um estilo a partir de {@code origem}, aplicando a modificação sobre
+	 * os atributos dela, e retorna o estilo já existente com o mesmo resultado
+	 * ou um novo estilo registrado.
+	 *
+	 * @param origem     Estilo atual da célula.
+	 * @param modificacao Alteração a aplicar sobre uma cópia dos atributos.
+	 * @return Estilo com os atributos resultantes.
+	 */
+	public CellStyle derivar(CellStyle origem, Consumer<AtributosEstilo> modificacao) {
+		AtributosEstilo atributosOrigem = AtributosEstilo.de(origem);
+		AtributosEstilo atributos = AtributosEstilo.de(origem);
+		modificacao.accept(atributos);
+		return obter(atributos, origem, atributosOrigem);
+	}
+
+	/**
+	 * Retorna o identificador da operação descrita por {@code descritor} (ex.:
+	 * "negrito"), criando-o no primeiro uso. Descritores iguais (por
+	 * {@code equals}) têm o mesmo identificador.
+	 *
+	 * @param descritor Descrição imutável da operação.
+	 * @return Identificador não negativo, estável enquanto o registro existir.
+	 */
+	public int operacao(Object descritor) {
+		return operacoes.computeIfAbsent(descritor, d -> operacoes.size());
+	}
+
+	/**
+	 * Igual a {@link #derivar(CellStyle, Consumer)}, mas memoriza o resultado
+	 * pelo índice de {@code origem} e pela operação. Chamadas repetidas com o
+	 * mesmo par não derivam de novo e não alocam objetos.
+	 *
+	 * @param origem      Estilo atual da célula.
+	 * @param operacao    Identificador obtido por {@link #operacao(Object)}.
+	 * @param modificacao Alteração correspondente à operação.
+	 * @return Estilo com os atributos resultantes.
+	 */
+	public CellStyle derivar(CellStyle origem, int operacao, Consumer<AtributosEstilo> modificacao) {
+		long chave = MapaLongInt.chave(Short.toUnsignedInt(origem.getIndex()), operacao);
+		int indice = derivados.obter(chave);
+		if (indice != MapaLongInt.AUSENTE) {
+			return estilo(indice);
+		}
+		CellStyle derivado = derivar(origem, modificacao);
+		derivados.colocar(chave, Short.toUnsignedInt(derivado.getIndex()));
+		return derivado;
+	}
+
+	/**
+	 * Deriva um estilo trocando a fonte de {@code origem} por uma com os
+	 * atributos da fonte atual alterados por {@code modificacao}. A fonte vem do
+	 * {@link RegistroDeFontes}, e o resultado é memorizado por estilo de origem e
+	 * operação, como em {@link #derivar(CellStyle, int, Consumer)}.
+	 *
+	 * @param origem      Estilo atual da célula.
+	 * @param operacao    Identificador obtido por {@link #operacao(Object)}.
+	 * @param modificacao Alteração a aplicar sobre os atributos da fonte atual.
+	 * @return Estilo com a nova fonte.
+	 */
+	public CellStyle derivarComFonte(CellStyle origem, int operacao, Consumer<AtributosFonte> modificacao) {
+		long chave = MapaLongInt.chave(Short.toUnsignedInt(origem.getIndex()), operacao);
+		int indice = derivados.obter(chave);
+		if (indice != MapaLongInt.AUSENTE) {
+			return estilo(indice);
+		}
+		CellStyle derivado = derivar(origem, atributos -> {
+			AtributosFonte atributosFonte = AtributosFonte.de(obterWorkbook().getFontAt(atributos.getFonte()));
+			modificacao.accept(atributosFonte);
+			atributos.setFonte(fontes.obter(atributosFonte).getIndex());
+		});
+		derivados.colocar(chave, Short.toUnsignedInt(derivado.getIndex()));
+		return derivado;
+	}
+
+	/**
+	 * Estilo do workbook pelo índice. Os estilos não são guardados: um
+	 * {@code CellStyle} alcança o workbook e o manteria vivo no registro.
+	 */
+	public CellStyle estilo(int indice) {
+		return obterWorkbook().getCellStyleAt(indice);
+	}
+
+	/**
+	 * Registro de fontes do mesmo workbook.
+	 */
+	public RegistroDeFontes getFontes() {
+		return fontes;
+	}
+
+	/**
+	 * Quantidade de estilos distintos conhecidos pelo registro.
+	 */
+	public int getQuantidadeEstilos() {
+		indexarNovosEstilos(obterWorkbook());
+		return indicePorAtributos.size();
+	}
+
+	private CellStyle obter(AtributosEstilo atributos, CellStyle origem, AtributosEstilo atributosOrigem) {
+		Workbook wb = obterWorkbook();
+		Integer indice = indicePorAtributos.get(atributos);
+		if (indice == null) {
+			// Estilos criados fora do registro (ex.: datas, somas) entram antes de criar um novo
+			indexarNovosEstilos(wb);
+			indice = indicePorAtributos.get(atributos);
+		}
+		if (indice != null) {
+			return estilo(indice);
+		}
+
+		CellStyle novo = wb.createCellStyle();
+		novo.cloneStyleFrom(origem);
+		atributos.aplicarEm(novo, atributosOrigem, wb);
+		indicePorAtributos.put(atributos.copiarComoChave(), Short.toUnsignedInt(novo.getIndex()));
+		estilosIndexados = wb.getNumCellStyles();
+		return novo;
+	}
+
+	private void indexarNovosEstilos(Workbook wb) {
+		int total = wb.getNumCellStyles();
+		for (int i = estilosIndexados; i < total; i++) {
+			CellStyle estilo = wb.getCellStyleAt(i);
+			// O primeiro estilo com um conjunto de atributos é o canônico
+			indicePorAtributos.putIfAbsent(AtributosEstilo.de(estilo).copiarComoChave(), i);
+		}
+		estilosIndexados = total;
+	}
+
+	private Workbook obterWorkbook() {
+		Workbook wb = workbook.get();
+		if (wb == null) {
+			throw new IllegalStateException("O workbook deste registro de estilos já foi descartado.");
+		}
+		return wb;
+	}
+}
@@ -0,0 +1,70 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Registro de fontes de um workbook. Cada fonte é internada pelos seus
+ * atributos ({@link AtributosFonte}), de modo que a quantidade de fontes
+ * criadas acompanha a quantidade de fontes distintas, e não a de estilos
+ * derivados.
+ *
+ * <p>
+ * Obtido por {@link RegistroDeEstilos#getFontes()}; guarda apenas índices e
+ * também reaproveita fontes criadas fora do registro.
+ * </p>
+ */
+public final class RegistroDeFontes {
+
+	private final WeakReference<Workbook> workbook;
+	private final Map<AtributosFonte, Integer> indicePorAtributos = new HashMap<>();
+	private int fontesIndexadas;
+
+	RegistroDeFontes(Workbook workbook) {
+		this.workbook = new WeakReference<>(workbook);
+	}
+
+	/**
+	 * Retorna a fonte do workbook com os atributos informados, criando-a apenas
+	 * se ainda não existir.
+	 *
+	 * @param atributos Atributos desejados.
+	 * @return Fonte existente ou recém-criada.
+	 */
+	public Font obter(AtributosFonte atributos) {
+		Workbook wb = obterWorkbook();
+		Integer indice = indicePorAtributos.get(atributos);
+		if (indice == null) {
+			indexarNovasFontes(wb);
+			indice = indicePorAtributos.get(atributos);
+		}
+		if (indice != null) {
+			return wb.getFontAt(indice);
+		}
+
+		Font nova = atributos.criarEm(wb);
+		indicePorAtributos.put(atributos.copiarComoChave(), nova.getIndex());
+		fontesIndexadas = wb.getNumberOfFonts();
+		return nova;
+	}
+
+	private void indexarNovasFontes(Workbook wb) {
+		int total = wb.getNumberOfFonts();
+		for (int i = fontesIndexadas; i < total; i++) {
+			indicePorAtributos.putIfAbsent(AtributosFonte.de(wb.getFontAt(i)).copiarComoChave(), i);
+		}
+		fontesIndexadas = total;
+	}
+
+	private Workbook obterWorkbook() {
+		Workbook wb = workbook.get();
+		if (wb == null) {
+			throw new IllegalStateException("O workbook deste registro de fontes já foi descartado.");
+		}
+		return wb;
+	}
+}
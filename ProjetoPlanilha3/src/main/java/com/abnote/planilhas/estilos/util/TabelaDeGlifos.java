@@ -0,0 +1,136 @@
+package com.abnote.planilhas.estilos.util;
+
+import java.util.Locale;
+
+/**
+ * Larguras aproximadas de glifos por família de fonte, em unidades da largura
+ * do dígito "0" da fonte padrão do workbook (Calibri 11), que é a unidade de
+ * largura de coluna do Excel.
+ *
+ * <p>
+ * As tabelas são calculadas uma vez, a partir de poucas classes de caracteres
+ * (estreitos, largos, maiúsculas etc.), e dispensam o layout de texto do AWT
+ * usado por {@code Sheet.autoSizeColumn}, que é lento e exige configuração de
+ * fontes em servidores sem interface gráfica.
+ * </p>
+ */
+public enum TabelaDeGlifos {
+
+	// estreito, semiestreito, espaço, dígito, minúscula, maiúscula, minúscula larga, maiúscula larga, escala
+	CALIBRI(0.45f, 0.62f, 0.45f, 1.0f, 0.93f, 1.10f, 1.50f, 1.70f, 1.00f),
+	ARIAL(0.40f, 0.60f, 0.50f, 1.0f, 0.95f, 1.20f, 1.50f, 1.65f, 1.14f),
+	TIMES(0.50f, 0.60f, 0.50f, 1.0f, 0.85f, 1.30f, 1.40f, 1.70f, 1.00f),
+	COURIER(1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.14f);
+
+	/** Tamanho, em pontos, da fonte padrão usada como referência. */
+	public static final float TAMANHO_PADRAO = 11f;
+
+	private static final float FATOR_NEGRITO = 1.08f;
+	private static final String ESTREITOS = "iljI.,:;'!|`";
+	private static final String SEMIESTREITOS = "frt()[]{}-\"/\\";
+	private static final String MINUSCULAS_LARGAS = "mw";
+	private static final String MAIUSCULAS_LARGAS = "MW@%&";
+
+	private final float[] ascii = new float[128];
+	private final float minuscula;
+	private final float maiuscula;
+	private final float outro;
+
+	TabelaDeGlifos(float estreito, float semiestreito, float espaco, float digito, float minuscula, float maiuscula,
+			float minusculaLarga, float maiusculaLarga, float escala) {
+		this.minuscula = minuscula * escala;
+		this.maiuscula = maiuscula * escala;
+		this.outro = digito * escala;
+		for (char c = 0; c < ascii.length; c++) {
+			float largura;
+			if (ESTREITOS.indexOf(c) >= 0) {
+				largura = estreito;
+			} else if (SEMIESTREITOS.indexOf(c) >= 0) {
+				largura = semiestreito;
+			} else if (MINUSCULAS_LARGAS.indexOf(c) >= 0) {
+				largura = minusculaLarga;
+			} else if (MAIUSCULAS_LARGAS.indexOf(c) >= 0) {
+				largura = maiusculaLarga;
+			} else if (c == ' ') {
+				largura = espaco;
+			} else if (c >= '0' && c <= '9') {
+				largura = digito;
+			} else if (c >= 'a' && c <= 'z') {
+				largura = minuscula;
+			} else if (c >= 'A' && c <= 'Z') {
+				largura = maiuscula;
+			} else if (c < ' ') {
+				largura = 0f;
+			} else {
+				largura = digito;
+			}
+			ascii[c] = largura * escala;
+		}
+	}
+
+	/**
+	 * Retorna a tabela mais próxima da família de fonte informada.
+	 *
+	 * @param nomeFonte Nome da fonte (ex.: "Arial"), ou null para a padrão.
+	 */
+	public static TabelaDeGlifos daFonte(String nomeFonte) {
+		if (nomeFonte == null) {
+			return CALIBRI;
+		}
+		String nome = nomeFonte.toLowerCase(Locale.ROOT);
+		if (nome.contains("courier") || nome.contains("consolas") || nome.contains("mono")) {
+			return COURIER;
+		}
+		if (nome.contains("times") || nome.contains("georgia") || nome.contains("cambria")) {
+			return TIMES;
+		}
+		if (nome.contains("arial") || nome.contains("helvetica") || nome.contains("verdana")
+				|| nome.contains("tahoma")) {
+			return ARIAL;
+		}
+		return CALIBRI;
+	}
+
+	/**
+	 * Largura do texto na fonte padrão; com quebras de linha, vale a da linha
+	 * mais longa.
+	 */
+	public float largura(CharSequence texto) {
+		float maior = 0f;
+		float atual = 0f;
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (c == '\n') {
+				maior = Math.max(maior, atual);
+				atual = 0f;
+			} else {
+				atual += larguraDoGlifo(c);
+			}
+		}
+		return Math.max(maior, atual);
+	}
+
+	/**
+	 * Largura do texto no tamanho e peso informados.
+	 *
+	 * @param texto   O texto exibido.
+	 * @param tamanho Tamanho da fonte, em pontos.
+	 * @param negrito Se a fonte é negrito.
+	 */
+	public float largura(CharSequence texto, float tamanho, boolean negrito) {
+		return largura(texto) * (tamanho / TAMANHO_PADRAO) * (negrito ? FATOR_NEGRITO : 1f);
+	}
+
+	private float larguraDoGlifo(char c) {
+		if (c < ascii.length) {
+			return ascii[c];
+		}
+		if (Character.isUpperCase(c)) {
+			return maiuscula;
+		}
+		if (Character.isLowerCase(c)) {
+			return minuscula;
+		}
+		return outro;
+	}
+}
@@ -7,6 +7,7 @@ import org.apache.poi.ss.usermodel.Workbook;
 import com.abnote.planilhas.exceptions.FormulaException;
 import com.abnote.planilhas.interfaces.IFormulas;
 import com.abnote.planilhas.interfaces.IPlanilha;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
 
 import java.util.Objects;
 
@@ -27,6 +28,7 @@ public class FormulaBuilder implements IFormulas {
     private final int linhaAtual;
     private final int colunaAtual;
     private final IPlanilha planilhaRetorno;
+    private final MetadadosPlanilha metadados;
     private String formulaAtual;
     
     /**
@@ -40,11 +42,28 @@ public class FormulaBuilder implements IFormulas {
      */
     public FormulaBuilder(Workbook workbook, Sheet sheet, int linhaAtual, 
                          int colunaAtual, IPlanilha planilhaRetorno) {
+        this(workbook, sheet, linhaAtual, colunaAtual, planilhaRetorno, new MetadadosPlanilha());
+    }
+    
+    /**
+     * Constrói um novo FormulaBuilder que registra a célula da fórmula nos
+     * metadados da aba.
+     * 
+     * @param workbook Workbook do Apache POI
+     * @param sheet Sheet atual
+     * @param linhaAtual Índice da linha atual (0-based)
+     * @param colunaAtual Índice da coluna atual (0-based)
+     * @param planilhaRetorno Instância da planilha para retorno fluente
+     * @param metadados Metadados da aba atual
+     */
+    public FormulaBuilder(Workbook workbook, Sheet sheet, int linhaAtual, 
+                         int colunaAtual, IPlanilha planilhaRetorno, MetadadosPlanilha metadados) {
         this.workbook = Objects.requireNonNull(workbook, "Workbook não pode ser nulo");
         this.sheet = Objects.requireNonNull(sheet, "Sheet não pode ser nulo");
         this.linhaAtual = linhaAtual;
         this.colunaAtual = colunaAtual;
         this.planilhaRetorno = Objects.requireNonNull(planilhaRetorno, "Planilha de retorno não pode ser nula");
+        this.metadados = Objects.requireNonNull(metadados, "Metadados não podem ser nulos");
         this.formulaAtual = null;
     }
     
@@ -154,12 +173,15 @@ public class FormulaBuilder implements IFormulas {
     
     @Override
     public IPlanilha aplicar() {
+        metadados.verificarAlteracaoPermitida();
         if (formulaAtual == null || formulaAtual.trim().isEmpty()) {
             throw new IllegalStateException("Nenhuma fórmula foi definida para aplicar");
         }
         
         Cell celula = obterOuCriarCelula();
+        metadados.descontarCelula(celula);
         celula.setCellFormula(formulaAtual);
+        metadados.registrarCelula(celula);
         
         return planilhaRetorno;
     }
@@ -6,6 +6,7 @@ import com.abnote.planilhas.calculos.Conversores;
 import com.abnote.planilhas.exceptions.PosicaoInvalidaException;
 import com.abnote.planilhas.interfaces.IConversao;
 import com.abnote.planilhas.interfaces.IPlanilha;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
 
 /**
  * Implementação do gerenciador de conversões de formato de células.
@@ -24,6 +25,7 @@ public class ConversaoManager implements IConversao {
 	private final Sheet sheet;
 	private final Workbook workbook;
 	private final IPlanilha planilhaRetorno;
+	private final MetadadosPlanilha metadados;
 
 	/**
 	 * Construtor do gerenciador de conversões.
@@ -33,22 +35,38 @@ public class ConversaoManager implements IConversao {
 	 * @param planilhaRetorno Instância de IPlanilha para retorno fluente
 	 */
 	public ConversaoManager(Sheet sheet, Workbook workbook, IPlanilha planilhaRetorno) {
+		this(sheet, workbook, planilhaRetorno, new MetadadosPlanilha());
+	}
+
+	/**
+	 * Construtor que mantém os metadados da aba atualizados e respeita o
+	 * congelamento da planilha durante um salvamento assíncrono.
+	 *
+	 * @param sheet           A folha da planilha onde as conversões serão aplicadas
+	 * @param workbook        O workbook para criação de estilos
+	 * @param planilhaRetorno Instância de IPlanilha para retorno fluente
+	 * @param metadados       Metadados da aba
+	 */
+	public ConversaoManager(Sheet sheet, Workbook workbook, IPlanilha planilhaRetorno, MetadadosPlanilha metadados) {
 		this.sheet = sheet;
 		this.workbook = workbook;
 		this.planilhaRetorno = planilhaRetorno;
+		this.metadados = metadados;
 	}
 
 	@Override
     public IPlanilha emNumero(String posicaoInicial) {
         validarPosicao(posicaoInicial);
-        Conversores.converterEmNumero(sheet, posicaoInicial);
+        metadados.verificarAlteracaoPermitida();
+        Conversores.converterEmNumero(sheet, posicaoInicial, metadados);
         return planilhaRetorno;
     }
     
     @Override
     public IPlanilha emContabil(String posicaoInicial) {
         validarPosicao(posicaoInicial);
-        Conversores.converterEmContabil(sheet, posicaoInicial, workbook);
+        metadados.verificarAlteracaoPermitida();
+        Conversores.converterEmContabil(sheet, posicaoInicial, workbook, metadados);
         return planilhaRetorno;
     }
 
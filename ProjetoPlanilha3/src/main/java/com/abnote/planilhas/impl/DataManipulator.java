@@ -1,10 +1,14 @@
 package com.abnote.planilhas.impl;
 
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 
@@ -12,9 +16,12 @@ import com.abnote.planilhas.calculos.Calculos;
 import com.abnote.planilhas.calculos.Conversores;
 import com.abnote.planilhas.estilos.EstiloCelula;
 import com.abnote.planilhas.interfaces.IManipulacaoDados;
+import com.abnote.planilhas.mapeamento.MapeamentoColunas;
 import com.abnote.planilhas.utils.InsersorDeDados;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
 import com.abnote.planilhas.utils.PositionManager;
 import com.abnote.planilhas.utils.PosicaoConverter;
+import com.abnote.planilhas.utils.TipoValor;
 
 public class DataManipulator implements IManipulacaoDados {
 
@@ -22,16 +29,23 @@ public class DataManipulator implements IManipulacaoDados {
 	private final Workbook workbook;
 	private final PositionManager positionManager;
 	private final InsersorDeDados insersorDeDados;
+	private final MetadadosPlanilha metadados;
 	private int ultimoIndiceDeLinhaInserido = -1;
 	private int ultimoIndiceDeColunaInserido = -1;
 	private int linhaSelecionadaAtual = -1;
 	private int colunaSelecionadaAtual = -1;
 
 	public DataManipulator(Workbook workbook, Sheet sheet, PositionManager positionManager) {
+		this(workbook, sheet, positionManager, new MetadadosPlanilha());
+	}
+
+	public DataManipulator(Workbook workbook, Sheet sheet, PositionManager positionManager,
+			MetadadosPlanilha metadados) {
 		this.workbook = workbook;
 		this.sheet = sheet;
 		this.positionManager = positionManager;
-		this.insersorDeDados = new InsersorDeDados(sheet, positionManager);
+		this.metadados = metadados;
+		this.insersorDeDados = new InsersorDeDados(sheet, positionManager, metadados);
 	}
 
 	public IManipulacaoDados naCelula(String posicao) {
@@ -83,6 +97,59 @@ public class DataManipulator implements IManipulacaoDados {
 		return this;
 	}
 
+	@Override
+	public IManipulacaoDados inserirMatriz(Object[][] matriz) {
+		insersorDeDados.inserirMatriz(matriz);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserirColunas(double[]... colunas) {
+		insersorDeDados.inserirColunas(colunas);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public <T> IManipulacaoDados inserirObjetos(List<T> objetos, Class<T> tipo) {
+		return inserirObjetos(objetos, MapeamentoColunas.deAnotacoes(tipo));
+	}
+
+	@Override
+	public <T> IManipulacaoDados inserirObjetos(List<T> objetos, MapeamentoColunas<T> mapeamento) {
+		insersorDeDados.inserirObjetos(objetos, mapeamento);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserirFluxo(Iterator<? extends List<?>> linhas) {
+		return inserirFluxo(linhas, Integer.MAX_VALUE, null);
+	}
+
+	@Override
+	public IManipulacaoDados inserirFluxo(Iterator<? extends List<?>> linhas, int intervaloProgresso,
+			LongConsumer progresso) {
+		insersorDeDados.inserirFluxo(linhas, intervaloProgresso, progresso);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserirFluxo(Stream<? extends List<?>> linhas) {
+		return inserirFluxo(linhas, Integer.MAX_VALUE, null);
+	}
+
+	@Override
+	public IManipulacaoDados inserirFluxo(Stream<? extends List<?>> linhas, int intervaloProgresso,
+			LongConsumer progresso) {
+		if (linhas == null) {
+			throw new IllegalArgumentException("O Stream de linhas não pode ser nulo");
+		}
+		return inserirFluxo(linhas.iterator(), intervaloProgresso, progresso);
+	}
+
 	@Override
 	public IManipulacaoDados inserirDadosArquivo(String caminhoArquivo, String delimitador) {
 		insersorDeDados.inserirDadosArquivo(caminhoArquivo, delimitador);
@@ -90,36 +157,104 @@ public class DataManipulator implements IManipulacaoDados {
 		return this;
 	}
 
+	@Override
+	public IManipulacaoDados inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset) {
+		insersorDeDados.inserirDadosArquivo(caminhoArquivo, delimitador, charset);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset,
+			int paralelismo) {
+		insersorDeDados.inserirDadosArquivo(caminhoArquivo, delimitador, charset, paralelismo);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserirDadosArquivoMapeado(String caminhoArquivo, String delimitador, Charset charset) {
+		insersorDeDados.inserirDadosArquivoMapeado(caminhoArquivo, delimitador, charset);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados definirTipoColuna(String coluna, TipoValor tipo) {
+		insersorDeDados.definirTipoColuna(PosicaoConverter.converterColuna(coluna), tipo);
+		return this;
+	}
+
 	@Override
 	public IManipulacaoDados somarColuna(String posicaoInicial) {
+		metadados.verificarAlteracaoPermitida();
+		int[] posicao = PosicaoConverter.converterPosicao(posicaoInicial);
+		int linhaFinal = sheet.getLastRowNum() + 1;
+		percorrerColunas(posicao[1], linhaFinal, posicao[0], posicao[0], false);
 		Calculos.somarColuna(sheet, posicaoInicial);
-		String colunaLetra = posicaoInicial.replaceAll("[0-9]", "");
-		ultimaLinha(colunaLetra);
-		ultimoIndiceDeColunaInserido = -1;
+		percorrerColunas(posicao[1], linhaFinal, posicao[0], posicao[0], true);
+		atualizarAposCalculo(posicaoInicial.replaceAll("[0-9]", ""));
 		return this;
 	}
 
 	@Override
 	public IManipulacaoDados somarColunaComTexto(String posicaoInicial, String texto) {
+		metadados.verificarAlteracaoPermitida();
+		int[] posicao = PosicaoConverter.converterPosicao(posicaoInicial);
+		int linhaFinal = Math.max(posicao[1], sheet.getLastRowNum()) + 1;
+		percorrerColunas(posicao[1], linhaFinal, posicao[0] - 1, posicao[0], false);
 		Calculos.somarColunaComTexto(sheet, posicaoInicial, texto);
-		String colunaLetra = posicaoInicial.replaceAll("[0-9]", "");
-		ultimaLinha(colunaLetra);
-		ultimoIndiceDeColunaInserido = -1;
+		percorrerColunas(posicao[1], linhaFinal, posicao[0] - 1, posicao[0], true);
+		atualizarAposCalculo(posicaoInicial.replaceAll("[0-9]", ""));
 		return this;
 	}
 
 	@Override
 	public IManipulacaoDados multiplicarColunasComTexto(String coluna1, String coluna2, int linhaInicial, String texto,
 			String colunaDestino) {
+		metadados.verificarAlteracaoPermitida();
+		int colunaDestinoIndex = PosicaoConverter.converterColuna(colunaDestino);
+		int linhaFinal = sheet.getLastRowNum() + 1;
+		percorrerColunas(linhaInicial - 1, linhaFinal, colunaDestinoIndex - 1, colunaDestinoIndex, false);
 		Calculos.multiplicarColunasComTexto(sheet, coluna1, coluna2, linhaInicial, texto, colunaDestino);
-		String colunaLetra = colunaDestino;
+		percorrerColunas(linhaInicial - 1, linhaFinal, colunaDestinoIndex - 1, colunaDestinoIndex, true);
+		atualizarAposCalculo(colunaDestino);
+		return this;
+	}
+
+	/**
+	 * Desconta (antes) ou registra (depois) nos metadados as células de um
+	 * retângulo escrito fora do {@link InsersorDeDados}, como nos cálculos.
+	 */
+	protected void percorrerColunas(int linhaInicial, int linhaFinal, int primeiraColuna, int ultimaColuna,
+			boolean registrar) {
+		for (int i = Math.max(0, linhaInicial); i <= linhaFinal; i++) {
+			Row row = sheet.getRow(i);
+			if (row == null) {
+				continue;
+			}
+			for (int c = Math.max(0, primeiraColuna); c <= ultimaColuna; c++) {
+				if (registrar) {
+					metadados.registrarCelula(row.getCell(c));
+				} else {
+					metadados.descontarCelula(row.getCell(c));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Posiciona os índices de última inserção na linha do resultado de um cálculo
+	 * feito na coluna informada.
+	 */
+	protected void atualizarAposCalculo(String colunaLetra) {
 		ultimaLinha(colunaLetra);
 		ultimoIndiceDeColunaInserido = -1;
-		return this;
 	}
 
 	@Override
 	public IManipulacaoDados mesclarCelulas() {
+		metadados.verificarAlteracaoPermitida();
 		if (!positionManager.isIntervaloDefinida()) {
 			throw new IllegalStateException(
 					"É necessário definir um intervalo usando noIntervalo() antes de mesclar células.");
@@ -145,21 +280,22 @@ public class DataManipulator implements IManipulacaoDados {
 	 */
 	public void ultimaLinha(String coluna) {
 		int colunaIndex = PosicaoConverter.converterColuna(coluna);
-		ultimoIndiceDeLinhaInserido = IntStream.rangeClosed(0, sheet.getLastRowNum()).filter(i -> {
-			Row row = sheet.getRow(i);
-			return row != null && row.getCell(colunaIndex) != null
-					&& row.getCell(colunaIndex).getCellType() != CellType.BLANK;
-		}).max().orElse(sheet.getLastRowNum());
+		int lastRowIndex = encontrarUltimaLinhaPreenchida(colunaIndex);
+		ultimoIndiceDeLinhaInserido = lastRowIndex != -1 ? lastRowIndex : sheet.getLastRowNum();
+	}
+
+	/**
+	 * Retorna o índice da última linha não vazia da coluna, ou -1 se não houver,
+	 * consultando o índice de ocupação dos metadados.
+	 */
+	protected int encontrarUltimaLinhaPreenchida(int colunaIndex) {
+		return metadados.getUltimaLinha(colunaIndex);
 	}
 
 	@Override
 	public IManipulacaoDados naUltimaLinha(String coluna) {
 		int colunaIndex = PosicaoConverter.converterColuna(coluna);
-		int lastRowIndex = IntStream.rangeClosed(0, sheet.getLastRowNum()).filter(i -> {
-			Row row = sheet.getRow(i);
-			return row != null && row.getCell(colunaIndex) != null
-					&& row.getCell(colunaIndex).getCellType() != CellType.BLANK;
-		}).max().orElse(-1);
+		int lastRowIndex = encontrarUltimaLinhaPreenchida(colunaIndex);
 		int nextRowIndex = lastRowIndex + 1;
 		String colunaLetra = PosicaoConverter.converterIndice(colunaIndex);
 		String posicao = colunaLetra + (nextRowIndex + 1);
@@ -177,14 +313,46 @@ public class DataManipulator implements IManipulacaoDados {
 
 	@Override
 	public IManipulacaoDados inserir(int valor) {
-		insersorDeDados.inserirDados(String.valueOf(valor));
+		insersorDeDados.inserirDados((double) valor);
 		updateLastInsertedIndices();
 		return this;
 	}
 
 	@Override
 	public IManipulacaoDados inserir(double valor) {
-		insersorDeDados.inserirDados(String.valueOf(valor));
+		insersorDeDados.inserirDados(valor);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserir(long valor) {
+		insersorDeDados.inserirDados((double) valor);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserir(BigDecimal valor) {
+		if (valor == null) {
+			insersorDeDados.inserirDados((String) null);
+		} else {
+			insersorDeDados.inserirDados(valor.doubleValue());
+		}
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserir(LocalDate valor) {
+		insersorDeDados.inserirDados(valor);
+		updateLastInsertedIndices();
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados inserir(boolean valor) {
+		insersorDeDados.inserirDados(valor);
 		updateLastInsertedIndices();
 		return this;
 	}
@@ -194,6 +362,18 @@ public class DataManipulator implements IManipulacaoDados {
 		ultimoIndiceDeColunaInserido = insersorDeDados.getUltimoIndiceDeColunaInserido();
 	}
 
+	protected Sheet getSheet() {
+		return sheet;
+	}
+
+	protected Workbook getWorkbook() {
+		return workbook;
+	}
+
+	protected MetadadosPlanilha getMetadados() {
+		return metadados;
+	}
+
 	public int getUltimoIndiceDeLinhaInserido() {
 		return ultimoIndiceDeLinhaInserido;
 	}
@@ -221,7 +401,7 @@ public class DataManipulator implements IManipulacaoDados {
 		int rowIndex = getUltimoIndiceDeLinhaInserido();
 		int columnIndex = getUltimoIndiceDeColunaInserido();
 		if (rowIndex >= 0 && columnIndex >= 0) {
-			return new EstiloCelula(workbook, sheet, rowIndex, columnIndex);
+			return new EstiloCelula(workbook, sheet, rowIndex, columnIndex).vincular(metadados);
 		} else {
 			throw new IllegalStateException("Nenhuma célula disponível para aplicar estilos.");
 		}
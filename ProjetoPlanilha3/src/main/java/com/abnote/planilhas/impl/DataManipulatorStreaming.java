@@ -0,0 +1,149 @@
+package com.abnote.planilhas.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+
+import com.abnote.planilhas.calculos.Calculos;
+import com.abnote.planilhas.interfaces.IManipulacaoDados;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
+import com.abnote.planilhas.utils.PosicaoConverter;
+import com.abnote.planilhas.utils.PositionManager;
+
+/**
+ * Manipulador de dados para abas em streaming ({@link SXSSFSheet}).
+ *
+ * <p>
+ * Linhas que saíram da janela em memória já foram gravadas em disco e não
+ * podem ser relidas. Por isso as somas de coluna são
+ * respondidas a partir dos {@link MetadadosPlanilha} mantidos durante a
+ * inserção, sem percorrer a planilha.
+ * </p>
+ */
+public class DataManipulatorStreaming extends DataManipulator {
+
+	private final SXSSFSheet sheetStreaming;
+
+	public DataManipulatorStreaming(Workbook workbook, Sheet sheet, PositionManager positionManager,
+			MetadadosPlanilha metadados) {
+		super(workbook, sheet, positionManager, metadados);
+		this.sheetStreaming = (SXSSFSheet) sheet;
+	}
+
+	@Override
+	public IManipulacaoDados somarColuna(String posicaoInicial) {
+		getMetadados().verificarAlteracaoPermitida();
+		int[] posicao = PosicaoConverter.converterPosicao(posicaoInicial);
+		int coluna = posicao[0];
+		int linhaInicial = posicao[1];
+
+		int ultimaLinhaDados = getMetadados().getUltimaLinhaNumerica(coluna);
+		if (ultimaLinhaDados < linhaInicial) {
+			ultimaLinhaDados = -1;
+		}
+
+		Row rowSoma = obterOuCriarLinha(ultimaLinhaDados + 1);
+		escreverSoma(rowSoma, coluna, linhaInicial, ultimaLinhaDados);
+
+		atualizarAposCalculo(posicaoInicial.replaceAll("[0-9]", ""));
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados somarColunaComTexto(String posicaoInicial, String texto) {
+		getMetadados().verificarAlteracaoPermitida();
+		int[] posicao = PosicaoConverter.converterPosicao(posicaoInicial);
+		int coluna = posicao[0];
+		int linhaInicial = posicao[1];
+
+		int ultimaLinha = Math.max(linhaInicial, getSheet().getLastRowNum());
+		int ultimaLinhaDados = getMetadados().getUltimaLinhaNumerica(coluna);
+		if (ultimaLinhaDados < linhaInicial) {
+			ultimaLinhaDados = -1;
+		}
+
+		Row rowSoma = obterOuCriarLinha(ultimaLinha + 1);
+		Cell cellTexto = rowSoma.createCell(coluna - 1);
+		cellTexto.setCellValue(texto);
+		getMetadados().registrarCelula(cellTexto);
+		escreverSoma(rowSoma, coluna, linhaInicial, ultimaLinhaDados);
+
+		atualizarAposCalculo(posicaoInicial.replaceAll("[0-9]", ""));
+		return this;
+	}
+
+	@Override
+	public IManipulacaoDados multiplicarColunasComTexto(String coluna1, String coluna2, int linhaInicial, String texto,
+			String colunaDestino) {
+		getMetadados().verificarAlteracaoPermitida();
+		// Precisa ler e escrever em cada linha, então todas devem estar em memória
+		int rowIndexInicial = linhaInicial - 1;
+		verificarLinhaEmMemoria(rowIndexInicial);
+
+		int colunaDestinoIndex = PosicaoConverter.converterColuna(colunaDestino);
+		int ultimaLinhaAntes = getSheet().getLastRowNum();
+		percorrerColunas(rowIndexInicial, ultimaLinhaAntes, colunaDestinoIndex - 1, colunaDestinoIndex, false);
+
+		Calculos.multiplicarColunasComTexto(getSheet(), coluna1, coluna2, linhaInicial, texto, colunaDestino);
+
+		percorrerColunas(rowIndexInicial, getSheet().getLastRowNum(), colunaDestinoIndex - 1, colunaDestinoIndex,
+				true);
+		atualizarAposCalculo(colunaDestino);
+		return this;
+	}
+
+	/**
+	 * Escreve a soma da coluna na linha informada. Quando o intervalo cobre todos
+	 * os valores numéricos registrados, o total vem direto dos metadados; caso
+	 * contrário é gravada uma fórmula SUM, recalculada ao abrir o arquivo.
+	 */
+	private void escreverSoma(Row rowSoma, int coluna, int linhaInicial, int ultimaLinhaDados) {
+		MetadadosPlanilha metadados = getMetadados();
+		Workbook workbook = getWorkbook();
+
+		metadados.descontarCelula(rowSoma.getCell(coluna));
+		Cell cellSoma = rowSoma.createCell(coluna);
+
+		if (ultimaLinhaDados == -1) {
+			cellSoma.setCellValue(0.0);
+		} else if (linhaInicial <= metadados.getPrimeiraLinhaNumerica(coluna)) {
+			cellSoma.setCellValue(metadados.getSoma(coluna));
+		} else {
+			String colunaLetra = PosicaoConverter.converterIndice(coluna);
+			cellSoma.setCellFormula(
+					"SUM(" + colunaLetra + (linhaInicial + 1) + ":" + colunaLetra + (ultimaLinhaDados + 1) + ")");
+			workbook.setForceFormulaRecalculation(true);
+		}
+
+		CellStyle estiloBase = ultimaLinhaDados == -1 ? null : metadados.getEstiloNumerico(coluna);
+		CellStyle somaStyle = workbook.createCellStyle();
+		if (estiloBase != null) {
+			somaStyle.cloneStyleFrom(estiloBase);
+		} else {
+			somaStyle.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+		}
+		cellSoma.setCellStyle(somaStyle);
+
+		metadados.registrarCelula(cellSoma);
+	}
+
+	private Row obterOuCriarLinha(int indiceLinha) {
+		Row row = getSheet().getRow(indiceLinha);
+		if (row == null) {
+			verificarLinhaEmMemoria(indiceLinha);
+			row = getSheet().createRow(indiceLinha);
+		}
+		return row;
+	}
+
+	private void verificarLinhaEmMemoria(int indiceLinha) {
+		if (indiceLinha <= sheetStreaming.getLastFlushedRowNum()) {
+			throw new IllegalStateException("A linha " + (indiceLinha + 1)
+					+ " já foi gravada em disco e não pode mais ser alterada. Aumente a janela de linhas em memória"
+					+ " do PlanilhaXlsxStreaming ou realize a operação antes de inserir mais dados.");
+		}
+	}
+}
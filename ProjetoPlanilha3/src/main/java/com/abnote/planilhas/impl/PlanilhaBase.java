@@ -2,8 +2,33 @@ package com.abnote.planilhas.impl;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
@@ -12,14 +37,22 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 
 import com.abnote.planilhas.estilos.EstiloCelula;
+import com.abnote.planilhas.estilos.util.LarguraDeColunas;
 import com.abnote.planilhas.exceptions.ArquivoException;
+import com.abnote.planilhas.interfaces.IBuscaDados;
 import com.abnote.planilhas.interfaces.IManipulacaoDados;
 import com.abnote.planilhas.interfaces.IPlanilha;
 import com.abnote.planilhas.interfaces.ISelecao;
+import com.abnote.planilhas.mapeamento.MapeamentoColunas;
+import com.abnote.planilhas.utils.BuscadorDeDados;
+import com.abnote.planilhas.utils.FluxoSemFechamento;
 import com.abnote.planilhas.utils.LoggerUtil;
 import com.abnote.planilhas.utils.ManipuladorPlanilha;
+import com.abnote.planilhas.utils.MetadadosPlanilha;
 import com.abnote.planilhas.utils.PosicaoConverter;
 import com.abnote.planilhas.utils.PositionManager;
+import com.abnote.planilhas.utils.TipoValor;
+import com.abnote.planilhas.utils.TravaDeSalvamento;
 import com.abnote.planilhas.formulas.FormulaBuilder;
 import com.abnote.planilhas.interfaces.IConversao;
 import com.abnote.planilhas.interfaces.IFormulas;
@@ -35,23 +68,52 @@ public abstract class PlanilhaBase implements IPlanilha {
 	protected StyleManager styleManager;
 	protected ConversaoManager conversaoManager;
 	protected SelecaoManager selecaoManager;
+	protected MetadadosPlanilha metadados;
+	private final Map<String, MetadadosPlanilha> metadadosPorAba = new HashMap<>();
 	private String diretorioSaida = "C:\\opt\\tmp\\testePlanilhaSaidas";
+	private Executor executorSalvamento = ExecutorSalvamentoPadrao.INSTANCIA;
+	private int nivelCompressao = Deflater.DEFAULT_COMPRESSION;
+	private int amostragemLarguraColunas = 1;
+	private final TravaDeSalvamento travaDeSalvamento = new TravaDeSalvamento();
+	// Último estilo com alterações acumuladas, aplicado no início da próxima operação
+	private EstiloCelula estiloPendente;
 
 	protected abstract void inicializarWorkbook();
 
+	/**
+	 * Cria o manipulador de dados da aba atual. Implementações podem sobrescrever
+	 * para trocar a estratégia de leitura (ex.: workbooks em streaming).
+	 */
+	protected DataManipulator criarDataManipulator() {
+		return new DataManipulator(workbook, sheet, positionManager, metadados);
+	}
+
 	// Método privado para (re)inicializar os manipuladores de dados e estilos
 	private void initManipulators() {
 	    positionManager.resetarPosicao();
-	    dataManipulator = new DataManipulator(workbook, sheet, positionManager);
-	    styleManager = new StyleManager(workbook, sheet, positionManager, dataManipulator);
-	    conversaoManager = new ConversaoManager(sheet, workbook, this);
+	    metadados = metadadosDa(sheet);
+	    dataManipulator = criarDataManipulator();
+	    styleManager = new StyleManager(workbook, sheet, positionManager, dataManipulator, this::adiarEstilo);
+	    conversaoManager = new ConversaoManager(sheet, workbook, this, metadados);
 	    selecaoManager = new SelecaoManager(this, dataManipulator, positionManager);
 	}
+
+	// Metadados de uma aba do workbook, criados no primeiro acesso
+	private MetadadosPlanilha metadadosDa(Sheet aba) {
+	    return metadadosPorAba.computeIfAbsent(aba.getSheetName(), nome -> {
+	        LarguraDeColunas larguras = new LarguraDeColunas();
+	        larguras.setAmostragem(amostragemLarguraColunas);
+	        return new MetadadosPlanilha(larguras, travaDeSalvamento);
+	    });
+	}
+
 	@Override
 	public void criarPlanilha(String nomeSheet) {
+		prepararOperacao();
 		logger.info("Iniciando a criação da planilha: " + nomeSheet);
 		try {
 			inicializarWorkbook();
+			metadadosPorAba.clear();
 			sheet = workbook.createSheet(nomeSheet);
 			initManipulators();
 			logger.info("Planilha '" + nomeSheet + "' criada com sucesso.");
@@ -63,6 +125,7 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public void criarSheet(String nomeSheet) {
+		prepararOperacao();
 		try {
 			if (workbook.getSheet(nomeSheet) != null) {
 				String msg = "A aba '" + nomeSheet + "' já existe!";
@@ -79,6 +142,7 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public void selecionarSheet(String nomeSheet) {
+		prepararOperacao();
 		logger.fine("Atuando na Sheet: " + nomeSheet);
 		try {
 			if (workbook == null) {
@@ -101,15 +165,178 @@ public abstract class PlanilhaBase implements IPlanilha {
 
     @Override
     public void salvar(String nomeArquivo) { 
-        if (nomeArquivo == null || nomeArquivo.trim().isEmpty()) {
-            throw new ArquivoException(
-                "Nome do arquivo não pode ser nulo ou vazio",
-                nomeArquivo
-            );
-        }
-        
+        validarNomeArquivo(nomeArquivo);
+        prepararOperacao();
+        gravarArquivo(nomeArquivo);
+    }
+
+	/**
+	 * Salva a planilha em segundo plano, no executor definido em
+	 * {@link #setExecutorSalvamento(Executor)}. Até o salvamento terminar, a
+	 * planilha fica congelada: qualquer operação lança
+	 * {@link IllegalStateException}, inclusive nos objetos já entregues por ela
+	 * (seleções, estilos, manipuladores), o que permite montar o próximo
+	 * relatório em outra instância enquanto este é gravado. O {@link #close()}
+	 * aguarda o salvamento; sem ele, aguarde o futuro antes de encerrar a JVM.
+	 *
+	 * @param nomeArquivo Caminho do arquivo de saída.
+	 * @return Futuro concluído com o caminho absoluto do arquivo, ou
+	 *         excepcionalmente com uma {@link ArquivoException}.
+	 */
+	@Override
+	public CompletableFuture<Path> salvarAsync(String nomeArquivo) {
+		validarNomeArquivo(nomeArquivo);
+		prepararOperacao();
+		Path destino = Paths.get(nomeArquivo).toAbsolutePath();
+		return iniciarSalvamento(() -> {
+			gravarArquivo(nomeArquivo);
+			return destino;
+		});
+	}
+
+	/**
+	 * Grava a planilha no fluxo em segundo plano, com o mesmo congelamento de
+	 * {@link #salvarAsync(String)}. O fluxo não é fechado.
+	 *
+	 * @param saida Fluxo de destino.
+	 * @return Futuro concluído quando a gravação terminar.
+	 */
+	@Override
+	public CompletableFuture<Void> salvarAsync(OutputStream saida) {
+		if (saida == null) {
+			throw new IllegalArgumentException("O fluxo de saída não pode ser nulo");
+		}
+		prepararOperacao();
+		return iniciarSalvamento(() -> {
+			gravarFluxo(saida);
+			return null;
+		});
+	}
+
+	/**
+	 * Grava a planilha diretamente no fluxo (ex.: a resposta de uma requisição
+	 * HTTP), sem arquivo intermediário. O fluxo não é fechado.
+	 *
+	 * @param saida Fluxo de destino.
+	 */
+	@Override
+	public void salvar(OutputStream saida) {
+		if (saida == null) {
+			throw new IllegalArgumentException("O fluxo de saída não pode ser nulo");
+		}
+		prepararOperacao();
+		gravarFluxo(saida);
+	}
+
+	/**
+	 * Grava a planilha diretamente no canal, sem arquivo intermediário. O canal
+	 * não é fechado.
+	 *
+	 * @param canal Canal de destino (ex.: um {@code SocketChannel}).
+	 */
+	@Override
+	public void salvar(WritableByteChannel canal) {
+		if (canal == null) {
+			throw new IllegalArgumentException("O canal de saída não pode ser nulo");
+		}
+		prepararOperacao();
+		gravarFluxo(Channels.newOutputStream(canal));
+	}
+
+	/**
+	 * Define o nível de compressão (deflate) usado ao salvar: de
+	 * {@link Deflater#NO_COMPRESSION} (0, apenas armazena) a
+	 * {@link Deflater#BEST_COMPRESSION} (9), ou
+	 * {@link Deflater#DEFAULT_COMPRESSION} (-1, o padrão). Níveis menores
+	 * gravam mais rápido e geram arquivos maiores.
+	 *
+	 * @param nivelCompressao Nível de compressão, de -1 a 9.
+	 */
+	@Override
+	public void setNivelCompressao(int nivelCompressao) {
+		if (nivelCompressao < Deflater.DEFAULT_COMPRESSION || nivelCompressao > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("O nível de compressão deve estar entre -1 e 9: " + nivelCompressao);
+		}
+		this.nivelCompressao = nivelCompressao;
+	}
+
+	@Override
+	public int getNivelCompressao() {
+		return nivelCompressao;
+	}
+
+	/**
+	 * Define a amostragem do redimensionamento de colunas: após as primeiras
+	 * células de cada coluna, apenas uma a cada {@code intervalo} é medida. Vale
+	 * para todas as abas. Use 1 (padrão) para medir todas.
+	 */
+	@Override
+	public void setAmostragemLarguraColunas(int intervalo) {
+		if (intervalo < 1) {
+			throw new IllegalArgumentException("O intervalo de amostragem deve ser maior que zero: " + intervalo);
+		}
+		this.amostragemLarguraColunas = intervalo;
+		for (MetadadosPlanilha metadadosDaAba : metadadosPorAba.values()) {
+			metadadosDaAba.getLarguras().setAmostragem(intervalo);
+		}
+	}
+
+	@Override
+	public void setExecutorSalvamento(Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("O executor de salvamento não pode ser nulo");
+		}
+		this.executorSalvamento = executor;
+	}
+
+	/**
+	 * Início comum das operações da planilha: verifica se há salvamento em
+	 * andamento e aplica os estilos adiados por um {@link EstiloCelula}.
+	 */
+	protected void prepararOperacao() {
+		verificarSalvamentoConcluido();
+		aplicarEstilosPendentes();
+	}
+
+	/**
+	 * Lança {@link IllegalStateException} se houver um salvamento assíncrono em
+	 * andamento.
+	 */
+	protected void verificarSalvamentoConcluido() {
+		travaDeSalvamento.verificarLivre();
+	}
+
+	private void aplicarEstilosPendentes() {
+		EstiloCelula estilo = estiloPendente;
+		estiloPendente = null;
+		if (estilo != null) {
+			estilo.aplicar();
+		}
+	}
+
+	// Um estilo anterior diferente é aplicado antes, para preservar a ordem das alterações
+	private void adiarEstilo(EstiloCelula estilo) {
+		if (estiloPendente != estilo) {
+			aplicarEstilosPendentes();
+		}
+		estiloPendente = estilo;
+	}
+
+	private <T> CompletableFuture<T> iniciarSalvamento(Supplier<T> tarefa) {
+		CompletableFuture<T> salvamento = CompletableFuture.supplyAsync(tarefa, executorSalvamento);
+		travaDeSalvamento.travarDurante(salvamento);
+		return salvamento;
+	}
+
+	private void validarNomeArquivo(String nomeArquivo) {
+		if (nomeArquivo == null || nomeArquivo.trim().isEmpty()) {
+			throw new ArquivoException("Nome do arquivo não pode ser nulo ou vazio", nomeArquivo);
+		}
+	}
+
+	private void gravarArquivo(String nomeArquivo) {
         try (FileOutputStream arquivoSaida = new FileOutputStream(nomeArquivo)) {
-            workbook.write(arquivoSaida);
+            escreverWorkbook(arquivoSaida);
             logger.info("Planilha salva com sucesso em: " + nomeArquivo);
         } catch (IOException e) {
             logger.severe("Erro ao salvar a planilha em '" + nomeArquivo + "': " + e.getMessage());
@@ -120,9 +347,37 @@ public abstract class PlanilhaBase implements IPlanilha {
             );
         }
     }
+
+	private void gravarFluxo(OutputStream saida) {
+		try {
+			escreverWorkbook(saida);
+			saida.flush();
+		} catch (IOException e) {
+			logger.severe("Erro ao gravar a planilha no fluxo de saída: " + e.getMessage());
+			throw new ArquivoException("Erro ao gravar planilha no fluxo de saída", null, e);
+		}
+	}
+
+	/**
+	 * Escreve o workbook no fluxo com o nível de compressão configurado, sem
+	 * fechá-lo. O POI reaproveita o {@link ZipArchiveOutputStream} recebido, de
+	 * modo que o nível é aplicado sem cópia intermediária.
+	 */
+	protected void escreverWorkbook(OutputStream saida) throws IOException {
+		OutputStream protegido = new FluxoSemFechamento(saida);
+		if (nivelCompressao == Deflater.DEFAULT_COMPRESSION) {
+			workbook.write(protegido);
+			return;
+		}
+		try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(protegido)) {
+			zip.setLevel(nivelCompressao);
+			workbook.write(zip);
+		}
+	}
 	
 	@Override
 	public IFormulas formula() {
+	    prepararOperacao();
 	    int linhaAtual = dataManipulator.getLinhaSelecionadaAtual();
 	    int colunaAtual = dataManipulator.getColunaSelecionadaAtual();
 	    
@@ -132,7 +387,7 @@ public abstract class PlanilhaBase implements IPlanilha {
 	        );
 	    }
 	    
-	    return new FormulaBuilder(workbook, sheet, linhaAtual, colunaAtual, this);
+	    return new FormulaBuilder(workbook, sheet, linhaAtual, colunaAtual, this, metadados);
 	}
 
 	@Override
@@ -147,11 +402,15 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public Workbook obterWorkbook() {
+		if (travaDeSalvamento.isLivre()) {
+			aplicarEstilosPendentes();
+		}
 		return workbook;
 	}
 
 	@Override
 	public IPlanilha emTodaAPlanilha() {
+		prepararOperacao();
 		try {
 			positionManager.emTodaAPlanilha();
 			return this;
@@ -163,41 +422,19 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public int getNumeroDeLinhas(String coluna) {
-		int colunaIndex = PosicaoConverter.converterColuna(coluna);
-		int lastRowNum = sheet.getLastRowNum();
-		int numRows = 0;
-		for (int i = 0; i <= lastRowNum; i++) {
-			Row row = sheet.getRow(i);
-			if (row != null) {
-				Cell cell = row.getCell(colunaIndex);
-				if (cell != null && cell.getCellType() != CellType.BLANK) {
-					numRows++;
-				}
-			}
-		}
-		return numRows;
+		prepararOperacao();
+		return metadados.getContagem(PosicaoConverter.converterColuna(coluna));
 	}
 
 	@Override
 	public int getNumeroDeColunasNaLinha(int linha) {
-		int linhaIndex = linha - 1;
-		Row row = sheet.getRow(linhaIndex);
-		if (row == null) {
-			return 0;
-		}
-		int numCols = 0;
-		short lastCellNum = row.getLastCellNum();
-		for (int i = 0; i < lastCellNum; i++) {
-			Cell cell = row.getCell(i);
-			if (cell != null && cell.getCellType() != CellType.BLANK) {
-				numCols++;
-			}
-		}
-		return numCols;
+		prepararOperacao();
+		return metadados.getContagemNaLinha(linha - 1);
 	}
 
 	@Override
 	public IPlanilha ultimaLinha(String coluna) {
+		prepararOperacao();
 		try {
 			dataManipulator.ultimaLinha(coluna);
 			return this;
@@ -209,6 +446,7 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public IManipulacaoDados naUltimaLinha(String coluna) {
+		prepararOperacao();
 		try {
 			dataManipulator.naUltimaLinha(coluna);
 			return dataManipulator;
@@ -220,37 +458,107 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public ManipuladorPlanilha manipularPlanilha() {
-		return new ManipuladorPlanilha(sheet);
+		prepararOperacao();
+		return new ManipuladorPlanilha(sheet, metadados);
+	}
+
+	@Override
+	public IBuscaDados buscarDados() {
+		prepararOperacao();
+		return new BuscadorDeDados(sheet, this::metadadosDa);
 	}
 
 	// Delegação dos métodos de IManipulacaoDados para dataManipulator
 
 	@Override
 	public IPlanilha inserirDados(Object dados, String delimitador) {
+		prepararOperacao();
 		dataManipulator.inserirDados(dados, delimitador);
 		return this;
 	}
 
 	@Override
 	public IPlanilha inserirDados(String valor) {
+		prepararOperacao();
 		dataManipulator.inserirDados(valor);
 		return this;
 	}
 
 	@Override
 	public IPlanilha inserirDados(java.util.List<String> dados) {
+		prepararOperacao();
 		dataManipulator.inserirDados(dados);
 		return this;
 	}
 
 	@Override
 	public IPlanilha inserirDados(java.util.List<String> dados, String delimitador) {
+		prepararOperacao();
 		dataManipulator.inserirDados(dados, delimitador);
 		return this;
 	}
 
+	@Override
+	public IPlanilha inserirMatriz(Object[][] matriz) {
+		prepararOperacao();
+		dataManipulator.inserirMatriz(matriz);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirColunas(double[]... colunas) {
+		prepararOperacao();
+		dataManipulator.inserirColunas(colunas);
+		return this;
+	}
+
+	@Override
+	public <T> IPlanilha inserirObjetos(java.util.List<T> objetos, Class<T> tipo) {
+		prepararOperacao();
+		dataManipulator.inserirObjetos(objetos, tipo);
+		return this;
+	}
+
+	@Override
+	public <T> IPlanilha inserirObjetos(java.util.List<T> objetos, MapeamentoColunas<T> mapeamento) {
+		prepararOperacao();
+		dataManipulator.inserirObjetos(objetos, mapeamento);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirFluxo(Iterator<? extends List<?>> linhas) {
+		prepararOperacao();
+		dataManipulator.inserirFluxo(linhas);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirFluxo(Iterator<? extends List<?>> linhas, int intervaloProgresso,
+			LongConsumer progresso) {
+		prepararOperacao();
+		dataManipulator.inserirFluxo(linhas, intervaloProgresso, progresso);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirFluxo(Stream<? extends List<?>> linhas) {
+		prepararOperacao();
+		dataManipulator.inserirFluxo(linhas);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirFluxo(Stream<? extends List<?>> linhas, int intervaloProgresso,
+			LongConsumer progresso) {
+		prepararOperacao();
+		dataManipulator.inserirFluxo(linhas, intervaloProgresso, progresso);
+		return this;
+	}
+
 	@Override
 	public IPlanilha inserirDadosArquivo(String caminhoArquivo, String delimitador) {
+		prepararOperacao();
 		try {
 			dataManipulator.inserirDadosArquivo(caminhoArquivo, delimitador);
 		} catch (Exception e) {
@@ -260,14 +568,60 @@ public abstract class PlanilhaBase implements IPlanilha {
 		return this;
 	}
 
+	@Override
+	public IPlanilha inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset) {
+		prepararOperacao();
+		try {
+			dataManipulator.inserirDadosArquivo(caminhoArquivo, delimitador, charset);
+		} catch (Exception e) {
+			logger.severe("Erro ao inserir dados do arquivo '" + caminhoArquivo + "': " + e.getMessage());
+			throw e;
+		}
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset,
+			int paralelismo) {
+		prepararOperacao();
+		try {
+			dataManipulator.inserirDadosArquivo(caminhoArquivo, delimitador, charset, paralelismo);
+		} catch (Exception e) {
+			logger.severe("Erro ao inserir dados do arquivo '" + caminhoArquivo + "': " + e.getMessage());
+			throw e;
+		}
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserirDadosArquivoMapeado(String caminhoArquivo, String delimitador, Charset charset) {
+		prepararOperacao();
+		try {
+			dataManipulator.inserirDadosArquivoMapeado(caminhoArquivo, delimitador, charset);
+		} catch (Exception e) {
+			logger.severe("Erro ao inserir dados do arquivo '" + caminhoArquivo + "': " + e.getMessage());
+			throw e;
+		}
+		return this;
+	}
+
+	@Override
+	public IPlanilha definirTipoColuna(String coluna, TipoValor tipo) {
+		prepararOperacao();
+		dataManipulator.definirTipoColuna(coluna, tipo);
+		return this;
+	}
+
 	@Override
 	public IPlanilha somarColuna(String posicaoInicial) {
+		prepararOperacao();
 		dataManipulator.somarColuna(posicaoInicial);
 		return this;
 	}
 
 	@Override
 	public IPlanilha somarColunaComTexto(String posicaoInicial, String texto) {
+		prepararOperacao();
 		dataManipulator.somarColunaComTexto(posicaoInicial, texto);
 		return this;
 	}
@@ -275,47 +629,80 @@ public abstract class PlanilhaBase implements IPlanilha {
 	@Override
 	public IPlanilha multiplicarColunasComTexto(String coluna1, String coluna2, int linhaInicial, String texto,
 			String colunaDestino) {
+		prepararOperacao();
 		dataManipulator.multiplicarColunasComTexto(coluna1, coluna2, linhaInicial, texto, colunaDestino);
 		return this;
 	}
 
+	@Override
+	public IPlanilha inserir(String valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserir(int valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserir(double valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserir(long valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserir(BigDecimal valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserir(LocalDate valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
+	@Override
+	public IPlanilha inserir(boolean valor) {
+		prepararOperacao();
+		dataManipulator.inserir(valor);
+		return this;
+	}
+
 	@Override
 	public IPlanilha mesclarCelulas() {
+		prepararOperacao();
 		dataManipulator.mesclarCelulas();
 		return this;
 	}
 
 	@Override
 	public IPlanilha inserirFiltros() {
+		prepararOperacao();
 		try {
 			if (sheet == null) {
 				throw new IllegalStateException(
 						"Sheet não foi inicializada. Crie ou selecione uma planilha antes de inserir filtros.");
 			}
-			Row headerRow = encontrarLinhaDeCabecalho(sheet);
-			if (headerRow != null) {
-			    int headerRowIndex = headerRow.getRowNum();
-			    int firstColumn = -1;
-			    int lastColumn = -1;
-			    short lastCellNum = headerRow.getLastCellNum();
-			    for (int c = 0; c < lastCellNum; c++) {
-			        Cell cell = headerRow.getCell(c);
-			        if (cell != null && cell.getCellType() != CellType.BLANK && !cell.toString().trim().isEmpty()) {
-			            if (firstColumn == -1) {
-			                firstColumn = c;
-			            }
-			            lastColumn = c;
-			        }
-				}
-				if (firstColumn != -1 && lastColumn != -1 && lastColumn >= firstColumn) {
-					CellRangeAddress range = new CellRangeAddress(headerRowIndex, headerRowIndex, firstColumn,
-							lastColumn);
-					sheet.setAutoFilter(range);
-					logger.info("Filtros aplicados na linha de cabeçalho: " + (headerRowIndex + 1) + ", colunas: "
-							+ (firstColumn + 1) + " até " + (lastColumn + 1));
-				} else {
-					logger.warning("Não foi possível identificar colunas para aplicar filtros.");
-				}
+			CellRangeAddress range = localizarIntervaloDeCabecalho();
+			if (range != null) {
+				sheet.setAutoFilter(range);
+				logger.info("Filtros aplicados na linha de cabeçalho: " + (range.getFirstRow() + 1) + ", colunas: "
+						+ (range.getFirstColumn() + 1) + " até " + (range.getLastColumn() + 1));
 			} else {
 				logger.warning("Não foi encontrada uma linha de cabeçalho para aplicar filtros.");
 			}
@@ -326,6 +713,36 @@ public abstract class PlanilhaBase implements IPlanilha {
 		return this;
 	}
 
+	/**
+	 * Localiza o intervalo do cabeçalho (primeira linha com conteúdo, da primeira
+	 * à última coluna preenchida).
+	 *
+	 * @return O intervalo do cabeçalho, ou null se a aba não tiver conteúdo.
+	 */
+	protected CellRangeAddress localizarIntervaloDeCabecalho() {
+		Row headerRow = encontrarLinhaDeCabecalho(sheet);
+		if (headerRow == null) {
+			return null;
+		}
+		int firstColumn = -1;
+		int lastColumn = -1;
+		short lastCellNum = headerRow.getLastCellNum();
+		for (int c = 0; c < lastCellNum; c++) {
+			Cell cell = headerRow.getCell(c);
+			if (cell != null && cell.getCellType() != CellType.BLANK && !cell.toString().trim().isEmpty()) {
+				if (firstColumn == -1) {
+					firstColumn = c;
+				}
+				lastColumn = c;
+			}
+		}
+		if (firstColumn == -1) {
+			return null;
+		}
+		int headerRowIndex = headerRow.getRowNum();
+		return new CellRangeAddress(headerRowIndex, headerRowIndex, firstColumn, lastColumn);
+	}
+
 	// Método auxiliar para encontrar a primeira linha com conteúdo não vazio(cabeçalho)
 	private Row encontrarLinhaDeCabecalho(Sheet sheet) {
 	    for (int i = sheet.getFirstRowNum(); i <= sheet.getLastRowNum(); i++) {
@@ -351,47 +768,49 @@ public abstract class PlanilhaBase implements IPlanilha {
 
 	@Override
 	public EstiloCelula aplicarEstilos() {
+		prepararOperacao();
 		return styleManager.aplicarEstilos();
 	}
 
 	@Override
 	public EstiloCelula centralizarTudo() {
+		prepararOperacao();
 		return styleManager.centralizarTudo();
 	}
 
 	@Override
 	public EstiloCelula redimensionarColunas() {
+		prepararOperacao();
 		return styleManager.redimensionarColunas();
 	}
 
 	@Override
 	public EstiloCelula removerLinhasDeGrade() {
+		prepararOperacao();
 		return styleManager.removerLinhasDeGrade();
 	}
 
 	@Override
 	public EstiloCelula aplicarEstilosEmCelula() {
-		if (dataManipulator.getUltimoIndiceDeLinhaInserido() == -1
-				|| dataManipulator.getUltimoIndiceDeColunaInserido() == -1) {
-			return new EstiloCelula(workbook, sheet, -1, -1);
-		}
-		return new EstiloCelula(workbook, sheet, dataManipulator.getUltimoIndiceDeLinhaInserido(),
-				dataManipulator.getUltimoIndiceDeColunaInserido());
+		prepararOperacao();
+		return styleManager.aplicarEstilosEmCelula();
 	}
 
 	@Override
 	public EstiloCelula todasAsBordasEmTudo() {
-		aplicarEstilos().aplicarBordasEspessasComInternas("A1", "Z100");
-		return aplicarEstilos();
+		prepararOperacao();
+		return styleManager.todasAsBordasEmTudo();
 	}
 	
 	@Override
 	public IConversao converter() {
+	    prepararOperacao();
 	    return conversaoManager;
 	}
 
 	@Override
 	public ISelecao selecionar() {
+	    prepararOperacao();
 	    return selecaoManager;
 	}
 	
@@ -404,6 +823,8 @@ public abstract class PlanilhaBase implements IPlanilha {
 	 */
 	@Override
 	public void close() throws Exception {
+	    aguardarSalvamento();
+	    estiloPendente = null;
 	    if (workbook != null) {
 	        try {
 	            workbook.close();
@@ -414,4 +835,31 @@ public abstract class PlanilhaBase implements IPlanilha {
 	        }
 	    }
 	}
+
+	// Um salvamento assíncrono pendente termina antes de o workbook ser fechado
+	private void aguardarSalvamento() {
+		CompletableFuture<?> salvamento = travaDeSalvamento.getSalvamento();
+		if (salvamento == null) {
+			return;
+		}
+		try {
+			salvamento.join();
+		} catch (CompletionException | CancellationException e) {
+			// A falha já foi registrada e é entregue a quem consulta o futuro
+		}
+	}
+
+	/**
+	 * Executor padrão dos salvamentos assíncronos, criado no primeiro uso, fora
+	 * do {@code ForkJoinPool} comum, pois a gravação é bloqueante. As threads não
+	 * são daemon, para que a JVM não encerre no meio de uma gravação e deixe um
+	 * arquivo truncado, e terminam logo após ficarem ociosas, para não atrasar o
+	 * encerramento depois dela.
+	 */
+	private static final class ExecutorSalvamentoPadrao {
+		private static final AtomicInteger CONTADOR = new AtomicInteger();
+		static final Executor INSTANCIA = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 1, TimeUnit.SECONDS,
+				new SynchronousQueue<>(),
+				tarefa -> new Thread(tarefa, "planilha-salvamento-" + CONTADOR.incrementAndGet()));
+	}
 }
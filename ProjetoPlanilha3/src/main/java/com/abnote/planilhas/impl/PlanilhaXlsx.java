@@ -2,7 +2,6 @@ package com.abnote.planilhas.impl;
 
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import com.abnote.planilhas.estilos.EstiloCelula;
-import com.abnote.planilhas.interfaces.IManipulacaoDados;
 
 public class PlanilhaXlsx extends PlanilhaBase {
 
@@ -15,19 +14,4 @@ public class PlanilhaXlsx extends PlanilhaBase {
     public EstiloCelula todasAsBordasEmTudo() {
         return super.todasAsBordasEmTudo();
     }
-
-    @Override
-    public IManipulacaoDados inserir(String valor) {
-        return inserirDados(valor);
-    }
-
-    @Override
-    public IManipulacaoDados inserir(int valor) {
-        return inserirDados(String.valueOf(valor));
-    }
-
-    @Override
-    public IManipulacaoDados inserir(double valor) {
-        return inserirDados(String.valueOf(valor));
-    }
 }
@@ -0,0 +1,123 @@
+package com.abnote.planilhas.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.abnote.planilhas.utils.FluxoSemFechamento;
+
+
+/**
+ * Planilha .xlsx em streaming, indicada para exportações com milhões de linhas.
+ *
+ * <p>
+ * Mantém em memória apenas uma janela com as últimas linhas escritas; as
+ * anteriores são descarregadas em arquivos temporários e não podem mais ser
+ * lidas nem alteradas. Última linha, contagens, somas de coluna e filtros são
+ * calculados a partir de metadados mantidos durante a inserção.
+ * </p>
+ *
+ * <p>
+ * Estilos, conversões e manipulação de colunas atuam apenas sobre as linhas
+ * ainda em memória. Os dados devem ser inseridos de cima para baixo.
+ * </p>
+ *
+ * <p>Exemplo de uso:</p>
+ * <pre>{@code
+ * try (IPlanilha planilha = new PlanilhaXlsxStreaming(500)) {
+ *     planilha.criarPlanilha("Exportacao");
+ *     planilha.selecionar().celula("A1").inserirDados(cabecalho, ",");
+ *     planilha.selecionar().celula("A2").inserirDados(arquivoCsv, ";");
+ *     planilha.somarColuna("C2").inserirFiltros();
+ *     planilha.salvar(caminho);
+ * }
+ * }</pre>
+ */
+public class PlanilhaXlsxStreaming extends PlanilhaBase {
+
+	/** Quantidade padrão de linhas mantidas em memória por aba. */
+	public static final int TAMANHO_JANELA_PADRAO = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	private final int tamanhoJanela;
+	private final boolean comprimirTemporarios;
+
+	public PlanilhaXlsxStreaming() {
+		this(TAMANHO_JANELA_PADRAO);
+	}
+
+	/**
+	 * @param tamanhoJanela Quantidade de linhas mantidas em memória por aba.
+	 */
+	public PlanilhaXlsxStreaming(int tamanhoJanela) {
+		this(tamanhoJanela, false);
+	}
+
+	/**
+	 * @param tamanhoJanela        Quantidade de linhas mantidas em memória por aba.
+	 * @param comprimirTemporarios Se verdadeiro, os arquivos temporários são
+	 *                             gravados com gzip (menos disco, mais CPU).
+	 */
+	public PlanilhaXlsxStreaming(int tamanhoJanela, boolean comprimirTemporarios) {
+		if (tamanhoJanela <= 0) {
+			throw new IllegalArgumentException("O tamanho da janela deve ser maior que zero: " + tamanhoJanela);
+		}
+		this.tamanhoJanela = tamanhoJanela;
+		this.comprimirTemporarios = comprimirTemporarios;
+	}
+
+	@Override
+	protected void inicializarWorkbook() {
+		SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook(tamanhoJanela) {
+			// O SXSSF monta o zip final sozinho; o nível de compressão é aplicado aqui
+			@Override
+			protected ZipArchiveOutputStream createArchiveOutputStream(OutputStream saida) {
+				ZipArchiveOutputStream zip = super.createArchiveOutputStream(saida);
+				zip.setLevel(getNivelCompressao());
+				return zip;
+			}
+		};
+		sxssfWorkbook.setCompressTempFiles(comprimirTemporarios);
+		workbook = sxssfWorkbook;
+	}
+
+	@Override
+	protected void escreverWorkbook(OutputStream saida) throws IOException {
+		workbook.write(new FluxoSemFechamento(saida));
+	}
+
+	@Override
+	protected DataManipulator criarDataManipulator() {
+		return new DataManipulatorStreaming(workbook, sheet, positionManager, metadados);
+	}
+
+	@Override
+	protected CellRangeAddress localizarIntervaloDeCabecalho() {
+		int linhaCabecalho = metadados.getLinhaCabecalho();
+		if (linhaCabecalho == -1) {
+			return null;
+		}
+		return new CellRangeAddress(linhaCabecalho, linhaCabecalho, metadados.getPrimeiraColunaCabecalho(),
+				metadados.getUltimaColunaCabecalho());
+	}
+
+	public int getTamanhoJanela() {
+		return tamanhoJanela;
+	}
+
+	/**
+	 * Fecha o workbook e remove os arquivos temporários usados pelo streaming.
+	 */
+	@Override
+	public void close() throws Exception {
+		try {
+			super.close();
+		} finally {
+			if (workbook instanceof SXSSFWorkbook) {
+				((SXSSFWorkbook) workbook).dispose();
+			}
+		}
+	}
+}
@@ -1,10 +1,14 @@
 package com.abnote.planilhas.impl;
 
+import java.util.function.Consumer;
+
 import com.abnote.planilhas.estilos.EstiloCelula;
 import com.abnote.planilhas.interfaces.IEstilos;
+import com.abnote.planilhas.utils.PosicaoConverter;
 import com.abnote.planilhas.utils.PositionManager;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
 
 public class StyleManager implements IEstilos {
 
@@ -12,19 +16,31 @@ public class StyleManager implements IEstilos {
 	private final Sheet sheet;
 	private final PositionManager positionManager;
 	private final DataManipulator dataManipulator;
+	private final Consumer<? super EstiloCelula> aoAdiar;
 
 	public StyleManager(Workbook workbook, Sheet sheet, PositionManager positionManager,
 			DataManipulator dataManipulator) {
+		this(workbook, sheet, positionManager, dataManipulator, null);
+	}
+
+	/**
+	 * @param aoAdiar Se informado, os estilos criados acumulam as alterações e o
+	 *                avisam (ver {@link EstiloCelula#adiarAplicacao(Consumer)});
+	 *                se null, cada alteração é aplicada imediatamente.
+	 */
+	public StyleManager(Workbook workbook, Sheet sheet, PositionManager positionManager,
+			DataManipulator dataManipulator, Consumer<? super EstiloCelula> aoAdiar) {
 		this.workbook = workbook;
 		this.sheet = sheet;
 		this.positionManager = positionManager;
 		this.dataManipulator = dataManipulator;
+		this.aoAdiar = aoAdiar;
 	}
 
 	public EstiloCelula aplicarEstilos() {
 		EstiloCelula estilo;
 		if (positionManager.isTodaPlanilhaDefinida()) {
-			estilo = new EstiloCelula(workbook, sheet);
+			estilo = estiloNaAreaUtilizada();
 		} else if (positionManager.isIntervaloDefinida()) {
 			estilo = new EstiloCelula(workbook, sheet, positionManager.getPosicaoInicialLinha(),
 					positionManager.getPosicaoInicialColuna(), positionManager.getPosicaoFinalLinha(),
@@ -36,7 +52,7 @@ public class StyleManager implements IEstilos {
 		}
 		// Reset opcional do positionManager para evitar efeitos colaterais
 		positionManager.resetarPosicao();
-		return estilo;
+		return preparar(estilo);
 	}
 
 	@Override
@@ -56,17 +72,41 @@ public class StyleManager implements IEstilos {
 
 	@Override
 	public EstiloCelula aplicarEstilosEmCelula() {
+		EstiloCelula estilo;
 		if (dataManipulator.getUltimoIndiceDeLinhaInserido() == -1
 				|| dataManipulator.getUltimoIndiceDeColunaInserido() == -1) {
-			return new EstiloCelula(workbook, sheet, -1, -1);
+			estilo = new EstiloCelula(workbook, sheet, -1, -1);
+		} else {
+			estilo = new EstiloCelula(workbook, sheet, dataManipulator.getUltimoIndiceDeLinhaInserido(),
+					dataManipulator.getUltimoIndiceDeColunaInserido());
 		}
-		return new EstiloCelula(workbook, sheet, dataManipulator.getUltimoIndiceDeLinhaInserido(),
-				dataManipulator.getUltimoIndiceDeColunaInserido());
+		return preparar(estilo);
 	}
 
 	@Override
 	public EstiloCelula todasAsBordasEmTudo() {
-		aplicarEstilos().aplicarBordasEspessasComInternas("A1", "Z100");
-		return aplicarEstilos();
+		CellRangeAddress area = dataManipulator.getMetadados().getAreaUtilizada();
+		EstiloCelula estilo = aplicarEstilos();
+		if (area != null) {
+			estilo.aplicarBordasEspessasComInternas(
+					PosicaoConverter.converterIndice(area.getFirstColumn()) + (area.getFirstRow() + 1),
+					PosicaoConverter.converterIndice(area.getLastColumn()) + (area.getLastRow() + 1));
+		}
+		return estilo;
+	}
+
+	private EstiloCelula preparar(EstiloCelula estilo) {
+		estilo.vincular(dataManipulator.getMetadados());
+		return aoAdiar == null ? estilo : estilo.adiarAplicacao(aoAdiar);
+	}
+
+	// A área utilizada vem dos metadados, sem varrer a planilha
+	private EstiloCelula estiloNaAreaUtilizada() {
+		CellRangeAddress area = dataManipulator.getMetadados().getAreaUtilizada();
+		if (area == null) {
+			return new EstiloCelula(workbook, sheet, -1, -1);
+		}
+		return new EstiloCelula(workbook, sheet, area.getFirstRow(), area.getFirstColumn(), area.getLastRow(),
+				area.getLastColumn());
 	}
 }
@@ -1,7 +1,16 @@
 package com.abnote.planilhas.interfaces;
 
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 import com.abnote.planilhas.estilos.EstiloCelula;
+import com.abnote.planilhas.mapeamento.ColunaPlanilha;
+import com.abnote.planilhas.mapeamento.MapeamentoColunas;
+import com.abnote.planilhas.utils.TipoValor;
 
 /**
  * Interface que define as operações de manipulação de dados em uma planilha.
@@ -59,6 +68,97 @@ public interface IManipulacaoDados {
      */
     IManipulacaoDados inserirDados(List<String> dados, String delimitador);
 
+    /**
+     * Insere um bloco de valores a partir da célula selecionada, em uma única
+     * passada.
+     * <p>
+     * Strings são classificadas como em {@link #inserirDados(String)}; Number,
+     * Boolean e LocalDate são gravados com o tipo nativo; valores nulos não
+     * criam célula. Com um intervalo selecionado, o bloco é recortado a ele.
+     *
+     * @param matriz Valores indexados por [linha][coluna].
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirMatriz(Object[][] matriz);
+
+    /**
+     * Insere colunas numéricas lado a lado a partir da célula selecionada, sem
+     * conversão para texto.
+     *
+     * @param colunas Valores indexados por [coluna][linha].
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirColunas(double[]... colunas);
+
+    /**
+     * Insere um objeto por linha a partir da célula selecionada, com as colunas
+     * definidas pelas anotações {@link ColunaPlanilha} da classe.
+     * <p>
+     * A primeira linha recebe os cabeçalhos. Os acessores são resolvidos uma vez
+     * por classe e os valores gravados com o tipo nativo.
+     *
+     * @param objetos Os objetos a inserir.
+     * @param tipo    A classe dos objetos.
+     * @return A instância atual para encadeamento.
+     */
+    <T> IManipulacaoDados inserirObjetos(List<T> objetos, Class<T> tipo);
+
+    /**
+     * Insere um objeto por linha a partir da célula selecionada, com as colunas
+     * definidas por um {@link MapeamentoColunas}.
+     *
+     * @param objetos    Os objetos a inserir.
+     * @param mapeamento Cabeçalhos e extratores de cada coluna.
+     * @return A instância atual para encadeamento.
+     */
+    <T> IManipulacaoDados inserirObjetos(List<T> objetos, MapeamentoColunas<T> mapeamento);
+
+    /**
+     * Insere as linhas de um iterador a partir da célula selecionada, uma por
+     * linha da planilha, consumindo a origem sob demanda (ex.: cursor JDBC).
+     * <p>
+     * Nenhuma linha é armazenada; com {@code PlanilhaXlsxStreaming} o uso de
+     * memória não cresce com a quantidade de linhas. Strings são classificadas
+     * como em {@link #inserirDados(String)} e valores nulos não criam célula.
+     *
+     * @param linhas Fonte das linhas.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirFluxo(Iterator<? extends List<?>> linhas);
+
+    /**
+     * Igual a {@link #inserirFluxo(Iterator)}, informando o progresso a cada
+     * {@code intervaloProgresso} linhas e ao final.
+     *
+     * @param linhas             Fonte das linhas.
+     * @param intervaloProgresso A cada quantas linhas o progresso é informado.
+     * @param progresso          Recebe a quantidade de linhas já inseridas.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirFluxo(Iterator<? extends List<?>> linhas, int intervaloProgresso,
+            LongConsumer progresso);
+
+    /**
+     * Insere as linhas de um Stream a partir da célula selecionada, consumindo-o
+     * sob demanda. O Stream não é fechado; isso cabe a quem o criou.
+     *
+     * @param linhas Fonte das linhas.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirFluxo(Stream<? extends List<?>> linhas);
+
+    /**
+     * Igual a {@link #inserirFluxo(Stream)}, informando o progresso a cada
+     * {@code intervaloProgresso} linhas e ao final.
+     *
+     * @param linhas             Fonte das linhas.
+     * @param intervaloProgresso A cada quantas linhas o progresso é informado.
+     * @param progresso          Recebe a quantidade de linhas já inseridas.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirFluxo(Stream<? extends List<?>> linhas, int intervaloProgresso,
+            LongConsumer progresso);
+
     /**
      * Insere dados a partir de um arquivo.
      *
@@ -68,6 +168,66 @@ public interface IManipulacaoDados {
      */
     IManipulacaoDados inserirDadosArquivo(String caminhoArquivo, String delimitador);
 
+    /**
+     * Insere dados a partir de um arquivo com a codificação informada.
+     * <p>
+     * Campos entre aspas podem conter o delimitador e quebras de linha (RFC-4180).
+     * A versão sem charset lê o arquivo como UTF-8.
+     *
+     * @param caminhoArquivo O caminho do arquivo.
+     * @param delimitador    O delimitador presente no arquivo.
+     * @param charset        A codificação do arquivo (ex.: UTF-8, ISO-8859-1).
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset);
+
+    /**
+     * Define o tipo dos valores inseridos em uma coluna da aba atual.
+     * <p>
+     * Sem tipo definido, cada valor é classificado como inteiro, decimal, decimal
+     * brasileiro (1.234,56), data, booleano ou texto. Com tipo definido, a
+     * inferência é dispensada; valores incompatíveis são gravados como texto.
+     * Use {@link TipoValor#TEXTO} para preservar colunas como CPF/CNPJ.
+     *
+     * @param coluna A coluna (ex.: "B").
+     * @param tipo   O tipo da coluna, ou null para voltar a inferir.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados definirTipoColuna(String coluna, TipoValor tipo);
+
+    /**
+     * Insere dados a partir de um arquivo usando várias threads para interpretar
+     * os registros.
+     * <p>
+     * Uma thread lê o arquivo em blocos alinhados a registros, {@code paralelismo}
+     * threads separam os campos e classificam os valores, e a thread atual grava
+     * as células na ordem original (o POI não é thread-safe). O resultado é o
+     * mesmo da versão sequencial; {@code paralelismo} igual a 1 usa a leitura
+     * sequencial.
+     *
+     * @param caminhoArquivo O caminho do arquivo.
+     * @param delimitador    O delimitador presente no arquivo.
+     * @param charset        A codificação do arquivo.
+     * @param paralelismo    Quantidade de threads de interpretação (ex.:
+     *                       {@code Runtime.getRuntime().availableProcessors()}).
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset,
+            int paralelismo);
+
+    /**
+     * Insere dados de um arquivo delimitado mapeando-o em memória, em janelas.
+     * Números, datas e booleanos são interpretados diretamente dos bytes e só
+     * os campos de texto são decodificados, o que reduz alocações em arquivos
+     * muito grandes. Suporta apenas UTF-8, ISO-8859-1 e US-ASCII.
+     *
+     * @param caminhoArquivo O caminho do arquivo.
+     * @param delimitador    O delimitador presente no arquivo.
+     * @param charset        A codificação do arquivo.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserirDadosArquivoMapeado(String caminhoArquivo, String delimitador, Charset charset);
+
     /**
      * Soma os valores de uma coluna.
      *
@@ -129,6 +289,44 @@ public interface IManipulacaoDados {
      */
     IManipulacaoDados inserir(double valor);
 
+    /**
+     * Método alternativo para inserir dados do tipo long.
+     * <p>
+     * O valor é gravado como número do Excel (double); acima de 2^53 há perda de
+     * precisão.
+     *
+     * @param valor O valor long a ser inserido.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserir(long valor);
+
+    /**
+     * Método alternativo para inserir dados do tipo BigDecimal.
+     * <p>
+     * O valor é gravado como número do Excel (double). Um valor nulo gera uma
+     * célula vazia.
+     *
+     * @param valor O valor BigDecimal a ser inserido.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserir(BigDecimal valor);
+
+    /**
+     * Método alternativo para inserir datas, formatadas como dd/mm/yyyy.
+     *
+     * @param valor A data a ser inserida. Nula gera uma célula vazia.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserir(LocalDate valor);
+
+    /**
+     * Método alternativo para inserir dados booleanos.
+     *
+     * @param valor O valor booleano a ser inserido.
+     * @return A instância atual para encadeamento.
+     */
+    IManipulacaoDados inserir(boolean valor);
+
     /**
      * Retorna uma instância para aplicar estilos após operações de dados.
      * <p>
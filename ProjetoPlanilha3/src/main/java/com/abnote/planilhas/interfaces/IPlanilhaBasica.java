@@ -1,6 +1,11 @@
 package com.abnote.planilhas.interfaces;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.apache.poi.ss.usermodel.Workbook;
 
@@ -19,6 +24,23 @@ public interface IPlanilhaBasica extends AutoCloseable {
     void selecionarSheet(String nomeSheet);
 
     void salvar(String nomeArquivo);
+
+    void salvar(OutputStream saida);
+
+    void salvar(WritableByteChannel canal);
+
+    void setNivelCompressao(int nivelCompressao);
+
+    int getNivelCompressao();
+
+    void setAmostragemLarguraColunas(int intervalo);
+
+    CompletableFuture<Path> salvarAsync(String nomeArquivo);
+
+    CompletableFuture<Void> salvarAsync(OutputStream saida);
+
+    void setExecutorSalvamento(Executor executor);
+
     void setDiretorioSaida(String diretorioSaida);
 
     String getDiretorioSaida();
@@ -30,6 +52,15 @@ public interface IPlanilhaBasica extends AutoCloseable {
     IPlanilhaBasica ultimaLinha(String coluna);
 
     ManipuladorPlanilha manipularPlanilha();
+
+    /**
+     * Retorna o buscador de dados da aba atual, para localizar valores em uma
+     * coluna e copiar, mover ou remover as linhas encontradas.
+     *
+     * @return O buscador de dados.
+     */
+    IBuscaDados buscarDados();
+
     IFormulas formula();
     @Override
     void close() throws Exception;
@@ -0,0 +1,44 @@
+package com.abnote.planilhas.mapeamento;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um campo ou método sem parâmetros como coluna da planilha em
+ * {@code inserirObjetos(List, Class)}.
+ *
+ * <p>Exemplo de uso:</p>
+ * <pre>{@code
+ * public class Pedido {
+ *     @ColunaPlanilha(nome = "Número", ordem = 1)
+ *     private long numero;
+ *
+ *     @ColunaPlanilha(nome = "Emissão", ordem = 2)
+ *     private LocalDate emissao;
+ *
+ *     @ColunaPlanilha(nome = "Total", ordem = 3)
+ *     public BigDecimal getTotal() { ... }
+ * }
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface ColunaPlanilha {
+
+	/**
+	 * Texto do cabeçalho. Vazio usa o nome do campo (ou do método sem o prefixo
+	 * get/is).
+	 */
+	String nome() default "";
+
+	/**
+	 * Posição relativa da coluna. Colunas com a mesma ordem seguem a ordem da
+	 * reflexão (campos antes de métodos); informe a ordem para um resultado
+	 * estável.
+	 */
+	int ordem() default Integer.MAX_VALUE;
+}
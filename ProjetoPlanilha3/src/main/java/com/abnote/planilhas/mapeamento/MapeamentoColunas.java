@@ -0,0 +1,254 @@
+package com.abnote.planilhas.mapeamento;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import com.abnote.planilhas.exceptions.DadosInvalidosException;
+
+/**
+ * Define como um objeto é convertido em uma linha da planilha: o cabeçalho e o
+ * extrator de valor de cada coluna.
+ *
+ * <p>
+ * Os extratores são resolvidos uma única vez por classe. O mapeamento por
+ * anotações ({@link #deAnotacoes(Class)}) fica em cache e usa
+ * {@link MethodHandle}s, sem busca por reflexão a cada célula. Os valores são
+ * gravados com o tipo nativo (número, data, booleano); Strings são gravadas
+ * como texto, sem inferência.
+ * </p>
+ *
+ * <p>Exemplo de uso com builder:</p>
+ * <pre>{@code
+ * MapeamentoColunas<Pedido> mapeamento = MapeamentoColunas.para(Pedido.class)
+ *         .coluna("Número", Pedido::getNumero)
+ *         .coluna("Cliente", p -> p.getCliente().getNome())
+ *         .coluna("Total", Pedido::getTotal)
+ *         .construir();
+ * planilha.selecionar().celula("A1").inserirObjetos(pedidos, mapeamento);
+ * }</pre>
+ *
+ * @param <T> Tipo dos objetos mapeados.
+ */
+public final class MapeamentoColunas<T> {
+
+	private static final ClassValue<MapeamentoColunas<?>> CACHE_ANOTACOES = new ClassValue<MapeamentoColunas<?>>() {
+		@Override
+		protected MapeamentoColunas<?> computeValue(Class<?> tipo) {
+			return criarDeAnotacoes(tipo);
+		}
+	};
+
+	private final String[] cabecalhos;
+	private final List<Function<? super T, ?>> extratores;
+	private final boolean comCabecalho;
+
+	private MapeamentoColunas(String[] cabecalhos, List<Function<? super T, ?>> extratores, boolean comCabecalho) {
+		this.cabecalhos = cabecalhos;
+		this.extratores = extratores;
+		this.comCabecalho = comCabecalho;
+	}
+
+	/**
+	 * Retorna o mapeamento da classe a partir dos membros anotados com
+	 * {@link ColunaPlanilha}. O resultado é calculado uma vez e reaproveitado.
+	 *
+	 * @param tipo A classe dos objetos.
+	 * @throws IllegalArgumentException Se a classe não possuir membros anotados.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> MapeamentoColunas<T> deAnotacoes(Class<T> tipo) {
+		if (tipo == null) {
+			throw new IllegalArgumentException("A classe não pode ser nula");
+		}
+		return (MapeamentoColunas<T>) CACHE_ANOTACOES.get(tipo);
+	}
+
+	/**
+	 * Inicia um mapeamento manual.
+	 *
+	 * @param tipo A classe dos objetos (usada apenas para inferir o tipo).
+	 */
+	public static <T> Builder<T> para(Class<T> tipo) {
+		return new Builder<>();
+	}
+
+	/**
+	 * Retorna uma cópia deste mapeamento que não grava a linha de cabeçalho.
+	 */
+	public MapeamentoColunas<T> semCabecalho() {
+		return new MapeamentoColunas<>(cabecalhos, extratores, false);
+	}
+
+	public int getQuantidadeColunas() {
+		return cabecalhos.length;
+	}
+
+	public String getCabecalho(int coluna) {
+		return cabecalhos[coluna];
+	}
+
+	public boolean isComCabecalho() {
+		return comCabecalho;
+	}
+
+	/**
+	 * Extrai o valor da coluna informada.
+	 *
+	 * @param objeto O objeto de origem.
+	 * @param coluna Índice da coluna no mapeamento (0-based).
+	 */
+	public Object extrair(T objeto, int coluna) {
+		return extratores.get(coluna).apply(objeto);
+	}
+
+	/**
+	 * Builder de {@link MapeamentoColunas}.
+	 *
+	 * @param <T> Tipo dos objetos mapeados.
+	 */
+	public static final class Builder<T> {
+
+		private final List<String> cabecalhos = new ArrayList<>();
+		private final List<Function<? super T, ?>> extratores = new ArrayList<>();
+		private boolean comCabecalho = true;
+
+		private Builder() {
+		}
+
+		/**
+		 * Adiciona uma coluna.
+		 *
+		 * @param cabecalho Texto do cabeçalho.
+		 * @param extrator  Função que obtém o valor a partir do objeto.
+		 */
+		public Builder<T> coluna(String cabecalho, Function<? super T, ?> extrator) {
+			if (extrator == null) {
+				throw new IllegalArgumentException("O extrator da coluna '" + cabecalho + "' não pode ser nulo");
+			}
+			cabecalhos.add(cabecalho == null ? "" : cabecalho);
+			extratores.add(extrator);
+			return this;
+		}
+
+		/**
+		 * Não grava a linha de cabeçalho.
+		 */
+		public Builder<T> semCabecalho() {
+			this.comCabecalho = false;
+			return this;
+		}
+
+		public MapeamentoColunas<T> construir() {
+			if (extratores.isEmpty()) {
+				throw new IllegalStateException("O mapeamento deve possuir ao menos uma coluna");
+			}
+			return new MapeamentoColunas<T>(cabecalhos.toArray(new String[0]), new ArrayList<>(extratores),
+					comCabecalho);
+		}
+	}
+
+	// Métodos auxiliares privados
+
+	private static MapeamentoColunas<?> criarDeAnotacoes(Class<?> tipo) {
+		List<Membro> membros = new ArrayList<>();
+		// Campos das superclasses primeiro, depois os da própria classe
+		List<Class<?>> hierarquia = new ArrayList<>();
+		for (Class<?> atual = tipo; atual != null && atual != Object.class; atual = atual.getSuperclass()) {
+			hierarquia.add(0, atual);
+		}
+		for (Class<?> classe : hierarquia) {
+			for (Field campo : classe.getDeclaredFields()) {
+				ColunaPlanilha anotacao = campo.getAnnotation(ColunaPlanilha.class);
+				if (anotacao != null && !Modifier.isStatic(campo.getModifiers())) {
+					membros.add(new Membro(anotacao, nomeOuPadrao(anotacao, campo.getName()), campo));
+				}
+			}
+		}
+		for (Method metodo : tipo.getMethods()) {
+			ColunaPlanilha anotacao = metodo.getAnnotation(ColunaPlanilha.class);
+			if (anotacao == null) {
+				continue;
+			}
+			if (metodo.getParameterCount() != 0 || metodo.getReturnType() == void.class
+					|| Modifier.isStatic(metodo.getModifiers())) {
+				throw new IllegalArgumentException("O método " + metodo.getName()
+						+ " anotado com @ColunaPlanilha deve ser de instância, sem parâmetros e com retorno");
+			}
+			membros.add(new Membro(anotacao, nomeOuPadrao(anotacao, nomeDaPropriedade(metodo.getName())), metodo));
+		}
+		if (membros.isEmpty()) {
+			throw new IllegalArgumentException(
+					"A classe " + tipo.getName() + " não possui campos ou métodos anotados com @ColunaPlanilha");
+		}
+		Collections.sort(membros, Comparator.comparingInt(m -> m.ordem));
+
+		String[] cabecalhos = new String[membros.size()];
+		List<Function<? super Object, ?>> extratores = new ArrayList<>(membros.size());
+		for (int i = 0; i < membros.size(); i++) {
+			cabecalhos[i] = membros.get(i).nome;
+			extratores.add(criarExtrator(membros.get(i)));
+		}
+		return new MapeamentoColunas<>(cabecalhos, extratores, true);
+	}
+
+	private static Function<Object, ?> criarExtrator(Membro membro) {
+		MethodHandle handle;
+		try {
+			membro.acesso.setAccessible(true);
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			handle = membro.acesso instanceof Field ? lookup.unreflectGetter((Field) membro.acesso)
+					: lookup.unreflect((Method) membro.acesso);
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new IllegalArgumentException("Não foi possível acessar '" + membro.nome + "'", e);
+		}
+		MethodHandle acessor = handle.asType(MethodType.methodType(Object.class, Object.class));
+		String nome = membro.nome;
+		return objeto -> {
+			try {
+				return (Object) acessor.invokeExact(objeto);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new DadosInvalidosException("Erro ao ler a coluna '" + nome + "'", e);
+			}
+		};
+	}
+
+	private static String nomeOuPadrao(ColunaPlanilha anotacao, String padrao) {
+		return anotacao.nome().isEmpty() ? padrao : anotacao.nome();
+	}
+
+	private static String nomeDaPropriedade(String nomeMetodo) {
+		String nome = nomeMetodo;
+		if (nome.startsWith("get") && nome.length() > 3) {
+			nome = nome.substring(3);
+		} else if (nome.startsWith("is") && nome.length() > 2) {
+			nome = nome.substring(2);
+		} else {
+			return nome;
+		}
+		return Character.toLowerCase(nome.charAt(0)) + nome.substring(1);
+	}
+
+	private static final class Membro {
+		private final int ordem;
+		private final String nome;
+		private final AccessibleObject acesso;
+
+		private Membro(ColunaPlanilha anotacao, String nome, AccessibleObject acesso) {
+			this.ordem = anotacao.ordem();
+			this.nome = nome;
+			this.acesso = acesso;
+		}
+	}
+}
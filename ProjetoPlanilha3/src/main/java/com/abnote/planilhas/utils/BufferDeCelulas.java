@@ -0,0 +1,157 @@
+package com.abnote.planilhas.utils;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Buffer colunar reutilizável com o conteúdo de células retiradas da planilha
+ * durante uma movimentação de colunas ou de linhas.
+ *
+ * <p>
+ * Cada célula ocupa uma posição em arrays primitivos (coluna, tipo, número,
+ * índice de estilo) e, conforme o tipo, no array de textos ou na tabela de
+ * fórmulas, que só é criada quando a primeira fórmula aparece. Os arrays
+ * crescem apenas quando necessário e são reaproveitados a cada
+ * {@link #limpar()}, de modo que as movimentações praticamente não alocam
+ * memória.
+ * </p>
+ */
+final class BufferDeCelulas {
+
+	static final byte NUMERO = 1;
+	static final byte TEXTO = 2;
+	static final byte BOOLEANO = 3;
+	static final byte FORMULA = 4;
+	static final byte ERRO = 5;
+	static final byte EM_BRANCO = 6;
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private int[] colunas = new int[CAPACIDADE_INICIAL];
+	private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+	private double[] numeros = new double[CAPACIDADE_INICIAL];
+	private String[] textos = new String[CAPACIDADE_INICIAL];
+	private short[] estilos = new short[CAPACIDADE_INICIAL];
+	private String[] formulas;
+	private int tamanho;
+
+	/**
+	 * Esvazia o buffer mantendo a capacidade já alocada.
+	 */
+	void limpar() {
+		// Solta as referências para que os textos possam ser coletados
+		Arrays.fill(textos, 0, tamanho, null);
+		if (formulas != null) {
+			Arrays.fill(formulas, 0, tamanho, null);
+		}
+		tamanho = 0;
+	}
+
+	int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Guarda o conteúdo e o estilo da célula.
+	 *
+	 * @param celula A célula a ser guardada.
+	 * @param coluna Índice associado à célula, devolvido por {@link #coluna(int)}.
+	 * @return A posição da célula no buffer.
+	 */
+	int guardar(Cell celula, int coluna) {
+		garantirCapacidade(tamanho + 1);
+		int posicao = tamanho++;
+		colunas[posicao] = coluna;
+		estilos[posicao] = celula.getCellStyle().getIndex();
+		switch (celula.getCellType()) {
+		case NUMERIC:
+			tipos[posicao] = NUMERO;
+			numeros[posicao] = celula.getNumericCellValue();
+			break;
+		case STRING:
+			tipos[posicao] = TEXTO;
+			textos[posicao] = celula.getStringCellValue();
+			break;
+		case BOOLEAN:
+			tipos[posicao] = BOOLEANO;
+			numeros[posicao] = celula.getBooleanCellValue() ? 1 : 0;
+			break;
+		case FORMULA:
+			tipos[posicao] = FORMULA;
+			if (formulas == null) {
+				formulas = new String[colunas.length];
+			}
+			formulas[posicao] = celula.getCellFormula();
+			break;
+		case ERROR:
+			tipos[posicao] = ERRO;
+			numeros[posicao] = celula.getErrorCellValue();
+			break;
+		default:
+			tipos[posicao] = EM_BRANCO;
+			break;
+		}
+		return posicao;
+	}
+
+	int coluna(int posicao) {
+		return colunas[posicao];
+	}
+
+	boolean ehFormula(int posicao) {
+		return tipos[posicao] == FORMULA;
+	}
+
+	String formula(int posicao) {
+		return formulas[posicao];
+	}
+
+	void definirFormula(int posicao, String formula) {
+		formulas[posicao] = formula;
+	}
+
+	/**
+	 * Grava o conteúdo e o estilo guardados em uma célula recém criada (em branco).
+	 *
+	 * @param posicao Posição da célula no buffer.
+	 * @param destino A célula de destino.
+	 */
+	void restaurar(int posicao, Cell destino) {
+		destino.setCellStyle(destino.getSheet().getWorkbook().getCellStyleAt(estilos[posicao] & 0xFFFF));
+		switch (tipos[posicao]) {
+		case NUMERO:
+			destino.setCellValue(numeros[posicao]);
+			break;
+		case TEXTO:
+			destino.setCellValue(textos[posicao]);
+			break;
+		case BOOLEANO:
+			destino.setCellValue(numeros[posicao] != 0);
+			break;
+		case FORMULA:
+			destino.setCellFormula(formulas[posicao]);
+			break;
+		case ERRO:
+			destino.setCellErrorValue((byte) numeros[posicao]);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void garantirCapacidade(int capacidade) {
+		if (capacidade <= colunas.length) {
+			return;
+		}
+		int novaCapacidade = Math.max(capacidade, colunas.length * 2);
+		colunas = Arrays.copyOf(colunas, novaCapacidade);
+		tipos = Arrays.copyOf(tipos, novaCapacidade);
+		numeros = Arrays.copyOf(numeros, novaCapacidade);
+		textos = Arrays.copyOf(textos, novaCapacidade);
+		estilos = Arrays.copyOf(estilos, novaCapacidade);
+		if (formulas != null) {
+			formulas = Arrays.copyOf(formulas, novaCapacidade);
+		}
+	}
+}
@@ -0,0 +1,502 @@
+package com.abnote.planilhas.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.abnote.planilhas.interfaces.IBuscaDados;
+
+/**
+ * Busca de valores em uma coluna e movimentação em lote das linhas encontradas.
+ *
+ * <p>
+ * Os valores buscados são indexados uma única vez em conjuntos de hash, e a
+ * coluna é lida em uma única passada, de modo que buscar M valores em N linhas
+ * custa O(N + M). A remoção de linhas compacta a aba em uma única passada,
+ * subindo o conteúdo das linhas mantidas e ajustando as referências das
+ * fórmulas, em vez de um {@code shiftRows} por linha. Células mescladas,
+ * hiperlinks e comentários acompanham as linhas; formatações condicionais e
+ * validações de dados mantêm os intervalos originais.
+ * </p>
+ *
+ * <p>
+ * As linhas copiadas para outra aba levam valores e estilos; as fórmulas são
+ * copiadas sem ajuste de referências.
+ * </p>
+ */
+public class BuscadorDeDados implements IBuscaDados {
+
+	private final Sheet sheet;
+	private final Function<Sheet, MetadadosPlanilha> metadadosDaAba;
+	private final BufferDeCelulas buffer = new BufferDeCelulas();
+
+	public BuscadorDeDados(Sheet sheet) {
+		this(sheet, aba -> new MetadadosPlanilha());
+	}
+
+	/**
+	 * @param sheet          A aba onde os dados são buscados.
+	 * @param metadadosDaAba Fornece os metadados de cada aba escrita, para
+	 *                       mantê-los atualizados.
+	 */
+	public BuscadorDeDados(Sheet sheet, Function<Sheet, MetadadosPlanilha> metadadosDaAba) {
+		this.sheet = sheet;
+		this.metadadosDaAba = metadadosDaAba;
+	}
+
+	@Override
+	public List<Row> buscarDadosDeEm(String caminhoArquivo, String delimitador, String coluna) throws IOException {
+		ValoresBuscados valores = new ValoresBuscados();
+		try (LeitorCsv leitor = LeitorCsv.abrir(caminhoArquivo, delimitador, StandardCharsets.UTF_8)) {
+			while (leitor.proximoRegistro()) {
+				for (int i = 0; i < leitor.getQuantidadeCampos(); i++) {
+					if (!leitor.isCampoVazio(i)) {
+						valores.adicionar(leitor.getCampo(i));
+					}
+				}
+			}
+		}
+		return buscar(valores, coluna);
+	}
+
+	@Override
+	public List<Row> buscarDadosDeEm(List<String> valores, String coluna) {
+		if (valores == null) {
+			throw new IllegalArgumentException("A lista de valores não pode ser nula");
+		}
+		ValoresBuscados indice = new ValoresBuscados();
+		for (String valor : valores) {
+			if (valor != null) {
+				indice.adicionar(valor);
+			}
+		}
+		return buscar(indice, coluna);
+	}
+
+	private List<Row> buscar(ValoresBuscados valores, String coluna) {
+		if (coluna == null || coluna.trim().isEmpty()) {
+			throw new IllegalArgumentException("A coluna não pode ser nula ou vazia");
+		}
+		int indiceColuna = PosicaoConverter.converterColuna(coluna.trim());
+		List<Row> encontradas = new ArrayList<>();
+		if (valores.vazio()) {
+			return encontradas;
+		}
+		for (Row row : sheet) {
+			Cell celula = row.getCell(indiceColuna);
+			if (celula != null && valores.contem(celula)) {
+				encontradas.add(row);
+			}
+		}
+		return encontradas;
+	}
+
+	@Override
+	public void salvarLinhasEmNovaAba(List<Row> linhas, String nomeNovaAba) {
+		verificarAlteracaoPermitida();
+		validarLinhas(linhas);
+		if (nomeNovaAba == null || nomeNovaAba.trim().isEmpty()) {
+			throw new IllegalArgumentException("O nome da nova aba não pode ser nulo ou vazio");
+		}
+		if (sheet.getWorkbook().getSheet(nomeNovaAba) != null) {
+			throw new IllegalArgumentException("A aba '" + nomeNovaAba + "' já existe!");
+		}
+		copiarLinhas(linhas, sheet.getWorkbook().createSheet(nomeNovaAba));
+	}
+
+	@Override
+	public void moverLinhasParaAba(List<Row> linhas, String nomeDestino) {
+		copiarLinhasParaAba(linhas, nomeDestino);
+		removerLinhas(linhas);
+	}
+
+	@Override
+	public void copiarLinhasParaAba(List<Row> linhas, String nomeDestino) {
+		verificarAlteracaoPermitida();
+		validarLinhas(linhas);
+		Sheet destino = nomeDestino == null ? null : sheet.getWorkbook().getSheet(nomeDestino);
+		if (destino == null) {
+			throw new IllegalArgumentException("A aba '" + nomeDestino + "' não existe!");
+		}
+		copiarLinhas(linhas, destino);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * As linhas seguintes sobem em uma única passada pela aba, e as referências
+	 * das fórmulas da aba às linhas movidas são ajustadas na mesma passada; as
+	 * referências às linhas removidas viram {@code #REF!}. Em seguida, o mesmo
+	 * ajuste é feito nas fórmulas das demais abas e nos nomes definidos que
+	 * apontam para esta aba.
+	 * </p>
+	 *
+	 * <p>
+	 * Regiões mescladas, hiperlinks e comentários sobem com as linhas; os que
+	 * ficam só em linhas removidas são descartados, e uma região que se reduz a
+	 * uma célula deixa de ser mesclada. Formatações condicionais e validações de
+	 * dados não são ajustadas e mantêm os intervalos originais.
+	 * </p>
+	 */
+	@Override
+	public void removerLinhas(List<Row> linhas) {
+		verificarAlteracaoPermitida();
+		int[] removidas = indicesDasLinhas(linhas);
+		if (removidas.length == 0) {
+			return;
+		}
+		for (int linha : removidas) {
+			if (sheet.getRow(linha) == null) {
+				throw new IllegalStateException(
+						"A linha " + (linha + 1) + " já foi gravada em disco e não pode ser removida");
+			}
+		}
+		MetadadosPlanilha metadados = metadadosDaAba.apply(sheet);
+		ReescritorDeFormulas formulas = ReescritorDeFormulas.deLinhasRemovidas(sheet, removidas);
+		// Ajustados antes da compactação, enquanto as células das linhas removidas existem
+		ajustarRegioesMescladas(removidas);
+		ajustarHiperlinks(removidas);
+		ajustarComentarios(removidas);
+
+		int[] existentes = new int[sheet.getPhysicalNumberOfRows()];
+		int quantidade = 0;
+		for (Row row : sheet) {
+			existentes[quantidade++] = row.getRowNum();
+		}
+		// Linhas que recebem conteúdo; as demais a partir da primeira removida ficam
+		// vazias e são descartadas ao final
+		int[] destinos = new int[quantidade];
+		int quantidadeDestinos = 0;
+		int removidasAntes = 0;
+		for (int i = 0; i < quantidade; i++) {
+			int linha = existentes[i];
+			Row row = sheet.getRow(linha);
+			while (removidasAntes < removidas.length && removidas[removidasAntes] < linha) {
+				removidasAntes++;
+			}
+			if (removidasAntes < removidas.length && removidas[removidasAntes] == linha) {
+				for (Cell celula : row) {
+					metadados.descontarCelula(celula);
+				}
+			} else if (removidasAntes == 0) {
+				reescreverFormulas(row, formulas);
+			} else {
+				subirLinha(row, linha - removidasAntes, formulas, metadados);
+				destinos[quantidadeDestinos++] = linha - removidasAntes;
+			}
+		}
+
+		// Descarta de baixo para cima as linhas que não receberam conteúdo
+		int proximoDestino = quantidadeDestinos - 1;
+		for (int i = quantidade - 1; i >= 0 && existentes[i] >= removidas[0]; i--) {
+			while (proximoDestino >= 0 && destinos[proximoDestino] > existentes[i]) {
+				proximoDestino--;
+			}
+			if (proximoDestino < 0 || destinos[proximoDestino] != existentes[i]) {
+				sheet.removeRow(sheet.getRow(existentes[i]));
+			}
+		}
+		formulas.reescreverOutrasAbasENomes();
+	}
+
+	// Regiões só em linhas removidas ou reduzidas a uma célula deixam de existir.
+	// As linhas mantidas continuam na mesma ordem, então as regiões não se sobrepõem.
+	private void ajustarRegioesMescladas(int[] removidas) {
+		List<CellRangeAddress> regioes = sheet.getMergedRegions();
+		List<Integer> alteradas = new ArrayList<>();
+		List<CellRangeAddress> novas = new ArrayList<>();
+		for (int i = 0; i < regioes.size(); i++) {
+			CellRangeAddress regiao = regioes.get(i);
+			if (regiao.getLastRow() < removidas[0]) {
+				continue;
+			}
+			int primeira = regiao.getFirstRow() - removidasAntes(removidas, regiao.getFirstRow());
+			int ultima = regiao.getLastRow() - removidasAntes(removidas, regiao.getLastRow() + 1);
+			if (primeira == regiao.getFirstRow() && ultima == regiao.getLastRow()) {
+				continue;
+			}
+			alteradas.add(i);
+			if (ultima > primeira || (ultima == primeira && regiao.getLastColumn() > regiao.getFirstColumn())) {
+				novas.add(new CellRangeAddress(primeira, ultima, regiao.getFirstColumn(), regiao.getLastColumn()));
+			}
+		}
+		if (alteradas.isEmpty()) {
+			return;
+		}
+		sheet.removeMergedRegions(alteradas);
+		for (CellRangeAddress regiao : novas) {
+			sheet.addMergedRegionUnsafe(regiao);
+		}
+	}
+
+	private void ajustarHiperlinks(int[] removidas) {
+		for (Hyperlink link : new ArrayList<>(sheet.getHyperlinkList())) {
+			if (link.getLastRow() < removidas[0]) {
+				continue;
+			}
+			int primeira = link.getFirstRow() - removidasAntes(removidas, link.getFirstRow());
+			int ultima = link.getLastRow() - removidasAntes(removidas, link.getLastRow() + 1);
+			if (ultima < primeira) {
+				celulaExistente(link.getFirstRow(), link.getFirstColumn()).removeHyperlink();
+			} else {
+				link.setFirstRow(primeira);
+				link.setLastRow(ultima);
+			}
+		}
+	}
+
+	// De cima para baixo, para que cada comentário ocupe um endereço já liberado
+	private void ajustarComentarios(int[] removidas) {
+		Map<CellAddress, ? extends Comment> porEndereco = new TreeMap<>(sheet.getCellComments());
+		for (Map.Entry<CellAddress, ? extends Comment> entrada : porEndereco.entrySet()) {
+			int linha = entrada.getKey().getRow();
+			if (linha < removidas[0]) {
+				continue;
+			}
+			if (Arrays.binarySearch(removidas, linha) >= 0) {
+				celulaExistente(linha, entrada.getKey().getColumn()).removeCellComment();
+			}
+		}
+		for (Map.Entry<CellAddress, ? extends Comment> entrada : porEndereco.entrySet()) {
+			int linha = entrada.getKey().getRow();
+			int antes = removidasAntes(removidas, linha);
+			if (antes > 0 && Arrays.binarySearch(removidas, linha) < 0) {
+				entrada.getValue().setRow(linha - antes);
+			}
+		}
+	}
+
+	// Quantidade de linhas removidas acima de linha
+	private static int removidasAntes(int[] removidas, int linha) {
+		int posicao = Arrays.binarySearch(removidas, linha);
+		return posicao >= 0 ? posicao : -posicao - 1;
+	}
+
+	// Hiperlinks e comentários são removidos pela célula, criada em branco se preciso
+	private Cell celulaExistente(int linha, int coluna) {
+		Row row = sheet.getRow(linha);
+		if (row == null) {
+			row = sheet.createRow(linha);
+		}
+		Cell celula = row.getCell(coluna);
+		return celula != null ? celula : row.createCell(coluna);
+	}
+
+	// Passa o conteúdo da linha para a linha de destino, cujo conteúdo anterior já
+	// foi movido ou removido
+	private void subirLinha(Row origem, int indiceDestino, ReescritorDeFormulas formulas,
+			MetadadosPlanilha metadados) {
+		buffer.limpar();
+		for (Cell celula : origem) {
+			buffer.guardar(celula, celula.getColumnIndex());
+			metadados.descontarCelula(celula);
+		}
+		short altura = alturaPersonalizada(origem);
+		CellStyle estiloLinha = origem.isFormatted() ? origem.getRowStyle() : null;
+		limparCelulas(origem);
+
+		Row destino = sheet.getRow(indiceDestino);
+		if (destino == null) {
+			destino = sheet.createRow(indiceDestino);
+		} else {
+			limparCelulas(destino);
+		}
+		destino.setHeight(altura);
+		destino.setRowStyle(estiloLinha);
+		for (int posicao = 0; posicao < buffer.tamanho(); posicao++) {
+			if (buffer.ehFormula(posicao)) {
+				buffer.definirFormula(posicao, formulas.reescrever(buffer.formula(posicao)));
+			}
+			Cell celula = destino.createCell(buffer.coluna(posicao));
+			buffer.restaurar(posicao, celula);
+			metadados.registrarCelula(celula);
+		}
+		buffer.limpar();
+	}
+
+	// -1 devolve a linha à altura padrão da aba
+	private static short alturaPersonalizada(Row row) {
+		return row.getHeight() == row.getSheet().getDefaultRowHeight() ? -1 : row.getHeight();
+	}
+
+	private static void limparCelulas(Row row) {
+		for (int coluna = row.getLastCellNum() - 1; coluna >= 0 && row.getPhysicalNumberOfCells() > 0; coluna--) {
+			Cell celula = row.getCell(coluna);
+			if (celula != null) {
+				row.removeCell(celula);
+			}
+		}
+	}
+
+	private static void reescreverFormulas(Row row, ReescritorDeFormulas formulas) {
+		for (Cell celula : row) {
+			if (celula.getCellType() == CellType.FORMULA) {
+				String formula = celula.getCellFormula();
+				String reescrita = formulas.reescrever(formula);
+				if (reescrita != formula) {
+					celula.setCellFormula(reescrita);
+				}
+			}
+		}
+	}
+
+	// Recusa alterações enquanto a planilha é salva em segundo plano
+	private void verificarAlteracaoPermitida() {
+		metadadosDaAba.apply(sheet).verificarAlteracaoPermitida();
+	}
+
+	// Acrescenta as linhas ao final da aba de destino, na ordem da lista
+	private void copiarLinhas(List<Row> linhas, Sheet destino) {
+		MetadadosPlanilha metadados = metadadosDaAba.apply(destino);
+		int proximaLinha = destino.getPhysicalNumberOfRows() == 0 ? 0 : destino.getLastRowNum() + 1;
+		for (Row origem : linhas) {
+			buffer.limpar();
+			for (Cell celula : origem) {
+				buffer.guardar(celula, celula.getColumnIndex());
+			}
+			Row novaLinha = destino.createRow(proximaLinha++);
+			novaLinha.setHeight(alturaPersonalizada(origem));
+			if (origem.isFormatted()) {
+				novaLinha.setRowStyle(origem.getRowStyle());
+			}
+			for (int posicao = 0; posicao < buffer.tamanho(); posicao++) {
+				Cell celula = novaLinha.createCell(buffer.coluna(posicao));
+				buffer.restaurar(posicao, celula);
+				metadados.registrarCelula(celula);
+			}
+		}
+		buffer.limpar();
+	}
+
+	// Índices das linhas em ordem crescente e sem repetição
+	private int[] indicesDasLinhas(List<Row> linhas) {
+		validarLinhas(linhas);
+		int[] indices = new int[linhas.size()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = linhas.get(i).getRowNum();
+		}
+		Arrays.sort(indices);
+		int distintos = 0;
+		for (int i = 0; i < indices.length; i++) {
+			if (i == 0 || indices[i] != indices[i - 1]) {
+				indices[distintos++] = indices[i];
+			}
+		}
+		return Arrays.copyOf(indices, distintos);
+	}
+
+	private void validarLinhas(List<Row> linhas) {
+		if (linhas == null) {
+			throw new IllegalArgumentException("A lista de linhas não pode ser nula");
+		}
+		for (Row row : linhas) {
+			if (row == null || row.getSheet() != sheet) {
+				throw new IllegalArgumentException(
+						"Todas as linhas devem pertencer à aba '" + sheet.getSheetName() + "'");
+			}
+		}
+	}
+
+	/**
+	 * Valores buscados, indexados como texto e, quando numéricos, booleanos ou
+	 * datas, também pelo valor, para que "42", "1,5", "verdadeiro" e
+	 * "2024-03-15" encontrem as células gravadas a partir deles. Os valores são
+	 * reconhecidos pelo {@link ClassificadorDeValores}, como na inserção.
+	 */
+	private static final class ValoresBuscados {
+		private final Set<String> textos = new HashSet<>();
+		private final Set<Double> numeros = new HashSet<>();
+		private final Set<Boolean> booleanos = new HashSet<>();
+		private final Set<LocalDate> datas = new HashSet<>();
+		private final ClassificadorDeValores classificador = new ClassificadorDeValores();
+		private DataFormatter formatador;
+
+		void adicionar(String valor) {
+			String texto = valor.trim();
+			textos.add(texto);
+			switch (classificador.classificar(texto)) {
+			case INTEIRO:
+			case DECIMAL:
+			case DECIMAL_BR:
+				numeros.add(normalizar(classificador.getNumero()));
+				break;
+			case BOOLEANO:
+				booleanos.add(classificador.getBooleano());
+				break;
+			case DATA:
+				datas.add(classificador.getData());
+				break;
+			default:
+				break;
+			}
+		}
+
+		boolean vazio() {
+			return textos.isEmpty();
+		}
+
+		boolean contem(Cell celula) {
+			CellType tipo = celula.getCellType();
+			if (tipo == CellType.FORMULA) {
+				tipo = celula.getCachedFormulaResultType();
+			}
+			switch (tipo) {
+			case STRING:
+				return textos.contains(celula.getStringCellValue().trim());
+			case NUMERIC:
+				if (DateUtil.isCellDateFormatted(celula)) {
+					return contemData(celula);
+				}
+				return numeros.contains(normalizar(celula.getNumericCellValue()));
+			case BOOLEAN:
+				return booleanos.contains(celula.getBooleanCellValue())
+						|| textos.contains(celula.getBooleanCellValue() ? "TRUE" : "FALSE");
+			default:
+				return false;
+			}
+		}
+
+		// Uma data buscada encontra só a célula sem horário; o texto formatado vale
+		// para qualquer célula de data
+		private boolean contemData(Cell celula) {
+			if (!datas.isEmpty()) {
+				LocalDateTime valor = celula.getLocalDateTimeCellValue();
+				if (valor.toLocalTime().equals(LocalTime.MIDNIGHT) && datas.contains(valor.toLocalDate())) {
+					return true;
+				}
+			}
+			if (formatador == null) {
+				formatador = new DataFormatter();
+			}
+			return textos.contains(formatador.formatCellValue(celula).trim());
+		}
+
+		// -0.0 e 0.0 são o mesmo valor na planilha
+		private static Double normalizar(double valor) {
+			return valor == 0 ? 0.0 : valor;
+		}
+	}
+}
@@ -0,0 +1,456 @@
+package com.abnote.planilhas.utils;
+
+import java.time.LocalDate;
+
+/**
+ * Classifica valores textuais em {@link TipoValor} sem usar exceções.
+ *
+ * <p>
+ * Percorre o texto uma única vez, caractere a caractere, e guarda o valor
+ * convertido para consulta logo em seguida ({@link #getNumero()},
+ * {@link #getData()}, {@link #getBooleano()}). Textos comuns (nomes,
+ * endereços, CPF/CNPJ formatados) são descartados já no primeiro caractere
+ * inválido, sem o custo de um {@code NumberFormatException}.
+ * </p>
+ *
+ * <p>
+ * Aceita qualquer {@link CharSequence}, o que permite classificar campos ainda
+ * em bytes (ver {@link LeitorCsvMapeado}) sem criar uma String. Não é
+ * thread-safe: cada {@link InsersorDeDados} mantém sua própria instância.
+ * </p>
+ */
+public class ClassificadorDeValores {
+
+	// Maior quantidade de dígitos representável exatamente em um double
+	private static final int MAXIMO_DIGITOS_EXATOS = 15;
+
+	private static final double[] POTENCIAS_DE_DEZ = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private double numero;
+	private boolean booleano;
+	private int ano;
+	private int mes;
+	private int dia;
+
+	/**
+	 * Identifica o tipo do valor, testando número, data e booleano nessa ordem.
+	 * Um ponto sozinho é tratado como separador decimal ({@code 1.234} = 1,234);
+	 * o formato brasileiro exige vírgula ou grupos de milhar ({@code 1.234,56},
+	 * {@code 1.234.567}).
+	 *
+	 * @param valor Valor a classificar. Espaços nas extremidades são ignorados.
+	 * @return O tipo identificado, ou {@link TipoValor#TEXTO}.
+	 */
+	public TipoValor classificar(CharSequence valor) {
+		if (valor == null) {
+			return TipoValor.TEXTO;
+		}
+		int inicio = inicioSemEspacos(valor);
+		int fim = fimSemEspacos(valor, inicio);
+		if (inicio == fim) {
+			return TipoValor.TEXTO;
+		}
+
+		char primeiro = valor.charAt(inicio);
+		if (ehDigito(primeiro) || primeiro == '-' || primeiro == '+' || primeiro == '.') {
+			TipoValor tipo = lerNumero(valor, inicio, fim);
+			if (tipo != null) {
+				return tipo;
+			}
+			if (lerNumeroBrasileiro(valor, inicio, fim, true)) {
+				return TipoValor.DECIMAL_BR;
+			}
+			if (lerData(valor, inicio, fim)) {
+				return TipoValor.DATA;
+			}
+			return TipoValor.TEXTO;
+		}
+		if (lerBooleano(valor, inicio, fim)) {
+			return TipoValor.BOOLEANO;
+		}
+		return TipoValor.TEXTO;
+	}
+
+	/**
+	 * Converte o valor apenas para o tipo informado, sem inferência.
+	 *
+	 * @param valor Valor a converter. Espaços nas extremidades são ignorados.
+	 * @param tipo  Tipo esperado. {@link TipoValor#TEXTO} não faz nenhuma
+	 *              verificação.
+	 * @return O próprio {@code tipo} se o valor for compatível, ou
+	 *         {@link TipoValor#TEXTO} caso contrário.
+	 */
+	public TipoValor converter(CharSequence valor, TipoValor tipo) {
+		if (tipo == null) {
+			return classificar(valor);
+		}
+		if (tipo == TipoValor.TEXTO || valor == null) {
+			return TipoValor.TEXTO;
+		}
+		int inicio = inicioSemEspacos(valor);
+		int fim = fimSemEspacos(valor, inicio);
+		if (inicio == fim) {
+			return TipoValor.TEXTO;
+		}
+
+		boolean compativel;
+		switch (tipo) {
+		case INTEIRO:
+			compativel = lerNumero(valor, inicio, fim) == TipoValor.INTEIRO;
+			break;
+		case DECIMAL:
+			compativel = lerNumero(valor, inicio, fim) != null;
+			break;
+		case DECIMAL_BR:
+			compativel = lerNumeroBrasileiro(valor, inicio, fim, false);
+			break;
+		case DATA:
+			compativel = lerData(valor, inicio, fim);
+			break;
+		case BOOLEANO:
+			compativel = lerBooleano(valor, inicio, fim);
+			break;
+		default:
+			compativel = false;
+		}
+		return compativel ? tipo : TipoValor.TEXTO;
+	}
+
+	/**
+	 * Valor numérico da última classificação {@code INTEIRO}, {@code DECIMAL} ou
+	 * {@code DECIMAL_BR}.
+	 */
+	public double getNumero() {
+		return numero;
+	}
+
+	/**
+	 * Valor da última classificação {@code BOOLEANO}.
+	 */
+	public boolean getBooleano() {
+		return booleano;
+	}
+
+	/**
+	 * Data da última classificação {@code DATA}.
+	 */
+	public LocalDate getData() {
+		return LocalDate.of(ano, mes, dia);
+	}
+
+	// Métodos auxiliares privados
+
+	/**
+	 * Lê um número no formato aceito por {@link Double#parseDouble(String)}:
+	 * sinal opcional, dígitos, ponto decimal opcional e expoente opcional.
+	 *
+	 * @return INTEIRO, DECIMAL ou null se o valor não for um número.
+	 */
+	private TipoValor lerNumero(CharSequence valor, int inicio, int fim) {
+		int i = inicio;
+		boolean negativo = false;
+		char c = valor.charAt(i);
+		if (c == '-' || c == '+') {
+			negativo = c == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digitosSignificativos = 0;
+		int casasDecimais = 0;
+		boolean possuiDigito = false;
+		boolean possuiPonto = false;
+		boolean possuiExpoente = false;
+
+		for (; i < fim; i++) {
+			c = valor.charAt(i);
+			if (ehDigito(c)) {
+				possuiDigito = true;
+				if (mantissa != 0 || c != '0') {
+					digitosSignificativos++;
+				}
+				if (digitosSignificativos <= MAXIMO_DIGITOS_EXATOS) {
+					mantissa = mantissa * 10 + (c - '0');
+					if (possuiPonto) {
+						casasDecimais++;
+					}
+				}
+			} else if (c == '.' && !possuiPonto) {
+				possuiPonto = true;
+			} else {
+				break;
+			}
+		}
+		if (!possuiDigito) {
+			return null;
+		}
+
+		if (i < fim && (valor.charAt(i) == 'e' || valor.charAt(i) == 'E')) {
+			possuiExpoente = true;
+			i++;
+			if (i < fim && (valor.charAt(i) == '-' || valor.charAt(i) == '+')) {
+				i++;
+			}
+			int inicioExpoente = i;
+			while (i < fim && ehDigito(valor.charAt(i))) {
+				i++;
+			}
+			if (i == inicioExpoente) {
+				return null;
+			}
+		}
+		if (i != fim) {
+			return null;
+		}
+
+		if (!possuiExpoente && digitosSignificativos <= MAXIMO_DIGITOS_EXATOS
+				&& casasDecimais < POTENCIAS_DE_DEZ.length) {
+			// Mantissa e potência são exatas, então a divisão é arredondada corretamente
+			double resultado = mantissa / POTENCIAS_DE_DEZ[casasDecimais];
+			numero = negativo ? -resultado : resultado;
+		} else {
+			// Formato já validado: a conversão padrão não lança exceção
+			numero = Double.parseDouble(valor.subSequence(inicio, fim).toString());
+		}
+		return possuiPonto || possuiExpoente ? TipoValor.DECIMAL : TipoValor.INTEIRO;
+	}
+
+	/**
+	 * Lê um número no formato brasileiro: grupos de milhar com ponto e casas
+	 * decimais com vírgula.
+	 *
+	 * @param exigirSeparador Se verdadeiro, exige vírgula ou grupo de milhar para
+	 *                        não confundir com inteiros e decimais com ponto.
+	 */
+	private boolean lerNumeroBrasileiro(CharSequence valor, int inicio, int fim, boolean exigirSeparador) {
+		int i = inicio;
+		boolean negativo = false;
+		char c = valor.charAt(i);
+		if (c == '-' || c == '+') {
+			negativo = c == '-';
+			i++;
+		}
+
+		int inicioInteiro = i;
+		while (i < fim && ehDigito(valor.charAt(i))) {
+			i++;
+		}
+		int digitosPrimeiroGrupo = i - inicioInteiro;
+		if (digitosPrimeiroGrupo == 0) {
+			return false;
+		}
+
+		boolean possuiGrupos = false;
+		while (i < fim && valor.charAt(i) == '.') {
+			if (digitosPrimeiroGrupo > 3 || i + 4 > fim) {
+				return false;
+			}
+			if (!ehDigito(valor.charAt(i + 1)) || !ehDigito(valor.charAt(i + 2)) || !ehDigito(valor.charAt(i + 3))) {
+				return false;
+			}
+			possuiGrupos = true;
+			i += 4;
+			if (i < fim && ehDigito(valor.charAt(i))) {
+				return false;
+			}
+		}
+
+		boolean possuiVirgula = false;
+		if (i < fim && valor.charAt(i) == ',') {
+			possuiVirgula = true;
+			i++;
+			int inicioDecimais = i;
+			while (i < fim && ehDigito(valor.charAt(i))) {
+				i++;
+			}
+			if (i == inicioDecimais) {
+				return false;
+			}
+		}
+		if (i != fim || (exigirSeparador && !possuiGrupos && !possuiVirgula)) {
+			return false;
+		}
+
+		long mantissa = 0;
+		int digitosSignificativos = 0;
+		int casasDecimais = 0;
+		boolean aposVirgula = false;
+		for (int j = inicioInteiro; j < fim; j++) {
+			c = valor.charAt(j);
+			if (c == ',') {
+				aposVirgula = true;
+			} else if (c != '.') {
+				if (mantissa != 0 || c != '0') {
+					digitosSignificativos++;
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				if (aposVirgula) {
+					casasDecimais++;
+				}
+				if (digitosSignificativos > MAXIMO_DIGITOS_EXATOS) {
+					numero = converterNumeroBrasileiroLongo(valor, inicio, fim);
+					return true;
+				}
+			}
+		}
+		if (casasDecimais >= POTENCIAS_DE_DEZ.length) {
+			numero = converterNumeroBrasileiroLongo(valor, inicio, fim);
+			return true;
+		}
+		double resultado = mantissa / POTENCIAS_DE_DEZ[casasDecimais];
+		numero = negativo ? -resultado : resultado;
+		return true;
+	}
+
+	// Caminho raro: normaliza para o formato com ponto e usa a conversão padrão
+	private static double converterNumeroBrasileiroLongo(CharSequence valor, int inicio, int fim) {
+		StringBuilder normalizado = new StringBuilder(fim - inicio);
+		for (int j = inicio; j < fim; j++) {
+			char c = valor.charAt(j);
+			if (c == ',') {
+				normalizado.append('.');
+			} else if (c != '.') {
+				normalizado.append(c);
+			}
+		}
+		return Double.parseDouble(normalizado.toString());
+	}
+
+	/**
+	 * Lê uma data {@code dd/MM/yyyy} (dia e mês com 1 ou 2 dígitos) ou
+	 * {@code yyyy-MM-dd}, validando o dia de acordo com o mês e ano bissexto.
+	 */
+	private boolean lerData(CharSequence valor, int inicio, int fim) {
+		int tamanho = fim - inicio;
+		if (tamanho < 8 || tamanho > 10) {
+			return false;
+		}
+
+		int d;
+		int m;
+		int a;
+		if (tamanho == 10 && valor.charAt(inicio + 4) == '-' && valor.charAt(inicio + 7) == '-') {
+			a = lerInteiro(valor, inicio, inicio + 4);
+			m = lerInteiro(valor, inicio + 5, inicio + 7);
+			d = lerInteiro(valor, inicio + 8, inicio + 10);
+		} else {
+			int barra1 = indiceDe(valor, '/', inicio, fim);
+			if (barra1 == -1) {
+				return false;
+			}
+			int barra2 = indiceDe(valor, '/', barra1 + 1, fim);
+			if (barra2 == -1 || fim - barra2 != 5) {
+				return false;
+			}
+			int tamanhoDia = barra1 - inicio;
+			int tamanhoMes = barra2 - barra1 - 1;
+			if (tamanhoDia < 1 || tamanhoDia > 2 || tamanhoMes < 1 || tamanhoMes > 2) {
+				return false;
+			}
+			d = lerInteiro(valor, inicio, barra1);
+			m = lerInteiro(valor, barra1 + 1, barra2);
+			a = lerInteiro(valor, barra2 + 1, fim);
+		}
+
+		if (d < 1 || m < 1 || m > 12 || a < 1 || d > diasNoMes(m, a)) {
+			return false;
+		}
+		dia = d;
+		mes = m;
+		ano = a;
+		return true;
+	}
+
+	private boolean lerBooleano(CharSequence valor, int inicio, int fim) {
+		int tamanho = fim - inicio;
+		if (tamanho == 4 && igualIgnorandoCaixa(valor, inicio, "true")) {
+			booleano = true;
+			return true;
+		}
+		if (tamanho == 5 && igualIgnorandoCaixa(valor, inicio, "false")) {
+			booleano = false;
+			return true;
+		}
+		if (tamanho == 10 && igualIgnorandoCaixa(valor, inicio, "verdadeiro")) {
+			booleano = true;
+			return true;
+		}
+		if (tamanho == 5 && igualIgnorandoCaixa(valor, inicio, "falso")) {
+			booleano = false;
+			return true;
+		}
+		return false;
+	}
+
+	// Retorna -1 se houver caractere que não seja dígito
+	private static int lerInteiro(CharSequence valor, int inicio, int fim) {
+		int resultado = 0;
+		for (int i = inicio; i < fim; i++) {
+			char c = valor.charAt(i);
+			if (!ehDigito(c)) {
+				return -1;
+			}
+			resultado = resultado * 10 + (c - '0');
+		}
+		return resultado;
+	}
+
+	private static int diasNoMes(int mes, int ano) {
+		switch (mes) {
+		case 2:
+			boolean bissexto = (ano % 4 == 0 && ano % 100 != 0) || ano % 400 == 0;
+			return bissexto ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	private static int indiceDe(CharSequence valor, char procurado, int inicio, int fim) {
+		for (int i = inicio; i < fim; i++) {
+			if (valor.charAt(i) == procurado) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Compara com uma palavra ASCII minúscula, sem diferenciar maiúsculas
+	private static boolean igualIgnorandoCaixa(CharSequence valor, int inicio, String palavra) {
+		for (int i = 0; i < palavra.length(); i++) {
+			char c = valor.charAt(inicio + i);
+			if (c >= 'A' && c <= 'Z') {
+				c += 'a' - 'A';
+			}
+			if (c != palavra.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean ehDigito(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int inicioSemEspacos(CharSequence valor) {
+		int inicio = 0;
+		while (inicio < valor.length() && valor.charAt(inicio) <= ' ') {
+			inicio++;
+		}
+		return inicio;
+	}
+
+	private static int fimSemEspacos(CharSequence valor, int inicio) {
+		int fim = valor.length();
+		while (fim > inicio && valor.charAt(fim - 1) <= ' ') {
+			fim--;
+		}
+		return fim;
+	}
+}
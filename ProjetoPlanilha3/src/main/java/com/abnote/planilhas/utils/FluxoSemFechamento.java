@@ -0,0 +1,29 @@
+package com.abnote.planilhas.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Fluxo que repassa as escritas ao fluxo de destino, mas cujo
+ * {@link #close()} apenas descarrega o buffer, sem fechar o destino. Protege
+ * fluxos do chamador (ex.: a resposta de uma requisição HTTP) do fechamento
+ * feito pelo POI ao gravar o workbook.
+ */
+public final class FluxoSemFechamento extends FilterOutputStream {
+
+	public FluxoSemFechamento(OutputStream destino) {
+		super(destino);
+	}
+
+	// O FilterOutputStream escreveria byte a byte
+	@Override
+	public void write(byte[] bytes, int inicio, int tamanho) throws IOException {
+		out.write(bytes, inicio, tamanho);
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+}
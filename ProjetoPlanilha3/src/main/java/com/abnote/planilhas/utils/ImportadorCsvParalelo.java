@@ -0,0 +1,381 @@
+package com.abnote.planilhas.utils;
+
+import java.io.CharArrayReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.abnote.planilhas.exceptions.PlanilhaException;
+
+/**
+ * Pipeline de leitura de arquivos delimitados em paralelo.
+ *
+ * <p>
+ * Uma thread leitora divide o arquivo em blocos que terminam sempre no fim de
+ * um registro (respeitando campos entre aspas com quebras de linha). Um pool
+ * de threads interpreta cada bloco com um {@link LeitorCsv} e classifica os
+ * valores com um {@link ClassificadorDeValores}, gerando um {@link Bloco}
+ * compacto. Quem chama {@link #proximoBloco()} recebe os blocos na ordem
+ * original do arquivo e é o único a tocar na planilha, pois o POI não é
+ * thread-safe.
+ * </p>
+ *
+ * <p>
+ * A fila entre a leitura e a escrita é limitada, então a memória usada não
+ * depende do tamanho do arquivo. Usa apenas o padrão RFC-4180 de aspas.
+ * </p>
+ */
+public class ImportadorCsvParalelo implements Closeable {
+
+	/** Tamanho padrão, em caracteres, dos blocos enviados ao pool. */
+	public static final int TAMANHO_BLOCO_PADRAO = 1 << 20;
+
+	private static final char ASPAS = LeitorCsv.ASPAS_PADRAO;
+	private static final AtomicInteger CONTADOR_IMPORTACOES = new AtomicInteger();
+
+	private final Reader reader;
+	private final String delimitador;
+	private final char[] delimitadorChars;
+	private final TipoValor[] tiposPorCampo;
+	private final int tamanhoBloco;
+	private final ExecutorService leitura;
+	private final ExecutorService interpretacao;
+	private final BlockingQueue<Future<Bloco>> fila;
+	private volatile boolean encerrado;
+	private boolean fimAlcancado;
+
+	/**
+	 * @param reader        Fonte dos caracteres; fechada em {@link #close()}.
+	 * @param delimitador   Delimitador de campos.
+	 * @param tiposPorCampo Tipo definido para cada campo (índice 0 = primeiro
+	 *                      campo do registro), ou null nas posições sem tipo.
+	 * @param paralelismo   Quantidade de threads de interpretação.
+	 * @param tamanhoBloco  Tamanho aproximado de cada bloco, em caracteres.
+	 */
+	public ImportadorCsvParalelo(Reader reader, String delimitador, TipoValor[] tiposPorCampo, int paralelismo,
+			int tamanhoBloco) {
+		if (reader == null || delimitador == null) {
+			throw new IllegalArgumentException("Reader e delimitador não podem ser nulos");
+		}
+		if (paralelismo <= 0 || tamanhoBloco <= 0) {
+			throw new IllegalArgumentException(
+					"Paralelismo e tamanho do bloco devem ser maiores que zero: " + paralelismo + ", " + tamanhoBloco);
+		}
+		this.reader = reader;
+		this.delimitador = delimitador;
+		this.delimitadorChars = delimitador.toCharArray();
+		this.tiposPorCampo = tiposPorCampo == null ? new TipoValor[0] : tiposPorCampo.clone();
+		this.tamanhoBloco = tamanhoBloco;
+		this.fila = new ArrayBlockingQueue<>(paralelismo * 2);
+
+		int importacao = CONTADOR_IMPORTACOES.incrementAndGet();
+		this.leitura = Executors.newSingleThreadExecutor(fabricaDeThreads("csv-leitura-" + importacao));
+		this.interpretacao = Executors.newFixedThreadPool(paralelismo,
+				fabricaDeThreads("csv-interpretacao-" + importacao));
+		this.leitura.execute(this::lerBlocos);
+	}
+
+	/**
+	 * Retorna o próximo bloco interpretado, na ordem do arquivo.
+	 *
+	 * @return O bloco, ou null quando o arquivo terminou.
+	 * @throws IOException Se ocorrer erro de leitura.
+	 */
+	public Bloco proximoBloco() throws IOException {
+		if (fimAlcancado) {
+			return null;
+		}
+		try {
+			Bloco bloco = fila.take().get();
+			if (bloco == null) {
+				fimAlcancado = true;
+			}
+			return bloco;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PlanilhaException("Importação interrompida", e);
+		} catch (ExecutionException e) {
+			Throwable causa = e.getCause();
+			if (causa instanceof IOException) {
+				throw (IOException) causa;
+			}
+			if (causa instanceof RuntimeException) {
+				throw (RuntimeException) causa;
+			}
+			throw new PlanilhaException("Erro ao interpretar o arquivo", causa);
+		}
+	}
+
+	/**
+	 * Encerra as threads do pipeline e fecha o reader, mesmo que o arquivo não
+	 * tenha sido lido até o fim.
+	 */
+	@Override
+	public void close() throws IOException {
+		encerrado = true;
+		leitura.shutdownNow();
+		interpretacao.shutdownNow();
+		fila.clear();
+		reader.close();
+	}
+
+	// Thread leitora: divide o arquivo em blocos alinhados a registros
+
+	private void lerBlocos() {
+		try {
+			char[] buffer = new char[tamanhoBloco];
+			int tamanho = 0;
+			while (!encerrado) {
+				int lidos = reader.read(buffer, tamanho, buffer.length - tamanho);
+				if (lidos == -1) {
+					if (tamanho > 0) {
+						enviar(Arrays.copyOf(buffer, tamanho));
+					}
+					break;
+				}
+				tamanho += lidos;
+				if (tamanho < buffer.length) {
+					continue;
+				}
+
+				int fim = encontrarFimDoUltimoRegistro(buffer, tamanho);
+				if (fim == 0) {
+					// Registro maior que o buffer: aumenta e continua lendo
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+					continue;
+				}
+				enviar(Arrays.copyOf(buffer, fim));
+				System.arraycopy(buffer, fim, buffer, 0, tamanho - fim);
+				tamanho -= fim;
+			}
+			fila.put(CompletableFuture.completedFuture(null));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | RuntimeException e) {
+			CompletableFuture<Bloco> falha = new CompletableFuture<>();
+			falha.completeExceptionally(e);
+			try {
+				fila.put(falha);
+			} catch (InterruptedException interrupcao) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void enviar(char[] dados) throws InterruptedException {
+		fila.put(interpretacao.submit(() -> interpretar(dados)));
+	}
+
+	/**
+	 * Percorre o buffer com as mesmas regras de aspas do {@link LeitorCsv} e
+	 * retorna a posição logo após o último fim de registro encontrado, ou 0.
+	 */
+	int encontrarFimDoUltimoRegistro(char[] buffer, int tamanho) {
+		int ultimoFim = 0;
+		boolean emAspas = false;
+		boolean campoEmBranco = true;
+		int i = 0;
+		while (i < tamanho) {
+			char c = buffer[i];
+			if (emAspas) {
+				if (c == ASPAS) {
+					if (i + 1 >= tamanho) {
+						return ultimoFim;
+					}
+					if (buffer[i + 1] == ASPAS) {
+						campoEmBranco = false;
+						i += 2;
+						continue;
+					}
+					emAspas = false;
+				} else if (c > ' ') {
+					campoEmBranco = false;
+				}
+				i++;
+				continue;
+			}
+
+			if (c == '\n') {
+				ultimoFim = i + 1;
+				campoEmBranco = true;
+			} else if (c == '\r') {
+				if (i + 1 >= tamanho) {
+					return ultimoFim;
+				}
+				if (buffer[i + 1] == '\n') {
+					i++;
+				}
+				ultimoFim = i + 1;
+				campoEmBranco = true;
+			} else if (c == ASPAS && campoEmBranco) {
+				emAspas = true;
+			} else if (delimitadorChars.length > 0 && c == delimitadorChars[0]) {
+				if (i + delimitadorChars.length > tamanho) {
+					return ultimoFim;
+				}
+				if (delimitadorEm(buffer, i)) {
+					i += delimitadorChars.length;
+					campoEmBranco = true;
+					continue;
+				}
+				campoEmBranco = campoEmBranco && c <= ' ';
+			} else if (c > ' ') {
+				campoEmBranco = false;
+			}
+			i++;
+		}
+		return ultimoFim;
+	}
+
+	private boolean delimitadorEm(char[] buffer, int posicao) {
+		for (int j = 1; j < delimitadorChars.length; j++) {
+			if (buffer[posicao + j] != delimitadorChars[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Threads de interpretação: tokenizam e classificam um bloco
+
+	private Bloco interpretar(char[] dados) throws IOException {
+		ClassificadorDeValores classificador = new ClassificadorDeValores();
+		Bloco bloco = new Bloco(Math.max(16, dados.length / 64));
+
+		try (LeitorCsv leitor = new LeitorCsv(new CharArrayReader(dados), delimitador)) {
+			while (leitor.proximoRegistro()) {
+				// Campos vazios no fim do registro são ignorados, como na leitura sequencial
+				int quantidade = leitor.getQuantidadeCampos();
+				while (quantidade > 0 && leitor.isCampoVazio(quantidade - 1)) {
+					quantidade--;
+				}
+
+				bloco.iniciarRegistro();
+				for (int i = 0; i < quantidade; i++) {
+					if (leitor.isCampoVazio(i)) {
+						bloco.adicionarTexto("");
+						continue;
+					}
+					String valor = leitor.getCampo(i);
+					TipoValor tipoCampo = i < tiposPorCampo.length ? tiposPorCampo[i] : null;
+					TipoValor tipo = tipoCampo == null ? classificador.classificar(valor)
+							: classificador.converter(valor, tipoCampo);
+					switch (tipo) {
+					case INTEIRO:
+					case DECIMAL:
+					case DECIMAL_BR:
+						bloco.adicionar(tipo, classificador.getNumero());
+						break;
+					case DATA:
+						bloco.adicionar(tipo, classificador.getData().toEpochDay());
+						break;
+					case BOOLEANO:
+						bloco.adicionar(tipo, classificador.getBooleano() ? 1 : 0);
+						break;
+					default:
+						bloco.adicionarTexto(valor);
+					}
+				}
+			}
+		}
+		bloco.concluir();
+		return bloco;
+	}
+
+	private static ThreadFactory fabricaDeThreads(String prefixo) {
+		AtomicInteger contador = new AtomicInteger();
+		return tarefa -> {
+			Thread thread = new Thread(tarefa, prefixo + "-" + contador.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Registros já interpretados de um trecho do arquivo, em arrays primitivos.
+	 * Os valores de um registro ocupam as posições
+	 * {@code [getInicioRegistro(r), getInicioRegistro(r + 1))}.
+	 */
+	public static final class Bloco {
+
+		private static final TipoValor[] TIPOS = TipoValor.values();
+
+		private int quantidadeRegistros;
+		private int[] iniciosRegistros = new int[64];
+		private int quantidadeValores;
+		private byte[] tipos;
+		private double[] numeros;
+		private String[] textos;
+
+		private Bloco(int capacidade) {
+			tipos = new byte[capacidade];
+			numeros = new double[capacidade];
+			textos = new String[capacidade];
+		}
+
+		public int getQuantidadeRegistros() {
+			return quantidadeRegistros;
+		}
+
+		public int getInicioRegistro(int registro) {
+			return iniciosRegistros[registro];
+		}
+
+		public TipoValor getTipo(int indice) {
+			return TIPOS[tipos[indice]];
+		}
+
+		/**
+		 * Número, data em dias desde 1970-01-01 ou booleano (1/0), conforme o tipo.
+		 */
+		public double getNumero(int indice) {
+			return numeros[indice];
+		}
+
+		public String getTexto(int indice) {
+			return textos[indice];
+		}
+
+		private void iniciarRegistro() {
+			if (quantidadeRegistros + 1 >= iniciosRegistros.length) {
+				iniciosRegistros = Arrays.copyOf(iniciosRegistros, iniciosRegistros.length * 2);
+			}
+			iniciosRegistros[quantidadeRegistros++] = quantidadeValores;
+		}
+
+		private void concluir() {
+			iniciosRegistros[quantidadeRegistros] = quantidadeValores;
+		}
+
+		private void adicionar(TipoValor tipo, double numero) {
+			garantirCapacidade();
+			tipos[quantidadeValores] = (byte) tipo.ordinal();
+			numeros[quantidadeValores++] = numero;
+		}
+
+		private void adicionarTexto(String texto) {
+			garantirCapacidade();
+			tipos[quantidadeValores] = (byte) TipoValor.TEXTO.ordinal();
+			textos[quantidadeValores++] = texto;
+		}
+
+		private void garantirCapacidade() {
+			if (quantidadeValores == tipos.length) {
+				int novaCapacidade = tipos.length * 2;
+				tipos = Arrays.copyOf(tipos, novaCapacidade);
+				numeros = Arrays.copyOf(numeros, novaCapacidade);
+				textos = Arrays.copyOf(textos, novaCapacidade);
+			}
+		}
+	}
+}
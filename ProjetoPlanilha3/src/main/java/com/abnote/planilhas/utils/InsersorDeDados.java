@@ -1,44 +1,95 @@
 package com.abnote.planilhas.utils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.LongConsumer;
 import java.util.regex.Pattern;
 import java.util.logging.Logger;
 
 import com.abnote.planilhas.exceptions.ArquivoException;
 import com.abnote.planilhas.exceptions.DadosInvalidosException;
+import com.abnote.planilhas.mapeamento.MapeamentoColunas;
 
 import org.apache.poi.ss.usermodel.*;
 
 public class InsersorDeDados {
 
 	private static final Logger logger = LoggerUtil.getLogger(InsersorDeDados.class);
+	private static final String FORMATO_DATA = "dd/mm/yyyy";
+	private static final String FORMATO_DATA_HORA = "dd/mm/yyyy hh:mm:ss";
 
 	private final Sheet sheet;
 	private final PositionManager positionManager;
+	private final MetadadosPlanilha metadados;
+	private final ClassificadorDeValores classificador = new ClassificadorDeValores();
+	private CellStyle estiloData;
+	private CellStyle estiloDataHora;
 	private int ultimoIndiceDeLinhaInserido = -1;
 	private int ultimoIndiceDeColunaInserido = -1;
 
 	public InsersorDeDados(Sheet sheet, PositionManager positionManager) {
+		this(sheet, positionManager, new MetadadosPlanilha());
+	}
+
+	public InsersorDeDados(Sheet sheet, PositionManager positionManager, MetadadosPlanilha metadados) {
 		this.sheet = sheet;
 		this.positionManager = positionManager;
+		this.metadados = metadados;
 	}
 
 	public void inserirDados(String valor) {
-		definirPosicaoPadraoSeNecessario();
+		Cell celula = criarCelulaNaPosicaoAtual();
+		// Converte para número, data ou booleano quando possível
+		definirValorCelula(celula, valor);
+		concluirInsercao(celula);
+	}
 
-		Row linha = obterOuCriarLinha(positionManager.getPosicaoInicialLinha());
-		Cell celula = linha.createCell(positionManager.getPosicaoInicialColuna());
+	/**
+	 * Insere um número na posição atual sem conversão para texto.
+	 *
+	 * @param valor O valor numérico.
+	 */
+	public void inserirDados(double valor) {
+		Cell celula = criarCelulaNaPosicaoAtual();
+		celula.setCellValue(valor);
+		concluirInsercao(celula);
+	}
 
-		// Tenta converter para número, se falhar insere como string
-		definirValorCelula(celula, valor);
+	/**
+	 * Insere um booleano na posição atual.
+	 *
+	 * @param valor O valor booleano.
+	 */
+	public void inserirDados(boolean valor) {
+		Cell celula = criarCelulaNaPosicaoAtual();
+		celula.setCellValue(valor);
+		concluirInsercao(celula);
+	}
 
-		atualizarIndicesInseridos(positionManager.getPosicaoInicialLinha(), positionManager.getPosicaoInicialColuna());
+	/**
+	 * Insere uma data na posição atual, formatada como dd/mm/yyyy. Uma data nula
+	 * gera uma célula vazia.
+	 *
+	 * @param valor A data.
+	 */
+	public void inserirDados(LocalDate valor) {
+		Cell celula = criarCelulaNaPosicaoAtual();
+		if (valor == null) {
+			celula.setCellValue("");
+		} else {
+			celula.setCellValue(valor);
+			celula.setCellStyle(obterEstiloData());
+		}
+		concluirInsercao(celula);
 	}
 
 	public void inserirDados(Object dados, String delimitador) {
@@ -62,6 +113,7 @@ public class InsersorDeDados {
 	}
 
 	public void inserirDados(List<String> dados) {
+		metadados.verificarAlteracaoPermitida();
 		definirPosicaoPadraoSeNecessario();
 
 		if (positionManager.isIntervaloDefinida()) {
@@ -77,7 +129,208 @@ public class InsersorDeDados {
 		inserirDados(dados);
 	}
 
+	/**
+	 * Insere um bloco de valores a partir da posição atual, uma linha da
+	 * planilha por linha da matriz. Cada linha é criada uma única vez e as células
+	 * são endereçadas por índice.
+	 *
+	 * <p>
+	 * Strings passam pela mesma classificação de {@link #inserirDados(String)};
+	 * {@link Number}, {@link Boolean} e {@link LocalDate} são gravados com o tipo
+	 * nativo. Valores nulos não criam célula. Com um intervalo selecionado, o
+	 * bloco é recortado aos limites do intervalo.
+	 * </p>
+	 *
+	 * @param matriz Valores indexados por [linha][coluna].
+	 */
+	public void inserirMatriz(Object[][] matriz) {
+		metadados.verificarAlteracaoPermitida();
+		if (matriz == null) {
+			throw new IllegalArgumentException("A matriz não pode ser nula");
+		}
+		definirPosicaoPadraoSeNecessario();
+
+		int linhaInicial = positionManager.getPosicaoInicialLinha();
+		int colunaInicial = positionManager.getPosicaoInicialColuna();
+		int quantidadeLinhas = limitarLinhas(matriz.length);
+		int limiteColunas = limitarColunas(Integer.MAX_VALUE);
+		int maiorLargura = 0;
+
+		for (int i = 0; i < quantidadeLinhas; i++) {
+			Object[] valores = matriz[i];
+			Row linha = obterOuCriarLinha(linhaInicial + i);
+			if (valores == null) {
+				continue;
+			}
+			int largura = Math.min(valores.length, limiteColunas);
+			for (int j = 0; j < largura; j++) {
+				if (valores[j] != null) {
+					escreverObjeto(linha, colunaInicial + j, valores[j], true);
+				}
+			}
+			maiorLargura = Math.max(maiorLargura, largura);
+		}
+
+		concluirBloco(linhaInicial, colunaInicial, quantidadeLinhas, maiorLargura);
+	}
+
+	/**
+	 * Insere colunas numéricas lado a lado a partir da posição atual, sem
+	 * conversão para texto nem boxing. Colunas mais curtas deixam as linhas
+	 * restantes sem célula.
+	 *
+	 * @param colunas Valores indexados por [coluna][linha].
+	 */
+	public void inserirColunas(double[]... colunas) {
+		metadados.verificarAlteracaoPermitida();
+		if (colunas == null) {
+			throw new IllegalArgumentException("As colunas não podem ser nulas");
+		}
+		definirPosicaoPadraoSeNecessario();
+
+		int linhaInicial = positionManager.getPosicaoInicialLinha();
+		int colunaInicial = positionManager.getPosicaoInicialColuna();
+		int quantidadeColunas = limitarColunas(colunas.length);
+		int maiorAltura = 0;
+		for (int c = 0; c < quantidadeColunas; c++) {
+			if (colunas[c] != null) {
+				maiorAltura = Math.max(maiorAltura, colunas[c].length);
+			}
+		}
+		int quantidadeLinhas = limitarLinhas(maiorAltura);
+
+		// Percorre por linha para criar cada Row uma única vez
+		for (int i = 0; i < quantidadeLinhas; i++) {
+			Row linha = obterOuCriarLinha(linhaInicial + i);
+			for (int c = 0; c < quantidadeColunas; c++) {
+				double[] coluna = colunas[c];
+				if (coluna != null && i < coluna.length) {
+					escreverNumero(linha, colunaInicial + c, coluna[i]);
+				}
+			}
+		}
+
+		concluirBloco(linhaInicial, colunaInicial, quantidadeLinhas, quantidadeColunas);
+	}
+
+	/**
+	 * Insere um objeto por linha a partir da posição atual, precedidos do
+	 * cabeçalho quando o mapeamento o define. Os valores são gravados com o tipo
+	 * nativo; Strings são gravadas como texto, sem inferência.
+	 *
+	 * @param objetos    Os objetos a inserir. Elementos nulos geram linhas vazias.
+	 * @param mapeamento Cabeçalhos e extratores de cada coluna.
+	 */
+	public <T> void inserirObjetos(List<T> objetos, MapeamentoColunas<T> mapeamento) {
+		metadados.verificarAlteracaoPermitida();
+		if (objetos == null || mapeamento == null) {
+			throw new IllegalArgumentException("Os objetos e o mapeamento não podem ser nulos");
+		}
+		definirPosicaoPadraoSeNecessario();
+
+		int linhaInicial = positionManager.getPosicaoInicialLinha();
+		int colunaInicial = positionManager.getPosicaoInicialColuna();
+		int deslocamento = mapeamento.isComCabecalho() ? 1 : 0;
+		int quantidadeLinhas = limitarLinhas(objetos.size() + deslocamento);
+		int quantidadeColunas = limitarColunas(mapeamento.getQuantidadeColunas());
+
+		if (deslocamento == 1 && quantidadeLinhas > 0) {
+			Row cabecalho = obterOuCriarLinha(linhaInicial);
+			for (int c = 0; c < quantidadeColunas; c++) {
+				escreverObjeto(cabecalho, colunaInicial + c, mapeamento.getCabecalho(c), false);
+			}
+		}
+
+		int i = deslocamento;
+		for (T objeto : objetos) {
+			if (i >= quantidadeLinhas) {
+				break;
+			}
+			Row linha = obterOuCriarLinha(linhaInicial + i);
+			if (objeto != null) {
+				for (int c = 0; c < quantidadeColunas; c++) {
+					Object valor = mapeamento.extrair(objeto, c);
+					if (valor != null) {
+						escreverObjeto(linha, colunaInicial + c, valor, false);
+					}
+				}
+			}
+			i++;
+		}
+
+		concluirBloco(linhaInicial, colunaInicial, quantidadeLinhas, quantidadeColunas);
+	}
+
+	/**
+	 * Insere as linhas fornecidas pelo iterador a partir da posição atual,
+	 * consumindo uma de cada vez sem armazenar a origem. Strings passam pela
+	 * classificação de {@link #inserirDados(String)}; os demais tipos são gravados
+	 * como em {@link #inserirMatriz(Object[][])}.
+	 *
+	 * @param linhas             Fonte das linhas, consumida sob demanda.
+	 * @param intervaloProgresso A cada quantas linhas o progresso é informado.
+	 * @param progresso          Recebe a quantidade de linhas já inseridas; pode
+	 *                           ser nulo. Também é chamado ao final.
+	 * @return A quantidade de linhas inseridas.
+	 */
+	public long inserirFluxo(Iterator<? extends List<?>> linhas, int intervaloProgresso, LongConsumer progresso) {
+		metadados.verificarAlteracaoPermitida();
+		if (linhas == null) {
+			throw new IllegalArgumentException("O iterador de linhas não pode ser nulo");
+		}
+		if (intervaloProgresso <= 0) {
+			throw new IllegalArgumentException("O intervalo de progresso deve ser maior que zero: " + intervaloProgresso);
+		}
+		definirPosicaoPadraoSeNecessario();
+
+		int linhaInicial = positionManager.getPosicaoInicialLinha();
+		int colunaInicial = positionManager.getPosicaoInicialColuna();
+		int limiteLinhas = limitarLinhas(Integer.MAX_VALUE);
+		int limiteColunas = limitarColunas(Integer.MAX_VALUE);
+		int maiorLargura = 0;
+		int inseridas = 0;
+
+		while (inseridas < limiteLinhas && linhas.hasNext()) {
+			List<?> valores = linhas.next();
+			Row linha = obterOuCriarLinha(linhaInicial + inseridas);
+			if (valores != null) {
+				int largura = Math.min(valores.size(), limiteColunas);
+				for (int j = 0; j < largura; j++) {
+					Object valor = valores.get(j);
+					if (valor != null) {
+						escreverObjeto(linha, colunaInicial + j, valor, true);
+					}
+				}
+				maiorLargura = Math.max(maiorLargura, largura);
+			}
+
+			inseridas++;
+			if (progresso != null && inseridas % intervaloProgresso == 0) {
+				progresso.accept(inseridas);
+			}
+		}
+		if (progresso != null && inseridas % intervaloProgresso != 0) {
+			progresso.accept(inseridas);
+		}
+
+		concluirBloco(linhaInicial, colunaInicial, inseridas, maiorLargura);
+		return inseridas;
+	}
+
 	public void inserirDadosArquivo(String caminhoArquivo, String delimitador) {
+		inserirDadosArquivo(caminhoArquivo, delimitador, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Insere os registros de um arquivo delimitado a partir da posição atual,
+	 * um registro por linha da planilha.
+	 *
+	 * @param caminhoArquivo Caminho do arquivo.
+	 * @param delimitador    Delimitador de campos.
+	 * @param charset        Codificação do arquivo.
+	 */
+	public void inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset) {
+        metadados.verificarAlteracaoPermitida();
         definirPosicaoPadraoSeNecessario();
         
         if (caminhoArquivo == null || caminhoArquivo.trim().isEmpty()) {
@@ -89,13 +342,11 @@ public class InsersorDeDados {
         
         // [REMOVED] Validação do delimitador removida (pode ser vazio em casos válidos)
 
-        try (BufferedReader br = new BufferedReader(new FileReader(caminhoArquivo))) {
-            String linhaTexto;
+        try (LeitorCsv leitor = LeitorCsv.abrir(caminhoArquivo, delimitador, charset)) {
             int linhaAtual = positionManager.getPosicaoInicialLinha();
 
-            while ((linhaTexto = br.readLine()) != null) {
-                String[] valores = linhaTexto.split(Pattern.quote(delimitador));
-                inserirValoresEmLinha(linhaAtual, valores);
+            while (leitor.proximoRegistro()) {
+                inserirValoresEmLinha(linhaAtual, leitor);
 
                 linhaAtual++;
                 if (positionManager.isIntervaloDefinida() && linhaAtual > positionManager.getPosicaoFinalLinha()) {
@@ -119,31 +370,258 @@ public class InsersorDeDados {
     }
 
 	/**
-	 * Define o valor da célula, tentando converter para número quando possível.
+	 * Insere os registros de um arquivo delimitado usando um pipeline paralelo:
+	 * uma thread lê blocos do arquivo, {@code paralelismo} threads interpretam e
+	 * classificam os valores e a thread atual grava as células na ordem original.
+	 * Com {@code paralelismo} igual a 1, usa a leitura sequencial.
+	 *
+	 * @param caminhoArquivo Caminho do arquivo.
+	 * @param delimitador    Delimitador de campos.
+	 * @param charset        Codificação do arquivo.
+	 * @param paralelismo    Quantidade de threads de interpretação.
+	 */
+	public void inserirDadosArquivo(String caminhoArquivo, String delimitador, Charset charset, int paralelismo) {
+		metadados.verificarAlteracaoPermitida();
+		if (paralelismo <= 0) {
+			throw new IllegalArgumentException("O paralelismo deve ser maior que zero: " + paralelismo);
+		}
+		if (paralelismo == 1) {
+			inserirDadosArquivo(caminhoArquivo, delimitador, charset);
+			return;
+		}
+		definirPosicaoPadraoSeNecessario();
+
+		if (caminhoArquivo == null || caminhoArquivo.trim().isEmpty()) {
+			throw new ArquivoException("Caminho do arquivo não pode ser nulo ou vazio", caminhoArquivo);
+		}
+
+		int colunaInicial = positionManager.getPosicaoInicialColuna();
+		int linhaAtual = positionManager.getPosicaoInicialLinha();
+		TipoValor[] tipos = metadados.copiarTiposColunas(colunaInicial);
+
+		try (ImportadorCsvParalelo importador = new ImportadorCsvParalelo(
+				new InputStreamReader(new FileInputStream(caminhoArquivo), charset), delimitador, tipos, paralelismo,
+				ImportadorCsvParalelo.TAMANHO_BLOCO_PADRAO)) {
+
+			ImportadorCsvParalelo.Bloco bloco;
+			leitura: while ((bloco = importador.proximoBloco()) != null) {
+				for (int r = 0; r < bloco.getQuantidadeRegistros(); r++) {
+					if (positionManager.isIntervaloDefinida() && linhaAtual > positionManager.getPosicaoFinalLinha()) {
+						break leitura;
+					}
+					inserirRegistroEmLinha(linhaAtual, bloco, r);
+					linhaAtual++;
+				}
+			}
+
+			atualizarIndicesInseridos(linhaAtual - 1, colunaInicial);
+			positionManager.setPosicaoInicialLinha(linhaAtual);
+
+		} catch (IOException e) {
+			logger.severe("Erro ao ler o arquivo: " + e.getMessage());
+			throw new ArquivoException("Erro ao ler arquivo. Verifique se o arquivo existe e está acessível",
+					caminhoArquivo, e);
+		}
+
+		positionManager.resetarPosicao();
+	}
+
+	/**
+	 * Insere os registros de um arquivo delimitado mapeando-o em memória
+	 * ({@link LeitorCsvMapeado}). Números, datas e booleanos são interpretados
+	 * diretamente dos bytes do arquivo; apenas os campos de texto são
+	 * decodificados. Indicado para arquivos muito grandes em UTF-8 ou
+	 * ISO-8859-1.
+	 *
+	 * @param caminhoArquivo Caminho do arquivo.
+	 * @param delimitador    Delimitador de campos.
+	 * @param charset        UTF-8, ISO-8859-1 ou US-ASCII.
+	 */
+	public void inserirDadosArquivoMapeado(String caminhoArquivo, String delimitador, Charset charset) {
+		metadados.verificarAlteracaoPermitida();
+		definirPosicaoPadraoSeNecessario();
+
+		if (caminhoArquivo == null || caminhoArquivo.trim().isEmpty()) {
+			throw new ArquivoException("Caminho do arquivo não pode ser nulo ou vazio", caminhoArquivo);
+		}
+
+		try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(caminhoArquivo, delimitador, charset)) {
+			int linhaAtual = positionManager.getPosicaoInicialLinha();
+
+			while (leitor.proximoRegistro()) {
+				inserirValoresEmLinha(linhaAtual, leitor);
+
+				linhaAtual++;
+				if (positionManager.isIntervaloDefinida() && linhaAtual > positionManager.getPosicaoFinalLinha()) {
+					break;
+				}
+			}
+
+			atualizarIndicesInseridos(linhaAtual - 1, positionManager.getPosicaoInicialColuna());
+			positionManager.setPosicaoInicialLinha(linhaAtual);
+
+		} catch (IOException e) {
+			logger.severe("Erro ao ler o arquivo: " + e.getMessage());
+			throw new ArquivoException("Erro ao ler arquivo. Verifique se o arquivo existe e está acessível",
+					caminhoArquivo, e);
+		}
+
+		positionManager.resetarPosicao();
+	}
+
+	/**
+	 * Define o valor da célula com o tipo identificado pelo
+	 * {@link ClassificadorDeValores}, ou com o tipo definido para a coluna.
 	 * 
 	 * @param celula Célula a receber o valor
 	 * @param valor  String com o valor a ser inserido
 	 */
 	private void definirValorCelula(Cell celula, String valor) {
-		if (valor == null || valor.trim().isEmpty()) {
+		if (valor == null) {
 			celula.setCellValue("");
 			return;
 		}
 
 		String valorTrimmed = valor.trim();
+		if (valorTrimmed.isEmpty()) {
+			celula.setCellValue("");
+			return;
+		}
 
-		// Tenta converter para número
-		try {
-			double numeroDouble = Double.parseDouble(valorTrimmed);
-			celula.setCellValue(numeroDouble);
-		} catch (NumberFormatException e) {
-			// Não é número, insere como string
+		if (!definirValorNaoTextual(celula, valorTrimmed)) {
 			celula.setCellValue(valorTrimmed);
 		}
 	}
 
+	/**
+	 * Classifica o valor (já sem espaços nas extremidades) e grava números,
+	 * datas e booleanos na célula.
+	 * 
+	 * @return false se o valor for texto; nesse caso a célula não é alterada.
+	 */
+	private boolean definirValorNaoTextual(Cell celula, CharSequence valor) {
+		TipoValor tipoColuna = metadados.getTipoColuna(celula.getColumnIndex());
+		TipoValor tipo = tipoColuna == null ? classificador.classificar(valor)
+				: classificador.converter(valor, tipoColuna);
+
+		switch (tipo) {
+		case INTEIRO:
+		case DECIMAL:
+		case DECIMAL_BR:
+			celula.setCellValue(classificador.getNumero());
+			return true;
+		case DATA:
+			celula.setCellValue(classificador.getData());
+			celula.setCellStyle(obterEstiloData());
+			return true;
+		case BOOLEANO:
+			celula.setCellValue(classificador.getBooleano());
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	// Um único estilo de data (e de data e hora) por insersor, criado no primeiro uso
+	private CellStyle obterEstiloData() {
+		if (estiloData == null) {
+			estiloData = criarEstiloFormato(FORMATO_DATA);
+		}
+		return estiloData;
+	}
+
+	private CellStyle obterEstiloDataHora() {
+		if (estiloDataHora == null) {
+			estiloDataHora = criarEstiloFormato(FORMATO_DATA_HORA);
+		}
+		return estiloDataHora;
+	}
+
+	private CellStyle criarEstiloFormato(String formato) {
+		Workbook workbook = sheet.getWorkbook();
+		CellStyle estilo = workbook.createCellStyle();
+		estilo.setDataFormat(workbook.createDataFormat().getFormat(formato));
+		return estilo;
+	}
+
+	/**
+	 * Define o tipo dos valores de uma coluna, dispensando a inferência.
+	 *
+	 * @param coluna Índice da coluna (0-based).
+	 * @param tipo   O tipo da coluna, ou null para voltar a inferir.
+	 */
+	public void definirTipoColuna(int coluna, TipoValor tipo) {
+		metadados.definirTipoColuna(coluna, tipo);
+	}
+
+	/**
+	 * Cria a célula na coluna indicada, define seu valor e mantém os metadados da
+	 * aba atualizados.
+	 */
+	private void escreverCelula(Row linha, int coluna, String valor) {
+		metadados.descontarCelula(linha.getCell(coluna));
+		Cell celula = linha.createCell(coluna);
+		definirValorCelula(celula, valor);
+		metadados.registrarCelula(celula);
+	}
+
+	/**
+	 * Escreve um valor com o tipo nativo. Strings passam pela classificação
+	 * apenas quando {@code inferirTexto} é verdadeiro.
+	 */
+	private void escreverObjeto(Row linha, int coluna, Object valor, boolean inferirTexto) {
+		if (valor instanceof String && inferirTexto) {
+			escreverCelula(linha, coluna, (String) valor);
+			return;
+		}
+		metadados.descontarCelula(linha.getCell(coluna));
+		Cell celula = linha.createCell(coluna);
+		if (valor instanceof String) {
+			celula.setCellValue((String) valor);
+		} else if (valor instanceof Number) {
+			celula.setCellValue(((Number) valor).doubleValue());
+		} else if (valor instanceof Boolean) {
+			celula.setCellValue((Boolean) valor);
+		} else if (valor instanceof LocalDate) {
+			celula.setCellValue((LocalDate) valor);
+			celula.setCellStyle(obterEstiloData());
+		} else if (valor instanceof LocalDateTime) {
+			celula.setCellValue((LocalDateTime) valor);
+			celula.setCellStyle(obterEstiloDataHora());
+		} else if (valor instanceof Date) {
+			celula.setCellValue((Date) valor);
+			celula.setCellStyle(obterEstiloDataHora());
+		} else if (inferirTexto) {
+			definirValorCelula(celula, String.valueOf(valor));
+		} else {
+			celula.setCellValue(String.valueOf(valor));
+		}
+		metadados.registrarCelula(celula);
+	}
+
+	private void escreverNumero(Row linha, int coluna, double valor) {
+		metadados.descontarCelula(linha.getCell(coluna));
+		Cell celula = linha.createCell(coluna);
+		celula.setCellValue(valor);
+		metadados.registrarCelula(celula);
+	}
+
 	// Métodos auxiliares privados
 
+	private Cell criarCelulaNaPosicaoAtual() {
+		metadados.verificarAlteracaoPermitida();
+		definirPosicaoPadraoSeNecessario();
+		Row linha = obterOuCriarLinha(positionManager.getPosicaoInicialLinha());
+		int coluna = positionManager.getPosicaoInicialColuna();
+		metadados.descontarCelula(linha.getCell(coluna));
+		return linha.createCell(coluna);
+	}
+
+	private void concluirInsercao(Cell celula) {
+		metadados.registrarCelula(celula);
+		atualizarIndicesInseridos(celula.getRowIndex(), celula.getColumnIndex());
+	}
+
 	private void definirPosicaoPadraoSeNecessario() {
 		if (!positionManager.isPosicaoDefinida() && !positionManager.isIntervaloDefinida()) {
 			positionManager.setPosicaoInicialColuna(0);
@@ -163,8 +641,7 @@ public class InsersorDeDados {
 		Row linha = obterOuCriarLinha(positionManager.getPosicaoInicialLinha());
 
 		for (int i = 0; i < dados.size(); i++) {
-			Cell celula = linha.createCell(positionManager.getPosicaoInicialColuna() + i);
-			definirValorCelula(celula, dados.get(i)); // ✅ MUDANÇA AQUI
+			escreverCelula(linha, positionManager.getPosicaoInicialColuna() + i, dados.get(i));
 			ultimoIndiceDeColunaInserido = positionManager.getPosicaoInicialColuna() + i;
 		}
 
@@ -184,8 +661,7 @@ public class InsersorDeDados {
 
 			for (int coluna = positionManager.getPosicaoInicialColuna(); coluna <= positionManager
 					.getPosicaoFinalColuna(); coluna++) {
-				Cell celula = linha.createCell(coluna);
-				definirValorCelula(celula, dado); // ✅ MUDANÇA AQUI
+				escreverCelula(linha, coluna, dado);
 			}
 
 			linhaAtual++;
@@ -194,22 +670,115 @@ public class InsersorDeDados {
 		atualizarIndicesInseridos(linhaAtual - 1, positionManager.getPosicaoFinalColuna());
 	}
 
-	private void inserirValoresEmLinha(int indiceLinha, String[] valores) {
+	private void inserirValoresEmLinha(int indiceLinha, LeitorCsv leitor) {
+		Row linha = obterOuCriarLinha(indiceLinha);
+
+		// Campos vazios no fim do registro são ignorados, como no split() anterior
+		int quantidade = leitor.getQuantidadeCampos();
+		while (quantidade > 0 && leitor.isCampoVazio(quantidade - 1)) {
+			quantidade--;
+		}
+
+		for (int i = 0; i < quantidade; i++) {
+			int colunaAtual = positionManager.getPosicaoInicialColuna() + i;
+
+			if (positionManager.isIntervaloDefinida() && colunaAtual > positionManager.getPosicaoFinalColuna()) {
+				break;
+			}
+
+			escreverCelula(linha, colunaAtual, leitor.getCampo(i));
+			ultimoIndiceDeColunaInserido = colunaAtual;
+		}
+	}
+
+	private void inserirValoresEmLinha(int indiceLinha, LeitorCsvMapeado leitor) {
 		Row linha = obterOuCriarLinha(indiceLinha);
 
-		for (int i = 0; i < valores.length; i++) {
+		int quantidade = leitor.getQuantidadeCampos();
+		while (quantidade > 0 && leitor.isCampoVazio(quantidade - 1)) {
+			quantidade--;
+		}
+
+		for (int i = 0; i < quantidade; i++) {
 			int colunaAtual = positionManager.getPosicaoInicialColuna() + i;
 
 			if (positionManager.isIntervaloDefinida() && colunaAtual > positionManager.getPosicaoFinalColuna()) {
 				break;
 			}
 
+			metadados.descontarCelula(linha.getCell(colunaAtual));
+			Cell celula = linha.createCell(colunaAtual);
+			if (leitor.isCampoVazio(i)) {
+				celula.setCellValue("");
+			} else if (!definirValorNaoTextual(celula, leitor.getCampoBruto(i))) {
+				// Só o texto é decodificado
+				celula.setCellValue(leitor.getCampo(i));
+			}
+			metadados.registrarCelula(celula);
+			ultimoIndiceDeColunaInserido = colunaAtual;
+		}
+	}
+
+	// Grava um registro já classificado pelo pipeline paralelo
+	private void inserirRegistroEmLinha(int indiceLinha, ImportadorCsvParalelo.Bloco bloco, int registro) {
+		Row linha = obterOuCriarLinha(indiceLinha);
+		int inicio = bloco.getInicioRegistro(registro);
+		int fim = bloco.getInicioRegistro(registro + 1);
+
+		for (int k = inicio; k < fim; k++) {
+			int colunaAtual = positionManager.getPosicaoInicialColuna() + (k - inicio);
+
+			if (positionManager.isIntervaloDefinida() && colunaAtual > positionManager.getPosicaoFinalColuna()) {
+				break;
+			}
+
+			metadados.descontarCelula(linha.getCell(colunaAtual));
 			Cell celula = linha.createCell(colunaAtual);
-			definirValorCelula(celula, valores[i].trim()); // ✅ MUDANÇA AQUI
+			switch (bloco.getTipo(k)) {
+			case INTEIRO:
+			case DECIMAL:
+			case DECIMAL_BR:
+				celula.setCellValue(bloco.getNumero(k));
+				break;
+			case DATA:
+				celula.setCellValue(LocalDate.ofEpochDay((long) bloco.getNumero(k)));
+				celula.setCellStyle(obterEstiloData());
+				break;
+			case BOOLEANO:
+				celula.setCellValue(bloco.getNumero(k) != 0);
+				break;
+			default:
+				celula.setCellValue(bloco.getTexto(k));
+			}
+			metadados.registrarCelula(celula);
 			ultimoIndiceDeColunaInserido = colunaAtual;
 		}
 	}
 
+	// Recorta a quantidade de linhas/colunas ao intervalo selecionado, se houver
+	private int limitarLinhas(int quantidade) {
+		if (!positionManager.isIntervaloDefinida()) {
+			return quantidade;
+		}
+		int disponiveis = positionManager.getPosicaoFinalLinha() - positionManager.getPosicaoInicialLinha() + 1;
+		return Math.max(0, Math.min(quantidade, disponiveis));
+	}
+
+	private int limitarColunas(int quantidade) {
+		if (!positionManager.isIntervaloDefinida()) {
+			return quantidade;
+		}
+		int disponiveis = positionManager.getPosicaoFinalColuna() - positionManager.getPosicaoInicialColuna() + 1;
+		return Math.max(0, Math.min(quantidade, disponiveis));
+	}
+
+	private void concluirBloco(int linhaInicial, int colunaInicial, int quantidadeLinhas, int quantidadeColunas) {
+		if (quantidadeLinhas > 0 && quantidadeColunas > 0) {
+			atualizarIndicesInseridos(linhaInicial + quantidadeLinhas - 1, colunaInicial + quantidadeColunas - 1);
+		}
+		positionManager.resetarPosicao();
+	}
+
 	private void atualizarIndicesInseridos(int linha, int coluna) {
 		ultimoIndiceDeLinhaInserido = linha;
 		ultimoIndiceDeColunaInserido = coluna;
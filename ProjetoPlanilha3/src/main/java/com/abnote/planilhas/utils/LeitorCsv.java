@@ -0,0 +1,339 @@
+package com.abnote.planilhas.utils;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import com.abnote.planilhas.exceptions.DadosInvalidosException;
+
+/**
+ * Leitor de arquivos delimitados (CSV/TXT) compatível com a RFC-4180.
+ *
+ * <p>
+ * Lê o arquivo em uma única passada sobre um buffer de caracteres, sem
+ * expressões regulares e sem criar uma String por linha. Suporta campos entre
+ * aspas contendo delimitadores e quebras de linha, aspas duplicadas ({@code ""})
+ * e, opcionalmente, um caractere de escape próprio (ex.: {@code \}).
+ * </p>
+ *
+ * <p>
+ * Os campos do registro atual ficam em um buffer reutilizado entre registros;
+ * uma String só é criada quando {@link #getCampo(int)} é chamado.
+ * </p>
+ *
+ * <p>Exemplo de uso:</p>
+ * <pre>{@code
+ * try (LeitorCsv leitor = LeitorCsv.abrir("dados.csv", ";", StandardCharsets.UTF_8)) {
+ *     while (leitor.proximoRegistro()) {
+ *         for (int i = 0; i < leitor.getQuantidadeCampos(); i++) {
+ *             String valor = leitor.getCampo(i);
+ *         }
+ *     }
+ * }
+ * }</pre>
+ */
+public class LeitorCsv implements Closeable {
+
+	/** Caractere de aspas padrão da RFC-4180. */
+	public static final char ASPAS_PADRAO = '"';
+
+	private static final int FIM = -1;
+	private static final int TAMANHO_BUFFER = 64 * 1024;
+
+	private final Reader reader;
+	private final char[] delimitador;
+	private final char aspas;
+	private final char escape;
+
+	// Buffer de leitura
+	private final char[] buffer = new char[TAMANHO_BUFFER];
+	private int posicao;
+	private int limite;
+	private boolean fimDoArquivo;
+
+	// Buffer dos campos do registro atual, reutilizado entre registros
+	private char[] dados = new char[256];
+	private int tamanhoDados;
+	private int[] iniciosCampos = new int[16];
+	private int[] finsCampos = new int[16];
+	private int quantidadeCampos;
+	private long numeroRegistro;
+
+	/**
+	 * Cria um leitor com aspas e escape no padrão RFC-4180.
+	 *
+	 * @param reader      Fonte dos caracteres.
+	 * @param delimitador Delimitador de campos. Vazio trata cada linha como um
+	 *                    único campo.
+	 */
+	public LeitorCsv(Reader reader, String delimitador) {
+		this(reader, delimitador, ASPAS_PADRAO, ASPAS_PADRAO);
+	}
+
+	/**
+	 * Cria um leitor com aspas e escape personalizados.
+	 *
+	 * @param reader      Fonte dos caracteres.
+	 * @param delimitador Delimitador de campos (um ou mais caracteres).
+	 * @param aspas       Caractere que delimita campos entre aspas.
+	 * @param escape      Caractere de escape dentro de aspas. Igual a
+	 *                    {@code aspas} para o padrão RFC-4180 ({@code ""}).
+	 */
+	public LeitorCsv(Reader reader, String delimitador, char aspas, char escape) {
+		if (reader == null) {
+			throw new IllegalArgumentException("Reader não pode ser nulo");
+		}
+		if (delimitador == null) {
+			throw new IllegalArgumentException("Delimitador não pode ser nulo");
+		}
+		this.reader = reader;
+		this.delimitador = delimitador.toCharArray();
+		this.aspas = aspas;
+		this.escape = escape;
+	}
+
+	/**
+	 * Abre um arquivo para leitura com o charset informado.
+	 *
+	 * @param caminhoArquivo Caminho do arquivo.
+	 * @param delimitador    Delimitador de campos.
+	 * @param charset        Codificação do arquivo.
+	 * @return O leitor aberto.
+	 * @throws IOException Se o arquivo não puder ser aberto.
+	 */
+	public static LeitorCsv abrir(String caminhoArquivo, String delimitador, Charset charset) throws IOException {
+		return new LeitorCsv(new InputStreamReader(new FileInputStream(caminhoArquivo), charset), delimitador);
+	}
+
+	/**
+	 * Avança para o próximo registro.
+	 *
+	 * @return false quando não há mais registros.
+	 * @throws IOException             Se ocorrer erro de leitura.
+	 * @throws DadosInvalidosException Se um campo entre aspas não for fechado.
+	 */
+	public boolean proximoRegistro() throws IOException {
+		quantidadeCampos = 0;
+		tamanhoDados = 0;
+
+		int c = ler();
+		if (c == FIM) {
+			return false;
+		}
+		numeroRegistro++;
+		iniciarCampo();
+
+		while (true) {
+			if (c == FIM || c == '\n') {
+				fecharCampo();
+				return true;
+			}
+			if (c == '\r') {
+				if (espiar() == '\n') {
+					ler();
+				}
+				fecharCampo();
+				return true;
+			}
+			if (c == aspas && campoAtualEmBranco()) {
+				// Descarta espaços antes das aspas de abertura
+				tamanhoDados = iniciosCampos[quantidadeCampos];
+				lerCampoComAspas();
+			} else if (ehDelimitador(c)) {
+				fecharCampo();
+				iniciarCampo();
+			} else {
+				anexar((char) c);
+			}
+			c = ler();
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de campos do registro atual.
+	 */
+	public int getQuantidadeCampos() {
+		return quantidadeCampos;
+	}
+
+	/**
+	 * Retorna o valor do campo, já sem aspas e sem espaços nas extremidades.
+	 *
+	 * @param indice Índice do campo (0-based).
+	 */
+	public String getCampo(int indice) {
+		verificarIndice(indice);
+		return new String(dados, iniciosCampos[indice], finsCampos[indice] - iniciosCampos[indice]);
+	}
+
+	/**
+	 * Indica se o campo está vazio, sem criar uma String.
+	 *
+	 * @param indice Índice do campo (0-based).
+	 */
+	public boolean isCampoVazio(int indice) {
+		verificarIndice(indice);
+		return finsCampos[indice] == iniciosCampos[indice];
+	}
+
+	/**
+	 * Retorna o número (1-based) do registro atual.
+	 */
+	public long getNumeroRegistro() {
+		return numeroRegistro;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	// Métodos auxiliares privados
+
+	private void lerCampoComAspas() throws IOException {
+		long registroInicial = numeroRegistro;
+		while (true) {
+			int c = ler();
+			if (c == FIM) {
+				throw new DadosInvalidosException("Campo entre aspas não foi fechado no registro " + registroInicial);
+			}
+			if (c == escape && escape != aspas) {
+				int escapado = ler();
+				if (escapado == FIM) {
+					throw new DadosInvalidosException(
+							"Caractere de escape no fim do arquivo no registro " + registroInicial);
+				}
+				anexar((char) escapado);
+			} else if (c == aspas) {
+				if (escape == aspas && espiar() == aspas) {
+					ler();
+					anexar(aspas);
+				} else {
+					return;
+				}
+			} else {
+				anexar((char) c);
+			}
+		}
+	}
+
+	private boolean ehDelimitador(int c) throws IOException {
+		if (delimitador.length == 0 || c != delimitador[0]) {
+			return false;
+		}
+		if (delimitador.length == 1) {
+			return true;
+		}
+		if (!garantir(delimitador.length - 1)) {
+			return false;
+		}
+		for (int i = 1; i < delimitador.length; i++) {
+			if (buffer[posicao + i - 1] != delimitador[i]) {
+				return false;
+			}
+		}
+		posicao += delimitador.length - 1;
+		return true;
+	}
+
+	private boolean campoAtualEmBranco() {
+		for (int i = iniciosCampos[quantidadeCampos]; i < tamanhoDados; i++) {
+			if (dados[i] > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void iniciarCampo() {
+		if (quantidadeCampos == iniciosCampos.length) {
+			iniciosCampos = Arrays.copyOf(iniciosCampos, quantidadeCampos * 2);
+			finsCampos = Arrays.copyOf(finsCampos, quantidadeCampos * 2);
+		}
+		iniciosCampos[quantidadeCampos] = tamanhoDados;
+	}
+
+	// Fecha o campo atual aplicando o mesmo trim() usado na inserção de dados
+	private void fecharCampo() {
+		int inicio = iniciosCampos[quantidadeCampos];
+		int fim = tamanhoDados;
+		while (inicio < fim && dados[inicio] <= ' ') {
+			inicio++;
+		}
+		while (fim > inicio && dados[fim - 1] <= ' ') {
+			fim--;
+		}
+		iniciosCampos[quantidadeCampos] = inicio;
+		finsCampos[quantidadeCampos] = fim;
+		quantidadeCampos++;
+	}
+
+	private void anexar(char c) {
+		if (tamanhoDados == dados.length) {
+			dados = Arrays.copyOf(dados, dados.length * 2);
+		}
+		dados[tamanhoDados++] = c;
+	}
+
+	private void verificarIndice(int indice) {
+		if (indice < 0 || indice >= quantidadeCampos) {
+			throw new IndexOutOfBoundsException(
+					"Campo " + indice + " inexistente; o registro possui " + quantidadeCampos + " campos");
+		}
+	}
+
+	private int ler() throws IOException {
+		if (posicao >= limite && !preencher()) {
+			return FIM;
+		}
+		return buffer[posicao++];
+	}
+
+	private int espiar() throws IOException {
+		if (posicao >= limite && !preencher()) {
+			return FIM;
+		}
+		return buffer[posicao];
+	}
+
+	// Garante ao menos 'quantidade' caracteres disponíveis a partir da posição
+	private boolean garantir(int quantidade) throws IOException {
+		while (limite - posicao < quantidade) {
+			if (fimDoArquivo) {
+				return false;
+			}
+			int restante = limite - posicao;
+			System.arraycopy(buffer, posicao, buffer, 0, restante);
+			posicao = 0;
+			limite = restante;
+			int lidos = reader.read(buffer, limite, buffer.length - limite);
+			if (lidos == FIM) {
+				fimDoArquivo = true;
+			} else {
+				limite += lidos;
+			}
+		}
+		return true;
+	}
+
+	private boolean preencher() throws IOException {
+		if (fimDoArquivo) {
+			return false;
+		}
+		int lidos;
+		do {
+			lidos = reader.read(buffer, 0, buffer.length);
+		} while (lidos == 0);
+		if (lidos == FIM) {
+			fimDoArquivo = true;
+			return false;
+		}
+		posicao = 0;
+		limite = lidos;
+		return true;
+	}
+}
@@ -0,0 +1,410 @@
+package com.abnote.planilhas.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import com.abnote.planilhas.exceptions.DadosInvalidosException;
+
+/**
+ * Leitor de arquivos delimitados muito grandes, mapeados em memória por
+ * janelas com {@link FileChannel#map}.
+ *
+ * <p>
+ * Procura quebras de linha, delimitadores e aspas diretamente nos bytes, com
+ * as mesmas regras do {@link LeitorCsv} (RFC-4180). Os bytes de cada campo
+ * ficam em um buffer reutilizado; o texto só é decodificado em
+ * {@link #getCampo(int)}, e {@link #getCampoBruto(int)} permite classificar e
+ * converter números e datas sem criar uma String.
+ * </p>
+ *
+ * <p>
+ * Suporta UTF-8 e ISO-8859-1 (e US-ASCII), cujos caracteres de controle,
+ * aspas e dígitos ocupam um único byte com o mesmo valor.
+ * </p>
+ *
+ * <p>
+ * Cada janela é liberada assim que o leitor passa para a seguinte e no
+ * {@link #close()}, sem esperar o coletor de lixo; assim o arquivo não fica
+ * bloqueado (no Windows) e o espaço de endereçamento não se acumula em
+ * importações de vários gigabytes. Se a JVM não permitir a liberação
+ * explícita, as janelas ficam a cargo do coletor.
+ * </p>
+ */
+public class LeitorCsvMapeado implements Closeable {
+
+	/** Tamanho padrão de cada janela mapeada, em bytes. */
+	public static final int TAMANHO_JANELA_PADRAO = 64 * 1024 * 1024;
+
+	private static final Logger logger = LoggerUtil.getLogger(LeitorCsvMapeado.class);
+
+	private static final int FIM = -1;
+	private static final int ASPAS = '"';
+
+	// Libera um buffer mapeado imediatamente; false se a JVM não permitir
+	private static final Predicate<ByteBuffer> LIBERADOR = criarLiberador();
+
+	private final FileChannel canal;
+	private final long tamanhoArquivo;
+	private final int tamanhoJanela;
+	private final byte[] delimitador;
+	private final Charset charset;
+
+	// Janela mapeada atual e posição absoluta no arquivo
+	private MappedByteBuffer janela;
+	private long inicioJanela;
+	private long posicao;
+	private int janelasMapeadas;
+	private int janelasLiberadas;
+
+	// Bytes dos campos do registro atual, reutilizados entre registros
+	private byte[] dados = new byte[256];
+	private int tamanhoDados;
+	private int[] iniciosCampos = new int[16];
+	private int[] finsCampos = new int[16];
+	private int quantidadeCampos;
+	private long numeroRegistro;
+
+	private final CampoBruto campoBruto = new CampoBruto();
+
+	/**
+	 * Abre o arquivo com janelas de {@link #TAMANHO_JANELA_PADRAO} bytes.
+	 *
+	 * @param caminhoArquivo Caminho do arquivo.
+	 * @param delimitador    Delimitador de campos. Vazio trata cada linha como um
+	 *                       único campo.
+	 * @param charset        UTF-8, ISO-8859-1 ou US-ASCII.
+	 * @throws IOException Se o arquivo não puder ser aberto.
+	 */
+	public LeitorCsvMapeado(String caminhoArquivo, String delimitador, Charset charset) throws IOException {
+		this(caminhoArquivo, delimitador, charset, TAMANHO_JANELA_PADRAO);
+	}
+
+	/**
+	 * @param caminhoArquivo Caminho do arquivo.
+	 * @param delimitador    Delimitador de campos.
+	 * @param charset        UTF-8, ISO-8859-1 ou US-ASCII.
+	 * @param tamanhoJanela  Tamanho de cada janela mapeada, em bytes.
+	 * @throws IOException Se o arquivo não puder ser aberto.
+	 */
+	public LeitorCsvMapeado(String caminhoArquivo, String delimitador, Charset charset, int tamanhoJanela)
+			throws IOException {
+		if (delimitador == null) {
+			throw new IllegalArgumentException("Delimitador não pode ser nulo");
+		}
+		if (!StandardCharsets.UTF_8.equals(charset) && !StandardCharsets.ISO_8859_1.equals(charset)
+				&& !StandardCharsets.US_ASCII.equals(charset)) {
+			throw new IllegalArgumentException(
+					"A leitura mapeada suporta apenas UTF-8, ISO-8859-1 e US-ASCII: " + charset);
+		}
+		if (tamanhoJanela < 16) {
+			throw new IllegalArgumentException("O tamanho da janela deve ser de ao menos 16 bytes: " + tamanhoJanela);
+		}
+		this.charset = charset;
+		this.delimitador = delimitador.getBytes(charset);
+		this.tamanhoJanela = tamanhoJanela;
+		this.canal = FileChannel.open(Paths.get(caminhoArquivo), StandardOpenOption.READ);
+		this.tamanhoArquivo = canal.size();
+	}
+
+	/**
+	 * Avança para o próximo registro.
+	 *
+	 * @return false quando não há mais registros.
+	 * @throws IOException             Se ocorrer erro de leitura.
+	 * @throws DadosInvalidosException Se um campo entre aspas não for fechado.
+	 */
+	public boolean proximoRegistro() throws IOException {
+		quantidadeCampos = 0;
+		tamanhoDados = 0;
+
+		int b = ler();
+		if (b == FIM) {
+			return false;
+		}
+		numeroRegistro++;
+		iniciarCampo();
+
+		while (true) {
+			if (b == FIM || b == '\n') {
+				fecharCampo();
+				return true;
+			}
+			if (b == '\r') {
+				if (espiar(0) == '\n') {
+					posicao++;
+				}
+				fecharCampo();
+				return true;
+			}
+			if (b == ASPAS && campoAtualEmBranco()) {
+				// Descarta espaços antes das aspas de abertura
+				tamanhoDados = iniciosCampos[quantidadeCampos];
+				lerCampoComAspas();
+			} else if (ehDelimitador(b)) {
+				fecharCampo();
+				iniciarCampo();
+			} else {
+				anexar((byte) b);
+			}
+			b = ler();
+		}
+	}
+
+	public int getQuantidadeCampos() {
+		return quantidadeCampos;
+	}
+
+	/**
+	 * Decodifica o campo, já sem aspas e sem espaços nas extremidades.
+	 *
+	 * @param indice Índice do campo (0-based).
+	 */
+	public String getCampo(int indice) {
+		verificarIndice(indice);
+		return new String(dados, iniciosCampos[indice], finsCampos[indice] - iniciosCampos[indice], charset);
+	}
+
+	/**
+	 * Retorna uma visão dos bytes do campo como caracteres, sem decodificar. É
+	 * exata para caracteres ASCII (dígitos, sinais, separadores), o suficiente
+	 * para o {@link ClassificadorDeValores}. A instância é reutilizada e só vale
+	 * até a próxima chamada.
+	 *
+	 * @param indice Índice do campo (0-based).
+	 */
+	public CharSequence getCampoBruto(int indice) {
+		verificarIndice(indice);
+		campoBruto.definir(iniciosCampos[indice], finsCampos[indice]);
+		return campoBruto;
+	}
+
+	public boolean isCampoVazio(int indice) {
+		verificarIndice(indice);
+		return finsCampos[indice] == iniciosCampos[indice];
+	}
+
+	/**
+	 * Retorna o número (1-based) do registro atual.
+	 */
+	public long getNumeroRegistro() {
+		return numeroRegistro;
+	}
+
+	@Override
+	public void close() throws IOException {
+		liberarJanela();
+		canal.close();
+	}
+
+	// Contadores usados pelos testes para verificar a liberação das janelas
+	int getJanelasMapeadas() {
+		return janelasMapeadas;
+	}
+
+	int getJanelasLiberadas() {
+		return janelasLiberadas;
+	}
+
+	// Métodos auxiliares privados
+
+	private void lerCampoComAspas() throws IOException {
+		long registroInicial = numeroRegistro;
+		while (true) {
+			int b = ler();
+			if (b == FIM) {
+				throw new DadosInvalidosException("Campo entre aspas não foi fechado no registro " + registroInicial);
+			}
+			if (b == ASPAS) {
+				if (espiar(0) == ASPAS) {
+					posicao++;
+					anexar((byte) ASPAS);
+				} else {
+					return;
+				}
+			} else {
+				anexar((byte) b);
+			}
+		}
+	}
+
+	private boolean ehDelimitador(int b) throws IOException {
+		if (delimitador.length == 0 || b != (delimitador[0] & 0xFF)) {
+			return false;
+		}
+		for (int i = 1; i < delimitador.length; i++) {
+			if (espiar(i - 1) != (delimitador[i] & 0xFF)) {
+				return false;
+			}
+		}
+		posicao += delimitador.length - 1;
+		return true;
+	}
+
+	private boolean campoAtualEmBranco() {
+		for (int i = iniciosCampos[quantidadeCampos]; i < tamanhoDados; i++) {
+			if ((dados[i] & 0xFF) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void iniciarCampo() {
+		if (quantidadeCampos == iniciosCampos.length) {
+			iniciosCampos = Arrays.copyOf(iniciosCampos, quantidadeCampos * 2);
+			finsCampos = Arrays.copyOf(finsCampos, quantidadeCampos * 2);
+		}
+		iniciosCampos[quantidadeCampos] = tamanhoDados;
+	}
+
+	private void fecharCampo() {
+		int inicio = iniciosCampos[quantidadeCampos];
+		int fim = tamanhoDados;
+		while (inicio < fim && (dados[inicio] & 0xFF) <= ' ') {
+			inicio++;
+		}
+		while (fim > inicio && (dados[fim - 1] & 0xFF) <= ' ') {
+			fim--;
+		}
+		iniciosCampos[quantidadeCampos] = inicio;
+		finsCampos[quantidadeCampos] = fim;
+		quantidadeCampos++;
+	}
+
+	private void anexar(byte b) {
+		if (tamanhoDados == dados.length) {
+			dados = Arrays.copyOf(dados, dados.length * 2);
+		}
+		dados[tamanhoDados++] = b;
+	}
+
+	private void verificarIndice(int indice) {
+		if (indice < 0 || indice >= quantidadeCampos) {
+			throw new IndexOutOfBoundsException(
+					"Campo " + indice + " inexistente; o registro possui " + quantidadeCampos + " campos");
+		}
+	}
+
+	private int ler() throws IOException {
+		if (posicao >= tamanhoArquivo) {
+			return FIM;
+		}
+		if (janela == null || posicao - inicioJanela >= janela.limit()) {
+			mapear(posicao);
+		}
+		return janela.get((int) (posicao++ - inicioJanela)) & 0xFF;
+	}
+
+	// Lê o byte 'deslocamento' posições à frente sem avançar
+	private int espiar(int deslocamento) throws IOException {
+		long alvo = posicao + deslocamento;
+		if (alvo >= tamanhoArquivo) {
+			return FIM;
+		}
+		if (janela == null || alvo - inicioJanela >= janela.limit()) {
+			// Remapeia a partir da posição atual para manter os bytes à frente visíveis
+			mapear(posicao);
+		}
+		return janela.get((int) (alvo - inicioJanela)) & 0xFF;
+	}
+
+	private void mapear(long inicio) throws IOException {
+		liberarJanela();
+		long tamanho = Math.min(tamanhoJanela, tamanhoArquivo - inicio);
+		janela = canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanho);
+		janelasMapeadas++;
+		inicioJanela = inicio;
+	}
+
+	// Nenhuma referência à janela sobrevive: os campos são copiados para 'dados'
+	private void liberarJanela() {
+		MappedByteBuffer anterior = janela;
+		janela = null;
+		if (anterior != null && LIBERADOR.test(anterior)) {
+			janelasLiberadas++;
+		}
+	}
+
+	private static Predicate<ByteBuffer> criarLiberador() {
+		try {
+			// Java 9+: sun.misc.Unsafe.invokeCleaner
+			Class<?> classeUnsafe = Class.forName("sun.misc.Unsafe");
+			Field campo = classeUnsafe.getDeclaredField("theUnsafe");
+			campo.setAccessible(true);
+			Object unsafe = campo.get(null);
+			Method invokeCleaner = classeUnsafe.getMethod("invokeCleaner", ByteBuffer.class);
+			return buffer -> invocar(invokeCleaner, unsafe, buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Java 8: DirectBuffer.cleaner().clean()
+		}
+		try {
+			Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> {
+				try {
+					return invocar(clean, cleaner.invoke(buffer));
+				} catch (ReflectiveOperationException | RuntimeException e) {
+					return false;
+				}
+			};
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			logger.fine("Liberação explícita de arquivos mapeados indisponível: " + e);
+			return buffer -> false;
+		}
+	}
+
+	private static boolean invocar(Method metodo, Object alvo, Object... argumentos) {
+		try {
+			metodo.invoke(alvo, argumentos);
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Visão de um trecho do buffer de campos como {@link CharSequence}, um
+	 * caractere por byte.
+	 */
+	private final class CampoBruto implements CharSequence {
+		private int inicio;
+		private int fim;
+
+		void definir(int inicio, int fim) {
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		public int length() {
+			return fim - inicio;
+		}
+
+		@Override
+		public char charAt(int indice) {
+			return (char) (dados[inicio + indice] & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int inicioSub, int fimSub) {
+			return new String(dados, inicio + inicioSub, fimSub - inicioSub, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public String toString() {
+			return new String(dados, inicio, fim - inicio, charset);
+		}
+	}
+}
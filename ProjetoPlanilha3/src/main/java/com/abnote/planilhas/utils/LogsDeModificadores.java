@@ -26,6 +26,9 @@ public class LogsDeModificadores {
 			case "Inserção de coluna vazia":
 				exibirInsercaoDeColunaVazia(actionLog);
 				break;
+			case "Reordenação de colunas":
+				exibirReordenacaoDeColunas(actionLog);
+				break;
 			case "Limpeza de coluna": // Novo caso para limpeza de coluna
 				exibirLimpezaDeColuna(actionLog);
 				break;
@@ -66,6 +69,16 @@ public class LogsDeModificadores {
 		}
 	}
 
+	private void exibirReordenacaoDeColunas(ActionLog actionLog) {
+		System.out.println(SEPARA_BLOCO + "Reordenação de colunas:");
+		System.out.println(SEPARA_BLOCO2 + "Colunas deslocadas nesta ação:");
+		for (ColumnMovement cm : actionLog.getShiftedColumns()) {
+			System.out.println("\"" + cm.getColumnName() + "\": Índice anterior: " + cm.getPreviousIndex()
+					+ "; Novo Índice: " + cm.getNewIndex());
+		}
+		System.out.println(SEPARA_BLOCO2);
+	}
+
 	private void exibirLimpezaDeColuna(ActionLog actionLog) {
 		System.out.println(SEPARA_BLOCO + "Limpeza da coluna \"" + actionLog.getMainMovement().getColumnName()
 				+ "\" em índice " + actionLog.getMainMovement().getPreviousIndex());
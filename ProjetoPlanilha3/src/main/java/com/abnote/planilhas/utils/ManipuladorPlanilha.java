@@ -1,15 +1,16 @@
 package com.abnote.planilhas.utils;
 
 import org.apache.poi.ss.usermodel.Sheet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 public class ManipuladorPlanilha {
 	private Sheet sheet;
 	private final LogsDeModificadores logs;
-	private Map<Integer, ManipuladorPlanilhaHelper.CellData> colunaTemporaria = new HashMap<>();
 	private int columnOffset;
 	private ManipuladorPlanilhaHelper helper;
+	private final MetadadosPlanilha metadados;
 
 	// Construtor que determina automaticamente o columnOffset
 	public ManipuladorPlanilha(Sheet sheet) {
@@ -18,13 +19,38 @@ public class ManipuladorPlanilha {
 
 	// Construtor que permite definir o columnOffset manualmente
 	public ManipuladorPlanilha(Sheet sheet, int columnOffset) {
+		this(sheet, columnOffset, new MetadadosPlanilha());
+	}
+
+	// Construtor que mantém os metadados da aba atualizados a cada movimentação
+	public ManipuladorPlanilha(Sheet sheet, MetadadosPlanilha metadados) {
+		this(sheet, ManipuladorPlanilhaHelper.determinarColunaInicial(sheet), metadados);
+	}
+
+	public ManipuladorPlanilha(Sheet sheet, int columnOffset, MetadadosPlanilha metadados) {
 		this.sheet = sheet;
 		this.columnOffset = columnOffset;
 		this.logs = new LogsDeModificadores();
-		this.helper = new ManipuladorPlanilhaHelper(sheet, columnOffset);
+		this.metadados = metadados;
+		this.helper = new ManipuladorPlanilhaHelper(sheet, columnOffset, metadados);
 	}
 
+	/**
+	 * Move uma coluna para outra posição; as colunas intermediárias andam uma
+	 * posição.
+	 *
+	 * <p>
+	 * As referências às colunas movidas são ajustadas nas fórmulas de todas as
+	 * abas e nos nomes definidos; em streaming, as linhas de outras abas já
+	 * gravadas em disco ficam como estavam.
+	 * </p>
+	 *
+	 * @param moverAColuna Letra da coluna a mover (ex.: "B").
+	 * @param paraAPosicao Letra da posição de destino (ex.: "A").
+	 * @return Esta instância, para encadeamento.
+	 */
 	public ManipuladorPlanilha moverColuna(String moverAColuna, String paraAPosicao) {
+		metadados.verificarAlteracaoPermitida();
 		int colunaOrigem = PosicaoConverter.converterColuna(moverAColuna) - columnOffset;
 		int colunaDestino = PosicaoConverter.converterColuna(paraAPosicao) - columnOffset;
 
@@ -40,48 +66,95 @@ public class ManipuladorPlanilha {
 		LogsDeModificadores.ActionLog actionLog = new LogsDeModificadores.ActionLog("Deslocamento de colunas",
 				mainMovement);
 
-		// Copia a coluna de origem para armazenamento temporário
-		colunaTemporaria = helper.copiarColuna(colunaOrigem);
-
-		// Desloca as colunas conforme a direção do movimento
-		if (colunaOrigem < colunaDestino) {
-			helper.deslocarColunasParaEsquerda(colunaOrigem + 1, colunaDestino);
-			helper.registrarColunasDeslocadas(colunaOrigem, colunaDestino, headerMap, actionLog);
-		} else {
-			helper.deslocarColunasParaDireita(colunaDestino, colunaOrigem - 1);
-			helper.registrarColunasDeslocadas(colunaOrigem, colunaDestino, headerMap, actionLog);
+		// A coluna de origem vai ao destino e as intermediárias andam uma posição
+		int primeiraColuna = Math.min(colunaOrigem, colunaDestino);
+		int[] destinos = new int[Math.abs(colunaDestino - colunaOrigem) + 1];
+		int passo = colunaOrigem < colunaDestino ? -1 : 1;
+		for (int k = 0; k < destinos.length; k++) {
+			destinos[k] = primeiraColuna + k + passo;
 		}
+		destinos[colunaOrigem - primeiraColuna] = colunaDestino;
+		helper.permutarColunas(primeiraColuna, destinos, 0);
+		helper.registrarColunasDeslocadas(colunaOrigem, colunaDestino, headerMap, actionLog);
 
-		// Cola a coluna temporária na posição de destino
-		helper.colarColunaTemporaria(colunaDestino, colunaTemporaria);
-		colunaTemporaria.clear();
 		logs.adicionarLog(actionLog);
 
 		return this;
 	}
 
 	public ManipuladorPlanilha removerColuna(String coluna) {
-		int colIndex = PosicaoConverter.converterColuna(coluna) - columnOffset;
-		int lastColumn = helper.obterNumeroUltimaColuna();
+		return removerColunas(coluna);
+	}
 
+	/**
+	 * Remove várias colunas em uma única passada pela planilha. As colunas se
+	 * referem às posições anteriores à remoção, e os logs registram uma remoção
+	 * por coluna, como se fossem removidas uma a uma da direita para a esquerda.
+	 *
+	 * <p>
+	 * As referências às colunas movidas são ajustadas nas fórmulas de todas as
+	 * abas e nos nomes definidos; em streaming, as linhas de outras abas já
+	 * gravadas em disco ficam como estavam.
+	 * </p>
+	 *
+	 * @param colunas Letras das colunas a remover (ex.: "B", "D").
+	 * @return Esta instância, para encadeamento.
+	 * @throws IllegalArgumentException se nenhuma coluna for informada ou se
+	 *                                  houver repetição.
+	 */
+	public ManipuladorPlanilha removerColunas(String... colunas) {
+		metadados.verificarAlteracaoPermitida();
+		if (colunas == null || colunas.length == 0) {
+			throw new IllegalArgumentException("Informe ao menos uma coluna para remover.");
+		}
+		int[] removidas = new int[colunas.length];
+		for (int i = 0; i < colunas.length; i++) {
+			removidas[i] = PosicaoConverter.converterColuna(colunas[i]) - columnOffset;
+		}
+		Arrays.sort(removidas);
+		for (int i = 1; i < removidas.length; i++) {
+			if (removidas[i] == removidas[i - 1]) {
+				throw new IllegalArgumentException("A coluna '"
+						+ PosicaoConverter.converterIndice(removidas[i] + columnOffset) + "' foi informada mais de uma vez.");
+			}
+		}
+		int primeiraColuna = removidas[0];
+		int lastColumn = helper.obterNumeroUltimaColuna();
 		Map<Integer, String> headerMap = helper.obterMapaDeCabecalhos();
-		String headerName = headerMap.get(colIndex);
-		LogsDeModificadores.ColumnMovement mainMovement = new LogsDeModificadores.ColumnMovement(headerName,
-				PosicaoConverter.converterIndice(colIndex + columnOffset), null);
-		LogsDeModificadores.ActionLog actionLog = new LogsDeModificadores.ActionLog("Remoção de coluna", mainMovement);
-
-		helper.removerCelulasDaColuna(colIndex);
 
-		if (colIndex < lastColumn) {
-			helper.deslocarColunasParaEsquerda(colIndex + 1, lastColumn);
-			helper.registrarColunasDeslocadasRemocao(colIndex, lastColumn, headerMap, actionLog);
+		// Cada coluna removida fica sem destino e as seguintes andam tantas posições
+		// à esquerda quantas colunas removidas houver antes delas
+		int[] destinos = new int[Math.max(lastColumn, removidas[removidas.length - 1]) - primeiraColuna + 1];
+		int anteriores = 0;
+		for (int k = 0; k < destinos.length; k++) {
+			int col = primeiraColuna + k;
+			if (anteriores < removidas.length && removidas[anteriores] == col) {
+				destinos[k] = ManipuladorPlanilhaHelper.COLUNA_REMOVIDA;
+				anteriores++;
+			} else {
+				destinos[k] = col - anteriores;
+			}
 		}
+		helper.permutarColunas(primeiraColuna, destinos, -removidas.length);
 
-		logs.adicionarLog(actionLog);
+		for (int i = removidas.length - 1; i >= 0; i--) {
+			int colIndex = removidas[i];
+			LogsDeModificadores.ColumnMovement mainMovement = new LogsDeModificadores.ColumnMovement(
+					headerMap.get(colIndex), PosicaoConverter.converterIndice(colIndex + columnOffset), null);
+			LogsDeModificadores.ActionLog actionLog = new LogsDeModificadores.ActionLog("Remoção de coluna",
+					mainMovement);
+			if (colIndex < lastColumn) {
+				helper.registrarColunasDeslocadasRemocao(colIndex, lastColumn, headerMap, actionLog);
+			}
+			logs.adicionarLog(actionLog);
+			headerMap = deslocarCabecalhos(headerMap, colIndex, -1);
+			lastColumn--;
+		}
 		return this;
 	}
 
 	public ManipuladorPlanilha limparColuna(String coluna) {
+		metadados.verificarAlteracaoPermitida();
 		int colIndex = PosicaoConverter.converterColuna(coluna) - columnOffset;
 		helper.limparColuna(colIndex);
 
@@ -100,24 +173,144 @@ public class ManipuladorPlanilha {
 		int colDireitaIndex = PosicaoConverter.converterColuna(colunaDireita) - columnOffset;
 
 		helper.validarAdjacencia(colEsquerdaIndex, colDireitaIndex, colunaEsquerda, colunaDireita);
+		return inserirColunasVazias(colunaDireita, 1);
+	}
 
-		Map<Integer, String> headerMap = helper.obterMapaDeCabecalhos();
-		int posicaoInsercao = colDireitaIndex;
+	/**
+	 * Insere colunas vazias em uma única passada pela planilha, deslocando para a
+	 * direita a coluna da posição informada e as seguintes. Os logs registram uma
+	 * inserção por coluna, como se fossem inseridas uma a uma.
+	 *
+	 * @param posicao    Letra da coluna onde a primeira coluna vazia será inserida.
+	 * @param quantidade Quantidade de colunas vazias, maior que zero.
+	 * @return Esta instância, para encadeamento.
+	 * @throws IllegalArgumentException se a quantidade não for positiva.
+	 */
+	public ManipuladorPlanilha inserirColunasVazias(String posicao, int quantidade) {
+		metadados.verificarAlteracaoPermitida();
+		if (quantidade < 1) {
+			throw new IllegalArgumentException("A quantidade de colunas deve ser maior que zero: " + quantidade);
+		}
+		int posicaoInsercao = PosicaoConverter.converterColuna(posicao) - columnOffset;
 		int lastColumn = helper.obterNumeroUltimaColuna();
 
-		LogsDeModificadores.ActionLog actionLog = new LogsDeModificadores.ActionLog("Inserção de coluna vazia",
-				new LogsDeModificadores.ColumnMovement(null, colunaEsquerda, colunaDireita));
+		Map<Integer, String> headerMap = helper.obterMapaDeCabecalhos();
+		// Mesmo sem colunas a deslocar, as fórmulas que apontam para depois da
+		// posição de inserção precisam ser ajustadas
+		int[] destinos = new int[Math.max(0, lastColumn - posicaoInsercao + 1)];
+		for (int k = 0; k < destinos.length; k++) {
+			destinos[k] = posicaoInsercao + k + quantidade;
+		}
+		helper.permutarColunas(posicaoInsercao, destinos, quantidade);
 
 		if (posicaoInsercao <= lastColumn) {
-			helper.deslocarColunasParaDireita(posicaoInsercao, lastColumn);
-			helper.registrarColunasDeslocadasInsercao(posicaoInsercao, lastColumn, headerMap, actionLog);
-			logs.adicionarLog(actionLog);
+
+			String colunaEsquerda = posicaoInsercao + columnOffset > 0
+					? PosicaoConverter.converterIndice(posicaoInsercao + columnOffset - 1)
+					: null;
+			String colunaDireita = PosicaoConverter.converterIndice(posicaoInsercao + columnOffset);
+			for (int i = 0; i < quantidade; i++) {
+				LogsDeModificadores.ActionLog actionLog = new LogsDeModificadores.ActionLog("Inserção de coluna vazia",
+						new LogsDeModificadores.ColumnMovement(null, colunaEsquerda, colunaDireita));
+				helper.registrarColunasDeslocadasInsercao(posicaoInsercao, lastColumn, headerMap, actionLog);
+				logs.adicionarLog(actionLog);
+				headerMap = deslocarCabecalhos(headerMap, posicaoInsercao, 1);
+				lastColumn++;
+			}
+		}
+
+		for (int i = 0; i < quantidade; i++) {
+			helper.definirLarguraNovaColuna(posicaoInsercao + i);
+		}
+		return this;
+	}
+
+	/**
+	 * Reordena as colunas em uma única passada pela planilha. As colunas
+	 * informadas passam a ocupar as primeiras posições, na ordem dada, a partir da
+	 * coluna inicial; as demais seguem depois delas, na ordem em que estavam.
+	 *
+	 * <p>
+	 * As referências às colunas movidas são ajustadas nas fórmulas de todas as
+	 * abas e nos nomes definidos; em streaming, as linhas de outras abas já
+	 * gravadas em disco ficam como estavam.
+	 * </p>
+	 *
+	 * @param novaOrdem Letras das colunas na nova ordem (ex.: "C", "A").
+	 * @return Esta instância, para encadeamento.
+	 * @throws IllegalArgumentException se nenhuma coluna for informada, se alguma
+	 *                                  estiver antes da coluna inicial ou se
+	 *                                  houver repetição.
+	 */
+	public ManipuladorPlanilha reordenarColunas(String... novaOrdem) {
+		metadados.verificarAlteracaoPermitida();
+		if (novaOrdem == null || novaOrdem.length == 0) {
+			throw new IllegalArgumentException("Informe ao menos uma coluna para reordenar.");
+		}
+		int lastColumn = helper.obterNumeroUltimaColuna();
+		int[] ordem = new int[novaOrdem.length];
+		for (int i = 0; i < novaOrdem.length; i++) {
+			ordem[i] = PosicaoConverter.converterColuna(novaOrdem[i]) - columnOffset;
+			if (ordem[i] < 0) {
+				throw new IllegalArgumentException(
+						"A coluna '" + novaOrdem[i] + "' está antes da coluna inicial da tabela.");
+			}
+			lastColumn = Math.max(lastColumn, ordem[i]);
+		}
+
+		int[] destinos = new int[lastColumn + 1];
+		Arrays.fill(destinos, -1);
+		for (int i = 0; i < ordem.length; i++) {
+			if (destinos[ordem[i]] != -1) {
+				throw new IllegalArgumentException("A coluna '" + novaOrdem[i] + "' foi informada mais de uma vez.");
+			}
+			destinos[ordem[i]] = i;
 		}
+		int proximaPosicao = ordem.length;
+		for (int col = 0; col < destinos.length; col++) {
+			if (destinos[col] == -1) {
+				destinos[col] = proximaPosicao++;
+			}
+		}
+
+		// Só o trecho entre a primeira e a última coluna que mudam de lugar é reescrito
+		int primeiraColuna = 0;
+		while (primeiraColuna < destinos.length && destinos[primeiraColuna] == primeiraColuna) {
+			primeiraColuna++;
+		}
+		if (primeiraColuna == destinos.length) {
+			return this;
+		}
+		int ultimaColuna = destinos.length - 1;
+		while (destinos[ultimaColuna] == ultimaColuna) {
+			ultimaColuna--;
+		}
+		int[] trecho = Arrays.copyOfRange(destinos, primeiraColuna, ultimaColuna + 1);
 
-		helper.definirLarguraNovaColuna(posicaoInsercao);
+		Map<Integer, String> headerMap = helper.obterMapaDeCabecalhos();
+		LogsDeModificadores.ActionLog actionLog = new LogsDeModificadores.ActionLog("Reordenação de colunas", null);
+		helper.permutarColunas(primeiraColuna, trecho, 0);
+		helper.registrarColunasPermutadas(primeiraColuna, trecho, headerMap, actionLog);
+		logs.adicionarLog(actionLog);
 		return this;
 	}
 
+	// Reproduz no mapa de cabeçalhos o deslocamento das colunas a partir de uma
+	// posição, para registrar os logs das movimentações seguintes
+	private static Map<Integer, String> deslocarCabecalhos(Map<Integer, String> mapa, int aPartirDe,
+			int deslocamento) {
+		Map<Integer, String> deslocado = new HashMap<>();
+		for (Map.Entry<Integer, String> entrada : mapa.entrySet()) {
+			int col = entrada.getKey();
+			if (col < aPartirDe) {
+				deslocado.put(col, entrada.getValue());
+			} else if (deslocamento > 0 || col > aPartirDe) {
+				deslocado.put(col + deslocamento, entrada.getValue());
+			}
+		}
+		return deslocado;
+	}
+
 	public void logAlteracoes() {
 		logs.exibirLogs();
 	}
@@ -2,6 +2,7 @@ package com.abnote.planilhas.utils;
 
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -10,8 +11,17 @@ import java.util.Map;
  * Classe utilitária para manipulação de planilhas usando Apache POI.
  */
 public class ManipuladorPlanilhaHelper {
+	/**
+	 * Destino de uma coluna removida em {@link #permutarColunas}. Os índices são
+	 * relativos à coluna inicial e podem ser negativos, por isso não se usa -1.
+	 */
+	public static final int COLUNA_REMOVIDA = Integer.MIN_VALUE;
+
 	private final Sheet sheet;
 	private final int columnOffset;
+	private final MetadadosPlanilha metadados;
+	// Reaproveitado por todas as movimentações deste manipulador
+	private final BufferDeCelulas buffer = new BufferDeCelulas();
 
 	/**
 	 * Construtor para inicializar o manipulador com uma planilha e um deslocamento
@@ -21,8 +31,21 @@ public class ManipuladorPlanilhaHelper {
 	 * @param columnOffset O deslocamento a ser aplicado nas operações de coluna.
 	 */
 	public ManipuladorPlanilhaHelper(Sheet sheet, int columnOffset) {
+		this(sheet, columnOffset, new MetadadosPlanilha());
+	}
+
+	/**
+	 * Construtor que mantém atualizados os metadados da aba a cada célula
+	 * esvaziada, removida ou deslocada.
+	 *
+	 * @param sheet        A planilha a ser manipulada.
+	 * @param columnOffset O deslocamento a ser aplicado nas operações de coluna.
+	 * @param metadados    Os metadados da aba.
+	 */
+	public ManipuladorPlanilhaHelper(Sheet sheet, int columnOffset, MetadadosPlanilha metadados) {
 		this.sheet = sheet;
 		this.columnOffset = columnOffset;
+		this.metadados = metadados;
 	}
 
 	/**
@@ -58,6 +81,7 @@ public class ManipuladorPlanilhaHelper {
 				continue;
 			Cell celula = row.getCell(colIndex + columnOffset);
 			if (celula != null) {
+				metadados.descontarCelula(celula);
 				celula.setCellType(CellType.BLANK);
 			}
 		}
@@ -222,6 +246,23 @@ public class ManipuladorPlanilhaHelper {
 		}
 	}
 
+	/**
+	 * Registra cada coluna que muda de posição em uma permutação.
+	 *
+	 * @param primeiraColuna Índice da primeira coluna do bloco permutado.
+	 * @param destinos       Índice de destino de cada coluna do bloco.
+	 * @param mapaCabecalhos Mapa de cabeçalhos.
+	 * @param logAcoes       Objeto de log para registrar a ação.
+	 */
+	public void registrarColunasPermutadas(int primeiraColuna, int[] destinos, Map<Integer, String> mapaCabecalhos,
+			LogsDeModificadores.ActionLog logAcoes) {
+		for (int k = 0; k < destinos.length; k++) {
+			if (destinos[k] != COLUNA_REMOVIDA && destinos[k] != primeiraColuna + k) {
+				adicionarMovimentacaoColuna(primeiraColuna + k, destinos[k], mapaCabecalhos, logAcoes);
+			}
+		}
+	}
+
 	/**
 	 * Adiciona uma movimentação de coluna ao log.
 	 *
@@ -242,302 +283,82 @@ public class ManipuladorPlanilhaHelper {
 	}
 
 	/**
-	 * Remove todas as células de uma coluna específica.
+	 * Reposiciona as colunas de um bloco reescrevendo cada linha uma única vez,
+	 * qualquer que seja a quantidade de colunas movidas. Mover, remover e inserir
+	 * colunas são casos particulares desta operação. Na mesma passada, as
+	 * referências de coluna das fórmulas da aba são ajustadas à nova posição; em
+	 * seguida, as referências a esta aba nas fórmulas das demais abas e nos nomes
+	 * definidos.
 	 *
-	 * @param colIndex Índice da coluna.
+	 * @param primeiraColuna        Índice da primeira coluna do bloco.
+	 * @param destinos              Para cada coluna do bloco, a partir de
+	 *                              {@code primeiraColuna}, o índice de destino,
+	 *                              ou {@link #COLUNA_REMOVIDA}.
+	 * @param deslocamentoAposBloco Quantas posições as colunas depois do bloco
+	 *                              andam, usado apenas pelas fórmulas que as
+	 *                              referenciam (negativo para a esquerda).
+	 * @throws IllegalStateException se a aba está em streaming e já gravou linhas
+	 *                               em disco, que não seriam movidas.
 	 */
-	public void removerCelulasDaColuna(int colIndex) {
-		int ultimaLinha = sheet.getLastRowNum();
-		for (int rowNum = 0; rowNum <= ultimaLinha; rowNum++) {
-			Row row = sheet.getRow(rowNum);
-			if (row == null)
-				continue;
-			Cell celula = row.getCell(colIndex + columnOffset);
-			if (celula != null) {
-				row.removeCell(celula);
-			}
+	public void permutarColunas(int primeiraColuna, int[] destinos, int deslocamentoAposBloco) {
+		verificarLinhasEmMemoria();
+		int[] destinosAbsolutos = new int[destinos.length];
+		for (int k = 0; k < destinos.length; k++) {
+			destinosAbsolutos[k] = destinos[k] == COLUNA_REMOVIDA ? -1 : destinos[k] + columnOffset;
 		}
-	}
+		ReescritorDeFormulas formulas = ReescritorDeFormulas.deColunas(sheet, primeiraColuna + columnOffset,
+				destinosAbsolutos, deslocamentoAposBloco);
 
-	/**
-	 * Copia uma coluna para um mapa temporário.
-	 *
-	 * @param colunaOrigem Índice da coluna a ser copiada.
-	 * @return Mapa com os dados da coluna.
-	 */
-	public Map<Integer, CellData> copiarColuna(int colunaOrigem) {
-		Map<Integer, CellData> colunaTemp = new HashMap<>();
-		int ultimaLinha = sheet.getLastRowNum();
-		for (int i = 0; i <= ultimaLinha; i++) {
-			Row row = sheet.getRow(i);
-			if (row == null)
-				continue;
-			Cell celulaOrigem = row.getCell(colunaOrigem + columnOffset);
-			if (celulaOrigem != null) {
-				CellData dadosCelula = new CellData();
-				copiarDadosCelula(celulaOrigem, dadosCelula);
-				colunaTemp.put(i, dadosCelula);
-				row.removeCell(celulaOrigem);
+		for (Row row : sheet) {
+			int limite = Math.min(destinos.length, row.getLastCellNum() - primeiraColuna - columnOffset);
+			// Retira todas as células do bloco antes de gravar, para que nenhum destino
+			// sobrescreva uma origem ainda não copiada
+			buffer.limpar();
+			for (int k = 0; k < limite; k++) {
+				Cell celula = row.getCell(primeiraColuna + k + columnOffset);
+				if (celula == null) {
+					continue;
+				}
+				buffer.guardar(celula, k);
+				metadados.descontarCelula(celula);
+				row.removeCell(celula);
 			}
-		}
-		return colunaTemp;
-	}
-
-	/**
-	 * Cola os dados de uma coluna temporária em uma coluna de destino.
-	 *
-	 * @param colunaDestino    Índice da coluna de destino.
-	 * @param colunaTemporaria Mapa com os dados temporários.
-	 */
-	public void colarColunaTemporaria(int colunaDestino, Map<Integer, CellData> colunaTemporaria) {
-		for (Map.Entry<Integer, CellData> entrada : colunaTemporaria.entrySet()) {
-			int rowNum = entrada.getKey();
-			CellData dadosCelula = entrada.getValue();
-			Row row = sheet.getRow(rowNum);
-			if (row == null) {
-				row = sheet.createRow(rowNum);
+			// As células que ficaram na linha estão fora do bloco e só têm as fórmulas
+			// ajustadas
+			for (Cell celula : row) {
+				if (celula.getCellType() == CellType.FORMULA) {
+					String formula = celula.getCellFormula();
+					String reescrita = formulas.reescrever(formula);
+					if (reescrita != formula) {
+						celula.setCellFormula(reescrita);
+					}
+				}
 			}
-			Cell celulaDestino = row.createCell(colunaDestino + columnOffset);
-			colarDadosCelula(celulaDestino, dadosCelula);
-		}
-	}
-
-	/**
-	 * Copia os dados de uma célula para um objeto CellData.
-	 *
-	 * @param celulaOrigem A célula de origem.
-	 * @param dadosCelula  Objeto para armazenar os dados.
-	 */
-	private void copiarDadosCelula(Cell celulaOrigem, CellData dadosCelula) {
-		dadosCelula.setCellType(celulaOrigem.getCellType());
-		dadosCelula.setCellStyle(celulaOrigem.getCellStyle());
-		switch (celulaOrigem.getCellType()) {
-		case STRING:
-			dadosCelula.setStringValue(celulaOrigem.getStringCellValue());
-			break;
-		case NUMERIC:
-			dadosCelula.setNumericValue(celulaOrigem.getNumericCellValue());
-			break;
-		case BOOLEAN:
-			dadosCelula.setBooleanValue(celulaOrigem.getBooleanCellValue());
-			break;
-		case FORMULA:
-			dadosCelula.setFormulaValue(celulaOrigem.getCellFormula());
-			break;
-		case ERROR:
-			dadosCelula.setErrorValue(celulaOrigem.getErrorCellValue());
-			break;
-		case BLANK:
-			break;
-		default:
-			break;
-		}
-	}
-
-	/**
-	 * Cola os dados de um objeto CellData em uma célula.
-	 *
-	 * @param celulaDestino A célula de destino.
-	 * @param dadosCelula   Objeto com os dados.
-	 */
-	private void colarDadosCelula(Cell celulaDestino, CellData dadosCelula) {
-		celulaDestino.setCellType(dadosCelula.getCellType());
-		celulaDestino.setCellStyle(dadosCelula.getCellStyle());
-		switch (dadosCelula.getCellType()) {
-		case STRING:
-			celulaDestino.setCellValue(dadosCelula.getStringValue());
-			break;
-		case NUMERIC:
-			celulaDestino.setCellValue(dadosCelula.getNumericValue());
-			break;
-		case BOOLEAN:
-			celulaDestino.setCellValue(dadosCelula.isBooleanValue());
-			break;
-		case FORMULA:
-			celulaDestino.setCellFormula(dadosCelula.getFormulaValue());
-			break;
-		case ERROR:
-			celulaDestino.setCellErrorValue(dadosCelula.getErrorValue());
-			break;
-		case BLANK:
-			break;
-		default:
-			break;
-		}
-	}
-
-	/**
-	 * Desloca as colunas para a esquerda em um intervalo especificado.
-	 *
-	 * @param inicioColuna Índice inicial.
-	 * @param fimColuna    Índice final.
-	 */
-	public void deslocarColunasParaEsquerda(int inicioColuna, int fimColuna) {
-		int ultimaLinha = sheet.getLastRowNum();
-		for (int col = inicioColuna; col <= fimColuna; col++) {
-			int colunaAlvo = col - 1;
-			deslocarColuna(col, colunaAlvo, ultimaLinha);
-		}
-	}
-
-	/**
-	 * Desloca as colunas para a direita em um intervalo especificado.
-	 *
-	 * @param inicioColuna Índice inicial.
-	 * @param fimColuna    Índice final.
-	 */
-	public void deslocarColunasParaDireita(int inicioColuna, int fimColuna) {
-		int ultimaLinha = sheet.getLastRowNum();
-		for (int col = fimColuna; col >= inicioColuna; col--) {
-			int colunaAlvo = col + 1;
-			deslocarColuna(col, colunaAlvo, ultimaLinha);
-		}
-	}
-
-	/**
-	 * Desloca uma coluna específica em todas as linhas.
-	 *
-	 * @param colunaOrigem Índice de origem.
-	 * @param colunaAlvo   Novo índice.
-	 * @param ultimaLinha  Última linha da planilha.
-	 */
-	private void deslocarColuna(int colunaOrigem, int colunaAlvo, int ultimaLinha) {
-		for (int rowNum = 0; rowNum <= ultimaLinha; rowNum++) {
-			Row row = sheet.getRow(rowNum);
-			if (row == null)
-				continue;
-			Cell celulaOrigem = row.getCell(colunaOrigem + columnOffset);
-			if (celulaOrigem != null) {
-				Cell celulaAlvo = row.createCell(colunaAlvo + columnOffset);
-				copiarValorEntreCelulas(celulaOrigem, celulaAlvo);
-				copiarEstiloEntreCelulas(celulaOrigem, celulaAlvo);
-				row.removeCell(celulaOrigem);
-			} else {
-				removerCelula(row, colunaAlvo + columnOffset);
+			for (int posicao = 0; posicao < buffer.tamanho(); posicao++) {
+				int destino = destinos[buffer.coluna(posicao)];
+				if (destino == COLUNA_REMOVIDA) {
+					continue;
+				}
+				if (buffer.ehFormula(posicao)) {
+					buffer.definirFormula(posicao, formulas.reescrever(buffer.formula(posicao)));
+				}
+				int indiceDestino = destino + columnOffset;
+				metadados.descontarCelula(row.getCell(indiceDestino));
+				Cell celulaDestino = row.createCell(indiceDestino);
+				buffer.restaurar(posicao, celulaDestino);
+				metadados.registrarCelula(celulaDestino);
 			}
 		}
+		buffer.limpar();
+		formulas.reescreverOutrasAbasENomes();
 	}
 
-	/**
-	 * Remove uma célula específica.
-	 *
-	 * @param row          A linha.
-	 * @param indiceCelula Índice da célula.
-	 */
-	private void removerCelula(Row row, int indiceCelula) {
-		Cell celula = row.getCell(indiceCelula);
-		if (celula != null) {
-			row.removeCell(celula);
-		}
-	}
-
-	/**
-	 * Copia o valor de uma célula para outra.
-	 *
-	 * @param origem  A célula de origem.
-	 * @param destino A célula de destino.
-	 */
-	private void copiarValorEntreCelulas(Cell origem, Cell destino) {
-		destino.setCellType(origem.getCellType());
-		switch (origem.getCellType()) {
-		case STRING:
-			destino.setCellValue(origem.getStringCellValue());
-			break;
-		case NUMERIC:
-			destino.setCellValue(origem.getNumericCellValue());
-			break;
-		case BOOLEAN:
-			destino.setCellValue(origem.getBooleanCellValue());
-			break;
-		case FORMULA:
-			destino.setCellFormula(origem.getCellFormula());
-			break;
-		case ERROR:
-			destino.setCellErrorValue(origem.getErrorCellValue());
-			break;
-		case BLANK:
-			break;
-		default:
-			break;
-		}
-	}
-
-	/**
-	 * Copia o estilo de uma célula para outra.
-	 *
-	 * @param origem  A célula de origem.
-	 * @param destino A célula de destino.
-	 */
-	private void copiarEstiloEntreCelulas(Cell origem, Cell destino) {
-		destino.setCellStyle(origem.getCellStyle());
-	}
-
-	/**
-	 * Classe auxiliar para armazenar os dados de uma célula.
-	 */
-	public static class CellData {
-		private String stringValue;
-		private String formulaValue;
-		private double numericValue;
-		private boolean booleanValue;
-		private byte errorValue;
-		private CellType cellType;
-		private CellStyle cellStyle;
-
-		public String getStringValue() {
-			return stringValue;
-		}
-
-		public void setStringValue(String stringValue) {
-			this.stringValue = stringValue;
-		}
-
-		public String getFormulaValue() {
-			return formulaValue;
-		}
-
-		public void setFormulaValue(String formulaValue) {
-			this.formulaValue = formulaValue;
-		}
-
-		public double getNumericValue() {
-			return numericValue;
-		}
-
-		public void setNumericValue(double numericValue) {
-			this.numericValue = numericValue;
-		}
-
-		public boolean isBooleanValue() {
-			return booleanValue;
-		}
-
-		public void setBooleanValue(boolean booleanValue) {
-			this.booleanValue = booleanValue;
-		}
-
-		public byte getErrorValue() {
-			return errorValue;
-		}
-
-		public void setErrorValue(byte errorValue) {
-			this.errorValue = errorValue;
-		}
-
-		public CellType getCellType() {
-			return cellType;
-		}
-
-		public void setCellType(CellType cellType) {
-			this.cellType = cellType;
-		}
-
-		public CellStyle getCellStyle() {
-			return cellStyle;
-		}
-
-		public void setCellStyle(CellStyle cellStyle) {
-			this.cellStyle = cellStyle;
+	// A iteração por linhas do streaming não alcança as linhas já gravadas em disco
+	private void verificarLinhasEmMemoria() {
+		if (sheet instanceof SXSSFSheet && ((SXSSFSheet) sheet).getLastFlushedRowNum() >= 0) {
+			throw new IllegalStateException("As linhas até a " + (((SXSSFSheet) sheet).getLastFlushedRowNum() + 1)
+					+ " já foram gravadas em disco e suas colunas não podem mais ser movidas. Aumente a janela de"
+					+ " linhas em memória do PlanilhaXlsxStreaming ou realize a operação antes de inserir mais dados.");
 		}
 	}
 }
@@ -0,0 +1,348 @@
+package com.abnote.planilhas.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.abnote.planilhas.estilos.util.LarguraDeColunas;
+
+/**
+ * Metadados de uma aba mantidos de forma incremental a cada escrita feita pelo
+ * {@link InsersorDeDados}, pelos cálculos, pelas fórmulas e pelo
+ * {@link ManipuladorPlanilha}.
+ *
+ * <p>
+ * Permitem responder consultas que normalmente exigiriam varrer a planilha
+ * (última linha preenchida de uma coluna, quantidade de células por coluna e
+ * por linha, soma numérica, linha de cabeçalho) mesmo quando as linhas já
+ * foram descarregadas em disco por um workbook em streaming.
+ * </p>
+ *
+ * <p>
+ * A ocupação de cada coluna é guardada em um {@link BitSet} de linhas: cada
+ * escrita deve ser precedida de {@link #descontarCelula(Cell)} com o valor
+ * anterior e seguida de {@link #registrarCelula(Cell)} com o novo, e cada
+ * remoção, apenas de {@link #descontarCelula(Cell)}.
+ * </p>
+ */
+public class MetadadosPlanilha {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	// Índice de ocupação: linhas não vazias por coluna e contagens por coluna e linha
+	private BitSet[] linhasOcupadasPorColuna = new BitSet[CAPACIDADE_INICIAL];
+	private int[] contagemPorColuna = new int[CAPACIDADE_INICIAL];
+	private int[] contagemPorLinha = new int[CAPACIDADE_INICIAL];
+	private double[] somaPorColuna = new double[CAPACIDADE_INICIAL];
+	private int[] primeiraLinhaNumericaPorColuna = novoArray(CAPACIDADE_INICIAL, -1);
+	private int[] ultimaLinhaNumericaPorColuna = novoArray(CAPACIDADE_INICIAL, -1);
+	private CellStyle[] estiloNumericoPorColuna = new CellStyle[CAPACIDADE_INICIAL];
+
+	// Retângulo que contém todas as células registradas (área utilizada)
+	private int primeiraLinhaUsada = -1;
+	private int ultimaLinhaUsada = -1;
+	private int primeiraColunaUsada = -1;
+	private int ultimaColunaUsada = -1;
+
+	private int linhaCabecalho = -1;
+	private int primeiraColunaCabecalho = -1;
+	private int ultimaColunaCabecalho = -1;
+
+	private TipoValor[] tipoPorColuna = new TipoValor[0];
+
+	private final LarguraDeColunas larguras;
+	private final TravaDeSalvamento trava;
+
+	public MetadadosPlanilha() {
+		this(new LarguraDeColunas());
+	}
+
+	/**
+	 * @param larguras Motor de largura de colunas alimentado a cada escrita.
+	 */
+	public MetadadosPlanilha(LarguraDeColunas larguras) {
+		this(larguras, new TravaDeSalvamento());
+	}
+
+	/**
+	 * @param larguras Motor de largura de colunas alimentado a cada escrita.
+	 * @param trava    Congelamento da planilha durante um salvamento assíncrono,
+	 *                 compartilhado por todas as abas.
+	 */
+	public MetadadosPlanilha(LarguraDeColunas larguras, TravaDeSalvamento trava) {
+		if (larguras == null) {
+			throw new IllegalArgumentException("O motor de larguras não pode ser nulo");
+		}
+		if (trava == null) {
+			throw new IllegalArgumentException("A trava de salvamento não pode ser nula");
+		}
+		this.larguras = larguras;
+		this.trava = trava;
+	}
+
+	/**
+	 * Lança {@link IllegalStateException} se a planilha estiver sendo salva em
+	 * segundo plano. Chamado no início de cada operação que altera a aba.
+	 */
+	public void verificarAlteracaoPermitida() {
+		trava.verificarLivre();
+	}
+
+	/**
+	 * Registra o conteúdo de uma célula recém escrita.
+	 *
+	 * @param celula A célula já com o valor definido.
+	 */
+	public void registrarCelula(Cell celula) {
+		if (celula == null || celula.getCellType() == CellType.BLANK) {
+			return;
+		}
+		int linha = celula.getRowIndex();
+		int coluna = celula.getColumnIndex();
+		garantirCapacidade(coluna);
+
+		ocupar(linha, coluna);
+		larguras.registrar(celula);
+		expandirAreaUtilizada(linha, coluna);
+
+		if (celula.getCellType() == CellType.NUMERIC) {
+			somaPorColuna[coluna] += celula.getNumericCellValue();
+			if (primeiraLinhaNumericaPorColuna[coluna] == -1 || linha < primeiraLinhaNumericaPorColuna[coluna]) {
+				primeiraLinhaNumericaPorColuna[coluna] = linha;
+				estiloNumericoPorColuna[coluna] = celula.getCellStyle();
+			}
+			if (linha > ultimaLinhaNumericaPorColuna[coluna]) {
+				ultimaLinhaNumericaPorColuna[coluna] = linha;
+			}
+		}
+
+		// Só linhas acima ou na altura do cabeçalho atual podem alterá-lo
+		if ((linhaCabecalho == -1 || linha <= linhaCabecalho) && possuiConteudo(celula)) {
+			registrarCabecalho(linha, coluna);
+		}
+	}
+
+	private void ocupar(int linha, int coluna) {
+		BitSet linhas = linhasOcupadasPorColuna[coluna];
+		if (linhas == null) {
+			linhas = new BitSet();
+			linhasOcupadasPorColuna[coluna] = linhas;
+		}
+		if (linhas.get(linha)) {
+			return;
+		}
+		linhas.set(linha);
+		contagemPorColuna[coluna]++;
+		if (linha >= contagemPorLinha.length) {
+			contagemPorLinha = Arrays.copyOf(contagemPorLinha, Math.max(linha + 1, contagemPorLinha.length * 2));
+		}
+		contagemPorLinha[linha]++;
+	}
+
+	// Retorna false se a célula não estava registrada como ocupada
+	private boolean desocupar(int linha, int coluna) {
+		BitSet linhas = coluna < linhasOcupadasPorColuna.length ? linhasOcupadasPorColuna[coluna] : null;
+		if (linhas == null || !linhas.get(linha)) {
+			return false;
+		}
+		linhas.clear(linha);
+		contagemPorColuna[coluna]--;
+		contagemPorLinha[linha]--;
+		return true;
+	}
+
+	private void expandirAreaUtilizada(int linha, int coluna) {
+		if (primeiraLinhaUsada == -1) {
+			primeiraLinhaUsada = ultimaLinhaUsada = linha;
+			primeiraColunaUsada = ultimaColunaUsada = coluna;
+			return;
+		}
+		primeiraLinhaUsada = Math.min(primeiraLinhaUsada, linha);
+		ultimaLinhaUsada = Math.max(ultimaLinhaUsada, linha);
+		primeiraColunaUsada = Math.min(primeiraColunaUsada, coluna);
+		ultimaColunaUsada = Math.max(ultimaColunaUsada, coluna);
+	}
+
+	private static boolean possuiConteudo(Cell celula) {
+		return celula.getCellType() != CellType.STRING || !celula.getStringCellValue().trim().isEmpty();
+	}
+
+	/**
+	 * Desconta o conteúdo de uma célula que será sobrescrita, esvaziada ou
+	 * removida.
+	 *
+	 * @param celula A célula com o valor anterior.
+	 */
+	public void descontarCelula(Cell celula) {
+		if (celula == null || celula.getCellType() == CellType.BLANK) {
+			return;
+		}
+		larguras.descontar(celula);
+		int coluna = celula.getColumnIndex();
+		if (!desocupar(celula.getRowIndex(), coluna)) {
+			return;
+		}
+		if (celula.getCellType() == CellType.NUMERIC) {
+			somaPorColuna[coluna] -= celula.getNumericCellValue();
+		}
+	}
+
+	private void registrarCabecalho(int linha, int coluna) {
+		if (linhaCabecalho == -1 || linha < linhaCabecalho) {
+			linhaCabecalho = linha;
+			primeiraColunaCabecalho = coluna;
+			ultimaColunaCabecalho = coluna;
+		} else if (linha == linhaCabecalho) {
+			primeiraColunaCabecalho = Math.min(primeiraColunaCabecalho, coluna);
+			ultimaColunaCabecalho = Math.max(ultimaColunaCabecalho, coluna);
+		}
+	}
+
+	/**
+	 * Retorna o índice (0-based) da última linha não vazia da coluna, ou -1.
+	 */
+	public int getUltimaLinha(int coluna) {
+		BitSet linhas = coluna < linhasOcupadasPorColuna.length ? linhasOcupadasPorColuna[coluna] : null;
+		return linhas == null ? -1 : linhas.length() - 1;
+	}
+
+	/**
+	 * Retorna a quantidade de células não vazias da coluna.
+	 */
+	public int getContagem(int coluna) {
+		return coluna < contagemPorColuna.length ? contagemPorColuna[coluna] : 0;
+	}
+
+	/**
+	 * Retorna a quantidade de células não vazias da linha (0-based).
+	 */
+	public int getContagemNaLinha(int linha) {
+		return linha >= 0 && linha < contagemPorLinha.length ? contagemPorLinha[linha] : 0;
+	}
+
+	/**
+	 * Retorna a soma de todos os valores numéricos registrados na coluna.
+	 */
+	public double getSoma(int coluna) {
+		return coluna < somaPorColuna.length ? somaPorColuna[coluna] : 0.0;
+	}
+
+	/**
+	 * Retorna o índice da primeira linha com valor numérico na coluna, ou -1.
+	 */
+	public int getPrimeiraLinhaNumerica(int coluna) {
+		return coluna < primeiraLinhaNumericaPorColuna.length ? primeiraLinhaNumericaPorColuna[coluna] : -1;
+	}
+
+	/**
+	 * Retorna o índice da última linha com valor numérico na coluna, ou -1.
+	 */
+	public int getUltimaLinhaNumerica(int coluna) {
+		return coluna < ultimaLinhaNumericaPorColuna.length ? ultimaLinhaNumericaPorColuna[coluna] : -1;
+	}
+
+	/**
+	 * Retorna o estilo da primeira célula numérica da coluna, ou null.
+	 */
+	public CellStyle getEstiloNumerico(int coluna) {
+		return coluna < estiloNumericoPorColuna.length ? estiloNumericoPorColuna[coluna] : null;
+	}
+
+	/**
+	 * Retorna o menor retângulo que contém todas as células não vazias já
+	 * registradas, ou null se nenhuma foi registrada. O retângulo só cresce:
+	 * células esvaziadas depois não o reduzem.
+	 */
+	public CellRangeAddress getAreaUtilizada() {
+		if (primeiraLinhaUsada == -1) {
+			return null;
+		}
+		return new CellRangeAddress(primeiraLinhaUsada, ultimaLinhaUsada, primeiraColunaUsada, ultimaColunaUsada);
+	}
+
+	/**
+	 * Retorna o motor de largura de colunas alimentado por estes metadados.
+	 */
+	public LarguraDeColunas getLarguras() {
+		return larguras;
+	}
+
+	/**
+	 * Retorna o índice da primeira linha com conteúdo (cabeçalho), ou -1.
+	 */
+	public int getLinhaCabecalho() {
+		return linhaCabecalho;
+	}
+
+	public int getPrimeiraColunaCabecalho() {
+		return primeiraColunaCabecalho;
+	}
+
+	public int getUltimaColunaCabecalho() {
+		return ultimaColunaCabecalho;
+	}
+
+	/**
+	 * Define o tipo dos valores inseridos na coluna, dispensando a inferência.
+	 *
+	 * @param coluna Índice da coluna (0-based).
+	 * @param tipo   O tipo da coluna, ou null para voltar a inferir.
+	 */
+	public void definirTipoColuna(int coluna, TipoValor tipo) {
+		if (coluna >= tipoPorColuna.length) {
+			if (tipo == null) {
+				return;
+			}
+			tipoPorColuna = Arrays.copyOf(tipoPorColuna, Math.max(coluna + 1, tipoPorColuna.length * 2));
+		}
+		tipoPorColuna[coluna] = tipo;
+	}
+
+	/**
+	 * Retorna o tipo definido para a coluna, ou null se ela usa inferência.
+	 */
+	public TipoValor getTipoColuna(int coluna) {
+		return coluna < tipoPorColuna.length ? tipoPorColuna[coluna] : null;
+	}
+
+	/**
+	 * Retorna uma cópia dos tipos definidos a partir da coluna informada; a
+	 * posição 0 corresponde a {@code colunaInicial}.
+	 */
+	public TipoValor[] copiarTiposColunas(int colunaInicial) {
+		if (colunaInicial >= tipoPorColuna.length) {
+			return new TipoValor[0];
+		}
+		return Arrays.copyOfRange(tipoPorColuna, colunaInicial, tipoPorColuna.length);
+	}
+
+	private void garantirCapacidade(int coluna) {
+		if (coluna < linhasOcupadasPorColuna.length) {
+			return;
+		}
+		int novaCapacidade = Math.max(coluna + 1, linhasOcupadasPorColuna.length * 2);
+
+		linhasOcupadasPorColuna = Arrays.copyOf(linhasOcupadasPorColuna, novaCapacidade);
+		contagemPorColuna = Arrays.copyOf(contagemPorColuna, novaCapacidade);
+		somaPorColuna = Arrays.copyOf(somaPorColuna, novaCapacidade);
+		primeiraLinhaNumericaPorColuna = expandir(primeiraLinhaNumericaPorColuna, novaCapacidade, -1);
+		ultimaLinhaNumericaPorColuna = expandir(ultimaLinhaNumericaPorColuna, novaCapacidade, -1);
+		estiloNumericoPorColuna = Arrays.copyOf(estiloNumericoPorColuna, novaCapacidade);
+	}
+
+	private static int[] expandir(int[] origem, int novaCapacidade, int valorPadrao) {
+		int[] destino = Arrays.copyOf(origem, novaCapacidade);
+		Arrays.fill(destino, origem.length, novaCapacidade, valorPadrao);
+		return destino;
+	}
+
+	private static int[] novoArray(int capacidade, int valorPadrao) {
+		int[] array = new int[capacidade];
+		Arrays.fill(array, valorPadrao);
+		return array;
+	}
+}
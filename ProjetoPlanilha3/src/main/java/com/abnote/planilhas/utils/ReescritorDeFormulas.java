@@ -0,0 +1,263 @@
+package com.abnote.planilhas.utils;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Logger;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.Area3DPxg;
+import org.apache.poi.ss.formula.ptg.AreaErrPtg;
+import org.apache.poi.ss.formula.ptg.AreaPtgBase;
+import org.apache.poi.ss.formula.ptg.Deleted3DPxg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.Ref3DPxg;
+import org.apache.poi.ss.formula.ptg.RefErrorPtg;
+import org.apache.poi.ss.formula.ptg.RefPtgBase;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFEvaluationWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.BaseXSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Reescreve as referências de coluna ou de linha das fórmulas de uma aba
+ * conforme um remapeamento de índices, token a token, como o POI faz ao
+ * deslocar linhas.
+ *
+ * <p>
+ * Uma referência a uma coluna (ou linha) removida vira {@code #REF!}; um
+ * intervalo perde os índices removidos das extremidades e só vira
+ * {@code #REF!} se todos forem removidos. Referências ao eixo inteiro (linhas
+ * inteiras, ao reescrever colunas, e colunas inteiras, ao reescrever linhas) e
+ * a outras abas não são alteradas.
+ * </p>
+ *
+ * <p>
+ * As fórmulas das demais abas e os nomes definidos que apontam para a aba são
+ * ajustados por {@link #reescreverOutrasAbasENomes()}. Em streaming, só as
+ * linhas ainda em memória das demais abas são alcançadas.
+ * </p>
+ */
+final class ReescritorDeFormulas {
+
+	private static final Logger logger = LoggerUtil.getLogger(ReescritorDeFormulas.class);
+
+	private final Sheet sheet;
+	private final boolean porLinha;
+	// Novo índice de cada coluna ou linha, ou -1 se ela for removida
+	private final IntUnaryOperator novoIndice;
+	private final int ultimoIndiceDaVersao;
+	private BaseXSSFEvaluationWorkbook workbookDeAvaliacao;
+
+	private ReescritorDeFormulas(Sheet sheet, boolean porLinha, IntUnaryOperator novoIndice) {
+		this.sheet = sheet;
+		this.porLinha = porLinha;
+		this.novoIndice = novoIndice;
+		SpreadsheetVersion versao = sheet.getWorkbook().getSpreadsheetVersion();
+		this.ultimoIndiceDaVersao = porLinha ? versao.getLastRowIndex() : versao.getLastColumnIndex();
+	}
+
+	/**
+	 * Reescritor para uma permutação de colunas: as colunas dentro do bloco
+	 * seguem o seu destino, as colunas depois do bloco andam um deslocamento fixo
+	 * e as anteriores não mudam.
+	 *
+	 * @param sheet                 A aba cujas fórmulas serão reescritas.
+	 * @param primeiraColuna        Índice absoluto da primeira coluna do bloco.
+	 * @param destinos              Índice absoluto de destino de cada coluna do
+	 *                              bloco, ou -1 se ela for removida.
+	 * @param deslocamentoAposBloco Deslocamento das colunas depois do bloco.
+	 */
+	static ReescritorDeFormulas deColunas(Sheet sheet, int primeiraColuna, int[] destinos,
+			int deslocamentoAposBloco) {
+		return new ReescritorDeFormulas(sheet, false, coluna -> {
+			int indice = coluna - primeiraColuna;
+			if (indice < 0) {
+				return coluna;
+			}
+			return indice < destinos.length ? destinos[indice] : coluna + deslocamentoAposBloco;
+		});
+	}
+
+	/**
+	 * Reescritor para a remoção de linhas: cada linha sobe tantas posições quantas
+	 * linhas removidas houver antes dela.
+	 *
+	 * @param sheet     A aba cujas fórmulas serão reescritas.
+	 * @param removidas Índices das linhas removidas, em ordem crescente e sem
+	 *                  repetição.
+	 */
+	static ReescritorDeFormulas deLinhasRemovidas(Sheet sheet, int[] removidas) {
+		return new ReescritorDeFormulas(sheet, true, linha -> {
+			int posicao = Arrays.binarySearch(removidas, linha);
+			return posicao >= 0 ? -1 : linha + posicao + 1;
+		});
+	}
+
+	/**
+	 * Retorna a fórmula com as referências atualizadas, ou a própria fórmula se
+	 * nenhuma referência mudou ou se ela não puder ser interpretada.
+	 */
+	String reescrever(String formula) {
+		return reescrever(formula, FormulaType.CELL, sheet.getWorkbook().getSheetIndex(sheet));
+	}
+
+	/**
+	 * Reescreve, nas demais abas e nos nomes definidos do workbook, as referências
+	 * que apontam para esta aba. Referências sem aba nessas fórmulas são da aba
+	 * em que estão e não mudam.
+	 */
+	void reescreverOutrasAbasENomes() {
+		Workbook workbook = sheet.getWorkbook();
+		for (int indice = 0; indice < workbook.getNumberOfSheets(); indice++) {
+			Sheet outra = workbook.getSheetAt(indice);
+			if (outra == sheet) {
+				continue;
+			}
+			for (Row row : outra) {
+				for (Cell celula : row) {
+					if (celula.getCellType() == CellType.FORMULA) {
+						String formula = celula.getCellFormula();
+						String reescrita = reescrever(formula, FormulaType.CELL, indice);
+						if (reescrita != formula) {
+							celula.setCellFormula(reescrita);
+						}
+					}
+				}
+			}
+		}
+		for (Name nome : workbook.getAllNames()) {
+			String formula = nome.getRefersToFormula();
+			if (formula == null || nome.isFunctionName()) {
+				continue;
+			}
+			String reescrita = reescrever(formula, FormulaType.NAMEDRANGE, nome.getSheetIndex());
+			if (reescrita != formula) {
+				nome.setRefersToFormula(reescrita);
+			}
+		}
+	}
+
+	private String reescrever(String formula, FormulaType tipo, int indiceDaAba) {
+		BaseXSSFEvaluationWorkbook workbook = obterWorkbookDeAvaliacao();
+		if (workbook == null) {
+			return formula;
+		}
+		Ptg[] tokens;
+		try {
+			tokens = FormulaParser.parse(formula, workbook, tipo, indiceDaAba);
+		} catch (FormulaParseException e) {
+			logger.warning("Fórmula mantida sem ajuste de referências: " + formula + " (" + e.getMessage() + ")");
+			return formula;
+		}
+		boolean semAbaEhDestaAba = indiceDaAba == sheet.getWorkbook().getSheetIndex(sheet);
+		boolean alterada = false;
+		for (int i = 0; i < tokens.length; i++) {
+			Ptg token = tokens[i];
+			if (token instanceof RefPtgBase && daAba(token, semAbaEhDestaAba)) {
+				alterada |= reescreverReferencia(tokens, i, (RefPtgBase) token);
+			} else if (token instanceof AreaPtgBase && daAba(token, semAbaEhDestaAba)) {
+				alterada |= reescreverIntervalo(tokens, i, (AreaPtgBase) token);
+			}
+		}
+		return alterada ? FormulaRenderer.toFormulaString(workbook, tokens) : formula;
+	}
+
+	private boolean reescreverReferencia(Ptg[] tokens, int i, RefPtgBase referencia) {
+		int indice = porLinha ? referencia.getRow() : referencia.getColumn();
+		int novo = novoIndice.applyAsInt(indice);
+		if (novo == indice) {
+			return false;
+		}
+		if (novo < 0) {
+			tokens[i] = referencia instanceof Ref3DPxg ? excluida((Ref3DPxg) referencia) : new RefErrorPtg();
+		} else if (porLinha) {
+			referencia.setRow(novo);
+		} else {
+			referencia.setColumn(novo);
+		}
+		return true;
+	}
+
+	private boolean reescreverIntervalo(Ptg[] tokens, int i, AreaPtgBase intervalo) {
+		int primeiro = porLinha ? intervalo.getFirstRow() : intervalo.getFirstColumn();
+		int ultimo = porLinha ? intervalo.getLastRow() : intervalo.getLastColumn();
+		if (primeiro == 0 && ultimo == ultimoIndiceDaVersao) {
+			return false;
+		}
+		// As extremidades removidas recuam até o índice mantido mais próximo
+		int novoPrimeiro = -1;
+		for (int indice = primeiro; indice <= ultimo && novoPrimeiro < 0; indice++) {
+			novoPrimeiro = novoIndice.applyAsInt(indice);
+		}
+		if (novoPrimeiro < 0) {
+			tokens[i] = intervalo instanceof Area3DPxg ? excluida((Area3DPxg) intervalo) : new AreaErrPtg();
+			return true;
+		}
+		int novoUltimo = -1;
+		for (int indice = ultimo; indice >= primeiro && novoUltimo < 0; indice--) {
+			novoUltimo = novoIndice.applyAsInt(indice);
+		}
+		if (novoPrimeiro > novoUltimo) {
+			int troca = novoPrimeiro;
+			novoPrimeiro = novoUltimo;
+			novoUltimo = troca;
+		}
+		if (novoPrimeiro == primeiro && novoUltimo == ultimo) {
+			return false;
+		}
+		if (porLinha) {
+			intervalo.setFirstRow(novoPrimeiro);
+			intervalo.setLastRow(novoUltimo);
+		} else {
+			intervalo.setFirstColumn(novoPrimeiro);
+			intervalo.setLastColumn(novoUltimo);
+		}
+		return true;
+	}
+
+	// Referências sem aba são da própria aba da fórmula
+	private boolean daAba(Ptg token, boolean semAbaEhDestaAba) {
+		if (token instanceof Ref3DPxg) {
+			Ref3DPxg referencia = (Ref3DPxg) token;
+			return referencia.getExternalWorkbookNumber() < 1 && referencia.getLastSheetName() == null
+					&& sheet.getSheetName().equalsIgnoreCase(referencia.getSheetName());
+		}
+		if (token instanceof Area3DPxg) {
+			Area3DPxg intervalo = (Area3DPxg) token;
+			return intervalo.getExternalWorkbookNumber() < 1 && intervalo.getLastSheetName() == null
+					&& sheet.getSheetName().equalsIgnoreCase(intervalo.getSheetName());
+		}
+		return semAbaEhDestaAba;
+	}
+
+	private static Deleted3DPxg excluida(Ref3DPxg referencia) {
+		return new Deleted3DPxg(referencia.getExternalWorkbookNumber(), referencia.getSheetName());
+	}
+
+	private static Deleted3DPxg excluida(Area3DPxg intervalo) {
+		return new Deleted3DPxg(intervalo.getExternalWorkbookNumber(), intervalo.getSheetName());
+	}
+
+	private BaseXSSFEvaluationWorkbook obterWorkbookDeAvaliacao() {
+		if (workbookDeAvaliacao == null) {
+			Workbook workbook = sheet.getWorkbook();
+			if (workbook instanceof SXSSFWorkbook) {
+				workbookDeAvaliacao = SXSSFEvaluationWorkbook.create((SXSSFWorkbook) workbook);
+			} else if (workbook instanceof XSSFWorkbook) {
+				workbookDeAvaliacao = XSSFEvaluationWorkbook.create((XSSFWorkbook) workbook);
+			}
+		}
+		return workbookDeAvaliacao;
+	}
+}
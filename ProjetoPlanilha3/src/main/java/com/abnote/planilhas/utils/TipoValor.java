@@ -0,0 +1,25 @@
+package com.abnote.planilhas.utils;
+
+/**
+ * Tipos reconhecidos pelo {@link ClassificadorDeValores} ao inserir um valor
+ * textual na planilha.
+ *
+ * <p>
+ * Também é usado como dica de tipo por coluna: quando uma coluna possui tipo
+ * definido, os valores dela não passam pela inferência.
+ * </p>
+ */
+public enum TipoValor {
+	/** Número inteiro, ex.: {@code 42} ou {@code -7}. */
+	INTEIRO,
+	/** Número com ponto decimal e expoente opcional, ex.: {@code 3.14} ou {@code 1e-3}. */
+	DECIMAL,
+	/** Número no formato brasileiro, ex.: {@code 1.234,56} ou {@code 0,5}. */
+	DECIMAL_BR,
+	/** Data no formato {@code dd/MM/yyyy} ou {@code yyyy-MM-dd}. */
+	DATA,
+	/** {@code true}/{@code false} ou {@code verdadeiro}/{@code falso}, sem diferenciar maiúsculas. */
+	BOOLEANO,
+	/** Qualquer outro valor. */
+	TEXTO
+}
@@ -0,0 +1,49 @@
+package com.abnote.planilhas.utils;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Congelamento de uma planilha durante um salvamento assíncrono.
+ *
+ * <p>
+ * Uma única instância é compartilhada pela planilha e pelos metadados de todas
+ * as suas abas, de modo que os objetos entregues ao chamador (manipuladores de
+ * dados e de colunas, estilos, conversões, buscas) recusam alterações enquanto
+ * o workbook é serializado, mesmo quando guardados antes do salvamento.
+ * </p>
+ */
+public final class TravaDeSalvamento {
+
+	private volatile CompletableFuture<?> salvamento;
+
+	/**
+	 * Congela a planilha até o salvamento terminar.
+	 *
+	 * @param salvamento Futuro do salvamento em andamento.
+	 */
+	public void travarDurante(CompletableFuture<?> salvamento) {
+		this.salvamento = salvamento;
+	}
+
+	/**
+	 * Retorna o último salvamento registrado, concluído ou não, ou null.
+	 */
+	public CompletableFuture<?> getSalvamento() {
+		return salvamento;
+	}
+
+	public boolean isLivre() {
+		CompletableFuture<?> atual = salvamento;
+		return atual == null || atual.isDone();
+	}
+
+	/**
+	 * Lança {@link IllegalStateException} se houver um salvamento em andamento.
+	 */
+	public void verificarLivre() {
+		if (!isLivre()) {
+			throw new IllegalStateException(
+					"A planilha está sendo salva e não pode ser alterada até o salvamento terminar.");
+		}
+	}
+}
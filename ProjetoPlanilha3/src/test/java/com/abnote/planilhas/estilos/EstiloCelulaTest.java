@@ -0,0 +1,95 @@
+package com.abnote.planilhas.estilos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.abnote.planilhas.estilos.estilos.CorEnum;
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para a aplicação em lote do EstiloCelula.
+ */
+class EstiloCelulaTest {
+
+	@Test
+	@DisplayName("Deve resolver uma cadeia de estilos em um único estilo por estilo de origem")
+	void deveResolverCadeiaEmUmEstilo() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			Workbook workbook = planilha.obterWorkbook();
+			Sheet sheet = workbook.getSheetAt(0);
+			int estilos = workbook.getNumCellStyles();
+			int fontes = workbook.getNumberOfFonts();
+
+			planilha.selecionar().intervalo("A1", "J100").aplicarEstilos().fonte("Arial").fonteTamanho(12)
+					.aplicarNegrito().corDeFundo(CorEnum.AZUL).alinharADireita().aplicar();
+
+			assertEquals(estilos + 1, workbook.getNumCellStyles(), "Sem estilos intermediários");
+			assertEquals(fontes + 1, workbook.getNumberOfFonts(), "Sem fontes intermediárias");
+			CellStyle estilo = sheet.getRow(99).getCell(9).getCellStyle();
+			Font fonte = workbook.getFontAt(estilo.getFontIndex());
+			assertEquals("Arial", fonte.getFontName());
+			assertEquals(12, fonte.getFontHeightInPoints());
+			assertTrue(fonte.getBold());
+			assertEquals(HorizontalAlignment.RIGHT, estilo.getAlignment());
+			assertArrayEquals(new byte[] { 0, 0, (byte) 255 },
+					((XSSFCellStyle) estilo).getFillForegroundXSSFColor().getRGB());
+			assertEquals(estilo.getIndex(), sheet.getRow(0).getCell(0).getCellStyle().getIndex());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve aplicar os estilos adiados na próxima operação da planilha")
+	void deveAplicarNaProximaOperacao() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+
+			planilha.selecionar().intervalo("A1", "B2").aplicarEstilos().aplicarNegrito().centralizarTudo();
+			assertEquals(HorizontalAlignment.GENERAL, sheet.getRow(0).getCell(0).getCellStyle().getAlignment(),
+					"A cadeia ainda não foi confirmada");
+
+			planilha.selecionar().celula("C3").inserir("x");
+			CellStyle estilo = sheet.getRow(1).getCell(1).getCellStyle();
+			assertEquals(HorizontalAlignment.CENTER, estilo.getAlignment());
+			assertTrue(planilha.obterWorkbook().getFontAt(estilo.getFontIndex()).getBold());
+			assertEquals(HorizontalAlignment.GENERAL, sheet.getRow(2).getCell(2).getCellStyle().getAlignment());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve aplicar imediatamente o estilo criado diretamente")
+	void deveAplicarImediatamenteEstiloCriadoDiretamente() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			Workbook workbook = planilha.obterWorkbook();
+			Sheet sheet = workbook.getSheetAt(0);
+
+			new EstiloCelula(workbook, sheet, 0, 0, 1, 1).aplicarNegrito().alinharADireita();
+
+			CellStyle estilo = sheet.getRow(1).getCell(1).getCellStyle();
+			assertEquals(HorizontalAlignment.RIGHT, estilo.getAlignment());
+			assertTrue(workbook.getFontAt(estilo.getFontIndex()).getBold());
+		}
+	}
+
+	private void preencher(IPlanilha planilha) {
+		for (int linha = 1; linha <= 100; linha++) {
+			for (char coluna = 'A'; coluna <= 'J'; coluna++) {
+				planilha.selecionar().celula("" + coluna + linha).inserir(linha);
+			}
+		}
+	}
+}
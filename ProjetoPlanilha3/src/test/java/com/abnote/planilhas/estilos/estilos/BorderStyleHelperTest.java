@@ -0,0 +1,73 @@
+package com.abnote.planilhas.estilos.estilos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.abnote.planilhas.estilos.util.RegistroDeEstilos;
+
+/**
+ * Testes unitários para o BorderStyleHelper.
+ */
+class BorderStyleHelperTest {
+
+	@Test
+	@DisplayName("Deve compartilhar um estilo por classe de perímetro em um bloco de 1000x30")
+	void deveCompartilharEstiloPorClasseDePerimetro() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Bordas");
+			BorderStyleHelper bordas = new BorderStyleHelper(workbook, sheet, RegistroDeEstilos.doWorkbook(workbook));
+			int antes = workbook.getNumCellStyles();
+
+			bordas.aplicarBordasEspessasComInternas("A1", "AD1000");
+
+			assertEquals(antes + 9, workbook.getNumCellStyles());
+			verificarBordas(estilo(sheet, 0, 0), BorderStyle.THICK, BorderStyle.THIN, BorderStyle.THICK,
+					BorderStyle.THIN);
+			verificarBordas(estilo(sheet, 999, 29), BorderStyle.THIN, BorderStyle.THICK, BorderStyle.THIN,
+					BorderStyle.THICK);
+			verificarBordas(estilo(sheet, 500, 0), BorderStyle.THIN, BorderStyle.THIN, BorderStyle.THICK,
+					BorderStyle.THIN);
+			verificarBordas(estilo(sheet, 500, 15), BorderStyle.THIN, BorderStyle.THIN, BorderStyle.THIN,
+					BorderStyle.THIN);
+			assertEquals(estilo(sheet, 1, 1).getIndex(), estilo(sheet, 998, 28).getIndex());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve tratar intervalo de uma linha como cantos e lado único")
+	void deveTratarIntervaloDeUmaLinha() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Bordas");
+			BorderStyleHelper bordas = new BorderStyleHelper(workbook, sheet, RegistroDeEstilos.doWorkbook(workbook));
+			int antes = workbook.getNumCellStyles();
+
+			bordas.aplicarBordasEspessas("B2", "K2");
+
+			assertEquals(antes + 3, workbook.getNumCellStyles());
+			verificarBordas(estilo(sheet, 1, 1), BorderStyle.THICK, BorderStyle.THICK, BorderStyle.THICK,
+					BorderStyle.NONE);
+			verificarBordas(estilo(sheet, 1, 5), BorderStyle.THICK, BorderStyle.THICK, BorderStyle.NONE,
+					BorderStyle.NONE);
+			verificarBordas(estilo(sheet, 1, 10), BorderStyle.THICK, BorderStyle.THICK, BorderStyle.NONE,
+					BorderStyle.THICK);
+		}
+	}
+
+	private CellStyle estilo(Sheet sheet, int linha, int coluna) {
+		return sheet.getRow(linha).getCell(coluna).getCellStyle();
+	}
+
+	private void verificarBordas(CellStyle estilo, BorderStyle superior, BorderStyle inferior, BorderStyle esquerda,
+			BorderStyle direita) {
+		assertEquals(superior, estilo.getBorderTop());
+		assertEquals(inferior, estilo.getBorderBottom());
+		assertEquals(esquerda, estilo.getBorderLeft());
+		assertEquals(direita, estilo.getBorderRight());
+	}
+}
@@ -0,0 +1,61 @@
+package com.abnote.planilhas.estilos.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para o CellIteratorUtil.
+ */
+class CellIteratorUtilTest {
+
+	@Test
+	@DisplayName("Deve visitar apenas as células existentes de um intervalo do tamanho da planilha")
+	void deveVisitarApenasCelulasExistentes() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Esparsa");
+			sheet.createRow(0).createCell(0);
+			sheet.createRow(5000).createCell(3);
+			sheet.getRow(5000).createCell(16000);
+			sheet.createRow(1048575).createCell(16383);
+
+			assertEquals(Arrays.asList("A1", "D5001", "WQK5001", "XFD1048576"), visitar(sheet, 0, 0, 1048575, 16383));
+			assertEquals(Arrays.asList("D5001"), visitar(sheet, 1, 0, 1048574, 3));
+			assertEquals(Arrays.asList(), visitar(sheet, 1, 4, 4999, 16383));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recortar um bloco denso aos limites do intervalo, em ordem")
+	void deveRecortarBlocoDenso() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Densa");
+			for (int linha = 0; linha < 10; linha++) {
+				Row row = sheet.createRow(linha);
+				for (int coluna = 0; coluna < 10; coluna++) {
+					row.createCell(coluna);
+				}
+			}
+
+			assertEquals(Arrays.asList("D3", "E3", "D4", "E4"), visitar(sheet, 2, 3, 3, 4));
+			assertEquals(100, visitar(sheet, -5, -5, Integer.MAX_VALUE, Integer.MAX_VALUE).size());
+		}
+	}
+
+	private List<String> visitar(Sheet sheet, int linhaInicial, int colunaInicial, int linhaFinal, int colunaFinal) {
+		List<String> visitadas = new ArrayList<>();
+		CellIteratorUtil.forEachCell(sheet, linhaInicial, colunaInicial, linhaFinal, colunaFinal,
+				(Cell cell) -> visitadas.add(new CellReference(cell).formatAsString(false)));
+		return visitadas;
+	}
+}
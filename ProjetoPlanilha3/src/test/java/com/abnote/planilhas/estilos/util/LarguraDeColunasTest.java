@@ -0,0 +1,81 @@
+package com.abnote.planilhas.estilos.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.impl.PlanilhaXlsxStreaming;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o LarguraDeColunas.
+ */
+class LarguraDeColunasTest {
+
+	@Test
+	@DisplayName("Deve ajustar as colunas pela maior célula e medir de novo quando ela muda")
+	void deveAjustarPelaMaiorCelula() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Larguras");
+			planilha.selecionar().celula("A1").inserir("Nome");
+			planilha.selecionar().celula("A2").inserir("Maria Aparecida da Silva");
+			planilha.selecionar().celula("A3").inserir("Ana");
+			planilha.selecionar().celula("B1").inserir("Identificador");
+			planilha.selecionar().celula("B2").inserir(42);
+
+			planilha.redimensionarColunas();
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			int esperada = Math.round((TabelaDeGlifos.CALIBRI.largura("Maria Aparecida da Silva") + 0.75f) * 256);
+			assertEquals(esperada, sheet.getColumnWidth(0));
+			assertTrue(sheet.getColumnWidth(1) < sheet.getColumnWidth(0));
+
+			planilha.selecionar().celula("A2").inserir("Bia");
+			planilha.selecionar().intervalo("B1", "B1").aplicarEstilos().fonteTamanho(22).aplicarNegrito();
+			planilha.redimensionarColunas();
+
+			assertEquals(Math.round((TabelaDeGlifos.CALIBRI.largura("Nome") + 0.75f) * 256), sheet.getColumnWidth(0),
+					"A maior célula foi sobrescrita");
+			assertEquals(Math.round((TabelaDeGlifos.CALIBRI.largura("Identificador", 22, true) + 0.75f) * 256),
+					sheet.getColumnWidth(1), "A fonte real da maior célula é considerada");
+		}
+	}
+
+	@Test
+	@DisplayName("Deve redimensionar abas em streaming e respeitar a amostragem")
+	void deveRedimensionarStreamingComAmostragem() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(50)) {
+			planilha.criarPlanilha("Dados");
+			planilha.setAmostragemLarguraColunas(1000);
+			for (int linha = 1; linha <= 500; linha++) {
+				planilha.selecionar().celula("A" + linha).inserir(linha == 250 ? "texto bem mais longo" : "curto");
+			}
+
+			planilha.redimensionarColunas();
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals(Math.round((TabelaDeGlifos.CALIBRI.largura("curto") + 0.75f) * 256), sheet.getColumnWidth(0),
+					"A linha 250 ficou fora da amostra");
+			assertThrows(IllegalArgumentException.class, () -> planilha.setAmostragemLarguraColunas(0));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve medir células de erro pelo texto do erro")
+	void deveMedirCelulaDeErroPeloTexto() throws Exception {
+		try (Workbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Erros");
+			sheet.createRow(0).createCell(0).setCellErrorValue(FormulaError.DIV0.getCode());
+
+			LarguraDeColunas larguras = LarguraDeColunas.medir(sheet);
+
+			assertEquals(TabelaDeGlifos.CALIBRI.largura("#DIV/0!"), larguras.getLargura(0), 0.0001f);
+		}
+	}
+}
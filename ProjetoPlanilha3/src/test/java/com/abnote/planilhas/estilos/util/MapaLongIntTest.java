@@ -0,0 +1,47 @@
+package com.abnote.planilhas.estilos.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para o MapaLongInt.
+ */
+class MapaLongIntTest {
+
+	@Test
+	@DisplayName("Deve distinguir todas as combinações de estilo e operação ao crescer")
+	void deveDistinguirCombinacoes() {
+		MapaLongInt mapa = new MapaLongInt(4);
+		for (int estilo = 0; estilo < 300; estilo++) {
+			for (int operacao = 0; operacao < 20; operacao++) {
+				mapa.colocar(MapaLongInt.chave(estilo, operacao), estilo * 100 + operacao);
+			}
+		}
+
+		assertEquals(6000, mapa.tamanho());
+		for (int estilo = 0; estilo < 300; estilo++) {
+			for (int operacao = 0; operacao < 20; operacao++) {
+				assertEquals(estilo * 100 + operacao, mapa.obter(MapaLongInt.chave(estilo, operacao)));
+			}
+		}
+		assertEquals(MapaLongInt.AUSENTE, mapa.obter(MapaLongInt.chave(300, 0)));
+		assertNotEquals(MapaLongInt.chave(1, 0), MapaLongInt.chave(0, 1));
+	}
+
+	@Test
+	@DisplayName("Deve substituir valores, limpar e rejeitar chaves negativas")
+	void deveSubstituirELimpar() {
+		MapaLongInt mapa = new MapaLongInt();
+		mapa.colocar(MapaLongInt.chave(7, 3), 1);
+		mapa.colocar(MapaLongInt.chave(7, 3), 2);
+		assertEquals(1, mapa.tamanho());
+		assertEquals(2, mapa.obter(MapaLongInt.chave(7, 3)));
+
+		mapa.limpar();
+		assertEquals(0, mapa.tamanho());
+		assertEquals(MapaLongInt.AUSENTE, mapa.obter(MapaLongInt.chave(7, 3)));
+		assertThrows(IllegalArgumentException.class, () -> mapa.colocar(-5L, 1));
+	}
+}
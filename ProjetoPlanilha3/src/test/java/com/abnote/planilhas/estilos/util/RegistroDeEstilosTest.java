@@ -0,0 +1,176 @@
+package com.abnote.planilhas.estilos.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.abnote.planilhas.estilos.EstiloCelula;
+import com.abnote.planilhas.estilos.estilos.CorEnum;
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o RegistroDeEstilos.
+ */
+class RegistroDeEstilosTest {
+
+	@Test
+	@DisplayName("Deve reaproveitar o mesmo estilo entre chamadas de aplicarEstilos e entre abas")
+	void deveReaproveitarEstiloEntreChamadasEAbas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Primeira");
+			preencher(planilha);
+			Workbook workbook = planilha.obterWorkbook();
+
+			planilha.selecionar().celula("A1").inserir("x");
+			planilha.aplicarEstilosEmCelula().corDeFundo(CorEnum.AZUL).aplicar();
+			int estilos = workbook.getNumCellStyles();
+			for (int i = 2; i <= 20; i++) {
+				planilha.selecionar().celula("A" + i).inserir("x");
+				planilha.aplicarEstilosEmCelula().corDeFundo(CorEnum.AZUL).aplicar();
+			}
+			assertEquals(estilos, workbook.getNumCellStyles(), "A mesma cor deve resolver para o mesmo estilo");
+
+			planilha.criarSheet("Segunda");
+			planilha.selecionar().celula("A1").inserir("x");
+			planilha.aplicarEstilosEmCelula().corDeFundo(CorEnum.AZUL).aplicar();
+			assertEquals(estilos, workbook.getNumCellStyles());
+			assertEquals(workbook.getSheet("Primeira").getRow(0).getCell(0).getCellStyle().getIndex(),
+					workbook.getSheet("Segunda").getRow(0).getCell(0).getCellStyle().getIndex());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve criar no máximo nove variações para um bloco com bordas espessas")
+	void deveLimitarEstilosDeBordasEspessas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Bordas");
+			preencher(planilha);
+			Workbook workbook = planilha.obterWorkbook();
+			int antes = workbook.getNumCellStyles();
+
+			planilha.aplicarEstilos().aplicarBordasEspessasComInternas("A1", "J100");
+
+			assertTrue(workbook.getNumCellStyles() - antes <= 9,
+					"Foram criados " + (workbook.getNumCellStyles() - antes) + " estilos");
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals(BorderStyle.THICK, sheet.getRow(0).getCell(0).getCellStyle().getBorderTop());
+			assertEquals(BorderStyle.THIN, sheet.getRow(50).getCell(5).getCellStyle().getBorderTop());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve voltar ao estilo existente quando os atributos resultantes forem iguais")
+	void deveVoltarAoEstiloExistente() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			Workbook workbook = planilha.obterWorkbook();
+			RegistroDeEstilos registro = RegistroDeEstilos.doWorkbook(workbook);
+			CellStyle padrao = workbook.getCellStyleAt(0);
+
+			CellStyle direita = registro.derivar(padrao, a -> a.setAlinhamento(HorizontalAlignment.RIGHT));
+			CellStyle geral = registro.derivar(direita, a -> a.setAlinhamento(HorizontalAlignment.GENERAL));
+
+			assertNotEquals(padrao.getIndex(), direita.getIndex());
+			assertEquals(padrao.getIndex(), geral.getIndex());
+			assertSame(registro, RegistroDeEstilos.doWorkbook(workbook));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve criar fontes proporcionais às fontes distintas, não aos estilos derivados")
+	void deveReaproveitarFontesDistintas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Fontes");
+			preencher(planilha);
+			Workbook workbook = planilha.obterWorkbook();
+			Sheet sheet = workbook.getSheetAt(0);
+			CorEnum[] cores = { CorEnum.AZUL, CorEnum.VERMELHO_ESCURO, CorEnum.VERDE };
+			for (int coluna = 0; coluna < cores.length; coluna++) {
+				new EstiloCelula(workbook, sheet, 0, coluna, 99, coluna).corDeFundo(cores[coluna]);
+			}
+			int fontes = workbook.getNumberOfFonts();
+
+			new EstiloCelula(workbook, sheet, 0, 0, 49, 9).aplicarNegrito().aplicarNegrito();
+			assertEquals(fontes + 1, workbook.getNumberOfFonts(), "Só a fonte em negrito deve ser criada");
+
+			// Ordens diferentes que chegam à mesma fonte compartilham o resultado
+			new EstiloCelula(workbook, sheet, 0, 0, 49, 9).fonte("Arial");
+			new EstiloCelula(workbook, sheet, 50, 0, 99, 9).fonte("Arial").aplicarNegrito();
+			assertEquals(fontes + 3, workbook.getNumberOfFonts(), "Arial, Arial em negrito e Calibri em negrito");
+			assertEquals(sheet.getRow(0).getCell(4).getCellStyle().getFontIndex(),
+					sheet.getRow(99).getCell(4).getCellStyle().getFontIndex());
+			assertTrue(workbook.getFontAt(sheet.getRow(99).getCell(0).getCellStyle().getFontIndex()).getBold());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve derivar e memorizar estilos com índice acima de 32767")
+	void deveDerivarEstilosComIndiceAcimaDoLimiteDoShort() throws Exception {
+		try (Workbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Estilos");
+			while (workbook.getNumCellStyles() <= Short.MAX_VALUE) {
+				workbook.createCellStyle();
+			}
+			CellStyle origem = workbook.createCellStyle();
+			origem.setRotation((short) 45);
+			assertTrue(origem.getIndex() < 0, "O índice deve ter passado do limite do short");
+			for (int linha = 0; linha < 3; linha++) {
+				sheet.createRow(linha).createCell(0).setCellStyle(origem);
+			}
+			RegistroDeEstilos registro = RegistroDeEstilos.doWorkbook(workbook);
+			int operacao = registro.operacao("direita");
+
+			CellStyle direita = registro.derivar(origem, operacao,
+					a -> a.setAlinhamento(HorizontalAlignment.RIGHT));
+			assertEquals(direita.getIndex(),
+					registro.derivar(origem, operacao, a -> fail("Deve vir da memória")).getIndex());
+			assertEquals(45, direita.getRotation());
+			assertEquals(Short.toUnsignedInt(direita.getIndex()), workbook.getNumCellStyles() - 1);
+
+			new EstiloCelula(workbook, sheet, 0, 0, 2, 0).aplicarNegrito();
+			CellStyle negrito = sheet.getRow(2).getCell(0).getCellStyle();
+			assertTrue(workbook.getFontAt(negrito.getFontIndex()).getBold());
+			assertEquals(45, negrito.getRotation());
+			assertEquals(negrito.getIndex(), sheet.getRow(0).getCell(0).getCellStyle().getIndex());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve liberar o workbook estilizado depois do close")
+	void deveLiberarWorkbookAposClose() throws Exception {
+		WeakReference<Workbook> referencia = estilizarEFechar();
+		for (int tentativa = 0; tentativa < 50 && referencia.get() != null; tentativa++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull(referencia.get(), "O registro de estilos não pode manter o workbook vivo");
+	}
+
+	private WeakReference<Workbook> estilizarEFechar() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			planilha.aplicarEstilos().aplicarNegrito().corDeFundo(CorEnum.AZUL).aplicar();
+			planilha.aplicarEstilos().aplicarNegrito().corDeFundo(CorEnum.AZUL).aplicar();
+			return new WeakReference<>(planilha.obterWorkbook());
+		}
+	}
+
+	private void preencher(IPlanilha planilha) {
+		for (int linha = 1; linha <= 100; linha++) {
+			for (char coluna = 'A'; coluna <= 'J'; coluna++) {
+				planilha.selecionar().celula("" + coluna + linha).inserir(linha);
+			}
+		}
+	}
+}
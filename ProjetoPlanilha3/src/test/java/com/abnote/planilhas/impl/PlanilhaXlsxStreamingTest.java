@@ -0,0 +1,201 @@
+package com.abnote.planilhas.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abnote.planilhas.interfaces.IPlanilha;
+import com.abnote.planilhas.mapeamento.MapeamentoColunas;
+
+/**
+ * Testes de integração para PlanilhaXlsxStreaming.
+ *
+ * Usa uma janela pequena para garantir que a maior parte das linhas já foi
+ * gravada em disco quando as consultas são feitas.
+ */
+class PlanilhaXlsxStreamingTest {
+
+	private static final int JANELA = 10;
+	private static final int LINHAS = 500;
+
+	@TempDir
+	Path pastaTemporaria;
+
+	@Test
+	@DisplayName("Deve localizar a última linha e somar coluna com linhas já descarregadas")
+	void deveSomarColunaComLinhasDescarregadas() throws Exception {
+		String nomeArquivo = pastaTemporaria.resolve("streaming_soma.xlsx").toString();
+
+		try (PlanilhaXlsxStreaming planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+
+			planilha.ultimaLinha("B");
+			assertEquals(LINHAS, planilha.getNumeroDeLinhas("B"), "Cabeçalho + valores");
+
+			planilha.somarColuna("B2");
+			planilha.salvar(nomeArquivo);
+		}
+
+		try (Workbook wb = new XSSFWorkbook(new File(nomeArquivo))) {
+			Sheet sheet = wb.getSheetAt(0);
+			Cell soma = sheet.getRow(LINHAS).getCell(1);
+			double esperado = (LINHAS - 1) * LINHAS / 2.0;
+			assertEquals(esperado, soma.getNumericCellValue(), 0.0001);
+			assertEquals("Item 499", sheet.getRow(LINHAS - 1).getCell(0).getStringCellValue());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve inserir filtros no cabeçalho já gravado em disco")
+	void deveInserirFiltrosNoCabecalho() throws Exception {
+		String nomeArquivo = pastaTemporaria.resolve("streaming_filtros.xlsx").toString();
+
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			planilha.inserirFiltros();
+			planilha.salvar(nomeArquivo);
+		}
+
+		try (XSSFWorkbook wb = new XSSFWorkbook(new File(nomeArquivo))) {
+			assertEquals("A1:B1", wb.getSheetAt(0).getCTWorksheet().getAutoFilter().getRef());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve posicionar na próxima linha livre com naUltimaLinha")
+	void devePosicionarNaUltimaLinha() throws Exception {
+		String nomeArquivo = pastaTemporaria.resolve("streaming_ultima_linha.xlsx").toString();
+
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			planilha.naUltimaLinha("A").inserir("Fim");
+			planilha.salvar(nomeArquivo);
+		}
+
+		try (Workbook wb = new XSSFWorkbook(new File(nomeArquivo))) {
+			assertEquals("Fim", wb.getSheetAt(0).getRow(LINHAS).getCell(0).getStringCellValue());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recusar alterações em linhas já gravadas em disco")
+	void deveRecusarAlteracaoEmLinhaDescarregada() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+
+			assertThrows(IllegalStateException.class,
+					() -> planilha.multiplicarColunasComTexto("B", "B", 2, "Total", "C"));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recusar mover colunas quando há linhas gravadas em disco")
+	void deveRecusarMoverColunasComLinhasDescarregadas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+
+			assertThrows(IllegalStateException.class, () -> planilha.manipularPlanilha().moverColuna("B", "A"));
+			assertThrows(IllegalStateException.class,
+					() -> planilha.manipularPlanilha().inserirColunasVazias("A", 1));
+			Row ultima = planilha.obterWorkbook().getSheetAt(0).getRow(LINHAS - 1);
+			assertEquals("Item " + (LINHAS - 1), ultima.getCell(0).getStringCellValue(), "Nada foi movido");
+		}
+	}
+
+	@Test
+	@DisplayName("Deve contar as colunas de uma linha já gravada em disco pelos metadados")
+	void deveContarColunasDeLinhaDescarregada() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+
+			assertEquals(2, planilha.getNumeroDeColunasNaLinha(1));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve somar a coluna convertida de texto em número")
+	void deveSomarColunaConvertidaEmNumero() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			MapeamentoColunas<String> mapeamento = MapeamentoColunas.para(String.class).coluna("Valor", v -> v)
+					.semCabecalho().construir();
+			planilha.selecionar().celula("A1").inserirObjetos(Arrays.asList("10", "20", "30"), mapeamento);
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals(CellType.STRING, sheet.getRow(0).getCell(0).getCellType());
+
+			planilha.converter().emNumero("A1").somarColuna("A1");
+
+			assertEquals(60.0, sheet.getRow(3).getCell(0).getNumericCellValue(), 0.0001);
+		}
+	}
+
+	@Test
+	@DisplayName("Deve consumir um Stream sob demanda e informar o progresso")
+	void deveInserirFluxoComProgresso() throws Exception {
+		List<Long> progresso = new ArrayList<>();
+		int total = 2500;
+
+		try (PlanilhaXlsxStreaming planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			Stream<List<Object>> linhas = IntStream.range(0, total)
+					.mapToObj(i -> Arrays.<Object>asList("Item " + i, i, i % 2 == 0));
+			planilha.selecionar().celula("A1").inserirFluxo(linhas, 1000, progresso::add);
+
+			assertEquals(Arrays.asList(1000L, 2000L, 2500L), progresso);
+			assertEquals(total, planilha.getNumeroDeLinhas("B"));
+			SXSSFSheet sheet = (SXSSFSheet) planilha.obterWorkbook().getSheetAt(0);
+			assertEquals(total - JANELA - 1, sheet.getLastFlushedRowNum(), "Só a janela deve ficar em memória");
+		}
+	}
+
+	@Test
+	@DisplayName("Deve gravar em fluxo sem compressão e manter o fluxo aberto")
+	void deveSalvarEmFluxoSemCompressao() throws Exception {
+		ByteArrayOutputStream padrao = new ByteArrayOutputStream();
+		ByteArrayOutputStream armazenado = new ByteArrayOutputStream();
+
+		try (PlanilhaXlsxStreaming planilha = new PlanilhaXlsxStreaming(JANELA)) {
+			planilha.criarPlanilha("Dados");
+			preencher(planilha);
+			planilha.salvar(padrao);
+			planilha.setNivelCompressao(Deflater.NO_COMPRESSION);
+			planilha.salvar(armazenado);
+		}
+		armazenado.write(0); // o fluxo continua aberto
+
+		assertTrue(armazenado.size() > padrao.size(), "Sem compressão o arquivo deve ser maior");
+		byte[] bytes = Arrays.copyOf(armazenado.toByteArray(), armazenado.size() - 1);
+		try (Workbook wb = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+			assertEquals("Item 499", wb.getSheetAt(0).getRow(LINHAS - 1).getCell(0).getStringCellValue());
+		}
+	}
+
+	private void preencher(IPlanilha planilha) {
+		planilha.selecionar().celula("A1").inserirDados(Arrays.asList("Item", "Valor"));
+		for (int i = 1; i < LINHAS; i++) {
+			planilha.selecionar().celula("A" + (i + 1)).inserirDados(Arrays.asList("Item " + i, String.valueOf(i)));
+		}
+	}
+}
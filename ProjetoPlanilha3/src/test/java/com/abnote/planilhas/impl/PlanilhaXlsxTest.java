@@ -2,8 +2,19 @@ package com.abnote.planilhas.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
 
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -11,7 +22,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.abnote.planilhas.estilos.EstiloCelula;
+import com.abnote.planilhas.interfaces.IManipulacaoDados;
 import com.abnote.planilhas.interfaces.IPlanilha;
+import com.abnote.planilhas.interfaces.ISelecao;
+import com.abnote.planilhas.utils.ManipuladorPlanilha;
 
 /**
  * Testes de integração para PlanilhaXlsx.
@@ -194,4 +209,363 @@ class PlanilhaXlsxTest {
 
 		assertTrue(new File(caminhoCompleto).exists());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Teste: Inserção de tipos nativos sem conversão para texto.
+	 */
+	@Test
+	@DisplayName("Deve gravar números, datas e booleanos com o tipo nativo")
+	void deveInserirTiposNativos() throws Exception {
+		String nomeArquivo = pastaTemporaria.resolve("teste_tipos_nativos.xlsx").toString();
+
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Tipos");
+			planilha.selecionar().celula("A1").inserir(0.1 + 0.2);
+			planilha.selecionar().celula("A2").inserir(9007199254740993L);
+			planilha.selecionar().celula("A3").inserir(new BigDecimal("1234.56"));
+			planilha.selecionar().celula("A4").inserir(LocalDate.of(2024, 12, 25));
+			planilha.selecionar().celula("A5").inserir(true);
+			planilha.salvar(nomeArquivo);
+		}
+
+		try (Workbook wb = new XSSFWorkbook(new File(nomeArquivo))) {
+			Sheet sheet = wb.getSheetAt(0);
+
+			assertEquals(0.1 + 0.2, sheet.getRow(0).getCell(0).getNumericCellValue());
+			assertEquals((double) 9007199254740993L, sheet.getRow(1).getCell(0).getNumericCellValue());
+			assertEquals(1234.56, sheet.getRow(2).getCell(0).getNumericCellValue());
+			Cell data = sheet.getRow(3).getCell(0);
+			assertTrue(DateUtil.isCellDateFormatted(data));
+			assertEquals(LocalDate.of(2024, 12, 25), data.getLocalDateTimeCellValue().toLocalDate());
+			assertTrue(sheet.getRow(4).getCell(0).getBooleanCellValue());
+		}
+	}
+
+	/**
+	 * Teste: Inserção de blocos inteiros a partir da célula selecionada.
+	 */
+	@Test
+	@DisplayName("Deve inserir matriz e colunas numéricas a partir da âncora")
+	void deveInserirMatrizEColunas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Blocos");
+
+			Object[][] matriz = { { "Nome", "Valor", "Ativo" }, { "Ana", 10, true }, { "Bia", new BigDecimal("2.5"), null } };
+			planilha.selecionar().celula("B2").inserirMatriz(matriz);
+			planilha.selecionar().celula("F2").inserirColunas(new double[] { 1, 2, 3 }, new double[] { 4.5 });
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals("Nome", sheet.getRow(1).getCell(1).getStringCellValue());
+			assertEquals(10.0, sheet.getRow(2).getCell(2).getNumericCellValue());
+			assertTrue(sheet.getRow(2).getCell(3).getBooleanCellValue());
+			assertEquals(2.5, sheet.getRow(3).getCell(2).getNumericCellValue());
+			assertNull(sheet.getRow(3).getCell(3), "Valores nulos não criam célula");
+
+			assertEquals(3.0, sheet.getRow(3).getCell(5).getNumericCellValue());
+			assertEquals(4.5, sheet.getRow(1).getCell(6).getNumericCellValue());
+			assertNull(sheet.getRow(2).getCell(6));
+			assertEquals(3, planilha.getNumeroDeLinhas("F"));
+		}
+	}
+
+	/**
+	 * Teste: Salvamento assíncrono congela a planilha até terminar.
+	 */
+	@Test
+	@DisplayName("Deve salvar em segundo plano e bloquear alterações até concluir")
+	void deveSalvarAssincronoECongelarPlanilha() throws Exception {
+		String nomeArquivo = pastaTemporaria.resolve("assincrono.xlsx").toString();
+		List<Runnable> tarefasPendentes = new ArrayList<>();
+
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Relatorio");
+			planilha.selecionar().celula("A1").inserir(42);
+			// Objetos obtidos antes do salvamento também ficam congelados
+			ISelecao selecao = planilha.selecionar();
+			IManipulacaoDados dados = planilha.naUltimaLinha("A");
+			EstiloCelula estilo = planilha.aplicarEstilos();
+			ManipuladorPlanilha manipulador = planilha.manipularPlanilha();
+			// Executor manual: o salvamento só roda quando a tarefa é liberada
+			planilha.setExecutorSalvamento(tarefasPendentes::add);
+
+			CompletableFuture<Path> salvamento = planilha.salvarAsync(nomeArquivo);
+			assertFalse(salvamento.isDone());
+			assertThrows(IllegalStateException.class, () -> planilha.selecionar().celula("A2").inserir(1));
+			assertThrows(IllegalStateException.class, () -> planilha.salvar(nomeArquivo));
+			assertThrows(IllegalStateException.class, () -> selecao.celula("A3").inserir(1));
+			assertThrows(IllegalStateException.class, () -> dados.inserir(1));
+			assertThrows(IllegalStateException.class, () -> estilo.aplicarNegrito());
+			assertThrows(IllegalStateException.class, () -> manipulador.inserirColunasVazias("A", 1));
+
+			tarefasPendentes.forEach(Runnable::run);
+			assertEquals(pastaTemporaria.resolve("assincrono.xlsx").toAbsolutePath(), salvamento.get());
+
+			planilha.selecionar().celula("A2").inserir(1);
+			assertEquals(2, planilha.getNumeroDeLinhas("A"));
+		}
+
+		try (Workbook wb = new XSSFWorkbook(new File(nomeArquivo))) {
+			assertEquals(42.0, wb.getSheetAt(0).getRow(0).getCell(0).getNumericCellValue());
+			assertNull(wb.getSheetAt(0).getRow(1), "Alterações posteriores não entram no arquivo salvo");
+		}
+	}
+
+	/**
+	 * Teste: Gravação direta em fluxo e canal com nível de compressão.
+	 */
+	@Test
+	@DisplayName("Deve salvar em fluxo e canal respeitando o nível de compressão")
+	void deveSalvarEmFluxoECanalComCompressao() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			for (int i = 1; i <= 500; i++) {
+				planilha.selecionar().celula("A" + i).inserir("Linha repetida " + (i % 10));
+			}
+
+			ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+			planilha.setNivelCompressao(Deflater.BEST_COMPRESSION);
+			planilha.salvar(comprimido);
+
+			ByteArrayOutputStream armazenado = new ByteArrayOutputStream();
+			planilha.setNivelCompressao(Deflater.NO_COMPRESSION);
+			planilha.salvar(Channels.newChannel(armazenado));
+			armazenado.write(0); // o fluxo continua aberto
+
+			assertTrue(armazenado.size() > comprimido.size(), "Sem compressão o arquivo deve ser maior");
+			for (byte[] bytes : new byte[][] { comprimido.toByteArray(),
+					Arrays.copyOf(armazenado.toByteArray(), armazenado.size() - 1) }) {
+				try (Workbook wb = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+					assertEquals("Linha repetida 1", wb.getSheetAt(0).getRow(0).getCell(0).getStringCellValue());
+				}
+			}
+			assertThrows(IllegalArgumentException.class, () -> planilha.setNivelCompressao(10));
+		}
+	}
+
+	/**
+	 * Teste: Bordas em toda a planilha limitadas à área utilizada.
+	 */
+	@Test
+	@DisplayName("Deve aplicar bordas apenas na área utilizada da planilha")
+	void deveAplicarBordasNaAreaUtilizada() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Bordas");
+			for (int linha = 2; linha <= 5; linha++) {
+				planilha.selecionar().celula("B" + linha).inserir(linha);
+				planilha.selecionar().celula("D" + linha).inserir("Texto " + linha);
+			}
+			planilha.somarColuna("B2");
+
+			planilha.todasAsBordasEmTudo();
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals(BorderStyle.THICK, sheet.getRow(1).getCell(1).getCellStyle().getBorderTop());
+			assertEquals(BorderStyle.THICK, sheet.getRow(1).getCell(1).getCellStyle().getBorderLeft());
+			assertEquals(BorderStyle.THIN, sheet.getRow(2).getCell(2).getCellStyle().getBorderLeft());
+			assertEquals(BorderStyle.THICK, sheet.getRow(5).getCell(3).getCellStyle().getBorderBottom(),
+					"A linha da soma faz parte da área utilizada");
+			assertEquals(BorderStyle.THICK, sheet.getRow(5).getCell(3).getCellStyle().getBorderRight());
+			assertNull(sheet.getRow(0), "Nenhuma linha é criada acima da área");
+			assertNull(sheet.getRow(1).getCell(0), "Nenhuma célula é criada à esquerda da área");
+			assertNull(sheet.getRow(1).getCell(4), "Nenhuma célula é criada à direita da área");
+			assertEquals(5, sheet.getLastRowNum());
+		}
+	}
+
+	/**
+	 * Teste: Índice de ocupação atualizado por escritas, fórmulas e movimentações.
+	 */
+	@Test
+	@DisplayName("Deve manter contagens e última linha atualizadas por todas as escritas")
+	void deveManterIndiceDeOcupacao() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Indice");
+			for (int linha = 1; linha <= 5; linha++) {
+				planilha.selecionar().celula("A" + linha).inserir("a" + linha);
+				if (linha <= 3) {
+					planilha.selecionar().celula("B" + linha).inserir(linha);
+				}
+				if (linha <= 2) {
+					planilha.selecionar().celula("C" + linha).inserir("c" + linha);
+				}
+			}
+			planilha.selecionar().celula("A6").formula().soma("B1:B3").aplicar();
+			planilha.naUltimaLinha("B").inserir("fim");
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals("fim", sheet.getRow(3).getCell(1).getStringCellValue());
+			assertEquals(6, planilha.getNumeroDeLinhas("A"));
+			assertEquals(2, planilha.getNumeroDeColunasNaLinha(4));
+			assertEquals(1, planilha.getNumeroDeColunasNaLinha(6));
+
+			planilha.manipularPlanilha().removerColuna("A");
+			assertEquals(4, planilha.getNumeroDeLinhas("A"));
+			assertEquals(2, planilha.getNumeroDeLinhas("B"));
+			assertEquals(0, planilha.getNumeroDeLinhas("C"));
+			assertEquals(0, planilha.getNumeroDeColunasNaLinha(6));
+
+			planilha.manipularPlanilha().moverColuna("A", "C");
+			assertEquals(2, planilha.getNumeroDeLinhas("A"));
+			assertEquals(0, planilha.getNumeroDeLinhas("B"));
+			assertEquals(4, planilha.getNumeroDeLinhas("C"));
+			planilha.naUltimaLinha("C").inserir("depois");
+			assertEquals("depois", sheet.getRow(4).getCell(2).getStringCellValue());
+
+			planilha.manipularPlanilha().limparColuna("C");
+			assertEquals(0, planilha.getNumeroDeLinhas("C"));
+			planilha.naUltimaLinha("C").inserir("topo");
+			assertEquals("topo", sheet.getRow(0).getCell(2).getStringCellValue());
+		}
+	}
+
+	/**
+	 * Teste: Reordenação de colunas em uma única passada.
+	 */
+	@Test
+	@DisplayName("Deve reordenar, mover, remover e inserir colunas pela mesma permutação")
+	void deveReordenarColunas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Ordem");
+			for (String coluna : new String[] { "A", "B", "C", "D" }) {
+				for (int linha = 1; linha <= 3; linha++) {
+					planilha.selecionar().celula(coluna + linha).inserir(coluna.toLowerCase() + linha);
+				}
+			}
+			planilha.selecionar().celula("E2").inserir(5);
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			planilha.manipularPlanilha().reordenarColunas("C", "A");
+			assertEquals("c1 a1 b1 d1", linha(sheet, 0));
+			assertEquals(5, sheet.getRow(1).getCell(4).getNumericCellValue());
+
+			planilha.manipularPlanilha().moverColuna("A", "D");
+			assertEquals("a2 b2 d2 c2", linha(sheet, 1));
+
+			planilha.manipularPlanilha().removerColuna("B").inserirColunaVaziaEntre("A", "B");
+			assertEquals("a3  d3 c3", linha(sheet, 2));
+			assertEquals(0, planilha.getNumeroDeLinhas("B"));
+			assertEquals(3, planilha.getNumeroDeLinhas("D"));
+			assertEquals(1, planilha.getNumeroDeLinhas("E"));
+
+			assertThrows(IllegalArgumentException.class,
+					() -> planilha.manipularPlanilha().reordenarColunas("B", "A", "B"));
+		}
+	}
+
+	/**
+	 * Teste: Remoção e inserção de várias colunas de uma vez.
+	 */
+	@Test
+	@DisplayName("Deve remover e inserir várias colunas em uma passada, com um log por coluna")
+	void deveRemoverEInserirVariasColunas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Lote");
+			for (String coluna : new String[] { "A", "B", "C", "D", "E", "F" }) {
+				planilha.selecionar().celula(coluna + "1").inserir(coluna.toLowerCase() + "1");
+			}
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			PrintStream saidaOriginal = System.out;
+			ByteArrayOutputStream saida = new ByteArrayOutputStream();
+			System.setOut(new PrintStream(saida, true, "UTF-8"));
+			try {
+				planilha.manipularPlanilha().removerColunas("E", "B", "C").inserirColunasVazias("B", 2)
+						.logAlteracoes();
+			} finally {
+				System.setOut(saidaOriginal);
+			}
+
+			assertEquals("a1   d1", linha(sheet, 0));
+			assertEquals("f1", sheet.getRow(0).getCell(4).getStringCellValue());
+			assertNull(sheet.getRow(0).getCell(5));
+			assertEquals(3, planilha.getNumeroDeColunasNaLinha(1));
+			String log = saida.toString("UTF-8");
+			assertEquals(3, log.split("Remoção da coluna", -1).length - 1);
+			assertEquals(2, log.split("Inserção de coluna vazia", -1).length - 1);
+			assertTrue(log.contains("\"f1\": Índice anterior: F; Novo Índice: E"));
+			assertThrows(IllegalArgumentException.class, () -> planilha.manipularPlanilha().inserirColunasVazias("A", 0));
+		}
+	}
+
+	/**
+	 * Teste: Fórmulas acompanham as colunas movidas, inseridas e removidas.
+	 */
+	@Test
+	@DisplayName("Deve reescrever as referências das fórmulas ao mover, inserir e remover colunas")
+	void deveReescreverFormulasAoMoverColunas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Formulas");
+			planilha.selecionar().celula("A1").inserir("Produto");
+			planilha.selecionar().celula("B1").inserir("Qtd");
+			planilha.selecionar().celula("C1").inserir("Preço");
+			for (int linha = 2; linha <= 4; linha++) {
+				planilha.selecionar().celula("A" + linha).inserir("p" + linha);
+				planilha.selecionar().celula("B" + linha).inserir(linha);
+				planilha.selecionar().celula("C" + linha).inserir(10);
+			}
+			planilha.multiplicarColunasComTexto("B", "C", 2, "Total", "D");
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals("B2*C2", sheet.getRow(1).getCell(3).getCellFormula());
+			assertEquals("SUM(D2:D4)", sheet.getRow(4).getCell(3).getCellFormula());
+
+			planilha.manipularPlanilha().moverColuna("D", "A");
+			assertEquals("C2*D2", sheet.getRow(1).getCell(0).getCellFormula());
+			assertEquals("SUM(A2:A4)", sheet.getRow(4).getCell(0).getCellFormula());
+			FormulaEvaluator avaliador = planilha.obterWorkbook().getCreationHelper().createFormulaEvaluator();
+			assertEquals(90, avaliador.evaluate(sheet.getRow(4).getCell(0)).getNumberValue());
+
+			planilha.manipularPlanilha().inserirColunasVazias("B", 2);
+			assertEquals("E2*F2", sheet.getRow(1).getCell(0).getCellFormula());
+
+			planilha.manipularPlanilha().removerColunas("B", "C", "E");
+			assertEquals("#REF!*C2", sheet.getRow(1).getCell(0).getCellFormula());
+			assertEquals("SUM(A2:A4)", sheet.getRow(4).getCell(0).getCellFormula());
+		}
+	}
+
+	/**
+	 * Teste: Fórmulas de outras abas e nomes definidos acompanham as colunas
+	 * movidas.
+	 */
+	@Test
+	@DisplayName("Deve reescrever as referências de outras abas e nomes ao mover colunas")
+	void deveReescreverReferenciasDeOutrasAbasAoMoverColunas() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			for (int linha = 1; linha <= 4; linha++) {
+				planilha.selecionar().celula("A" + linha).inserir("p" + linha);
+				planilha.selecionar().celula("B" + linha).inserir(linha * 10);
+			}
+			Workbook workbook = planilha.obterWorkbook();
+			Sheet resumo = workbook.createSheet("Resumo");
+			resumo.createRow(0).createCell(0).setCellFormula("Dados!B2");
+			resumo.createRow(1).createCell(0).setCellFormula("SUM(Dados!B2:B4)");
+			resumo.createRow(2).createCell(0).setCellFormula("B2");
+			Name quantidades = workbook.createName();
+			quantidades.setNameName("Quantidades");
+			quantidades.setRefersToFormula("Dados!$B$2:$B$4");
+
+			planilha.manipularPlanilha().moverColuna("B", "A");
+			assertEquals("Dados!A2", resumo.getRow(0).getCell(0).getCellFormula());
+			assertEquals("SUM(Dados!A2:A4)", resumo.getRow(1).getCell(0).getCellFormula());
+			assertEquals("B2", resumo.getRow(2).getCell(0).getCellFormula());
+			assertEquals("Dados!$A$2:$A$4", quantidades.getRefersToFormula());
+			FormulaEvaluator avaliador = workbook.getCreationHelper().createFormulaEvaluator();
+			assertEquals(90, avaliador.evaluate(resumo.getRow(1).getCell(0)).getNumberValue());
+
+			planilha.manipularPlanilha().removerColunas("A");
+			assertEquals("Dados!#REF!", resumo.getRow(0).getCell(0).getCellFormula());
+			assertEquals("B2", resumo.getRow(2).getCell(0).getCellFormula());
+		}
+	}
+
+	private String linha(Sheet sheet, int indice) {
+		StringBuilder texto = new StringBuilder();
+		for (int coluna = 0; coluna < 4; coluna++) {
+			Cell celula = sheet.getRow(indice).getCell(coluna);
+			texto.append(coluna > 0 ? " " : "").append(celula == null ? "" : celula.getStringCellValue());
+		}
+		return texto.toString();
+	}
+}
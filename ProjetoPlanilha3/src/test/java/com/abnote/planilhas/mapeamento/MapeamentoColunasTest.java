@@ -0,0 +1,116 @@
+package com.abnote.planilhas.mapeamento;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o MapeamentoColunas e inserirObjetos.
+ */
+class MapeamentoColunasTest {
+
+	static class Pedido {
+		@ColunaPlanilha(nome = "Cliente", ordem = 2)
+		private final String cliente;
+
+		@ColunaPlanilha(nome = "Número", ordem = 1)
+		private final long numero;
+
+		@ColunaPlanilha(ordem = 3)
+		private final LocalDate emissao;
+
+		private final BigDecimal total;
+
+		Pedido(long numero, String cliente, LocalDate emissao, BigDecimal total) {
+			this.numero = numero;
+			this.cliente = cliente;
+			this.emissao = emissao;
+			this.total = total;
+		}
+
+		@ColunaPlanilha(nome = "Total", ordem = 4)
+		public BigDecimal getTotal() {
+			return total;
+		}
+
+		public String getCliente() {
+			return cliente;
+		}
+	}
+
+	private final List<Pedido> pedidos = Arrays.asList(
+			new Pedido(1, "00123", LocalDate.of(2024, 1, 15), new BigDecimal("10.50")),
+			new Pedido(2, "Maria", null, new BigDecimal("1234.56")));
+
+	@Test
+	@DisplayName("Deve mapear campos e métodos anotados na ordem definida")
+	void deveMapearAnotacoes() throws Exception {
+		MapeamentoColunas<Pedido> mapeamento = MapeamentoColunas.deAnotacoes(Pedido.class);
+
+		assertSame(mapeamento, MapeamentoColunas.deAnotacoes(Pedido.class), "O mapeamento deve ficar em cache");
+		assertEquals(4, mapeamento.getQuantidadeColunas());
+		assertEquals("Número", mapeamento.getCabecalho(0));
+		assertEquals("emissao", mapeamento.getCabecalho(2));
+		assertEquals(new BigDecimal("10.50"), mapeamento.extrair(pedidos.get(0), 3));
+	}
+
+	@Test
+	@DisplayName("Deve inserir objetos com cabeçalho e tipos nativos")
+	void deveInserirObjetosComTiposNativos() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Pedidos");
+			planilha.selecionar().celula("B2").inserirObjetos(pedidos, Pedido.class);
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			Row cabecalho = sheet.getRow(1);
+			assertEquals("Número", cabecalho.getCell(1).getStringCellValue());
+			assertEquals("Total", cabecalho.getCell(4).getStringCellValue());
+
+			Row primeiro = sheet.getRow(2);
+			assertEquals(1.0, primeiro.getCell(1).getNumericCellValue());
+			assertEquals("00123", primeiro.getCell(2).getStringCellValue(), "Strings não passam pela inferência");
+			assertTrue(DateUtil.isCellDateFormatted(primeiro.getCell(3)));
+			assertEquals(10.5, primeiro.getCell(4).getNumericCellValue());
+
+			assertNull(sheet.getRow(3).getCell(3), "Valores nulos não criam célula");
+		}
+	}
+
+	@Test
+	@DisplayName("Deve inserir objetos com mapeamento montado pelo builder")
+	void deveInserirObjetosComBuilder() throws Exception {
+		MapeamentoColunas<Pedido> mapeamento = MapeamentoColunas.para(Pedido.class)
+				.coluna("Cliente", Pedido::getCliente)
+				.coluna("Total com taxa", p -> p.getTotal().doubleValue() * 1.1)
+				.semCabecalho()
+				.construir();
+
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Pedidos");
+			planilha.selecionar().celula("A1").inserirObjetos(pedidos, mapeamento);
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals("Maria", sheet.getRow(1).getCell(0).getStringCellValue());
+			assertEquals(1234.56 * 1.1, sheet.getRow(1).getCell(1).getNumericCellValue(), 0.0001);
+			assertEquals(2, planilha.getNumeroDeLinhas("A"));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recusar classe sem membros anotados")
+	void deveRecusarClasseSemAnotacoes() {
+		assertThrows(IllegalArgumentException.class, () -> MapeamentoColunas.deAnotacoes(String.class));
+	}
+}
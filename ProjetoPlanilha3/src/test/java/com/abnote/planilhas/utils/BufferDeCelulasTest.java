@@ -0,0 +1,57 @@
+package com.abnote.planilhas.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para o BufferDeCelulas.
+ */
+class BufferDeCelulasTest {
+
+	@Test
+	@DisplayName("Deve guardar e restaurar cada tipo de célula com o seu estilo, reaproveitando o buffer")
+	void deveGuardarERestaurarCelulas() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Buffer");
+			CellStyle estilo = workbook.createCellStyle();
+			Row origem = sheet.createRow(0);
+			origem.createCell(0).setCellValue(1.5);
+			origem.createCell(1).setCellValue("texto");
+			origem.createCell(2).setCellValue(true);
+			origem.createCell(3).setCellFormula("A1*2");
+			origem.createCell(4).setCellErrorValue(FormulaError.DIV0.getCode());
+			origem.createCell(5).setCellStyle(estilo);
+			origem.getCell(1).setCellStyle(estilo);
+
+			BufferDeCelulas buffer = new BufferDeCelulas();
+			for (int rodada = 0; rodada < 3; rodada++) {
+				buffer.limpar();
+				for (int coluna = 0; coluna <= 5; coluna++) {
+					buffer.guardar(origem.getCell(coluna), coluna);
+				}
+			}
+			assertEquals(6, buffer.tamanho());
+
+			Row destino = sheet.createRow(1);
+			for (int posicao = 0; posicao < buffer.tamanho(); posicao++) {
+				buffer.restaurar(posicao, destino.createCell(buffer.coluna(posicao)));
+			}
+			assertEquals(1.5, destino.getCell(0).getNumericCellValue());
+			assertEquals("texto", destino.getCell(1).getStringCellValue());
+			assertEquals(estilo.getIndex(), destino.getCell(1).getCellStyle().getIndex());
+			assertTrue(destino.getCell(2).getBooleanCellValue());
+			assertEquals("A1*2", destino.getCell(3).getCellFormula());
+			assertEquals(FormulaError.DIV0.getCode(), destino.getCell(4).getErrorCellValue());
+			assertEquals(CellType.BLANK, destino.getCell(5).getCellType());
+			assertEquals(estilo.getIndex(), destino.getCell(5).getCellStyle().getIndex());
+		}
+	}
+}
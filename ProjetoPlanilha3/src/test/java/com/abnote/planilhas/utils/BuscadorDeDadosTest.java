@@ -0,0 +1,223 @@
+package com.abnote.planilhas.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.ComparisonOperator;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.DataValidationHelper;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IBuscaDados;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o BuscadorDeDados.
+ */
+class BuscadorDeDadosTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("Deve encontrar textos e números da lista e do arquivo, na ordem da planilha")
+	void deveBuscarValoresNaColuna() throws Exception {
+		try (IPlanilha planilha = criarPlanilhaComDados()) {
+			IBuscaDados busca = planilha.buscarDados();
+
+			assertEquals(Arrays.asList("c1", "c3"),
+					valores(busca.buscarDadosDeEm(Arrays.asList("30", "inexistente", "10.0", "30"), "B"), 0));
+			assertEquals(Arrays.asList("c5"), valores(busca.buscarDadosDeEm(Arrays.asList(" c5 "), "A"), 0));
+			assertEquals(Arrays.asList("c2", "c4"),
+					valores(busca.buscarDadosDeEm(Arrays.asList("20,0", "4e1", "1.234,5"), "B"), 0));
+
+			planilha.selecionar().celula("C1").inserir("true");
+			planilha.selecionar().celula("C2").inserir("falso");
+			planilha.selecionar().celula("C3").inserir("15/03/2024");
+			assertEquals(Arrays.asList("c1"), valores(busca.buscarDadosDeEm(Arrays.asList("true"), "C"), 0));
+			assertEquals(Arrays.asList("c1", "c2"),
+					valores(busca.buscarDadosDeEm(Arrays.asList("verdadeiro", "FALSE"), "C"), 0));
+			assertEquals(Arrays.asList("c3"), valores(busca.buscarDadosDeEm(Arrays.asList("2024-03-15"), "C"), 0));
+			assertEquals(Arrays.asList("c3"), valores(busca.buscarDadosDeEm(Arrays.asList("15/03/2024"), "C"), 0));
+
+			Path arquivo = tempDir.resolve("codigos.csv");
+			Files.write(arquivo, Arrays.asList("c2;c4", "c6"), StandardCharsets.UTF_8);
+			assertEquals(Arrays.asList("c2", "c4", "c6"), valores(busca.buscarDadosDeEm(arquivo.toString(), ";", "A"), 0));
+			assertTrue(busca.buscarDadosDeEm(new ArrayList<>(), "A").isEmpty());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve remover linhas em lote, compactando a aba e ajustando as fórmulas")
+	void deveRemoverLinhasEmLote() throws Exception {
+		try (IPlanilha planilha = criarPlanilhaComDados()) {
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			sheet.getRow(0).createCell(2).setCellFormula("B5*2");
+			sheet.getRow(1).createCell(2).setCellFormula("B4+1");
+			sheet.createRow(7).createCell(1).setCellFormula("SUM(B1:B6)");
+			Sheet resumo = planilha.obterWorkbook().createSheet("Resumo");
+			resumo.createRow(0).createCell(0).setCellFormula("Dados!B5");
+			resumo.createRow(1).createCell(0).setCellFormula("Dados!B2");
+			resumo.createRow(2).createCell(0).setCellFormula("B5");
+			Name faixa = planilha.obterWorkbook().createName();
+			faixa.setNameName("Valores");
+			faixa.setRefersToFormula("Dados!$B$1:$B$6");
+
+			IBuscaDados busca = planilha.buscarDados();
+			busca.removerLinhas(busca.buscarDadosDeEm(Arrays.asList("c2", "c4", "c2"), "A"));
+
+			assertEquals(Arrays.asList("c1", "c3", "c5", "c6"), valores(linhas(sheet), 0));
+			assertEquals(50, sheet.getRow(2).getCell(1).getNumericCellValue());
+			assertEquals("B3*2", sheet.getRow(0).getCell(2).getCellFormula());
+			assertEquals("SUM(B1:B4)", sheet.getRow(5).getCell(1).getCellFormula());
+			assertEquals(5, sheet.getLastRowNum());
+			assertNull(sheet.getRow(4));
+			assertEquals(4, planilha.getNumeroDeLinhas("A"));
+			assertEquals("Dados!B3", resumo.getRow(0).getCell(0).getCellFormula());
+			assertEquals("Dados!#REF!", resumo.getRow(1).getCell(0).getCellFormula());
+			assertEquals("B5", resumo.getRow(2).getCell(0).getCellFormula());
+			assertEquals("Dados!$B$1:$B$4", faixa.getRefersToFormula());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve subir mescladas, hiperlinks e comentários e manter formatação condicional e validação")
+	void deveAjustarAnexosAoRemoverLinhas() throws Exception {
+		try (IPlanilha planilha = criarPlanilhaComDados()) {
+			Workbook workbook = planilha.obterWorkbook();
+			Sheet sheet = workbook.getSheetAt(0);
+			sheet.addMergedRegion(CellRangeAddress.valueOf("A5:B6"));
+			sheet.addMergedRegion(CellRangeAddress.valueOf("C2:C3"));
+			adicionarHiperlink(sheet, "A5", "https://exemplo.com/c5");
+			adicionarHiperlink(sheet, "A2", "https://exemplo.com/c2");
+			adicionarComentario(sheet, "B6", "sobe");
+			adicionarComentario(sheet, "A4", "some");
+			SheetConditionalFormatting formatacoes = sheet.getSheetConditionalFormatting();
+			formatacoes.addConditionalFormatting(new CellRangeAddress[] { CellRangeAddress.valueOf("B5:B6") },
+					formatacoes.createConditionalFormattingRule(ComparisonOperator.GT, "0"));
+			DataValidationHelper validacoes = sheet.getDataValidationHelper();
+			sheet.addValidationData(validacoes.createValidation(
+					validacoes.createExplicitListConstraint(new String[] { "x", "y" }),
+					new CellRangeAddressList(4, 4, 2, 2)));
+
+			IBuscaDados busca = planilha.buscarDados();
+			busca.removerLinhas(busca.buscarDadosDeEm(Arrays.asList("c2", "c4"), "A"));
+
+			assertEquals(Arrays.asList(CellRangeAddress.valueOf("A3:B4")), sheet.getMergedRegions(),
+					"C2:C3 ficou com uma célula e deixou de ser mesclada");
+			assertEquals(1, sheet.getHyperlinkList().size());
+			assertEquals("https://exemplo.com/c5", sheet.getRow(2).getCell(0).getHyperlink().getAddress());
+			assertEquals(1, sheet.getCellComments().size());
+			assertEquals("sobe", sheet.getCellComment(new CellAddress("B4")).getString().getString());
+			// Limitação documentada: intervalos mantidos como estavam
+			assertArrayEquals(new CellRangeAddress[] { CellRangeAddress.valueOf("B5:B6") },
+					formatacoes.getConditionalFormattingAt(0).getFormattingRanges());
+			assertEquals("C5", sheet.getDataValidations().get(0).getRegions().getCellRangeAddress(0)
+					.formatAsString());
+
+			ByteArrayOutputStream saida = new ByteArrayOutputStream();
+			workbook.write(saida);
+			try (Workbook relido = new XSSFWorkbook(new ByteArrayInputStream(saida.toByteArray()))) {
+				Sheet aba = relido.getSheetAt(0);
+				assertEquals("sobe", aba.getCellComment(new CellAddress("B4")).getString().getString());
+				assertEquals("https://exemplo.com/c5", aba.getRow(2).getCell(0).getHyperlink().getAddress());
+				assertEquals(Arrays.asList(CellRangeAddress.valueOf("A3:B4")), aba.getMergedRegions());
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Deve copiar e mover linhas para outras abas, acrescentando ao final")
+	void deveCopiarEMoverLinhasParaAbas() throws Exception {
+		try (IPlanilha planilha = criarPlanilhaComDados()) {
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			IBuscaDados busca = planilha.buscarDados();
+
+			busca.salvarLinhasEmNovaAba(busca.buscarDadosDeEm(Arrays.asList("10", "60"), "B"), "Encontradas");
+			busca.moverLinhasParaAba(busca.buscarDadosDeEm(Arrays.asList("c3"), "A"), "Encontradas");
+
+			Sheet encontradas = planilha.obterWorkbook().getSheet("Encontradas");
+			assertEquals(Arrays.asList("c1", "c6", "c3"), valores(linhas(encontradas), 0));
+			assertEquals(60, encontradas.getRow(1).getCell(1).getNumericCellValue());
+			assertEquals(Arrays.asList("c1", "c2", "c4", "c5", "c6"), valores(linhas(sheet), 0));
+			assertThrows(IllegalArgumentException.class,
+					() -> busca.salvarLinhasEmNovaAba(new ArrayList<>(), "Encontradas"));
+			assertThrows(IllegalArgumentException.class, () -> busca.copiarLinhasParaAba(new ArrayList<>(), "Nada"));
+
+			planilha.selecionarSheet("Encontradas");
+			assertEquals(3, planilha.getNumeroDeLinhas("A"));
+		}
+	}
+
+	private IPlanilha criarPlanilhaComDados() {
+		IPlanilha planilha = new PlanilhaXlsx();
+		planilha.criarPlanilha("Dados");
+		for (int linha = 1; linha <= 6; linha++) {
+			planilha.selecionar().celula("A" + linha).inserir("c" + linha);
+			planilha.selecionar().celula("B" + linha).inserir(linha * 10);
+		}
+		return planilha;
+	}
+
+	private void adicionarHiperlink(Sheet sheet, String endereco, String destino) {
+		CellAddress posicao = new CellAddress(endereco);
+		Hyperlink link = sheet.getWorkbook().getCreationHelper().createHyperlink(HyperlinkType.URL);
+		link.setAddress(destino);
+		sheet.getRow(posicao.getRow()).getCell(posicao.getColumn()).setHyperlink(link);
+	}
+
+	private void adicionarComentario(Sheet sheet, String endereco, String texto) {
+		CellAddress posicao = new CellAddress(endereco);
+		CreationHelper criador = sheet.getWorkbook().getCreationHelper();
+		ClientAnchor ancora = criador.createClientAnchor();
+		ancora.setRow1(posicao.getRow());
+		ancora.setCol1(posicao.getColumn());
+		ancora.setRow2(posicao.getRow() + 2);
+		ancora.setCol2(posicao.getColumn() + 2);
+		Comment comentario = sheet.createDrawingPatriarch().createCellComment(ancora);
+		comentario.setString(criador.createRichTextString(texto));
+		sheet.getRow(posicao.getRow()).getCell(posicao.getColumn()).setCellComment(comentario);
+	}
+
+	private List<Row> linhas(Sheet sheet) {
+		List<Row> linhas = new ArrayList<>();
+		for (Row row : sheet) {
+			if (row.getCell(0) != null) {
+				linhas.add(row);
+			}
+		}
+		return linhas;
+	}
+
+	private List<String> valores(List<Row> linhas, int coluna) {
+		List<String> valores = new ArrayList<>();
+		for (Row row : linhas) {
+			valores.add(row.getCell(coluna).getStringCellValue());
+		}
+		return valores;
+	}
+}
@@ -0,0 +1,103 @@
+package com.abnote.planilhas.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o ClassificadorDeValores.
+ */
+class ClassificadorDeValoresTest {
+
+	private final ClassificadorDeValores classificador = new ClassificadorDeValores();
+
+	@Test
+	@DisplayName("Deve classificar inteiros e decimais com o mesmo valor de Double.parseDouble")
+	void deveClassificarNumeros() {
+		String[] inteiros = { "42", "-7", "+3", "007", "12345678901234567890" };
+		for (String valor : inteiros) {
+			assertEquals(TipoValor.INTEIRO, classificador.classificar(valor), valor);
+			assertEquals(Double.parseDouble(valor), classificador.getNumero(), valor);
+		}
+
+		String[] decimais = { "3.14", "-0.001", ".5", "5.", "1.234", "1e5", "2.5E-3", "0.1234567890123456789" };
+		for (String valor : decimais) {
+			assertEquals(TipoValor.DECIMAL, classificador.classificar(valor), valor);
+			assertEquals(Double.parseDouble(valor), classificador.getNumero(), valor);
+		}
+	}
+
+	@Test
+	@DisplayName("Deve classificar números no formato brasileiro")
+	void deveClassificarDecimalBrasileiro() {
+		assertEquals(TipoValor.DECIMAL_BR, classificador.classificar("1.234,56"));
+		assertEquals(1234.56, classificador.getNumero());
+
+		assertEquals(TipoValor.DECIMAL_BR, classificador.classificar("-0,5"));
+		assertEquals(-0.5, classificador.getNumero());
+
+		assertEquals(TipoValor.DECIMAL_BR, classificador.classificar("1.234.567"));
+		assertEquals(1234567.0, classificador.getNumero());
+
+		assertEquals(TipoValor.TEXTO, classificador.classificar("1.23,4.5"));
+		assertEquals(TipoValor.TEXTO, classificador.classificar("1234.567,8"));
+	}
+
+	@Test
+	@DisplayName("Deve classificar datas válidas e recusar datas inexistentes")
+	void deveClassificarDatas() {
+		assertEquals(TipoValor.DATA, classificador.classificar("25/12/2024"));
+		assertEquals(LocalDate.of(2024, 12, 25), classificador.getData());
+
+		assertEquals(TipoValor.DATA, classificador.classificar("2024-02-29"));
+		assertEquals(LocalDate.of(2024, 2, 29), classificador.getData());
+
+		assertEquals(TipoValor.DATA, classificador.classificar("1/2/2023"));
+		assertEquals(LocalDate.of(2023, 2, 1), classificador.getData());
+
+		assertEquals(TipoValor.TEXTO, classificador.classificar("29/02/2023"));
+		assertEquals(TipoValor.TEXTO, classificador.classificar("31/04/2024"));
+	}
+
+	@Test
+	@DisplayName("Deve classificar booleanos e manter textos como texto")
+	void deveClassificarBooleanosETextos() {
+		assertEquals(TipoValor.BOOLEANO, classificador.classificar("TRUE"));
+		assertTrue(classificador.getBooleano());
+		assertEquals(TipoValor.BOOLEANO, classificador.classificar("Falso"));
+		assertFalse(classificador.getBooleano());
+
+		String[] textos = { "João da Silva", "123.456.789-09", "12.345.678/0001-90", "NaN", "Infinity", "1d", "-",
+				"1e", "R$ 10" };
+		for (String valor : textos) {
+			assertEquals(TipoValor.TEXTO, classificador.classificar(valor), valor);
+		}
+	}
+
+	@Test
+	@DisplayName("Deve respeitar o tipo definido para a coluna sem inferir")
+	void deveRespeitarTipoDaColuna() throws Exception {
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Tipos");
+			planilha.definirTipoColuna("A", TipoValor.TEXTO).definirTipoColuna("B", TipoValor.DECIMAL_BR);
+			planilha.selecionar().celula("A1").inserirDados(Arrays.asList("00123", "1234,5", "10/10/2024"));
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			Row linha = sheet.getRow(0);
+			assertEquals("00123", linha.getCell(0).getStringCellValue());
+			assertEquals(1234.5, linha.getCell(1).getNumericCellValue());
+			assertEquals(CellType.NUMERIC, linha.getCell(2).getCellType());
+			assertEquals(LocalDate.of(2024, 10, 10), linha.getCell(2).getLocalDateTimeCellValue().toLocalDate());
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.abnote.planilhas.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abnote.planilhas.exceptions.DadosInvalidosException;
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o ImportadorCsvParalelo.
+ */
+class ImportadorCsvParaleloTest {
+
+	private static final int REGISTROS = 3000;
+
+	@TempDir
+	Path pastaTemporaria;
+
+	@Test
+	@DisplayName("Deve manter a ordem e os valores com blocos pequenos e aspas com quebra de linha")
+	void deveManterOrdemComBlocosPequenos() throws Exception {
+		String conteudo = gerarConteudo();
+		int registro = 0;
+
+		// Blocos de 64 caracteres forçam cortes no meio de campos entre aspas
+		try (ImportadorCsvParalelo importador = new ImportadorCsvParalelo(new StringReader(conteudo), ";", null, 4,
+				64)) {
+			ImportadorCsvParalelo.Bloco bloco;
+			while ((bloco = importador.proximoBloco()) != null) {
+				for (int r = 0; r < bloco.getQuantidadeRegistros(); r++) {
+					int inicio = bloco.getInicioRegistro(r);
+					assertEquals(TipoValor.INTEIRO, bloco.getTipo(inicio));
+					assertEquals(registro, bloco.getNumero(inicio));
+					assertEquals("Nome; " + registro + "\r\n\"fim\"", bloco.getTexto(inicio + 1));
+					assertEquals(TipoValor.DECIMAL_BR, bloco.getTipo(inicio + 2));
+					registro++;
+				}
+			}
+		}
+		assertEquals(REGISTROS, registro);
+	}
+
+	@Test
+	@DisplayName("Deve gerar a mesma planilha que a leitura sequencial")
+	void deveGerarMesmaPlanilhaQueSequencial() throws Exception {
+		Path arquivo = pastaTemporaria.resolve("dados.csv");
+		Files.write(arquivo, gerarConteudo().getBytes(StandardCharsets.UTF_8));
+
+		try (IPlanilha sequencial = new PlanilhaXlsx(); IPlanilha paralela = new PlanilhaXlsx()) {
+			sequencial.criarPlanilha("Dados");
+			sequencial.selecionar().celula("B2").inserirDadosArquivo(arquivo.toString(), ";", StandardCharsets.UTF_8);
+			paralela.criarPlanilha("Dados");
+			paralela.selecionar().celula("B2").inserirDadosArquivo(arquivo.toString(), ";", StandardCharsets.UTF_8, 4);
+
+			Sheet esperado = sequencial.obterWorkbook().getSheetAt(0);
+			Sheet obtido = paralela.obterWorkbook().getSheetAt(0);
+			assertEquals(esperado.getLastRowNum(), obtido.getLastRowNum());
+			for (int i = 0; i <= esperado.getLastRowNum(); i++) {
+				Row linhaEsperada = esperado.getRow(i);
+				Row linhaObtida = obtido.getRow(i);
+				if (linhaEsperada == null) {
+					assertNull(linhaObtida);
+					continue;
+				}
+				assertEquals(linhaEsperada.getLastCellNum(), linhaObtida.getLastCellNum(), "Linha " + i);
+				for (Cell celula : linhaEsperada) {
+					Cell outra = linhaObtida.getCell(celula.getColumnIndex());
+					assertEquals(celula.getCellType(), outra.getCellType(), "Célula " + celula.getAddress());
+					assertEquals(celula.toString(), outra.toString(), "Célula " + celula.getAddress());
+				}
+			}
+			assertEquals(sequencial.getNumeroDeLinhas("B"), paralela.getNumeroDeLinhas("B"));
+		}
+	}
+
+	@Test
+	@DisplayName("Deve propagar erro de aspas não fechadas para quem consome os blocos")
+	void devePropagarErroDeAspas() throws Exception {
+		try (ImportadorCsvParalelo importador = new ImportadorCsvParalelo(new StringReader("1;\"aberto\n2;3"), ";",
+				null, 2, 64)) {
+			assertThrows(DadosInvalidosException.class, () -> {
+				while (importador.proximoBloco() != null) {
+					// consome até o erro
+				}
+			});
+		}
+	}
+
+	private String gerarConteudo() {
+		StringBuilder conteudo = new StringBuilder();
+		for (int i = 0; i < REGISTROS; i++) {
+			conteudo.append(i).append(";\"Nome; ").append(i).append("\r\n\"\"fim\"\"\";")
+					.append(i).append(",5;").append(i % 2 == 0 ? "true" : "25/12/2024").append(";\r\n");
+		}
+		return conteudo.toString();
+	}
+}
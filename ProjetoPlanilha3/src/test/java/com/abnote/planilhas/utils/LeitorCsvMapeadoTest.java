@@ -0,0 +1,147 @@
+package com.abnote.planilhas.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abnote.planilhas.exceptions.DadosInvalidosException;
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o LeitorCsvMapeado.
+ */
+class LeitorCsvMapeadoTest {
+
+	private static final String CONTEUDO = "1; \"Ação; \"\"x\"\"\r\nfim\" ;2,5\n"
+			+ "São Paulo;25/12/2024;true\r"
+			+ "  ;  3.4 ;\n"
+			+ "\"\"\"\";último";
+
+	@TempDir
+	Path pastaTemporaria;
+
+	@Test
+	@DisplayName("Deve ler os mesmos campos que o LeitorCsv em UTF-8 e ISO-8859-1")
+	void deveLerMesmosCamposQueLeitorCsv() throws Exception {
+		compararComLeitorCsv(StandardCharsets.UTF_8, ";", LeitorCsvMapeado.TAMANHO_JANELA_PADRAO);
+		compararComLeitorCsv(StandardCharsets.ISO_8859_1, ";", LeitorCsvMapeado.TAMANHO_JANELA_PADRAO);
+	}
+
+	@Test
+	@DisplayName("Deve atravessar janelas pequenas com delimitador de vários bytes")
+	void deveAtravessarJanelasPequenas() throws Exception {
+		compararComLeitorCsv(StandardCharsets.UTF_8, "§|", 16);
+	}
+
+	@Test
+	@DisplayName("Deve liberar cada janela ao avançar e ao fechar, sem bloquear o arquivo")
+	void deveLiberarJanelas() throws Exception {
+		Path arquivo = escrever(CONTEUDO, StandardCharsets.UTF_8);
+
+		LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo.toString(), ";", StandardCharsets.UTF_8, 16);
+		try {
+			while (leitor.proximoRegistro()) {
+				assertTrue(leitor.getJanelasMapeadas() - leitor.getJanelasLiberadas() <= 1);
+			}
+			assertTrue(leitor.getJanelasMapeadas() > 1);
+		} finally {
+			leitor.close();
+		}
+		assertEquals(leitor.getJanelasMapeadas(), leitor.getJanelasLiberadas());
+		Files.delete(arquivo);
+	}
+
+	@Test
+	@DisplayName("Deve classificar números a partir dos bytes sem decodificar")
+	void deveClassificarCampoBruto() throws Exception {
+		Path arquivo = escrever("12;1.234,5;texto\n", StandardCharsets.UTF_8);
+		ClassificadorDeValores classificador = new ClassificadorDeValores();
+
+		try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo.toString(), ";", StandardCharsets.UTF_8)) {
+			assertTrue(leitor.proximoRegistro());
+			assertEquals(TipoValor.INTEIRO, classificador.classificar(leitor.getCampoBruto(0)));
+			assertEquals(12.0, classificador.getNumero());
+			assertEquals(TipoValor.DECIMAL_BR, classificador.classificar(leitor.getCampoBruto(1)));
+			assertEquals(1234.5, classificador.getNumero());
+			assertEquals(TipoValor.TEXTO, classificador.classificar(leitor.getCampoBruto(2)));
+			assertFalse(leitor.proximoRegistro());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar aspas não fechadas e codificações não suportadas")
+	void deveRejeitarEntradasInvalidas() throws Exception {
+		Path arquivo = escrever("1;\"aberto\n2;3", StandardCharsets.UTF_8);
+		try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo.toString(), ";", StandardCharsets.UTF_8)) {
+			assertThrows(DadosInvalidosException.class, leitor::proximoRegistro);
+		}
+		assertThrows(IllegalArgumentException.class,
+				() -> new LeitorCsvMapeado(arquivo.toString(), ";", StandardCharsets.UTF_16));
+	}
+
+	@Test
+	@DisplayName("Deve gerar a mesma planilha que a leitura sequencial")
+	void deveGerarMesmaPlanilhaQueSequencial() throws Exception {
+		Path arquivo = escrever(CONTEUDO, StandardCharsets.UTF_8);
+
+		try (IPlanilha sequencial = new PlanilhaXlsx(); IPlanilha mapeada = new PlanilhaXlsx()) {
+			sequencial.criarPlanilha("Dados");
+			sequencial.selecionar().celula("B2").inserirDadosArquivo(arquivo.toString(), ";", StandardCharsets.UTF_8);
+			mapeada.criarPlanilha("Dados");
+			mapeada.selecionar().celula("B2").inserirDadosArquivoMapeado(arquivo.toString(), ";",
+					StandardCharsets.UTF_8);
+
+			Sheet esperado = sequencial.obterWorkbook().getSheetAt(0);
+			Sheet obtido = mapeada.obterWorkbook().getSheetAt(0);
+			assertEquals(esperado.getLastRowNum(), obtido.getLastRowNum());
+			for (Row linhaEsperada : esperado) {
+				Row linhaObtida = obtido.getRow(linhaEsperada.getRowNum());
+				assertEquals(linhaEsperada.getLastCellNum(), linhaObtida.getLastCellNum());
+				for (Cell celula : linhaEsperada) {
+					Cell outra = linhaObtida.getCell(celula.getColumnIndex());
+					assertEquals(celula.getCellType(), outra.getCellType(), "Célula " + celula.getAddress());
+					assertEquals(celula.toString(), outra.toString(), "Célula " + celula.getAddress());
+				}
+			}
+			assertEquals(sequencial.getNumeroDeLinhas("B"), mapeada.getNumeroDeLinhas("B"));
+		}
+	}
+
+	private void compararComLeitorCsv(Charset charset, String delimitador, int tamanhoJanela) throws Exception {
+		String conteudo = CONTEUDO.replace(";", delimitador);
+		Path arquivo = escrever(conteudo, charset);
+
+		try (LeitorCsv esperado = new LeitorCsv(new StringReader(conteudo), delimitador);
+				LeitorCsvMapeado obtido = new LeitorCsvMapeado(arquivo.toString(), delimitador, charset,
+						tamanhoJanela)) {
+			while (esperado.proximoRegistro()) {
+				assertTrue(obtido.proximoRegistro());
+				assertEquals(esperado.getQuantidadeCampos(), obtido.getQuantidadeCampos());
+				for (int i = 0; i < esperado.getQuantidadeCampos(); i++) {
+					assertEquals(esperado.getCampo(i), obtido.getCampo(i),
+							"Registro " + esperado.getNumeroRegistro() + ", campo " + i);
+					assertEquals(esperado.isCampoVazio(i), obtido.isCampoVazio(i));
+				}
+			}
+			assertFalse(obtido.proximoRegistro());
+		}
+	}
+
+	private Path escrever(String conteudo, Charset charset) throws Exception {
+		Path arquivo = Files.createTempFile(pastaTemporaria, "dados", ".csv");
+		Files.write(arquivo, conteudo.getBytes(charset));
+		return arquivo;
+	}
+}
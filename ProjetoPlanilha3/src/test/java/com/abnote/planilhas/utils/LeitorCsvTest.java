@@ -0,0 +1,115 @@
+package com.abnote.planilhas.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abnote.planilhas.exceptions.DadosInvalidosException;
+import com.abnote.planilhas.impl.PlanilhaXlsx;
+import com.abnote.planilhas.interfaces.IPlanilha;
+
+/**
+ * Testes unitários para o LeitorCsv.
+ */
+class LeitorCsvTest {
+
+	@TempDir
+	Path pastaTemporaria;
+
+	@Test
+	@DisplayName("Deve separar campos simples e remover espaços das extremidades")
+	void deveSepararCamposSimples() throws IOException {
+		List<List<String>> registros = ler("a; b ;c\n1;2;3\n", ";");
+
+		assertEquals(Arrays.asList("a", "b", "c"), registros.get(0));
+		assertEquals(Arrays.asList("1", "2", "3"), registros.get(1));
+		assertEquals(2, registros.size());
+	}
+
+	@Test
+	@DisplayName("Deve aceitar delimitador e quebra de linha dentro de aspas")
+	void deveAceitarDelimitadorEQuebraDentroDeAspas() throws IOException {
+		List<List<String>> registros = ler("\"Silva, João\",\"Rua A\r\nApto 2\",3\r\nx,y,z", ",");
+
+		assertEquals(Arrays.asList("Silva, João", "Rua A\r\nApto 2", "3"), registros.get(0));
+		assertEquals(Arrays.asList("x", "y", "z"), registros.get(1));
+	}
+
+	@Test
+	@DisplayName("Deve converter aspas duplicadas em uma aspa")
+	void deveConverterAspasDuplicadas() throws IOException {
+		List<List<String>> registros = ler("\"Ele disse \"\"oi\"\"\",fim", ",");
+
+		assertEquals(Arrays.asList("Ele disse \"oi\"", "fim"), registros.get(0));
+	}
+
+	@Test
+	@DisplayName("Deve respeitar caractere de escape personalizado")
+	void deveRespeitarEscapePersonalizado() throws IOException {
+		List<String> campos = new ArrayList<>();
+		try (LeitorCsv leitor = new LeitorCsv(new StringReader("\"a\\\"b\";c"), ";", '"', '\\')) {
+			assertTrue(leitor.proximoRegistro());
+			for (int i = 0; i < leitor.getQuantidadeCampos(); i++) {
+				campos.add(leitor.getCampo(i));
+			}
+		}
+		assertEquals(Arrays.asList("a\"b", "c"), campos);
+	}
+
+	@Test
+	@DisplayName("Deve aceitar delimitador com vários caracteres")
+	void deveAceitarDelimitadorComVariosCaracteres() throws IOException {
+		List<List<String>> registros = ler("a||b||c|d", "||");
+
+		assertEquals(Arrays.asList("a", "b", "c|d"), registros.get(0));
+	}
+
+	@Test
+	@DisplayName("Deve lançar exceção quando aspas não forem fechadas")
+	void deveLancarExcecaoAspasAbertas() {
+		assertThrows(DadosInvalidosException.class, () -> ler("\"aberto,1\n2,3", ","));
+	}
+
+	@Test
+	@DisplayName("Deve importar arquivo ISO-8859-1 com o charset informado")
+	void deveImportarArquivoComCharset() throws Exception {
+		Path arquivo = pastaTemporaria.resolve("dados.csv");
+		Files.write(arquivo, "Nome;Cidade\n\"Conceição; Maria\";São Paulo\n".getBytes(StandardCharsets.ISO_8859_1));
+
+		try (IPlanilha planilha = new PlanilhaXlsx()) {
+			planilha.criarPlanilha("Dados");
+			planilha.selecionar().celula("A1").inserirDadosArquivo(arquivo.toString(), ";",
+					StandardCharsets.ISO_8859_1);
+
+			Sheet sheet = planilha.obterWorkbook().getSheetAt(0);
+			assertEquals("Conceição; Maria", sheet.getRow(1).getCell(0).getStringCellValue());
+			assertEquals("São Paulo", sheet.getRow(1).getCell(1).getStringCellValue());
+		}
+	}
+
+	private List<List<String>> ler(String conteudo, String delimitador) throws IOException {
+		List<List<String>> registros = new ArrayList<>();
+		try (LeitorCsv leitor = new LeitorCsv(new StringReader(conteudo), delimitador)) {
+			while (leitor.proximoRegistro()) {
+				List<String> campos = new ArrayList<>();
+				for (int i = 0; i < leitor.getQuantidadeCampos(); i++) {
+					campos.add(leitor.getCampo(i));
+				}
+				registros.add(campos);
+			}
+		}
+		return registros;
+	}
+}